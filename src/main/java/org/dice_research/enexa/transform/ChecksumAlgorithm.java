@@ -0,0 +1,35 @@
+package org.dice_research.enexa.transform;
+
+/**
+ * Supported algorithms for the checksums of the output files.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public enum ChecksumAlgorithm {
+
+    /**
+     * The SHA-256 hash function.
+     */
+    SHA256,
+    /**
+     * The SHA-512 hash function. It is faster than SHA-256 on most 64-bit
+     * platforms without dedicated SHA-256 instructions.
+     */
+    SHA512,
+    /**
+     * The MD5 hash function. It should only be used for compatibility with
+     * existing tools since it is not collision resistant.
+     */
+    MD5,
+    /**
+     * The Adler-32 checksum. It is very fast but only detects accidental
+     * changes.
+     */
+    ADLER32,
+    /**
+     * The CRC-32C checksum. It is very fast (hardware-accelerated on most
+     * platforms) but only detects accidental changes.
+     */
+    CRC32C;
+}
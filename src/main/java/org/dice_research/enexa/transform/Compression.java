@@ -17,7 +17,24 @@ public enum Compression {
      */
     GZIP,
     /**
-     * The file will be compressed using the bzip2 compression.
+     * The file will be compressed using the bzip2 compression. If several
+     * compression threads are available, the blocks are compressed in parallel
+     * as concatenated bzip2 streams (like pbzip2 does).
      */
-    BZIP2;
+    BZIP2,
+    /**
+     * The file will be compressed using the Zstandard compression. If several
+     * compression threads are available, the compression is executed in parallel.
+     */
+    ZSTD,
+    /**
+     * The file will be compressed using the LZ4 frame format.
+     */
+    LZ4,
+    /**
+     * The file will be compressed using the blocked gzip format (BGZF). The
+     * blocks are compressed in parallel and an index (.gzi) is written next to
+     * the file. The file can be decompressed with every gzip implementation.
+     */
+    BGZIP;
 }
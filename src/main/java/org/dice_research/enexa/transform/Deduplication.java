@@ -0,0 +1,31 @@
+package org.dice_research.enexa.transform;
+
+/**
+ * Supported modes for removing duplicate statements from the output.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public enum Deduplication {
+
+    /**
+     * Statements won't be deduplicated.
+     */
+    NONE,
+    /**
+     * Statements are deduplicated using a Bloom filter with a fixed size. The
+     * memory consumption does not grow with the number of statements. However,
+     * a false positive of the filter leads to a unique statement being dropped.
+     * The probability of such an error is defined by the false positive rate
+     * and the expected number of statements.
+     */
+    APPROXIMATE,
+    /**
+     * All duplicate statements are removed and the statements are sorted by
+     * their N-Quads serialization. The statements are collected in sorted runs
+     * that are written to temporary files if the memory budget is reached.
+     * These runs are merged at the end. Hence, the output is only written when
+     * all input files have been read.
+     */
+    EXACT;
+}
@@ -5,7 +5,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import org.aksw.jena_sparql_api.http.QueryExecutionFactoryHttp;
 import org.aksw.jenax.arq.connection.core.QueryExecutionFactory;
@@ -15,18 +20,31 @@ import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.StatusLine;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.WebContent;
+import org.apache.jena.sparql.sse.SSE;
 import org.apache.jena.vocabulary.DCAT;
 import org.apache.jena.vocabulary.RDF;
+import org.dice_research.enexa.transform.filter.StatementFilter;
+import org.dice_research.enexa.transform.metrics.InputFileMetrics;
+import org.dice_research.enexa.transform.metrics.TransformationMetrics;
+import org.dice_research.enexa.transform.progress.ProgressReport;
+import org.dice_research.enexa.transform.stats.DatasetStatistics;
+import org.dice_research.enexa.transform.vocab.SPDX;
 import org.dice_research.enexa.transform.vocab.TransformVocab;
+import org.dice_research.enexa.transform.vocab.VOID;
 import org.dice_research.enexa.utils.EnexaPathUtils;
 import org.dice_research.enexa.vocab.ENEXA;
 import org.dice_research.enexa.vocab.IANAMediaType;
@@ -46,6 +64,12 @@ public class EnexaTransformator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EnexaTransformator.class);
 
+    /**
+     * The name of the JSON file in the module instance directory to which the
+     * metrics of the transformation are written.
+     */
+    public static final String METRICS_SUMMARY_FILE_NAME = "transformation-metrics.json";
+
     protected Resource experiment;
     protected String endpoint;
     protected String metaGraph;
@@ -56,8 +80,44 @@ public class EnexaTransformator {
     protected Model parameterModel;
     protected List<Resource> sourceFiles;
     protected Resource targetMediaResource;
+    protected StatementFilter statementFilter;
+    protected ChecksumAlgorithm checksumAlgorithm = ChecksumAlgorithm.SHA256;
+    /**
+     * The interval in which the progress is reported in seconds ({@code 0}
+     * disables the reporting).
+     */
+    protected long progressInterval = 30;
+    /**
+     * Flag indicating whether statistics of the written statements are
+     * collected. They need all statements to be parsed, i.e., N-Triples and
+     * N-Quads files can't be copied to the output without parsing them.
+     */
+    protected boolean statistics = true;
+    /**
+     * The media types of the files that are written in addition to the output
+     * file.
+     */
+    protected List<Resource> additionalOutputMediaTypes = new ArrayList<>();
+    /**
+     * The compression of the additional output files.
+     */
+    protected Compression additionalOutputCompression = Compression.NONE;
+    /**
+     * The size of a shard in bytes ({@code 0} if the size is not limited).
+     */
+    protected long shardSize = 0;
+    /**
+     * The number of statements of a shard ({@code 0} if the number is not
+     * limited).
+     */
+    protected long shardStatements = 0;
+    /**
+     * The number of partitions ({@code 1} if the output is not partitioned).
+     */
+    protected int partitions = 1;
     protected File outputFile;
-    protected String enexaFileLocation;
+    protected List<ProducedFile> producedFiles;
+    protected TransformationMetrics metrics;
 
     public EnexaTransformator() throws IllegalStateException {
         experiment = ResourceFactory.createResource(getEnvVariable("ENEXA_EXPERIMENT_IRI"));
@@ -93,42 +153,460 @@ public class EnexaTransformator {
             throw new IllegalArgumentException(
                     "The output media type is not an IRI (" + targetMediaResource.toString() + ").");
         }
+        statementFilter = createStatementFilter(parameterModel, moduleInstance);
+        List<String> algorithms = getStringParameters(parameterModel, moduleInstance,
+                TransformVocab.checksumAlgorithm);
+        if (algorithms.size() > 1) {
+            throw new IllegalArgumentException("More than one checksum algorithm has been defined (parameter IRI:"
+                    + TransformVocab.checksumAlgorithm.getURI() + ").");
+        } else if (algorithms.size() == 1) {
+            checksumAlgorithm = parseChecksumAlgorithm(algorithms.get(0));
+        }
+        List<String> intervals = getStringParameters(parameterModel, moduleInstance, TransformVocab.progressInterval);
+        if (intervals.size() > 1) {
+            throw new IllegalArgumentException("More than one progress interval has been defined (parameter IRI:"
+                    + TransformVocab.progressInterval.getURI() + ").");
+        } else if (intervals.size() == 1) {
+            try {
+                progressInterval = Long.parseLong(intervals.get(0).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "The progress interval \"" + intervals.get(0) + "\" is not a number of seconds.", e);
+            }
+            if (progressInterval < 0) {
+                throw new IllegalArgumentException("The progress interval must not be negative.");
+            }
+        }
+        List<String> statisticsFlags = getStringParameters(parameterModel, moduleInstance,
+                TransformVocab.statistics);
+        if (statisticsFlags.size() > 1) {
+            throw new IllegalArgumentException("More than one statistics flag has been defined (parameter IRI:"
+                    + TransformVocab.statistics.getURI() + ").");
+        } else if (statisticsFlags.size() == 1) {
+            String flag = statisticsFlags.get(0).trim();
+            if ("true".equalsIgnoreCase(flag)) {
+                statistics = true;
+            } else if ("false".equalsIgnoreCase(flag)) {
+                statistics = false;
+            } else {
+                throw new IllegalArgumentException(
+                        "The statistics flag \"" + statisticsFlags.get(0) + "\" is neither true nor false.");
+            }
+        }
+        additionalOutputMediaTypes = getIriParameters(parameterModel, moduleInstance,
+                TransformVocab.additionalOutputMediaType);
+        List<String> compressions = getStringParameters(parameterModel, moduleInstance,
+                TransformVocab.additionalOutputCompression);
+        if (compressions.size() > 1) {
+            throw new IllegalArgumentException(
+                    "More than one compression of the additional output files has been defined (parameter IRI:"
+                            + TransformVocab.additionalOutputCompression.getURI() + ").");
+        } else if (compressions.size() == 1) {
+            additionalOutputCompression = parseCompression(compressions.get(0));
+        }
+        shardSize = getLongParameter(parameterModel, moduleInstance, TransformVocab.shardSize, shardSize);
+        shardStatements = getLongParameter(parameterModel, moduleInstance, TransformVocab.shardStatements,
+                shardStatements);
+        long partitionCount = getLongParameter(parameterModel, moduleInstance, TransformVocab.partitions,
+                partitions);
+        if ((partitionCount < 1) || (partitionCount > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("The number of partitions must be a positive integer.");
+        }
+        partitions = (int) partitionCount;
+    }
+
+    /**
+     * Parses the name of a checksum algorithm. The case and hyphens are
+     * ignored, e.g., {@code SHA-256} and {@code sha256} are both accepted.
+     * 
+     * @param name the name of the algorithm
+     * @return the algorithm
+     * @throws IllegalArgumentException if the algorithm is not supported
+     */
+    protected static ChecksumAlgorithm parseChecksumAlgorithm(String name) throws IllegalArgumentException {
+        try {
+            return ChecksumAlgorithm.valueOf(name.replace("-", "").trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported checksum algorithm \"" + name + "\".", e);
+        }
+    }
+
+    /**
+     * Parses the name of a compression. The case is ignored, e.g.,
+     * {@code gzip} and {@code GZIP} are both accepted.
+     * 
+     * @param name the name of the compression
+     * @return the compression
+     * @throws IllegalArgumentException if the compression is not supported
+     */
+    protected static Compression parseCompression(String name) throws IllegalArgumentException {
+        try {
+            return Compression.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported compression \"" + name + "\".", e);
+        }
+    }
+
+    /**
+     * Creates the filter that is applied to the statements based on the filter
+     * parameters of the given module instance. Predicates, graphs and datatypes
+     * are expected as IRIs while languages and patterns are expected as
+     * literals. Patterns are triples in SSE syntax, e.g.,
+     * {@code (?s <http://www.w3.org/2002/07/owl#sameAs> ?o)}, in which variables
+     * match every term.
+     * 
+     * @param parameterModel the part of the meta data graph that has been
+     *                       retrieved for the module instance
+     * @param moduleInstance the module instance
+     * @return the filter (it is empty if no filter parameter has been defined)
+     * @throws IllegalArgumentException if a parameter has an unexpected value
+     */
+    protected static StatementFilter createStatementFilter(Model parameterModel, Resource moduleInstance)
+            throws IllegalArgumentException {
+        StatementFilter filter = new StatementFilter();
+        for (Resource iri : getIriParameters(parameterModel, moduleInstance, TransformVocab.allowedPredicate)) {
+            filter.allowPredicate(iri.asNode());
+        }
+        for (Resource iri : getIriParameters(parameterModel, moduleInstance, TransformVocab.deniedPredicate)) {
+            filter.denyPredicate(iri.asNode());
+        }
+        for (Resource iri : getIriParameters(parameterModel, moduleInstance, TransformVocab.allowedGraph)) {
+            filter.allowGraph(iri.asNode());
+        }
+        for (Resource iri : getIriParameters(parameterModel, moduleInstance, TransformVocab.deniedGraph)) {
+            filter.denyGraph(iri.asNode());
+        }
+        for (Resource iri : getIriParameters(parameterModel, moduleInstance, TransformVocab.allowedDatatype)) {
+            filter.allowDatatype(iri.getURI());
+        }
+        for (Resource iri : getIriParameters(parameterModel, moduleInstance, TransformVocab.deniedDatatype)) {
+            filter.denyDatatype(iri.getURI());
+        }
+        for (String language : getStringParameters(parameterModel, moduleInstance,
+                TransformVocab.allowedLanguage)) {
+            filter.allowLanguage(language);
+        }
+        for (String language : getStringParameters(parameterModel, moduleInstance,
+                TransformVocab.deniedLanguage)) {
+            filter.denyLanguage(language);
+        }
+        for (String pattern : getStringParameters(parameterModel, moduleInstance, TransformVocab.allowedPattern)) {
+            filter.allowPattern(parsePattern(pattern));
+        }
+        for (String pattern : getStringParameters(parameterModel, moduleInstance, TransformVocab.deniedPattern)) {
+            filter.denyPattern(parsePattern(pattern));
+        }
+        return filter;
+    }
+
+    protected static List<Resource> getIriParameters(Model parameterModel, Resource moduleInstance,
+            Property parameter) throws IllegalArgumentException {
+        List<Resource> values = new ArrayList<>();
+        for (RDFNode value : parameterModel.listObjectsOfProperty(moduleInstance, parameter).toList()) {
+            if (!value.isURIResource()) {
+                throw new IllegalArgumentException("The value of the parameter " + parameter.getURI()
+                        + " is not an IRI (" + value.toString() + ").");
+            }
+            values.add(value.asResource());
+        }
+        return values;
+    }
+
+    protected static List<String> getStringParameters(Model parameterModel, Resource moduleInstance,
+            Property parameter) throws IllegalArgumentException {
+        List<String> values = new ArrayList<>();
+        for (RDFNode value : parameterModel.listObjectsOfProperty(moduleInstance, parameter).toList()) {
+            if (!value.isLiteral()) {
+                throw new IllegalArgumentException("The value of the parameter " + parameter.getURI()
+                        + " is not a literal (" + value.toString() + ").");
+            }
+            values.add(value.asLiteral().getLexicalForm());
+        }
+        return values;
+    }
+
+    /**
+     * Returns the value of the given parameter, which has to be a single,
+     * non-negative number.
+     * 
+     * @param parameterModel the part of the meta data graph that has been
+     *                       retrieved for the module instance
+     * @param moduleInstance the module instance
+     * @param parameter      the parameter
+     * @param defaultValue   the value that is returned if the parameter has not
+     *                       been defined
+     * @return the value of the parameter or the given default value
+     * @throws IllegalArgumentException if the parameter has more than one value
+     *                                  or its value is not a non-negative number
+     */
+    protected static long getLongParameter(Model parameterModel, Resource moduleInstance, Property parameter,
+            long defaultValue) throws IllegalArgumentException {
+        List<String> values = getStringParameters(parameterModel, moduleInstance, parameter);
+        if (values.isEmpty()) {
+            return defaultValue;
+        }
+        if (values.size() > 1) {
+            throw new IllegalArgumentException(
+                    "More than one value has been defined for the parameter " + parameter.getURI() + ".");
+        }
+        long value;
+        try {
+            value = Long.parseLong(values.get(0).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value \"" + values.get(0) + "\" of the parameter "
+                    + parameter.getURI() + " is not a number.", e);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("The value of the parameter " + parameter.getURI()
+                    + " must not be negative.");
+        }
+        return value;
+    }
+
+    protected static Triple parsePattern(String pattern) throws IllegalArgumentException {
+        try {
+            return SSE.parseTriple(pattern);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Couldn't parse the triple pattern \"" + pattern + "\".", e);
+        }
     }
 
     protected void executeTransformation() throws Exception {
-        try (Transformator transformator = new TransformatorBuilder().setOutputFormat(targetMediaResource.getURI())
+        TransformatorBuilder builder = new TransformatorBuilder().setOutputFormat(targetMediaResource.getURI())
                 // .setCompression(compression)
                 // .setOutputFileName(outputFile.getName())
-                .setOutputDirectory(new File(outputDir)).build();) {
+                .setParallelism(Runtime.getRuntime().availableProcessors()).setStatementFilter(statementFilter)
+                .setStatistics(statistics).setChecksumAlgorithm(checksumAlgorithm)
+                .setProgressInterval(progressInterval * 1000).setProgressListener(this::sendProgressReport)
+                .setMetrics(true).setShardSize(shardSize).setShardStatements(shardStatements)
+                .setPartitions(partitions)
+                .setOutputDirectory(new File(outputDir)).setTempDirectory(new File(outputDir));
+        for (Resource mediaType : additionalOutputMediaTypes) {
+            builder.addTarget(mediaType.getURI(), additionalOutputCompression);
+        }
+        Transformator transformator = builder.build();
+        try (transformator) {
             for (Resource sourceFile : sourceFiles) {
                 addFile(sourceFile, parameterModel, sharedDir, transformator);
             }
-            // update output file after writing
-            outputFile = transformator.getOutputFile();
         }
-        enexaFileLocation = EnexaPathUtils.translateLocal2EnexaPath(outputFile, sharedDir);
+        // update output files after writing
+        outputFile = transformator.getOutputFile();
+        producedFiles = transformator.getProducedFiles();
+        metrics = transformator.getMetrics();
+        if (metrics != null) {
+            File summaryFile = new File(outputDir, METRICS_SUMMARY_FILE_NAME);
+            try {
+                metrics.writeJson(summaryFile);
+            } catch (IOException e) {
+                LOGGER.warn("Couldn't write the metrics summary to " + summaryFile.toString(), e);
+            }
+        }
     }
 
     protected void sendFileMetadata() throws IOException {
+        boolean successful = true;
+        for (ProducedFile producedFile : producedFiles) {
+            successful &= sendFileMetadata(producedFile);
+        }
+        if (successful) {
+            LOGGER.info("This module seems to have been successful.");
+        }
+    }
+
+    /**
+     * Sends the meta data of the given produced file to the ENEXA service.
+     * 
+     * @param producedFile the file for which the meta data should be sent
+     * @return {@code true} if the service accepted the meta data
+     * @throws IOException if an error occurs while sending the request
+     */
+    protected boolean sendFileMetadata(ProducedFile producedFile) throws IOException {
+        File file = producedFile.getFile();
         Model metadata = ModelFactory.createDefaultModel();
         Resource fileResource = metadata.createResource();
         metadata.add(fileResource, RDF.type, metadata.createResource("http://www.w3.org/ns/prov#Entity"));
         metadata.add(fileResource, ENEXA.experiment, experiment);
-        metadata.add(fileResource, ENEXA.location, enexaFileLocation);
+        metadata.add(fileResource, ENEXA.location, EnexaPathUtils.translateLocal2EnexaPath(file, sharedDir));
         metadata.add(fileResource, metadata.createProperty("http://www.w3.org/ns/prov#wasGeneratedBy"), moduleInstance);
-        metadata.add(fileResource, DCAT.mediaType, targetMediaResource);
+        metadata.add(fileResource, DCAT.mediaType, (producedFile.getMediaTypeIri() == null) ? targetMediaResource
+                : metadata.createResource(producedFile.getMediaTypeIri()));
         try {
-            metadata.addLiteral(fileResource, DCAT.byteSize, outputFile.length());
+            metadata.addLiteral(fileResource, DCAT.byteSize, file.length());
         } catch (SecurityException e) {
-            LOGGER.warn("Couldn't determine the size of " + outputFile.toString(), e);
+            LOGGER.warn("Couldn't determine the size of " + file.toString(), e);
+        }
+        if (producedFile.getStatistics() != null) {
+            addStatistics(metadata, fileResource, producedFile.getStatistics());
+        }
+        FileChecksums checksums = producedFile.getChecksums();
+        if (checksums != null) {
+            addChecksum(metadata, fileResource, SPDX.checksum, checksums.getAlgorithm(), checksums.getChecksum());
+            addChecksum(metadata, fileResource, TransformVocab.uncompressedChecksum, checksums.getAlgorithm(),
+                    checksums.getUncompressedChecksum());
         }
         // Add the direct connection that the generated file is the output of this
         // module instance
         metadata.add(moduleInstance, TransformVocab.output, fileResource);
+        // The metrics of the transformation are sent together with the output file
+        if ((metrics != null) && file.equals(outputFile)) {
+            addMetrics(metadata, moduleInstance, metrics, sharedDir);
+        }
 
-        if (sendRequest(enexaServiceUrl + "add-resource", metadata) != null) {
-            LOGGER.info("This module seems to have been successful.");
+        return sendRequest(enexaServiceUrl + "add-resource", metadata) != null;
+    }
+
+    /**
+     * Sends the given progress report to the ENEXA service. It is called by the
+     * background thread of the progress tracker, i.e., errors are only logged
+     * and do not interrupt the transformation.
+     * 
+     * @param report the report that should be sent
+     */
+    protected void sendProgressReport(ProgressReport report) {
+        Model metadata = ModelFactory.createDefaultModel();
+        Resource reportResource = metadata.createResource();
+        metadata.add(reportResource, RDF.type, TransformVocab.ProgressReport);
+        metadata.add(reportResource, ENEXA.experiment, experiment);
+        metadata.add(reportResource, metadata.createProperty("http://www.w3.org/ns/prov#wasGeneratedBy"),
+                moduleInstance);
+        metadata.addLiteral(reportResource, metadata.createProperty("http://www.w3.org/ns/prov#generatedAtTime"),
+                metadata.createTypedLiteral(Calendar.getInstance()));
+        metadata.addLiteral(reportResource, TransformVocab.elapsedMillis, report.getElapsedMillis());
+        metadata.addLiteral(reportResource, TransformVocab.inputFiles, report.getInputFiles());
+        metadata.addLiteral(reportResource, TransformVocab.inputBytes, report.getInputBytes());
+        metadata.addLiteral(reportResource, TransformVocab.consumedBytes, report.getConsumedBytes());
+        metadata.addLiteral(reportResource, TransformVocab.writtenStatements, report.getWrittenStatements());
+        metadata.addLiteral(reportResource, TransformVocab.writtenBytes, report.getWrittenBytes());
+        metadata.addLiteral(reportResource, TransformVocab.bytesPerSecond, report.getBytesPerSecond());
+        metadata.addLiteral(reportResource, TransformVocab.statementsPerSecond, report.getStatementsPerSecond());
+        if (report.getProgress() >= 0) {
+            metadata.addLiteral(reportResource, TransformVocab.progress, report.getProgress());
+        }
+        if (report.getEtaMillis() >= 0) {
+            metadata.addLiteral(reportResource, TransformVocab.remainingMillis, report.getEtaMillis());
+        }
+        try {
+            sendRequest(enexaServiceUrl + "add-resource", metadata);
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't send the progress report to the ENEXA service.", e);
+        }
+    }
+
+    /**
+     * Adds the given metrics of the transformation to the given module instance.
+     * 
+     * @param metadata       the model to which the metrics are added
+     * @param moduleInstance the resource of the module instance
+     * @param metrics        the metrics of the transformation
+     * @param sharedDir      the shared directory that is used to determine the
+     *                       ENEXA paths of the input files
+     */
+    protected static void addMetrics(Model metadata, Resource moduleInstance, TransformationMetrics metrics,
+            String sharedDir) {
+        Resource metricsResource = metadata.createResource();
+        metadata.add(moduleInstance, TransformVocab.metrics, metricsResource);
+        metadata.add(metricsResource, RDF.type, TransformVocab.TransformationMetrics);
+        metadata.addLiteral(metricsResource, TransformVocab.elapsedMillis, toMillis(metrics.getWallNanos()));
+        metadata.addLiteral(metricsResource, TransformVocab.peakHeapBytes, metrics.getPeakHeapBytes());
+        metadata.addLiteral(metricsResource, TransformVocab.readBytes, metrics.getReadBytes());
+        metadata.addLiteral(metricsResource, TransformVocab.uncompressedBytes, metrics.getUncompressedBytes());
+        metadata.addLiteral(metricsResource, TransformVocab.parsedStatements, metrics.getStatements());
+        metadata.addLiteral(metricsResource, TransformVocab.decompressionMillis,
+                toMillis(metrics.getDecompressionNanos()));
+        metadata.addLiteral(metricsResource, TransformVocab.parsingMillis, toMillis(metrics.getParsingNanos()));
+        metadata.addLiteral(metricsResource, TransformVocab.serializationMillis,
+                toMillis(metrics.getSerializationNanos()));
+        metadata.addLiteral(metricsResource, TransformVocab.compressionMillis,
+                toMillis(metrics.getCompressionNanos()));
+        for (InputFileMetrics fileMetrics : metrics.getInputFiles()) {
+            Resource fileResource = metadata.createResource();
+            metadata.add(metricsResource, TransformVocab.inputFileMetrics, fileResource);
+            metadata.add(fileResource, RDF.type, TransformVocab.InputFileMetrics);
+            metadata.add(fileResource, ENEXA.location,
+                    EnexaPathUtils.translateLocal2EnexaPath(fileMetrics.getFile(), sharedDir));
+            metadata.addLiteral(fileResource, TransformVocab.copied, fileMetrics.isCopied());
+            metadata.addLiteral(fileResource, TransformVocab.readBytes, fileMetrics.getReadBytes());
+            metadata.addLiteral(fileResource, TransformVocab.uncompressedBytes, fileMetrics.getUncompressedBytes());
+            metadata.addLiteral(fileResource, TransformVocab.parsedStatements, fileMetrics.getStatements());
+            metadata.addLiteral(fileResource, TransformVocab.decompressionMillis,
+                    toMillis(fileMetrics.getDecompressionNanos()));
+            metadata.addLiteral(fileResource, TransformVocab.parsingMillis, toMillis(fileMetrics.getParsingNanos()));
+        }
+    }
+
+    protected static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Adds the given statistics as VoID properties to the given file resource.
+     * Note that the numbers of distinct subjects, distinct objects and entities
+     * are estimates.
+     * 
+     * @param metadata     the model to which the statistics are added
+     * @param fileResource the resource of the file
+     * @param statistics   the statistics of the statements in the file
+     */
+    protected static void addStatistics(Model metadata, Resource fileResource, DatasetStatistics statistics) {
+        metadata.add(fileResource, RDF.type, VOID.Dataset);
+        metadata.addLiteral(fileResource, VOID.triples, statistics.getStatements());
+        metadata.addLiteral(fileResource, VOID.properties, (long) statistics.getProperties());
+        metadata.addLiteral(fileResource, VOID.distinctSubjects, statistics.getDistinctSubjects());
+        metadata.addLiteral(fileResource, VOID.distinctObjects, statistics.getDistinctObjects());
+        metadata.addLiteral(fileResource, VOID.entities, statistics.getEntities());
+        for (Entry<Node, Long> predicateCount : statistics.getPredicateCounts().entrySet()) {
+            Resource partition = metadata.createResource();
+            metadata.add(fileResource, VOID.propertyPartition, partition);
+            metadata.add(partition, VOID.property, metadata.wrapAsResource(predicateCount.getKey()));
+            metadata.addLiteral(partition, VOID.triples, predicateCount.getValue().longValue());
+        }
+    }
+
+    /**
+     * Adds the given checksum as SPDX checksum to the given file resource.
+     * 
+     * @param metadata     the model to which the checksum is added
+     * @param fileResource the resource of the file
+     * @param property     the property that connects the file with the checksum
+     * @param algorithm    the algorithm of the checksum
+     * @param value        the checksum as hexadecimal String or {@code null} if
+     *                     it is not available (nothing is added in this case)
+     */
+    protected static void addChecksum(Model metadata, Resource fileResource, Property property,
+            ChecksumAlgorithm algorithm, String value) {
+        if (value == null) {
+            return;
+        }
+        Resource algorithmResource;
+        switch (algorithm) {
+        case SHA256: {
+            algorithmResource = SPDX.checksumAlgorithm_sha256;
+            break;
+        }
+        case SHA512: {
+            algorithmResource = SPDX.checksumAlgorithm_sha512;
+            break;
+        }
+        case MD5: {
+            algorithmResource = SPDX.checksumAlgorithm_md5;
+            break;
+        }
+        case ADLER32: {
+            algorithmResource = SPDX.checksumAlgorithm_adler32;
+            break;
+        }
+        case CRC32C: // falls through
+        default:
+            // SPDX does not define CRC-32C
+            algorithmResource = TransformVocab.CRC32C;
+            break;
         }
+        Resource checksum = metadata.createResource();
+        metadata.add(fileResource, property, checksum);
+        metadata.add(checksum, RDF.type, SPDX.Checksum);
+        metadata.add(checksum, SPDX.algorithm, algorithmResource);
+        metadata.add(checksum, SPDX.checksumValue, metadata.createTypedLiteral(value, XSDDatatype.XSDhexBinary));
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,82 @@
+package org.dice_research.enexa.transform;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * The checksums of a produced file. They are set when the streams of the file
+ * are closed (see {@link org.dice_research.enexa.transform.io.ChecksumOutputStream}).
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class FileChecksums {
+
+    /**
+     * The algorithm of the checksums.
+     */
+    protected ChecksumAlgorithm algorithm;
+    /**
+     * The checksum of the bytes of the file or {@code null} if it is not (yet)
+     * available.
+     */
+    protected String checksum = null;
+    /**
+     * The checksum of the uncompressed bytes of the file or {@code null} if it
+     * is not (yet) available.
+     */
+    protected String uncompressedChecksum = null;
+
+    /**
+     * Constructor.
+     *
+     * @param algorithm the algorithm of the checksums
+     */
+    public FileChecksums(ChecksumAlgorithm algorithm) {
+        super();
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * @return the algorithm of the checksums
+     */
+    public ChecksumAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the checksum of the bytes of the file as lower-case hexadecimal
+     *         String or {@code null} if it is not available
+     */
+    public @CheckForNull String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @param checksum the checksum of the bytes of the file
+     */
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    /**
+     * @return the checksum of the uncompressed bytes of the file as lower-case
+     *         hexadecimal String or {@code null} if it is not available (e.g.,
+     *         because the file is not compressed)
+     */
+    public @CheckForNull String getUncompressedChecksum() {
+        return uncompressedChecksum;
+    }
+
+    /**
+     * @param uncompressedChecksum the checksum of the uncompressed bytes of the
+     *                             file
+     */
+    public void setUncompressedChecksum(String uncompressedChecksum) {
+        this.uncompressedChecksum = uncompressedChecksum;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ":" + checksum;
+    }
+}
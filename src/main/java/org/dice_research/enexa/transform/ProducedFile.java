@@ -0,0 +1,123 @@
+package org.dice_research.enexa.transform;
+
+import java.io.File;
+
+import javax.annotation.CheckForNull;
+
+import org.dice_research.enexa.transform.stats.DatasetStatistics;
+
+/**
+ * A file that has been produced by a {@link Transformator} together with its
+ * media type and (optionally) the statistics of the statements it contains and
+ * its checksums.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ProducedFile {
+
+    /**
+     * The produced file.
+     */
+    protected File file;
+    /**
+     * The IRI of the media type of the file or {@code null} if the file has the
+     * output format that has been requested from the transformator.
+     */
+    protected String mediaTypeIri;
+    /**
+     * The statistics of the statements in the file or {@code null} if they have
+     * not been collected.
+     */
+    protected DatasetStatistics statistics;
+    /**
+     * The checksums of the file or {@code null} if they have not been computed.
+     */
+    protected FileChecksums checksums;
+
+    /**
+     * Constructor.
+     *
+     * @param file         the produced file
+     * @param mediaTypeIri the IRI of the media type of the file or {@code null}
+     *                     if the file has the output format that has been
+     *                     requested from the transformator
+     */
+    public ProducedFile(File file, @CheckForNull String mediaTypeIri) {
+        this(file, mediaTypeIri, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file         the produced file
+     * @param mediaTypeIri the IRI of the media type of the file or {@code null}
+     *                     if the file has the output format that has been
+     *                     requested from the transformator
+     * @param statistics   the statistics of the statements in the file or
+     *                     {@code null} if they have not been collected
+     */
+    public ProducedFile(File file, @CheckForNull String mediaTypeIri, @CheckForNull DatasetStatistics statistics) {
+        this(file, mediaTypeIri, statistics, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file         the produced file
+     * @param mediaTypeIri the IRI of the media type of the file or {@code null}
+     *                     if the file has the output format that has been
+     *                     requested from the transformator
+     * @param statistics   the statistics of the statements in the file or
+     *                     {@code null} if they have not been collected
+     * @param checksums    the checksums of the file or {@code null} if they have
+     *                     not been computed
+     */
+    public ProducedFile(File file, @CheckForNull String mediaTypeIri, @CheckForNull DatasetStatistics statistics,
+            @CheckForNull FileChecksums checksums) {
+        super();
+        this.file = file;
+        this.mediaTypeIri = mediaTypeIri;
+        this.statistics = statistics;
+        this.checksums = checksums;
+    }
+
+    /**
+     * @return the produced file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the IRI of the media type of the file or {@code null} if the file
+     *         has the output format that has been requested from the
+     *         transformator
+     */
+    public @CheckForNull String getMediaTypeIri() {
+        return mediaTypeIri;
+    }
+
+    /**
+     * @return the statistics of the statements in the file or {@code null} if
+     *         they have not been collected. Note that the statistics are only
+     *         complete after the transformator has been closed.
+     */
+    public @CheckForNull DatasetStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return the checksums of the file or {@code null} if they have not been
+     *         computed. Note that the checksums are only available after the
+     *         transformator has been closed.
+     */
+    public @CheckForNull FileChecksums getChecksums() {
+        return checksums;
+    }
+
+    @Override
+    public String toString() {
+        return file.toString();
+    }
+}
@@ -7,9 +7,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.compress.utils.IOUtils;
+import org.dice_research.enexa.transform.io.CompressionUtils;
+import org.dice_research.enexa.transform.io.CountingInputStream;
+import org.dice_research.enexa.transform.io.TimingInputStream;
+import org.dice_research.enexa.transform.metrics.InputFileMetrics;
+import org.dice_research.enexa.transform.metrics.TransformationMetrics;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.formats.ManchesterSyntaxDocumentFormat;
 import org.semanticweb.owlapi.formats.OWLXMLDocumentFormat;
@@ -32,6 +35,18 @@ public class RDF2OntologyTransformator implements Transformator {
     protected OWLDocumentFormat outputFormat;
     protected File outputFile;
     protected OutputStream outputStream;
+    /**
+     * The performance metrics of the transformation or {@code null} if no
+     * metrics are collected. The axioms of the input files are counted as
+     * statements and the time needed to save the ontology as serialization
+     * time.
+     */
+    protected TransformationMetrics metrics = null;
+    /**
+     * The maximum number of threads that are used to decompress a single input
+     * file.
+     */
+    protected int decompressionThreads = 1;
 
     protected RDF2OntologyTransformator(OWLOntology ontology, OWLOntologyManager manager,
             OWLDocumentFormat outputFormat, File outputFile, OutputStream outputStream) {
@@ -56,6 +71,7 @@ public class RDF2OntologyTransformator implements Transformator {
 
     @Override
     public void close() throws Exception {
+        long startTime = System.nanoTime();
         try {
             if (ontology != null) {
                 ontology.saveOntology(new OWLXMLDocumentFormat(), outputStream);
@@ -64,28 +80,47 @@ public class RDF2OntologyTransformator implements Transformator {
             throw new IOException("Error while writing the ontology.", e);
         } finally {
             IOUtils.closeQuietly(outputStream);
+            if (metrics != null) {
+                metrics.addWriterNanos(System.nanoTime() - startTime);
+                metrics.finish();
+                LOGGER.info("Metrics of the transformation: {}", metrics);
+            }
         }
     }
 
     @Override
     public void addFile2Stream(File file, String contentType) throws IOException {
+        InputFileMetrics fileMetrics = null;
+        long startTime = System.nanoTime();
         try {
             String fileName = file.getName();
-            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
-                InputStream ins = in;
-                if (fileName.endsWith(".gz")) {
-                    ins = new GzipCompressorInputStream(ins);
-                } else if (fileName.endsWith(".bz2")) {
-                    ins = new BZip2CompressorInputStream(ins);
+            Compression compression = CompressionUtils.detectCompression(fileName);
+            fileMetrics = (metrics != null) ? metrics.addInputFile(file, compression) : null;
+            InputStream fileIn = new FileInputStream(file);
+            if (fileMetrics != null) {
+                fileIn = new CountingInputStream(fileIn, fileMetrics::addReadBytes);
+            }
+            try (InputStream in = new BufferedInputStream(fileIn)) {
+                InputStream ins = CompressionUtils.createDecompressingStream(in, compression, decompressionThreads);
+                if (fileMetrics != null) {
+                    ins = new TimingInputStream(ins, fileMetrics::addUncompressedBytes,
+                            fileMetrics::addDecompressionNanos);
                 }
 
                 LOGGER.info("Adding file {} ...", file.toString());
                 OWLOntology readOnt = manager.loadOntologyFromOntologyDocument(new StreamDocumentSource(ins));
                 manager.addAxioms(ontology, readOnt.getAxioms());
+                if (fileMetrics != null) {
+                    fileMetrics.addStatements(readOnt.getAxiomCount());
+                }
             }
         } catch (OWLOntologyCreationException e) {
             throw new IOException(
                     "Error while reading the ontology \"" + (file == null ? "null" : file.toString()) + "\".", e);
+        } finally {
+            if (fileMetrics != null) {
+                fileMetrics.addProcessingNanos(System.nanoTime() - startTime);
+            }
         }
     }
 
@@ -103,4 +138,33 @@ public class RDF2OntologyTransformator implements Transformator {
     public File getOutputFile() {
         return outputFile;
     }
+
+    @Override
+    public TransformationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics the performance metrics of the transformation or
+     *                {@code null} if no metrics should be collected
+     */
+    public void setMetrics(TransformationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the maximum number of threads that are used to decompress a single
+     *         input file
+     */
+    public int getDecompressionThreads() {
+        return decompressionThreads;
+    }
+
+    /**
+     * @param decompressionThreads the maximum number of threads that are used to
+     *                             decompress a single input file
+     */
+    public void setDecompressionThreads(int decompressionThreads) {
+        this.decompressionThreads = decompressionThreads;
+    }
 }
@@ -6,26 +6,71 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.CheckForNull;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.jena.atlas.web.ContentType;
 import org.apache.jena.atlas.web.TypedInputStream;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.WebContent;
+import org.apache.jena.riot.lang.LabelToNode;
 import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.enexa.transform.dedup.Deduplicator;
+import org.dice_research.enexa.transform.filter.FilteringStreamRDF;
+import org.dice_research.enexa.transform.filter.StatementFilter;
+import org.dice_research.enexa.transform.io.AsyncInputStream;
+import org.dice_research.enexa.transform.io.CompressionUtils;
+import org.dice_research.enexa.transform.io.CountingInputStream;
+import org.dice_research.enexa.transform.io.TimingInputStream;
+import org.dice_research.enexa.transform.metrics.CountingStreamRDF;
+import org.dice_research.enexa.transform.metrics.InputFileMetrics;
+import org.dice_research.enexa.transform.metrics.TimingStreamRDF;
+import org.dice_research.enexa.transform.metrics.TransformationMetrics;
+import org.dice_research.enexa.transform.parse.CachingFactoryRDF;
+import org.dice_research.enexa.transform.parse.ChunkedFileParser;
+import org.dice_research.enexa.transform.parse.NTuplesParser;
+import org.dice_research.enexa.transform.parse.TermCache;
+import org.dice_research.enexa.transform.progress.ProgressTracker;
+import org.dice_research.enexa.transform.stats.DatasetStatistics;
+import org.dice_research.enexa.transform.stats.StatisticsStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDFLib;
+import org.dice_research.enexa.transform.stream.ContinuousStreamRDF;
+import org.dice_research.enexa.transform.stream.QueueingStreamRDF;
+import org.dice_research.enexa.transform.stream.StatementBatch;
+import org.dice_research.enexa.transform.stream.StreamRDFQueueConsumer;
+import org.dice_research.enexa.transform.stream.TaskBatch;
+import org.dice_research.enexa.transform.write.FanOutStreamRDF;
+import org.dice_research.enexa.transform.write.NTuplesPassthrough;
+import org.dice_research.enexa.transform.write.NTuplesWriter;
+import org.dice_research.enexa.transform.write.PartitioningStreamRDF;
+import org.dice_research.enexa.transform.write.RollingStreamRDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * <p>
  * This class allows the concatenation of one or several RDF files. Note that
- * the files are streamed to avoid a high memory consumption. Hence, no triples
- * are <b>not deduplicated</b>. During this process, the files can be
+ * the files are streamed to avoid a high memory consumption. Hence, triples
+ * are <b>not deduplicated</b> by default. An approximate deduplication based on
+ * a Bloom filter with a fixed size can be enabled (see
+ * {@link TransformatorBuilder#setDeduplication(Deduplication)}). An exact
+ * deduplication that additionally sorts the statements uses an external merge
+ * sort with temporary files. During this process, the files can be
  * transformed into a different serialization language. As input formats, this
  * class basically supports all formats that are supported by the used Apache
  * Jena library. As output format, only Turtle, N-Triples, N-Quads and Trig are
@@ -33,8 +78,10 @@ import org.slf4j.LoggerFactory;
  * </p>
  * 
  * <p>
- * Input and output files can be compressed with BZIP2 or GZIP. However, the
- * class has to be able to identify the file format of the input files.
+ * Input and output files can be compressed with BZIP2, GZIP, BGZF (blocked
+ * gzip), ZSTD or LZ4. However, the class has to be able to identify the file
+ * format of the input files. BZIP2 input files and gzip input files that have
+ * been written in the blocked gzip format (BGZF) are decompressed in parallel.
  * </p>
  * 
  * <p>
@@ -44,6 +91,82 @@ import org.slf4j.LoggerFactory;
  * name. The content of the file is <b>not</b> used.
  * </p>
  * 
+ * <p>
+ * If a parallelism &gt; 1 is defined, the given files are parsed concurrently
+ * by a pool of parser threads. The parsed statements are handed over in
+ * batches through a bounded queue to a single writer thread. In this mode,
+ * {@link #addFile2Stream(File, String)} returns as soon as the file has been
+ * scheduled for parsing and errors might only be reported by a later call of
+ * this method or by {@link #close()}. Note that the order of the statements of
+ * different files is not preserved in this mode.
+ * </p>
+ * 
+ * <p>
+ * In the pipelined mode, the decompression of an input file runs on its own
+ * thread and the parsed statements are handed over to the writer thread. In
+ * combination with an asynchronous output stream (see
+ * {@link TransformatorBuilder#setPipelined(boolean)}), decompression, parsing,
+ * serialization and compression run concurrently.
+ * </p>
+ * 
+ * <p>
+ * If a parallelism &gt; 1 is defined, uncompressed N-Triples and N-Quads files
+ * that are larger than the chunk size are split into chunks that are parsed
+ * concurrently (see {@link ChunkedFileParser}). By default, the order of the
+ * statements of such a file is not preserved. The parser threads and the
+ * threads parsing chunks share a budget of parallelism many permits, i.e., at
+ * most parallelism many files or chunks are parsed at the same time. A parser
+ * thread that waits for the chunks of its file does not hold a permit.
+ * </p>
+ * 
+ * <p>
+ * If the output is written by an {@link NTuplesWriter} without further
+ * processing (see {@link #setPassthroughWriter(NTuplesWriter)}), N-Triples and
+ * N-Quads input files that are compatible with the output language are copied
+ * without parsing them (see {@link NTuplesPassthrough}). Uncompressed files
+ * without blank nodes are transferred without copying their data into the Java
+ * heap. Other files are decompressed (if necessary) and their blank node labels
+ * are made file-specific.
+ * </p>
+ * 
+ * <p>
+ * The output can be split into several files (shards) by a
+ * {@link RollingStreamRDF} or a {@link PartitioningStreamRDF}. In this case,
+ * the first shard is the output file while the further shards are reported as
+ * additional files by {@link #getProducedFiles()}. In the same way, a
+ * {@link FanOutStreamRDF} writes the statements to additional files with
+ * different serializations or compressions.
+ * </p>
+ * 
+ * <p>
+ * A {@link StatementFilter} (see {@link #setStatementFilter(StatementFilter)})
+ * drops statements directly behind the parsers, i.e., on the parser threads
+ * and before they are handed over to the writer thread. While a filter is set,
+ * all input files are parsed.
+ * </p>
+ * 
+ * <p>
+ * If {@link DatasetStatistics} are collected by a {@link StatisticsStreamRDF}
+ * in front of the writer (see {@link #setStatistics(DatasetStatistics)}), they
+ * are attached to the output file (see {@link #getProducedFiles()}).
+ * </p>
+ * 
+ * <p>
+ * A {@link ProgressTracker} (see {@link #setProgressTracker(ProgressTracker)})
+ * receives the size of each added file and the number of consumed input
+ * bytes. The bytes are counted while the (compressed) files are read, after
+ * each parsed chunk of a large file and after a file has been copied without
+ * parsing it.
+ * </p>
+ * 
+ * <p>
+ * If {@link TransformationMetrics} are set (see
+ * {@link #setMetrics(TransformationMetrics)}), the bytes, statements and the
+ * decompression and parsing times of each input file are recorded. The
+ * serialization and compression times have to be measured by a
+ * {@link TimingStreamRDF} in front of the writer and by the output streams.
+ * </p>
+ * 
  * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
  *
  */
@@ -56,13 +179,154 @@ public class StreamingTransformator implements Transformator {
      */
     protected StreamRDF outStream;
     /**
-     * The lower-level output stream that is closed at the end of the process.
+     * The batch-oriented view of {@link #outStream} that receives the statement
+     * batches of the writer thread.
+     */
+    protected BatchedStreamRDF batchedOutStream;
+    /**
+     * The view of {@link #outStream} that is handed to the parsers if the files
+     * are parsed sequentially. It ignores the calls of {@link StreamRDF#start()}
+     * and {@link StreamRDF#finish()} that the parsers make for each file, since
+     * {@link #outStream} has to be finished only once when this instance is
+     * closed.
+     */
+    protected StreamRDF parserOutStream;
+    /**
+     * The lower-level output stream that is closed at the end of the process or
+     * {@code null} if {@link #outStream} closes its output itself (e.g., a
+     * {@link RollingStreamRDF}).
      */
     protected OutputStream out;
     /**
      * The output file to which the data is written.
      */
     protected File outputFile;
+    /**
+     * The pool of parser threads or {@code null} if the files are parsed
+     * sequentially.
+     */
+    protected ExecutorService parserPool = null;
+    /**
+     * Flag indicating whether compressed input files are decompressed on a
+     * separate thread.
+     */
+    protected boolean pipelined = false;
+    /**
+     * The queue through which the parsers hand over their statements to the
+     * writer thread or {@code null} if the statements are written by the parsing
+     * thread.
+     */
+    protected BlockingQueue<StatementBatch> queue = null;
+    /**
+     * The consumer of the queue that sends the statements to {@link #outStream}.
+     */
+    protected StreamRDFQueueConsumer queueConsumer = null;
+    /**
+     * The thread that runs the {@link #queueConsumer}.
+     */
+    protected Thread writerThread = null;
+    /**
+     * The tasks of the parser threads that haven't been checked, yet.
+     */
+    protected List<Future<?>> parserTasks = null;
+    /**
+     * The maximum number of threads that are used to decompress the blocks of
+     * bzip2 and BGZF input files. The threads are shared by all input files.
+     */
+    protected int decompressionThreads = Runtime.getRuntime().availableProcessors();
+    /**
+     * The number of files (or chunks of a file) that are parsed concurrently.
+     */
+    protected int parallelism = 1;
+    /**
+     * The size of the chunks into which large N-Triples or N-Quads files are
+     * split. A value &le; 0 disables the chunked parsing.
+     */
+    protected long chunkSize = ChunkedFileParser.DEFAULT_CHUNK_SIZE;
+    /**
+     * Flag indicating whether the order of the statements of a file that is
+     * parsed in chunks should be preserved.
+     */
+    protected boolean preserveChunkOrder = false;
+    /**
+     * The pool of threads parsing the chunks of large files or {@code null} if it
+     * hasn't been created, yet.
+     */
+    protected ExecutorService chunkParserPool = null;
+    /**
+     * The permits that a thread has to hold while it parses a file or a chunk of
+     * a file or {@code null} if the files are parsed by a single thread. There
+     * are as many permits as the parallelism allows.
+     */
+    protected Semaphore parsingPermits = null;
+    /**
+     * The pool of threads that decompress the input files in the pipelined mode
+     * or {@code null} if the pipelined mode is disabled. Every parser thread
+     * reads at most one file at a time, i.e., the pool has one thread per
+     * parser thread.
+     */
+    protected ExecutorService readerPool = null;
+    /**
+     * The pool of threads that decompress the blocks of bzip2 and BGZF input
+     * files or {@code null} if it hasn't been created, yet. It is shared by all
+     * input files, i.e., files that are parsed concurrently do not multiply the
+     * number of decompressing threads.
+     */
+    protected ExecutorService decompressionPool = null;
+    /**
+     * The stage that removes duplicate statements or {@code null} if the
+     * statements are not deduplicated.
+     */
+    protected Deduplicator deduplicator = null;
+    /**
+     * The cache of terms that is shared by all parsers or {@code null} if no
+     * shared cache is used.
+     */
+    protected TermCache termCache = null;
+    /**
+     * The filter that is applied to the parsed statements or {@code null} if
+     * all statements are kept.
+     */
+    protected StatementFilter statementFilter = null;
+    /**
+     * The statistics of the written statements or {@code null} if no statistics
+     * are collected.
+     */
+    protected DatasetStatistics statistics = null;
+    /**
+     * The checksums of the output file or {@code null} if they are not
+     * computed.
+     */
+    protected FileChecksums checksums = null;
+    /**
+     * The tracker of the progress or {@code null} if the progress is not
+     * tracked.
+     */
+    protected ProgressTracker progressTracker = null;
+    /**
+     * The performance metrics of the transformation or {@code null} if no
+     * metrics are collected.
+     */
+    protected TransformationMetrics metrics = null;
+    /**
+     * Files that are produced in addition to the output file.
+     */
+    protected List<ProducedFile> additionalFiles = new ArrayList<>();
+    /**
+     * The writer to which compatible input files are copied without parsing them
+     * or {@code null} if all files have to be parsed.
+     */
+    protected NTuplesWriter passthroughWriter = null;
+    /**
+     * Flag indicating whether the lines of files that are copied without parsing
+     * are validated.
+     */
+    protected boolean passthroughValidation = false;
+    /**
+     * The number of files that have been copied without parsing them. It is used
+     * to create file-specific blank node labels.
+     */
+    protected AtomicInteger passthroughFiles = new AtomicInteger();
 
     /**
      * Constructor. <b>Note:</b> the class will take ownership of the given streams.
@@ -70,16 +334,85 @@ public class StreamingTransformator implements Transformator {
      * 
      * @param outStream  the output stream to which the RDF data is written.
      * @param out        the lower-level output stream that is closed at the end of
-     *                   the process.
+     *                   the process or {@code null} if the output stream closes
+     *                   its output itself.
      * @param outputFile the output file to which the data is written.
      */
     public StreamingTransformator(StreamRDF outStream, OutputStream out, File outputFile) {
         super();
         this.outStream = outStream;
+        this.batchedOutStream = BatchedStreamRDFLib.unbatch(outStream);
+        this.parserOutStream = new ContinuousStreamRDF(outStream);
         this.out = out;
         this.outputFile = outputFile;
     }
 
+    /**
+     * Constructor. <b>Note:</b> the class will take ownership of the given streams.
+     * Hence, it will close them when this instance is closed.
+     * 
+     * @param outStream     the output stream to which the RDF data is written.
+     * @param out           the lower-level output stream that is closed at the
+     *                      end of the process or {@code null} if the output
+     *                      stream closes its output itself.
+     * @param outputFile    the output file to which the data is written.
+     * @param parallelism   the number of files that are parsed concurrently. If
+     *                      it is &le; 1, the files are parsed sequentially by the
+     *                      calling thread.
+     * @param queueCapacity the maximum number of statement batches that can wait
+     *                      for the writer thread. Ignored if the files are parsed
+     *                      sequentially.
+     */
+    public StreamingTransformator(StreamRDF outStream, OutputStream out, File outputFile, int parallelism,
+            int queueCapacity) {
+        this(outStream, out, outputFile, parallelism, queueCapacity, false);
+    }
+
+    /**
+     * Constructor. <b>Note:</b> the class will take ownership of the given streams.
+     * Hence, it will close them when this instance is closed.
+     * 
+     * @param outStream     the output stream to which the RDF data is written.
+     * @param out           the lower-level output stream that is closed at the
+     *                      end of the process or {@code null} if the output
+     *                      stream closes its output itself.
+     * @param outputFile    the output file to which the data is written.
+     * @param parallelism   the number of files that are parsed concurrently. If
+     *                      it is &le; 1, the files are parsed sequentially by the
+     *                      calling thread.
+     * @param queueCapacity the maximum number of statement batches that can wait
+     *                      for the writer thread. Ignored if the files are parsed
+     *                      sequentially and the pipelined mode is disabled.
+     * @param pipelined     flag indicating whether compressed input files are
+     *                      decompressed on a separate thread and the statements
+     *                      are written by a separate writer thread
+     */
+    public StreamingTransformator(StreamRDF outStream, OutputStream out, File outputFile, int parallelism,
+            int queueCapacity, boolean pipelined) {
+        this(outStream, out, outputFile);
+        this.pipelined = pipelined;
+        this.parallelism = parallelism;
+        if (parallelism > 1) {
+            parserPool = Executors.newFixedThreadPool(parallelism);
+            // A fair semaphore hands out the permits in the order of the requests
+            parsingPermits = new Semaphore(parallelism, true);
+        }
+        if (pipelined) {
+            readerPool = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+                Thread thread = new Thread(r, "async-input-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if ((parallelism > 1) || pipelined) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            queueConsumer = new StreamRDFQueueConsumer(queue, batchedOutStream);
+            writerThread = new Thread(queueConsumer, "transformator-writer");
+            writerThread.start();
+            parserTasks = new ArrayList<>();
+        }
+    }
+
     /**
      * Add the given files to the target file. If the array contains directories,
      * all files and sub directories are added. Note that <b>all</b> files must be
@@ -140,21 +473,374 @@ public class StreamingTransformator implements Transformator {
     public void addFile2Stream(File file, @CheckForNull String contentType) throws IOException {
         if (file.isDirectory()) {
             addFile2Stream(file);
+            return;
+        }
+        if (queue != null) {
+            checkParserTasks();
         }
+        if (progressTracker != null) {
+            progressTracker.addInput(file.length());
+        }
+        if (parserPool != null) {
+            parserTasks.add(parserPool.submit(() -> {
+                QueueingStreamRDF queueStream = new QueueingStreamRDF(queue);
+                parseFile(file, contentType, queueStream);
+                queueStream.finish();
+                return null;
+            }));
+        } else if (queue != null) {
+            QueueingStreamRDF queueStream = new QueueingStreamRDF(queue);
+            parseFile(file, contentType, queueStream);
+            queueStream.finish();
+        } else {
+            parseFile(file, contentType, parserOutStream);
+        }
+    }
+
+    /**
+     * Parses the given file and sends its statements to the given stream.
+     * 
+     * @param file        the RDF file that should be parsed
+     * @param contentType the content type String expressing the RDF serialization
+     *                    of the given file or {@code null} if the serialization
+     *                    should be identified based on the file name
+     * @param target      the stream to which the parsed statements are sent
+     * @throws IOException if an IO error occurs while reading the file
+     */
+    protected void parseFile(File file, @CheckForNull String contentType, StreamRDF target) throws IOException {
         String fileURL = file.toURI().toURL().toString();
-        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
-            InputStream ins = in;
-            if (fileURL.endsWith(".gz")) {
-                ins = new GzipCompressorInputStream(ins);
-                fileURL = fileURL.substring(0, fileURL.length() - 3);
-            } else if (fileURL.endsWith(".bz2")) {
-                ins = new BZip2CompressorInputStream(ins);
-                fileURL = fileURL.substring(0, fileURL.length() - 4);
+        Compression compression = CompressionUtils.detectCompression(fileURL);
+        fileURL = CompressionUtils.removeCompressionExtension(fileURL, compression);
+        ContentType ct = WebContent.determineCT(contentType, null, fileURL);
+        Lang lang = RDFLanguages.contentTypeToLang(ct);
+        if (lang == null) {
+            throw new IOException("Couldn't determine the RDF serialization of " + file.toString()
+                    + " (content type: " + contentType + ").");
+        }
+        LOGGER.info("Adding file {} ...", file.toString());
+        InputFileMetrics fileMetrics = (metrics != null) ? metrics.addInputFile(file, compression) : null;
+        if ((passthroughWriter != null) && (statementFilter == null) && passthroughWriter.canPassThrough(lang)) {
+            long startTime = System.nanoTime();
+            passThrough(file, compression, fileMetrics);
+            if (progressTracker != null) {
+                progressTracker.addConsumedBytes(file.length());
+            }
+            if (fileMetrics != null) {
+                fileMetrics.setCopied(true);
+                fileMetrics.addProcessingNanos(System.nanoTime() - startTime);
+            }
+            return;
+        }
+        if ((compression == Compression.NONE) && isChunkable(file, lang)) {
+            // The parsed chunks are handed over directly to the writer thread
+            getChunkParser().setMetrics(fileMetrics).parse(file, lang);
+            return;
+        }
+        if (parsingPermits == null) {
+            parseWholeFile(file, lang, compression, target, fileMetrics);
+            return;
+        }
+        try {
+            parsingPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a permit to parse " + file.toString(), e);
+        }
+        try {
+            parseWholeFile(file, lang, compression, target, fileMetrics);
+        } finally {
+            parsingPermits.release();
+        }
+    }
+
+    /**
+     * Parses the given file as a whole (i.e., without splitting it into chunks)
+     * and sends its statements to the given stream.
+     * 
+     * @param file        the RDF file that should be parsed
+     * @param lang        the RDF serialization of the file
+     * @param compression the compression of the file
+     * @param target      the stream to which the parsed statements are sent
+     * @param fileMetrics the metrics of the file or {@code null} if no metrics
+     *                    are collected
+     * @throws IOException if an IO error occurs while reading the file
+     */
+    protected void parseWholeFile(File file, Lang lang, Compression compression, StreamRDF target,
+            @CheckForNull InputFileMetrics fileMetrics) throws IOException {
+        if (statementFilter != null) {
+            target = new FilteringStreamRDF(target, statementFilter);
+        }
+        if (fileMetrics != null) {
+            target = new CountingStreamRDF(target, fileMetrics::addStatements);
+        }
+        long startTime = System.nanoTime();
+        long writerStartNanos = (fileMetrics != null) ? metrics.getWriterNanos() : 0;
+        InputStream fileIn = new FileInputStream(file);
+        if (progressTracker != null) {
+            fileIn = new CountingInputStream(fileIn, progressTracker::addConsumedBytes);
+        }
+        if (fileMetrics != null) {
+            fileIn = new CountingInputStream(fileIn, fileMetrics::addReadBytes);
+        }
+        try (InputStream in = new BufferedInputStream(fileIn)) {
+            InputStream ins = CompressionUtils.createDecompressingStream(in, compression, decompressionThreads,
+                    getDecompressionPool());
+            boolean asyncDecompression = pipelined && (ins != in);
+            if (fileMetrics != null) {
+                fileMetrics.setAsyncDecompression(asyncDecompression);
+                ins = new TimingInputStream(ins, fileMetrics::addUncompressedBytes,
+                        fileMetrics::addDecompressionNanos);
+            }
+            if (asyncDecompression) {
+                // Decompress the file on a separate thread
+                try (InputStream asyncIns = new AsyncInputStream(ins, readerPool)) {
+                    parseStream(asyncIns, lang, target);
+                }
+            } else {
+                parseStream(ins, lang, target);
+            }
+        } finally {
+            if (fileMetrics != null) {
+                // Without a writer thread, the statements are written by this thread
+                long writerNanos = (queue == null) ? metrics.getWriterNanos() - writerStartNanos : 0;
+                fileMetrics.addProcessingNanos(System.nanoTime() - startTime - writerNanos);
+            }
+        }
+    }
+
+    /**
+     * Copies the given N-Triples or N-Quads file to the {@link #passthroughWriter}
+     * without parsing it. The writing is done by the writer thread (if there is
+     * one). Uncompressed files are transferred segment by segment (if they do
+     * not have to be validated) until a segment contains a blank node. The rest
+     * of the file is copied (and its blank nodes are renamed).
+     * 
+     * @param file        the file that should be copied
+     * @param compression the compression of the file
+     * @param fileMetrics the metrics of the file or {@code null} if no metrics
+     *                    are collected
+     * @throws IOException if an IO error occurs while reading the file
+     */
+    protected void passThrough(File file, Compression compression, @CheckForNull InputFileMetrics fileMetrics)
+            throws IOException {
+        NTuplesPassthrough passthrough = new NTuplesPassthrough("P" + passthroughFiles.incrementAndGet() + "x",
+                passthroughValidation);
+        long position = 0;
+        if ((compression == Compression.NONE) && !passthroughValidation) {
+            LOGGER.debug("Transferring {} without parsing it.", file);
+            long size = file.length();
+            position = NTuplesPassthrough.getDataStart(file);
+            long end = NTuplesPassthrough.scanSegment(file, position,
+                    NTuplesPassthrough.DEFAULT_TRANSFER_SEGMENT_SIZE);
+            while (end > position) {
+                final long start = position;
+                final long segmentEnd = end;
+                runOnWriter(() -> {
+                    try {
+                        NTuplesPassthrough.transfer(file, start, segmentEnd, passthroughWriter);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Error while transferring " + file.toString(), e);
+                    }
+                });
+                if (fileMetrics != null) {
+                    fileMetrics.addReadBytes(segmentEnd - start);
+                    fileMetrics.addUncompressedBytes(segmentEnd - start);
+                }
+                position = end;
+                end = NTuplesPassthrough.scanSegment(file, position,
+                        NTuplesPassthrough.DEFAULT_TRANSFER_SEGMENT_SIZE);
+            }
+            if (position >= size) {
+                return;
+            }
+            // The remaining lines might contain blank nodes
+            LOGGER.debug("Copying {} without parsing it, starting at byte {}.", file, position);
+        } else {
+            LOGGER.debug("Copying {} without parsing it.", file);
+        }
+        FileInputStream fileStream = new FileInputStream(file);
+        fileStream.getChannel().position(position);
+        InputStream fileIn = fileStream;
+        if (fileMetrics != null) {
+            fileIn = new CountingInputStream(fileIn, fileMetrics::addReadBytes);
+        }
+        try (InputStream in = new BufferedInputStream(fileIn)) {
+            InputStream ins = CompressionUtils.createDecompressingStream(in, compression, decompressionThreads,
+                    getDecompressionPool());
+            if (fileMetrics != null) {
+                ins = new TimingInputStream(ins, fileMetrics::addUncompressedBytes,
+                        fileMetrics::addDecompressionNanos);
+            }
+            passthrough.copy(ins, (chunk, length) -> {
+                try {
+                    runOnWriter(() -> passthroughWriter.writeRaw(chunk, 0, length));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Runs the given task on the writer thread or directly if there is no writer
+     * thread.
+     * 
+     * @param task the task that should be executed
+     * @throws IOException if the thread is interrupted while handing over the
+     *                     task
+     */
+    protected void runOnWriter(Runnable task) throws IOException {
+        if (queue != null) {
+            try {
+                queue.put(new TaskBatch(task));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while handing over data to the writer thread.", e);
+            }
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Parses the given stream and sends its statements to the given stream.
+     * N-Triples and N-Quads are parsed with the {@link NTuplesParser} while all
+     * other languages are parsed with Jena's {@link RDFParser}.
+     * 
+     * @param in     the (decompressed) stream that should be parsed
+     * @param lang   the serialization of the data
+     * @param target the stream to which the parsed statements are sent
+     * @throws IOException if an IO error occurs while reading the stream
+     */
+    protected void parseStream(InputStream in, Lang lang, StreamRDF target) throws IOException {
+        if (NTuplesParser.isSupported(lang)) {
+            new NTuplesParser(lang).setTermCache(termCache).parse(in, target);
+        } else if (termCache != null) {
+            RDFParser.source(TypedInputStream.wrap(in)).lang(lang)
+                    .factory(new CachingFactoryRDF(LabelToNode.createScopeByDocumentHash(), termCache)).parse(target);
+        } else {
+            RDFParser.source(TypedInputStream.wrap(in)).lang(lang).parse(target);
+        }
+    }
+
+    /**
+     * Checks whether the given (uncompressed) file should be parsed in chunks.
+     * 
+     * @param file the file that should be parsed
+     * @param lang the serialization of the file
+     * @return {@code true} if the file should be split into chunks that are
+     *         parsed concurrently
+     */
+    protected boolean isChunkable(File file, Lang lang) {
+        return (parallelism > 1) && (chunkSize > 0) && (queue != null) && ChunkedFileParser.isSupported(lang)
+                && (file.length() > chunkSize);
+    }
+
+    /**
+     * Creates a parser for splitting large files into chunks. The threads
+     * parsing the chunks are created lazily when the first large file is added.
+     * 
+     * @return a parser for splitting large files into chunks
+     */
+    protected synchronized ChunkedFileParser getChunkParser() {
+        if (chunkParserPool == null) {
+            chunkParserPool = Executors.newFixedThreadPool(parallelism);
+        }
+        return new ChunkedFileParser(chunkParserPool, queue, chunkSize, preserveChunkOrder).setTermCache(termCache)
+                .setStatementFilter(statementFilter).setParsingPermits(parsingPermits)
+                .setProgressCounter((progressTracker != null) ? progressTracker::addConsumedBytes : null);
+    }
+
+    /**
+     * @return the pool of threads that decompress the blocks of bzip2 and BGZF
+     *         input files or {@code null} if the files are decompressed
+     *         sequentially
+     */
+    protected synchronized ExecutorService getDecompressionPool() {
+        if ((decompressionPool == null) && (decompressionThreads > 1)) {
+            decompressionPool = Executors.newFixedThreadPool(decompressionThreads, r -> {
+                Thread thread = new Thread(r, "block-decompressor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return decompressionPool;
+    }
+
+    /**
+     * Checks the parser tasks that have been finished and the writer thread for
+     * errors. Successfully finished tasks are removed from the list of tasks.
+     * 
+     * @throws IOException if one of the finished tasks or the writer thread
+     *                     encountered an error
+     */
+    protected void checkParserTasks() throws IOException {
+        if (queueConsumer.getError() != null) {
+            throw new IOException("Error while writing the output file.", queueConsumer.getError());
+        }
+        Iterator<Future<?>> iterator = parserTasks.iterator();
+        while (iterator.hasNext()) {
+            Future<?> task = iterator.next();
+            if (task.isDone()) {
+                iterator.remove();
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Error while parsing an input file.", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while checking the parser threads.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for all parser tasks and the writer thread to finish and shuts down
+     * the parser threads (if there are any).
+     * 
+     * @throws IOException if one of the tasks or the writer thread encountered an
+     *                     error
+     */
+    protected void finishParserTasks() throws IOException {
+        IOException error = null;
+        try {
+            for (Future<?> task : parserTasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = new IOException("Error while parsing an input file.", e.getCause());
+                    }
+                }
+            }
+            parserTasks.clear();
+            queue.put(StatementBatch.END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerThread.interrupt();
+            error = new IOException("Interrupted while waiting for the parser and writer threads.", e);
+        } finally {
+            if (parserPool != null) {
+                parserPool.shutdownNow();
+            }
+            if (readerPool != null) {
+                readerPool.shutdownNow();
             }
-            ContentType ct = WebContent.determineCT(contentType, null, fileURL);
-            Lang lang = RDFLanguages.contentTypeToLang(ct);
-            LOGGER.info("Adding file {} ...", file.toString());
-            RDFParser.source(TypedInputStream.wrap(ins)).lang(lang).parse(outStream);
+            synchronized (this) {
+                if (chunkParserPool != null) {
+                    chunkParserPool.shutdownNow();
+                }
+            }
+        }
+        if ((error == null) && (queueConsumer.getError() != null)) {
+            error = new IOException("Error while writing the output file.", queueConsumer.getError());
+        }
+        if (error != null) {
+            throw error;
         }
     }
 
@@ -165,6 +851,25 @@ public class StreamingTransformator implements Transformator {
         return outputFile;
     }
 
+    @Override
+    public List<ProducedFile> getProducedFiles() {
+        List<ProducedFile> files = new ArrayList<>(additionalFiles.size() + 1);
+        files.add(new ProducedFile(outputFile, null, statistics, checksums));
+        files.addAll(additionalFiles);
+        return files;
+    }
+
+    /**
+     * Adds a file that is produced in addition to the output file. Files that
+     * are created while the statements are written (e.g., further shards of a
+     * {@link RollingStreamRDF}) are added by the writer thread.
+     * 
+     * @param file the additionally produced file
+     */
+    public void addProducedFile(ProducedFile file) {
+        additionalFiles.add(file);
+    }
+
     /**
      * @param outputFile the outputFile to set
      */
@@ -172,10 +877,290 @@ public class StreamingTransformator implements Transformator {
         this.outputFile = outputFile;
     }
 
+    /**
+     * @return the maximum number of threads that are used to decompress the
+     *         blocks of bzip2 and BGZF input files
+     */
+    public int getDecompressionThreads() {
+        return decompressionThreads;
+    }
+
+    /**
+     * @param decompressionThreads the maximum number of threads that are used to
+     *                             decompress the blocks of bzip2 and BGZF input
+     *                             files (shared by all input files)
+     */
+    public void setDecompressionThreads(int decompressionThreads) {
+        this.decompressionThreads = decompressionThreads;
+    }
+
+    /**
+     * @return the size of the chunks into which large N-Triples or N-Quads files
+     *         are split
+     */
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize the size of the chunks into which large N-Triples or
+     *                  N-Quads files are split. A value &le; 0 disables the
+     *                  chunked parsing.
+     */
+    public void setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return {@code true} if the order of the statements of a file that is
+     *         parsed in chunks is preserved
+     */
+    public boolean isPreserveChunkOrder() {
+        return preserveChunkOrder;
+    }
+
+    /**
+     * @param preserveChunkOrder flag indicating whether the order of the
+     *                           statements of a file that is parsed in chunks
+     *                           should be preserved
+     */
+    public void setPreserveChunkOrder(boolean preserveChunkOrder) {
+        this.preserveChunkOrder = preserveChunkOrder;
+    }
+
+    /**
+     * @return the stage that removes duplicate statements or {@code null} if the
+     *         statements are not deduplicated
+     */
+    public Deduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    /**
+     * Sets the stage that removes duplicate statements. Note that the given
+     * stage has to be part of the output stream that has been given to the
+     * constructor. It is completed and closed when this transformator is closed
+     * and it is used to report the number of dropped statements.
+     * 
+     * @param deduplicator the stage that removes duplicate statements or
+     *                     {@code null} if the statements are not deduplicated
+     */
+    public void setDeduplicator(Deduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * @return the cache of terms that is shared by all parsers or {@code null} if
+     *         no shared cache is used
+     */
+    public TermCache getTermCache() {
+        return termCache;
+    }
+
+    /**
+     * Sets the cache of terms that is shared by all parsers of this
+     * transformator. Repeated IRIs and typed literals are represented by the
+     * same node instances across files and threads.
+     * 
+     * @param termCache the cache of terms or {@code null} if no shared cache
+     *                  should be used
+     */
+    public void setTermCache(TermCache termCache) {
+        this.termCache = termCache;
+    }
+
+    /**
+     * @return the filter that is applied to the parsed statements or
+     *         {@code null} if all statements are kept
+     */
+    public StatementFilter getStatementFilter() {
+        return statementFilter;
+    }
+
+    /**
+     * Sets the filter that is applied to the parsed statements. Note that input
+     * files are not copied without parsing them while a filter is set.
+     * 
+     * @param statementFilter the filter or {@code null} if all statements should
+     *                        be kept
+     */
+    public void setStatementFilter(StatementFilter statementFilter) {
+        this.statementFilter = statementFilter;
+    }
+
+    /**
+     * @return the statistics of the written statements or {@code null} if no
+     *         statistics are collected
+     */
+    public DatasetStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets the statistics that are attached to the output file. Note that this
+     * instance does not collect the statistics. They have to be filled by a
+     * {@link StatisticsStreamRDF} that is part of {@link #outStream}.
+     * 
+     * @param statistics the statistics of the written statements or
+     *                   {@code null} if no statistics are collected
+     */
+    public void setStatistics(DatasetStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return the checksums of the output file or {@code null} if they are not
+     *         computed
+     */
+    public FileChecksums getChecksums() {
+        return checksums;
+    }
+
+    /**
+     * Sets the checksums that are attached to the output file. They are
+     * computed by the output stream and are complete when the stream has been
+     * closed.
+     * 
+     * @param checksums the checksums of the output file or {@code null} if they
+     *                  are not computed
+     */
+    public void setChecksums(FileChecksums checksums) {
+        this.checksums = checksums;
+    }
+
+    /**
+     * @return the tracker of the progress or {@code null} if the progress is not
+     *         tracked
+     */
+    public ProgressTracker getProgressTracker() {
+        return progressTracker;
+    }
+
+    /**
+     * Sets the tracker that receives the sizes of the added files and the
+     * number of consumed input bytes. It is closed when this transformator is
+     * closed. Note that the written statements and bytes have to be counted by
+     * the output streams.
+     * 
+     * @param progressTracker the tracker or {@code null} if the progress should
+     *                        not be tracked
+     */
+    public void setProgressTracker(ProgressTracker progressTracker) {
+        this.progressTracker = progressTracker;
+    }
+
+    /**
+     * @return the performance metrics of the transformation or {@code null} if
+     *         no metrics are collected. Note that the metrics are only complete
+     *         after this transformator has been closed.
+     */
+    @Override
+    public TransformationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics to which the bytes, statements and times of the input
+     * files are added. They are finished when this transformator is closed.
+     * 
+     * @param metrics the performance metrics of the transformation or
+     *                {@code null} if no metrics should be collected
+     */
+    public void setMetrics(TransformationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the writer to which compatible input files are copied without
+     *         parsing them or {@code null} if all files are parsed
+     */
+    public NTuplesWriter getPassthroughWriter() {
+        return passthroughWriter;
+    }
+
+    /**
+     * Sets the writer to which compatible N-Triples and N-Quads input files are
+     * copied without parsing them. It must be the writer that receives the
+     * statements of {@link #outStream} without any further processing.
+     * 
+     * @param passthroughWriter the writer or {@code null} if all files should be
+     *                          parsed
+     */
+    public void setPassthroughWriter(NTuplesWriter passthroughWriter) {
+        this.passthroughWriter = passthroughWriter;
+    }
+
+    /**
+     * @return {@code true} if the lines of files that are copied without parsing
+     *         are validated
+     */
+    public boolean isPassthroughValidation() {
+        return passthroughValidation;
+    }
+
+    /**
+     * @param passthroughValidation flag indicating whether the lines of files that
+     *                              are copied without parsing should be validated
+     */
+    public void setPassthroughValidation(boolean passthroughValidation) {
+        this.passthroughValidation = passthroughValidation;
+    }
+
+    /**
+     * @return the number of statements that have been dropped as duplicates
+     */
+    public long getDroppedStatements() {
+        return (deduplicator != null) ? deduplicator.getDroppedStatements() : 0;
+    }
+
     @Override
     public void close() throws Exception {
-        outStream.finish();
-        out.close();
+        try {
+            if (queue != null) {
+                finishParserTasks();
+            }
+            if (deduplicator != null) {
+                deduplicator.complete();
+                LOGGER.info("Dropped {} duplicate statements.", deduplicator.getDroppedStatements());
+            }
+            if (statistics != null) {
+                LOGGER.info("Statistics of the output: {}", statistics);
+            }
+            if (statementFilter != null) {
+                LOGGER.info("Filter kept {} and dropped {} statements.", statementFilter.getKeptStatements(),
+                        statementFilter.getDroppedStatements());
+            }
+            if (termCache != null) {
+                LOGGER.info("Term cache: {} hits, {} misses (hit rate {}).", termCache.getHits(),
+                        termCache.getMisses(), String.format("%.3f", termCache.getHitRate()));
+            }
+        } finally {
+            try {
+                if (deduplicator != null) {
+                    deduplicator.close();
+                }
+            } finally {
+                try {
+                    outStream.finish();
+                    if (out != null) {
+                        out.close();
+                    }
+                } finally {
+                    synchronized (this) {
+                        if (decompressionPool != null) {
+                            decompressionPool.shutdownNow();
+                        }
+                    }
+                    if (metrics != null) {
+                        metrics.finish();
+                        LOGGER.info("Metrics of the transformation: {}", metrics);
+                    }
+                    if (progressTracker != null) {
+                        progressTracker.close();
+                    }
+                }
+            }
+        }
     }
 
 }
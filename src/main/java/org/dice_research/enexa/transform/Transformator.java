@@ -2,9 +2,13 @@ package org.dice_research.enexa.transform;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import javax.annotation.CheckForNull;
 
+import org.dice_research.enexa.transform.metrics.TransformationMetrics;
+
 public interface Transformator extends AutoCloseable {
 
     /**
@@ -71,6 +75,29 @@ public interface Transformator extends AutoCloseable {
      */
     File getOutputFile();
 
+    /**
+     * Returns all files that are produced by this transformator. The first file
+     * is always the {@link #getOutputFile() output file}. Further files may
+     * contain additional data of the output format (e.g., dictionaries). Note
+     * that the list is only complete after the transformator has been closed.
+     * 
+     * @return the list of produced files
+     */
+    default List<ProducedFile> getProducedFiles() {
+        return Collections.singletonList(new ProducedFile(getOutputFile(), null));
+    }
+
+    /**
+     * Returns the performance metrics of the transformation (see
+     * {@link TransformationMetrics}). Note that the metrics are only complete
+     * after the transformator has been closed.
+     * 
+     * @return the metrics or {@code null} if no metrics are collected
+     */
+    default @CheckForNull TransformationMetrics getMetrics() {
+        return null;
+    }
+
     /**
      * Creates a new {@link TransformatorBuilder} instance to build a new
      * {@link Transformator}.
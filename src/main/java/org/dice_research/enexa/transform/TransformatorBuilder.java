@@ -5,50 +5,192 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.zip.Deflater;
 
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
 import org.apache.commons.io.IOUtils;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.system.StreamRDFWriter;
+import org.dice_research.enexa.transform.dedup.BloomFilter;
+import org.dice_research.enexa.transform.dedup.DeduplicatingStreamRDF;
+import org.dice_research.enexa.transform.dedup.Deduplicator;
+import org.dice_research.enexa.transform.dedup.SortingDeduplicator;
+import org.dice_research.enexa.transform.filter.StatementFilter;
+import org.dice_research.enexa.transform.io.AsyncOutputStream;
+import org.dice_research.enexa.transform.io.BgzfOutputStream;
+import org.dice_research.enexa.transform.io.ChecksumOutputStream;
+import org.dice_research.enexa.transform.io.CountingOutputStream;
+import org.dice_research.enexa.transform.io.ParallelBZip2OutputStream;
+import org.dice_research.enexa.transform.io.TimingOutputStream;
+import org.dice_research.enexa.transform.metrics.TimingStreamRDF;
+import org.dice_research.enexa.transform.metrics.TransformationMetrics;
+import org.dice_research.enexa.transform.parse.ChunkedFileParser;
+import org.dice_research.enexa.transform.parse.TermCache;
+import org.dice_research.enexa.transform.progress.ProgressReport;
+import org.dice_research.enexa.transform.progress.ProgressStreamRDF;
+import org.dice_research.enexa.transform.progress.ProgressTracker;
+import org.dice_research.enexa.transform.stats.DatasetStatistics;
+import org.dice_research.enexa.transform.stats.StatisticsStreamRDF;
+import org.dice_research.enexa.transform.write.FanOutStreamRDF;
+import org.dice_research.enexa.transform.write.HDTWriter;
+import org.dice_research.enexa.transform.write.IdTriplesWriter;
+import org.dice_research.enexa.transform.write.NTuplesWriter;
+import org.dice_research.enexa.transform.write.OutputTarget;
+import org.dice_research.enexa.transform.write.ParquetStatementWriter;
+import org.dice_research.enexa.transform.write.PartitioningStreamRDF;
+import org.dice_research.enexa.transform.write.RollingStreamRDF;
 import org.dice_research.enexa.vocab.IANAMediaType;
 import org.semanticweb.owlapi.model.OWLDocumentFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class TransformatorBuilder {
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+
+public class TransformatorBuilder implements Cloneable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TransformatorBuilder.class);
 
+    /**
+     * The default number of statement batches that can wait for the writer
+     * thread if the input files are parsed in parallel.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    /**
+     * The default number of statements that are expected for the approximate
+     * deduplication.
+     */
+    public static final long DEFAULT_EXPECTED_STATEMENTS = 10_000_000L;
+    /**
+     * The default false positive rate of the approximate deduplication.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
     protected String outputFileName = null;
     protected File outputDirectory = null;
     protected Compression compression = Compression.NONE;
     protected String outputFormatIri = null;
     protected Lang outputFormatJena = null;
     protected OWLDocumentFormat outputFormatOwl = null;
+    protected boolean hdtOutput = false;
+    protected boolean parquetOutput = false;
+    protected boolean idTriplesOutput = false;
+    /**
+     * Files that are created in addition to the output file while building the
+     * transformator.
+     */
+    protected List<ProducedFile> additionalFiles = new ArrayList<>();
+    protected int parallelism = 1;
+    protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    protected boolean pipelined = false;
+    protected int compressionThreads = Runtime.getRuntime().availableProcessors();
+    protected Integer compressionLevel = null;
+    protected long chunkSize = ChunkedFileParser.DEFAULT_CHUNK_SIZE;
+    protected boolean preserveOrder = false;
+    protected Deduplication deduplication = Deduplication.NONE;
+    protected long expectedStatements = DEFAULT_EXPECTED_STATEMENTS;
+    protected double falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+    protected File tempDirectory = null;
+    protected long sortMemoryBudget = Runtime.getRuntime().maxMemory() / 4;
+    protected int termCacheSize = TermCache.DEFAULT_SIZE;
+    protected long rowGroupSize = ParquetStatementWriter.DEFAULT_ROW_GROUP_SIZE;
+    protected boolean passthrough = true;
+    protected boolean passthroughValidation = false;
+    protected long shardSize = 0;
+    protected long shardStatements = 0;
+    protected int partitions = 1;
+    /**
+     * Further output files that are written in addition to the output file from
+     * the same stream of statements.
+     */
+    protected List<AdditionalTarget> targets = new ArrayList<>();
+    /**
+     * The filter that is applied to the parsed statements or {@code null} if
+     * all statements are kept.
+     */
+    protected StatementFilter statementFilter = null;
+    protected boolean statistics = false;
+    protected ChecksumAlgorithm checksumAlgorithm = null;
+    protected boolean uncompressedChecksum = false;
+    /**
+     * The checksums of the output files that are created while building the
+     * transformator or while writing the output (e.g., shards).
+     */
+    protected Map<File, FileChecksums> outputChecksums = Collections.synchronizedMap(new HashMap<>());
+    protected long progressInterval = 0;
+    protected Consumer<ProgressReport> progressListener = null;
+    /**
+     * The tracker of the transformator that is currently built or {@code null}
+     * if the progress is not tracked. It counts the bytes written to the output
+     * files.
+     */
+    protected ProgressTracker progressTracker = null;
+    protected boolean metrics = false;
+    /**
+     * The metrics of the transformator that is currently built or {@code null}
+     * if no metrics are collected. They receive the compression time of the
+     * output files.
+     */
+    protected TransformationMetrics transformationMetrics = null;
 
     public Transformator build() throws IOException {
-        if (outputFormatIri == null) {
-            LOGGER.error("The given output format is null.");
-            throw new IllegalArgumentException("The given output format is null.");
+        resolveOutputFormat();
+        boolean sharded = (shardSize > 0) || (shardStatements > 0);
+        boolean partitioned = partitions > 1;
+        if ((sharded || partitioned) && (idTriplesOutput || outputFormatOwl != null)) {
+            String msg = "The output format \"" + outputFormatIri + "\" can not be split into several files.";
+            LOGGER.error(msg);
+            throw new IllegalArgumentException(msg);
         }
-
-        // Try to understand the output format
-        outputFormatJena = IANAMediaType.iri2Lang(outputFormatIri);
-        if (outputFormatJena == null) {
-            outputFormatOwl = RDF2OntologyTransformator
-                    .getFormatForMediaType(IANAMediaType.iri2ContentType(outputFormatIri));
+        if (sharded && partitioned) {
+            String msg = "The output can either be split into shards of a limited size or into partitions.";
+            LOGGER.error(msg);
+            throw new IllegalArgumentException(msg);
         }
-        if (outputFormatJena == null && outputFormatOwl == null) {
-            String msg = "The given output format \"" + outputFormatIri + "\" is unknown.";
+        if (statistics && (sharded || partitioned)) {
+            String msg = "Statistics can not be collected if the output is split into several files.";
+            LOGGER.error(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        boolean fannedOut = !targets.isEmpty();
+        if (fannedOut && (sharded || partitioned || outputFormatOwl != null)) {
+            String msg = "Additional output files can not be combined with shards, partitions or an OWL output format.";
             LOGGER.error(msg);
             throw new IllegalArgumentException(msg);
         }
 
-        File outputFile = createOutputFile();
+        String outputFileBase = createOutputFileBase();
+        File outputFile = createOutputFile(
+                (sharded || partitioned) ? createShardFileBase(outputFileBase, 0) : outputFileBase);
+        additionalFiles.clear();
+        // Shards may be created after this method returned, i.e., each
+        // transformator needs its own map
+        Map<File, FileChecksums> checksums = Collections.synchronizedMap(new HashMap<>());
+        outputChecksums = checksums;
+        ProgressTracker tracker = ((progressInterval > 0) && (outputFormatOwl == null))
+                ? new ProgressTracker(progressInterval, progressListener)
+                : null;
+        progressTracker = tracker;
+        TransformationMetrics transformationMetrics = metrics
+                ? new TransformationMetrics(pipelined && (getStreamCompression() != Compression.NONE))
+                : null;
+        this.transformationMetrics = transformationMetrics;
 
         // Create parent directoy if it doesn't exist
         if (outputDirectory != null && !outputDirectory.exists() && !outputDirectory.mkdirs()) {
@@ -60,11 +202,122 @@ public class TransformatorBuilder {
 
         OutputStream fout = null;
         try {
-            fout = createOutputStream(outputFile);
-            if (outputFormatJena != null) {
-                return new StreamingTransformator(createRDFStream(fout), fout, outputFile);
+            // The size of the first shard is counted while it is written
+            LongAdder writtenBytes = (shardSize > 0) ? new LongAdder() : null;
+            fout = createOutputStream(outputFile, (writtenBytes != null) ? writtenBytes::add : null);
+            if (outputFormatJena != null || hdtOutput || parquetOutput || idTriplesOutput) {
+                DatasetStatistics datasetStatistics = statistics ? new DatasetStatistics() : null;
+                StreamRDF rdfStream = createRDFStream(fout, outputFile, outputFileBase);
+                RollingStreamRDF rollingStream = null;
+                if (sharded) {
+                    // The shards are created while writing, i.e., possibly after this
+                    // builder has been reused. A copy keeps the per-build checksum map,
+                    // progress tracker and metrics.
+                    TransformatorBuilder shardBuilder = copy();
+                    // The files of later shards are reported by the shard listener
+                    shardBuilder.additionalFiles = new ArrayList<>();
+                    // The rolling stream owns the streams of all shards
+                    rollingStream = new RollingStreamRDF(
+                            createOutputTarget(outputFile, fout, rdfStream, writtenBytes),
+                            index -> shardBuilder.createShard(outputFileBase, index), shardSize, shardStatements);
+                    rdfStream = rollingStream;
+                }
+                if (partitioned) {
+                    rdfStream = createPartitioningStream(outputFileBase,
+                            new OutputTarget(outputFile, fout, rdfStream));
+                }
+                if (fannedOut) {
+                    rdfStream = createFanOutStream(outputFileBase, new OutputTarget(outputFile, fout, rdfStream),
+                            datasetStatistics);
+                }
+                if (datasetStatistics != null) {
+                    // The statistics are collected on the writer thread after the deduplication
+                    rdfStream = new StatisticsStreamRDF(rdfStream, datasetStatistics);
+                }
+                if (tracker != null) {
+                    rdfStream = new ProgressStreamRDF(rdfStream, tracker);
+                }
+                if (transformationMetrics != null) {
+                    rdfStream = new TimingStreamRDF(rdfStream, transformationMetrics);
+                }
+                Deduplicator deduplicator = null;
+                switch (deduplication) {
+                case APPROXIMATE: {
+                    DeduplicatingStreamRDF bloomDeduplicator = new DeduplicatingStreamRDF(rdfStream,
+                            new BloomFilter(expectedStatements, falsePositiveRate));
+                    deduplicator = bloomDeduplicator;
+                    rdfStream = bloomDeduplicator;
+                    break;
+                }
+                case EXACT: {
+                    SortingDeduplicator sortingDeduplicator = new SortingDeduplicator(rdfStream, tempDirectory,
+                            sortMemoryBudget);
+                    deduplicator = sortingDeduplicator;
+                    rdfStream = sortingDeduplicator;
+                    break;
+                }
+                case NONE: // falls through
+                default:
+                    break;
+                }
+                // The streams of several output files are closed by the RDF stream
+                boolean ownsOutput = sharded || partitioned || fannedOut;
+                StreamingTransformator transformator = new StreamingTransformator(rdfStream,
+                        ownsOutput ? null : fout, outputFile, parallelism, queueCapacity, pipelined);
+                transformator.setDeduplicator(deduplicator);
+                transformator.setStatistics(datasetStatistics);
+                transformator.setChecksums(checksums.get(outputFile));
+                additionalFiles.forEach(transformator::addProducedFile);
+                if (rollingStream != null) {
+                    boolean indexedShards = getStreamCompression() == Compression.BGZIP;
+                    rollingStream.setShardListener(file -> {
+                        transformator.addProducedFile(new ProducedFile(file, null, null, checksums.get(file)));
+                        if (indexedShards) {
+                            transformator.addProducedFile(new ProducedFile(
+                                    new File(file.getPath() + BgzfOutputStream.INDEX_FILE_SUFFIX),
+                                    BgzfOutputStream.INDEX_MEDIA_TYPE_IRI));
+                        }
+                    });
+                }
+                // Copied files are not counted as statements but as written bytes
+                StreamRDF writer = (rdfStream instanceof TimingStreamRDF) ? ((TimingStreamRDF) rdfStream).getTarget()
+                        : rdfStream;
+                writer = (writer instanceof ProgressStreamRDF) ? ((ProgressStreamRDF) writer).getTarget() : writer;
+                if (passthrough && (writer instanceof NTuplesWriter)) {
+                    // Compatible input files can be copied directly to the writer
+                    transformator.setPassthroughWriter((NTuplesWriter) writer);
+                    transformator.setPassthroughValidation(passthroughValidation);
+                }
+                if ((statementFilter != null) && !statementFilter.isEmpty()) {
+                    transformator.setStatementFilter(statementFilter);
+                }
+                if (termCacheSize > 0) {
+                    transformator.setTermCache(new TermCache(termCacheSize));
+                }
+                transformator.setDecompressionThreads(compressionThreads);
+                transformator.setChunkSize(chunkSize);
+                transformator.setPreserveChunkOrder(preserveOrder);
+                transformator.setMetrics(transformationMetrics);
+                if (tracker != null) {
+                    transformator.setProgressTracker(tracker);
+                    tracker.start();
+                }
+                return transformator;
             } else {
-                return RDF2OntologyTransformator.create(outputFormatOwl, outputFile, fout);
+                if ((statementFilter != null) && !statementFilter.isEmpty()) {
+                    LOGGER.warn("The statement filter is not applied to the OWL output format.");
+                }
+                if (statistics) {
+                    LOGGER.info("Statistics are not collected for the OWL output format.");
+                }
+                if (progressInterval > 0) {
+                    LOGGER.info("The progress is not reported for the OWL output format.");
+                }
+                RDF2OntologyTransformator transformator = RDF2OntologyTransformator.create(outputFormatOwl,
+                        outputFile, fout);
+                transformator.setMetrics(transformationMetrics);
+                transformator.setDecompressionThreads(compressionThreads);
+                return transformator;
             }
         } catch (Throwable e) {
             // If the stream is open, try to close it
@@ -73,8 +326,51 @@ public class TransformatorBuilder {
         }
     }
 
-    protected File createOutputFile() {
-        // Create File object for the output file
+    /**
+     * Identifies the output format and checks whether it can be combined with
+     * the other settings.
+     * 
+     * @throws IllegalArgumentException if the output format is not supported
+     */
+    protected void resolveOutputFormat() {
+        if (outputFormatIri == null) {
+            LOGGER.error("The given output format is null.");
+            throw new IllegalArgumentException("The given output format is null.");
+        }
+
+        // Try to understand the output format
+        outputFormatOwl = null;
+        outputFormatJena = IANAMediaType.iri2Lang(outputFormatIri);
+        hdtOutput = (outputFormatJena == null) && HDTWriter.isHDTFormat(outputFormatIri);
+        parquetOutput = (outputFormatJena == null) && ParquetStatementWriter.isParquetFormat(outputFormatIri);
+        idTriplesOutput = (outputFormatJena == null) && IdTriplesWriter.isIdTriplesFormat(outputFormatIri);
+        if (outputFormatJena == null && !hdtOutput && !parquetOutput && !idTriplesOutput) {
+            outputFormatOwl = RDF2OntologyTransformator
+                    .getFormatForMediaType(IANAMediaType.iri2ContentType(outputFormatIri));
+        }
+        if (outputFormatJena == null && outputFormatOwl == null && !hdtOutput && !parquetOutput
+                && !idTriplesOutput) {
+            String msg = "The given output format \"" + outputFormatIri + "\" is unknown.";
+            LOGGER.error(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        if (outputFormatJena != null && !NTuplesWriter.isSupported(outputFormatJena)
+                && !StreamRDFWriter.canWrite(outputFormatJena)) {
+            String msg = "The given output format \"" + outputFormatIri + "\" cannot be written as a stream.";
+            LOGGER.error(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        if (parquetOutput && compression == Compression.BZIP2) {
+            String msg = "Parquet files can not be compressed with " + compression + ".";
+            LOGGER.error(msg);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * @return the path of the output file without file extensions
+     */
+    protected String createOutputFileBase() {
         StringBuilder outputFileBuilder = new StringBuilder();
         // Add parent path if it exists
         if (outputDirectory != null) {
@@ -84,6 +380,168 @@ public class TransformatorBuilder {
         // Add file name (or choose a random name)
         outputFileBuilder.append(
                 (outputFileName != null) ? outputFileName : Integer.toString(Math.abs((new Random()).nextInt())));
+        return outputFileBuilder.toString();
+    }
+
+    /**
+     * @param outputFileBase the path of the output file without file extensions
+     * @param index          the index of the shard
+     * @return the path of the shard's file without file extensions
+     */
+    protected String createShardFileBase(String outputFileBase, int index) {
+        return String.format("%s-%05d", outputFileBase, index);
+    }
+
+    /**
+     * Creates the file, the output stream and the RDF stream of the shard with
+     * the given index.
+     * 
+     * @param outputFileBase the path of the output file without file extensions
+     * @param index          the index of the shard
+     * @return the new shard
+     * @throws IOException if the file of the shard can not be created
+     */
+    protected OutputTarget createShard(String outputFileBase, int index) throws IOException {
+        File shardFile = createOutputFile(createShardFileBase(outputFileBase, index));
+        LongAdder writtenBytes = (shardSize > 0) ? new LongAdder() : null;
+        OutputStream shardOut = createOutputStream(shardFile, (writtenBytes != null) ? writtenBytes::add : null);
+        try {
+            return createOutputTarget(shardFile, shardOut, createRDFStream(shardOut, shardFile, outputFileBase),
+                    writtenBytes);
+        } catch (Throwable e) {
+            IOUtils.closeQuietly(shardOut);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the target of the given file. If the bytes of the file are
+     * counted, the target reports the number of bytes that have been written to
+     * it. For uncompressed N-Triples or N-Quads, the writer counts the bytes
+     * itself, which includes the content of its buffer.
+     * 
+     * @param file         the file of the target
+     * @param out          the lower-level output stream of the file
+     * @param stream       the (started) writer of the target
+     * @param writtenBytes the counter that has been given to
+     *                     {@link #createOutputStream(File, LongConsumer)} or
+     *                     {@code null} if the bytes are not counted
+     * @return the new target
+     */
+    protected OutputTarget createOutputTarget(File file, OutputStream out, StreamRDF stream,
+            LongAdder writtenBytes) {
+        if (writtenBytes == null) {
+            return new OutputTarget(file, out, stream);
+        }
+        LongSupplier counter = writtenBytes::sum;
+        if ((stream instanceof NTuplesWriter) && (getStreamCompression() == Compression.NONE)) {
+            counter = ((NTuplesWriter) stream)::getWrittenBytes;
+        }
+        return new OutputTarget(file, out, stream, counter);
+    }
+
+    /**
+     * Creates the remaining partitions and a stream that distributes the
+     * statements over all partitions. The files of the created partitions are
+     * added to the {@link #additionalFiles}.
+     * 
+     * @param outputFileBase the path of the output file without file extensions
+     * @param firstPartition the first partition, which is closed by the caller in
+     *                       case of an error
+     * @return the stream that distributes the statements over the partitions
+     * @throws IOException if the file of a partition can not be created
+     */
+    protected PartitioningStreamRDF createPartitioningStream(String outputFileBase,
+            OutputTarget firstPartition) throws IOException {
+        List<OutputTarget> partitionList = new ArrayList<>(partitions);
+        partitionList.add(firstPartition);
+        try {
+            for (int i = 1; i < partitions; ++i) {
+                OutputTarget partition = createShard(outputFileBase, i);
+                partitionList.add(partition);
+                additionalFiles.add(
+                        new ProducedFile(partition.getFile(), null, null, outputChecksums.get(partition.getFile())));
+            }
+        } catch (Throwable e) {
+            for (int i = 1; i < partitionList.size(); ++i) {
+                IOUtils.closeQuietly(partitionList.get(i).getOut());
+            }
+            throw e;
+        }
+        return new PartitioningStreamRDF(partitionList);
+    }
+
+    /**
+     * Creates the additional output files and a stream that sends the statements
+     * to all output files. The files of the additional targets are added to the
+     * {@link #additionalFiles}.
+     * 
+     * @param outputFileBase    the path of the output file without file
+     *                          extensions
+     * @param firstTarget       the output file, which is closed by the caller in
+     *                          case of an error
+     * @param datasetStatistics the statistics that are attached to the
+     *                          additional files or {@code null} if no
+     *                          statistics are collected
+     * @return the stream that sends the statements to all output files
+     * @throws IOException if one of the files can not be created
+     */
+    protected FanOutStreamRDF createFanOutStream(String outputFileBase, OutputTarget firstTarget,
+            DatasetStatistics datasetStatistics) throws IOException {
+        List<OutputTarget> targetList = new ArrayList<>(targets.size() + 1);
+        targetList.add(firstTarget);
+        try {
+            for (AdditionalTarget target : targets) {
+                // Use a copy of this builder to create the writer of the target
+                TransformatorBuilder targetBuilder = copy();
+                targetBuilder.outputFormatIri = target.getOutputFormatIri();
+                targetBuilder.compression = target.getCompression();
+                targetBuilder.resolveOutputFormat();
+                if (targetBuilder.outputFormatOwl != null) {
+                    throw new IllegalArgumentException("The OWL format \"" + target.getOutputFormatIri()
+                            + "\" can not be used for an additional output file.");
+                }
+                File targetFile = targetBuilder.createOutputFile(outputFileBase);
+                for (OutputTarget existingTarget : targetList) {
+                    if (existingTarget.getFile().equals(targetFile)) {
+                        throw new IllegalArgumentException("The output file " + targetFile + " is used twice.");
+                    }
+                }
+                OutputStream targetOut = targetBuilder.createOutputStream(targetFile);
+                try {
+                    targetList.add(new OutputTarget(targetFile, targetOut,
+                            targetBuilder.createRDFStream(targetOut, targetFile, outputFileBase)));
+                } catch (Throwable e) {
+                    IOUtils.closeQuietly(targetOut);
+                    throw e;
+                }
+                // All targets contain the same statements
+                additionalFiles.add(new ProducedFile(targetFile, target.getOutputFormatIri(), datasetStatistics,
+                        outputChecksums.get(targetFile)));
+            }
+        } catch (Throwable e) {
+            for (int i = 1; i < targetList.size(); ++i) {
+                IOUtils.closeQuietly(targetList.get(i).getOut());
+            }
+            throw e;
+        }
+        return new FanOutStreamRDF(targetList);
+    }
+
+    /**
+     * @return a shallow copy of this builder
+     */
+    protected TransformatorBuilder copy() {
+        try {
+            return (TransformatorBuilder) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Couldn't copy the builder.", e);
+        }
+    }
+
+    protected File createOutputFile(String outputFileBase) {
+        // Create File object for the output file
+        StringBuilder outputFileBuilder = new StringBuilder(outputFileBase);
         // Add file extension of the output language
         String fileExtension = getFileExtension();
         if (fileExtension != null && !fileExtension.isEmpty()) {
@@ -91,15 +549,24 @@ public class TransformatorBuilder {
             outputFileBuilder.append(fileExtension);
         }
         // Add file extension if we use compression
-        switch (compression) {
+        switch (getStreamCompression()) {
         case BZIP2: {
             outputFileBuilder.append(".bz2");
             break;
         }
-        case GZIP: {
+        case GZIP: // falls through
+        case BGZIP: {
             outputFileBuilder.append(".gz");
             break;
         }
+        case ZSTD: {
+            outputFileBuilder.append(".zst");
+            break;
+        }
+        case LZ4: {
+            outputFileBuilder.append(".lz4");
+            break;
+        }
         case NONE: // falls through
         default:
             break;
@@ -111,6 +578,12 @@ public class TransformatorBuilder {
         if (outputFormatJena != null) {
             List<String> extensions = outputFormatJena.getFileExtensions();
             return extensions.size() > 0 ? extensions.get(0) : null;
+        } else if (hdtOutput) {
+            return HDTWriter.FILE_EXTENSION;
+        } else if (parquetOutput) {
+            return ParquetStatementWriter.FILE_EXTENSION;
+        } else if (idTriplesOutput) {
+            return IdTriplesWriter.FILE_EXTENSION;
         } else if (outputFormatIri.endsWith("application/owl+xml")) {
             return "owl";
         } else if (outputFormatIri.endsWith("text/owl-manchester")) {
@@ -121,23 +594,108 @@ public class TransformatorBuilder {
     }
 
     protected OutputStream createOutputStream(File outputFile) throws IOException {
+        return createOutputStream(outputFile, null);
+    }
+
+    /**
+     * Creates the (compressed) output stream of the given file.
+     * 
+     * @param outputFile  the file to which the stream writes
+     * @param byteCounter receives the number of (compressed) bytes that are
+     *                    written to the file or {@code null} if the bytes do not
+     *                    have to be counted. Bytes that are written directly to
+     *                    the channel of the file are not counted.
+     * @return the output stream
+     * @throws IOException if the file can not be opened
+     */
+    protected OutputStream createOutputStream(File outputFile, LongConsumer byteCounter) throws IOException {
         OutputStream fout = null;
         try {
-            fout = new BufferedOutputStream(new FileOutputStream(outputFile));
+            OutputStream fileStream = new FileOutputStream(outputFile);
+            FileChecksums fileChecksums = (checksumAlgorithm != null) ? new FileChecksums(checksumAlgorithm) : null;
+            if (fileChecksums != null) {
+                outputChecksums.put(outputFile, fileChecksums);
+                // Hash the bytes as they are written to the file
+                fileStream = new ChecksumOutputStream(fileStream, checksumAlgorithm, fileChecksums::setChecksum);
+            }
+            if (progressTracker != null) {
+                fileStream = new CountingOutputStream(fileStream, progressTracker::addWrittenBytes);
+            }
+            // The NIO writer writes its large buffer directly to the file's channel
+            fout = isChannelOutput() ? fileStream : new BufferedOutputStream(fileStream);
+            if ((byteCounter != null) && !isChannelOutput()) {
+                // Count the bytes before they are buffered
+                fout = new CountingOutputStream(fout, byteCounter);
+            }
             // Add compression if needed
-            switch (compression) {
+            switch (getStreamCompression()) {
             case BZIP2: {
-                fout = new BZip2CompressorOutputStream(fout);
+                int blockSize = (compressionLevel == null) ? BZip2CompressorOutputStream.MAX_BLOCKSIZE
+                        : Math.max(BZip2CompressorOutputStream.MIN_BLOCKSIZE,
+                                Math.min(BZip2CompressorOutputStream.MAX_BLOCKSIZE, compressionLevel));
+                if (getOutputCompressionThreads() > 1) {
+                    fout = new ParallelBZip2OutputStream(fout, getOutputCompressionThreads(), blockSize);
+                } else {
+                    fout = new BZip2CompressorOutputStream(fout, blockSize);
+                }
                 break;
             }
             case GZIP: {
-                fout = new GzipCompressorOutputStream(fout);
+                GzipParameters parameters = new GzipParameters();
+                if (compressionLevel != null) {
+                    parameters.setCompressionLevel(compressionLevel);
+                }
+                fout = new GzipCompressorOutputStream(fout, parameters);
+                break;
+            }
+            case BGZIP: {
+                File indexFile = new File(outputFile.getPath() + BgzfOutputStream.INDEX_FILE_SUFFIX);
+                fout = new BgzfOutputStream(fout, getOutputCompressionThreads(), indexFile,
+                        (compressionLevel == null) ? Deflater.DEFAULT_COMPRESSION : compressionLevel);
+                // The index is written when the stream is closed
+                additionalFiles.add(new ProducedFile(indexFile, BgzfOutputStream.INDEX_MEDIA_TYPE_IRI));
+                break;
+            }
+            case ZSTD: {
+                ZstdOutputStream zout = new ZstdOutputStream(fout,
+                        (compressionLevel == null) ? Zstd.defaultCompressionLevel() : compressionLevel);
+                fout = zout;
+                if (getOutputCompressionThreads() > 1) {
+                    zout.setWorkers(getOutputCompressionThreads());
+                }
+                break;
+            }
+            case LZ4: {
+                Parameters.Builder lz77Parameters = BlockLZ4CompressorOutputStream.createParameterBuilder();
+                if (compressionLevel != null) {
+                    // Trade speed for compression ratio on high levels
+                    if (compressionLevel >= 9) {
+                        lz77Parameters.tunedForCompressionRatio();
+                    } else if (compressionLevel <= 1) {
+                        lz77Parameters.tunedForSpeed();
+                    }
+                }
+                fout = new FramedLZ4CompressorOutputStream(fout, new FramedLZ4CompressorOutputStream.Parameters(
+                        FramedLZ4CompressorOutputStream.BlockSize.M4, true, false, false, lz77Parameters.build()));
                 break;
             }
             case NONE: // falls through
             default:
                 break;
             }
+            if ((transformationMetrics != null) && (getStreamCompression() != Compression.NONE)) {
+                // Measure the compression (uncompressed files keep their direct
+                // access to the file's channel)
+                fout = new TimingOutputStream(fout, transformationMetrics::addCompressionNanos);
+            }
+            if ((fileChecksums != null) && uncompressedChecksum && (getStreamCompression() != Compression.NONE)) {
+                // Hash the bytes before they are compressed
+                fout = new ChecksumOutputStream(fout, checksumAlgorithm, fileChecksums::setUncompressedChecksum);
+            }
+            // Compress and write the data on a separate thread
+            if (pipelined && (getStreamCompression() != Compression.NONE)) {
+                fout = new AsyncOutputStream(fout);
+            }
 
             return fout;
         } catch (Throwable e) {
@@ -147,9 +705,64 @@ public class TransformatorBuilder {
         }
     }
 
-    protected StreamRDF createRDFStream(OutputStream fout) {
+    /**
+     * @return the number of threads that compress a single output file, i.e.,
+     *         the compression threads are shared by the partitions of a
+     *         partitioned output or by all targets
+     */
+    protected int getOutputCompressionThreads() {
+        return Math.max(1, compressionThreads / (Math.max(1, partitions) * (1 + targets.size())));
+    }
+
+    /**
+     * @return the compression that is applied to the output stream, i.e.,
+     *         {@link Compression#NONE} for Parquet files, which compress their
+     *         pages internally
+     */
+    protected Compression getStreamCompression() {
+        return parquetOutput ? Compression.NONE : compression;
+    }
+
+    /**
+     * @return {@code true} if the output is written by an {@link NTuplesWriter}
+     *         directly to the channel of the output file, i.e., it is neither
+     *         compressed nor are checksums computed or written bytes counted
+     */
+    protected boolean isChannelOutput() {
+        return (compression == Compression.NONE) && (outputFormatJena != null)
+                && NTuplesWriter.isSupported(outputFormatJena) && (checksumAlgorithm == null)
+                && (progressTracker == null);
+    }
+
+    protected StreamRDF createRDFStream(OutputStream fout, File outputFile, String outputFileBase)
+            throws IOException {
         // Create RDF stream
-        StreamRDF outStream = StreamRDFWriter.getWriterStream(fout, outputFormatJena);
+        StreamRDF outStream;
+        if (idTriplesOutput) {
+            File entityFile = new File(outputFileBase + IdTriplesWriter.ENTITY_FILE_SUFFIX);
+            File relationFile = new File(outputFileBase + IdTriplesWriter.RELATION_FILE_SUFFIX);
+            outStream = new IdTriplesWriter(fout, entityFile, relationFile);
+            additionalFiles.add(new ProducedFile(entityFile, IdTriplesWriter.DICTIONARY_MEDIA_TYPE_IRI));
+            additionalFiles.add(new ProducedFile(relationFile, IdTriplesWriter.DICTIONARY_MEDIA_TYPE_IRI));
+        } else if (hdtOutput) {
+            outStream = new HDTWriter(fout, outputFile.toURI().toString(), tempDirectory);
+        } else if (parquetOutput) {
+            outStream = new ParquetStatementWriter(fout, rowGroupSize, ParquetStatementWriter.getCodec(compression));
+        } else if (NTuplesWriter.isSupported(outputFormatJena)) {
+            if (fout instanceof FileOutputStream) {
+                outStream = new NTuplesWriter(((FileOutputStream) fout).getChannel(), outputFormatJena,
+                        NTuplesWriter.DEFAULT_BUFFER_SIZE, true);
+            } else {
+                if (getStreamCompression() == Compression.NONE) {
+                    // The checksum and the counting of written bytes need the data
+                    LOGGER.info("{} is written through a stream instead of the file's channel since checksums are "
+                            + "computed or the written bytes are counted.", outputFile);
+                }
+                outStream = new NTuplesWriter(fout, outputFormatJena, NTuplesWriter.DEFAULT_BUFFER_SIZE);
+            }
+        } else {
+            outStream = StreamRDFWriter.getWriterStream(fout, outputFormatJena);
+        }
         outStream.start();
         return outStream;
     }
@@ -213,4 +826,652 @@ public class TransformatorBuilder {
         this.outputDirectory = outputDirectory;
         return this;
     }
+
+    /**
+     * @return the number of input files that are parsed concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of input files that are parsed concurrently. A value &gt; 1
+     * enables the parallel mode of the {@link StreamingTransformator}, in which
+     * the files are parsed by a pool of threads and the statements are written by
+     * a single writer thread. The default value is 1, i.e., all files are parsed
+     * sequentially.
+     * 
+     * @param parallelism the number of input files that are parsed concurrently
+     */
+    public TransformatorBuilder setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of statement batches that can wait for the
+     *         writer thread
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of statement batches that can wait for the writer
+     * thread if the input files are parsed in parallel. Together with the
+     * parallelism, it bounds the number of statements that are held in memory.
+     * 
+     * @param queueCapacity the maximum number of statement batches that can wait
+     *                      for the writer thread
+     */
+    public TransformatorBuilder setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * @return whether the pipelined mode is enabled
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * Enables or disables the pipelined mode. In this mode, the decompression of
+     * input files, the parsing, the serialization and the compression of the
+     * output are executed on separate threads that are connected by bounded
+     * buffers. Hence, the throughput is limited by the slowest of these stages
+     * instead of their sum. The default value is {@code false}.
+     * 
+     * @param pipelined whether the pipelined mode should be enabled
+     */
+    public TransformatorBuilder setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+        return this;
+    }
+
+    /**
+     * @return the number of threads that are used to compress the output (if the
+     *         compression supports it) and to decompress a single input file
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    /**
+     * Sets the number of threads that are used to compress the output (if the
+     * compression supports it) and to decompress a single input file (if its
+     * compression supports it). The default value is the number of available
+     * processors.
+     * 
+     * @param compressionThreads the number of threads
+     */
+    public TransformatorBuilder setCompressionThreads(int compressionThreads) {
+        this.compressionThreads = compressionThreads;
+        return this;
+    }
+
+    /**
+     * @return the compression level or {@code null} if the default level of the
+     *         compression is used
+     */
+    public Integer getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the compression level. Its meaning depends on the chosen compression:
+     * <ul>
+     * <li>GZIP and BGZIP: the deflate level (0-9)</li>
+     * <li>BZIP2: the block size in 100k (1-9)</li>
+     * <li>ZSTD: the Zstandard level (e.g., 1-22 or negative values for faster
+     * compression)</li>
+     * <li>LZ4: values &le; 1 are tuned for speed while values &ge; 9 are tuned
+     * for the compression ratio</li>
+     * </ul>
+     * If the level is {@code null} (the default), the default level of the chosen
+     * compression is used.
+     * 
+     * @param compressionLevel the compression level or {@code null} to use the
+     *                         default
+     */
+    public TransformatorBuilder setCompressionLevel(Integer compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * @return the size of the chunks into which large N-Triples or N-Quads files
+     *         are split
+     */
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the size of the chunks (in bytes) into which large, uncompressed
+     * N-Triples or N-Quads files are split if the parallelism is &gt; 1. The
+     * chunks of a file are parsed concurrently. The default value is 64 MiB. A
+     * value &le; 0 disables the chunked parsing.
+     * 
+     * @param chunkSize the size of the chunks in bytes
+     */
+    public TransformatorBuilder setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return whether the order of the statements of a file that is parsed in
+     *         chunks is preserved
+     */
+    public boolean isPreserveOrder() {
+        return preserveOrder;
+    }
+
+    /**
+     * Sets whether the order of the statements of a file that is parsed in
+     * chunks should be preserved. Preserving the order may reduce the throughput
+     * since a chunk can only be written after all previous chunks of the file
+     * have been written. The default value is {@code false}.
+     * 
+     * @param preserveOrder whether the order should be preserved
+     */
+    public TransformatorBuilder setPreserveOrder(boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+        return this;
+    }
+
+    /**
+     * @return the deduplication mode
+     */
+    public Deduplication getDeduplication() {
+        return deduplication;
+    }
+
+    /**
+     * Sets the deduplication mode. The default value is
+     * {@link Deduplication#NONE}. Note that the deduplication is not supported
+     * for OWL output formats.
+     * 
+     * @param deduplication the deduplication mode
+     */
+    public TransformatorBuilder setDeduplication(Deduplication deduplication) {
+        this.deduplication = deduplication;
+        return this;
+    }
+
+    /**
+     * @return the expected number of statements used to size the approximate
+     *         deduplication
+     */
+    public long getExpectedStatements() {
+        return expectedStatements;
+    }
+
+    /**
+     * Sets the expected number of (unique) statements. It is used to size the
+     * Bloom filter of the approximate deduplication. The filter needs roughly
+     * {@code -expectedStatements * ln(falsePositiveRate) / ln(2)^2} bits of
+     * off-heap memory. If more statements are written, the false positive rate
+     * increases. The default value is 10 million.
+     * 
+     * @param expectedStatements the expected number of statements
+     */
+    public TransformatorBuilder setExpectedStatements(long expectedStatements) {
+        this.expectedStatements = expectedStatements;
+        return this;
+    }
+
+    /**
+     * @return the targeted false positive rate of the approximate deduplication
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Sets the targeted false positive rate of the approximate deduplication,
+     * i.e., the probability that a unique statement is dropped because it is
+     * mistaken for a duplicate. The default value is 0.001.
+     * 
+     * @param falsePositiveRate the false positive rate (0 &lt; rate &lt; 1)
+     */
+    public TransformatorBuilder setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        return this;
+    }
+
+    /**
+     * @return the directory for temporary files or {@code null} if the default
+     *         temporary directory is used
+     */
+    public File getTempDirectory() {
+        return tempDirectory;
+    }
+
+    /**
+     * Sets the directory in which temporary files (e.g., the sorted runs of the
+     * exact deduplication or the dictionary of an HDT output) are created. The
+     * default value is {@code null}, i.e., the default temporary directory of the
+     * JVM is used.
+     * 
+     * @param tempDirectory the directory for temporary files
+     */
+    public TransformatorBuilder setTempDirectory(File tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    /**
+     * @return the number of bytes of heap memory that the exact deduplication
+     *         uses for sorting statements
+     */
+    public long getSortMemoryBudget() {
+        return sortMemoryBudget;
+    }
+
+    /**
+     * Sets the number of bytes of heap memory that the exact deduplication uses
+     * for sorting statements before they are written as a sorted run to a
+     * temporary file. The budget is limited to the maximum size of an array
+     * (roughly 2 GiB). The default value is a quarter of the maximum heap size.
+     * 
+     * @param sortMemoryBudget the memory budget in bytes
+     */
+    public TransformatorBuilder setSortMemoryBudget(long sortMemoryBudget) {
+        this.sortMemoryBudget = sortMemoryBudget;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of IRIs (and typed literals) in the term cache
+     *         that is shared by all parsers
+     */
+    public int getTermCacheSize() {
+        return termCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of IRIs (and the maximum number of typed literals)
+     * in the term cache that is shared by all parsers of the transformator. A
+     * value &le; 0 disables the cache. The default value is 100,000.
+     * 
+     * @param termCacheSize the size of the cache
+     */
+    public TransformatorBuilder setTermCacheSize(int termCacheSize) {
+        this.termCacheSize = termCacheSize;
+        return this;
+    }
+
+    /**
+     * @return the size of a row group of a Parquet output file in bytes
+     */
+    public long getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    /**
+     * Sets the size of a row group of a Parquet output file in bytes. The rows of
+     * a group are buffered in memory before they are written. The default value
+     * is 64 MiB.
+     * 
+     * @param rowGroupSize the size of a row group in bytes
+     */
+    public TransformatorBuilder setRowGroupSize(long rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if compatible N-Triples and N-Quads input files are
+     *         copied to the output without parsing them
+     */
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    /**
+     * Sets whether N-Triples and N-Quads input files are copied to an N-Triples
+     * or N-Quads output without parsing them. This is only possible if the
+     * statements are not processed further (e.g., deduplicated). The default
+     * value is {@code true}.
+     * 
+     * @param passthrough flag indicating whether compatible files should be
+     *                    copied without parsing them
+     */
+    public TransformatorBuilder setPassthrough(boolean passthrough) {
+        this.passthrough = passthrough;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if the lines of files that are copied without parsing
+     *         are validated
+     */
+    public boolean isPassthroughValidation() {
+        return passthroughValidation;
+    }
+
+    /**
+     * Sets whether the lines of files that are copied without parsing them are
+     * validated with a cheap check of their structure. Note that the validation
+     * prevents the zero-copy transfer of uncompressed files. The default value
+     * is {@code false}.
+     * 
+     * @param passthroughValidation flag indicating whether the lines should be
+     *                              validated
+     */
+    public TransformatorBuilder setPassthroughValidation(boolean passthroughValidation) {
+        this.passthroughValidation = passthroughValidation;
+        return this;
+    }
+
+    /**
+     * @return the size of an output file (shard) in bytes after which the next
+     *         file is started or a value &le; 0 if the size is not limited
+     */
+    public long getShardSize() {
+        return shardSize;
+    }
+
+    /**
+     * Sets the size of an output file in bytes after which the output is
+     * continued in a new file (shard). The size is checked regularly while the
+     * statements are written. Since data that is still buffered by the writer or
+     * the compression is not counted, the files can become larger than the given
+     * size. Each shard is compressed separately and gets the name of the output
+     * file with a consecutive number (e.g., {@code output-00001.nt.gz}). A value
+     * &le; 0 (the default) disables the size limit. Note that the integer ID and
+     * OWL output formats can not be split.
+     * 
+     * @param shardSize the size of a shard in bytes
+     */
+    public TransformatorBuilder setShardSize(long shardSize) {
+        this.shardSize = shardSize;
+        return this;
+    }
+
+    /**
+     * @return the number of statements after which the next output file (shard)
+     *         is started or a value &le; 0 if the number is not limited
+     */
+    public long getShardStatements() {
+        return shardStatements;
+    }
+
+    /**
+     * Sets the number of statements after which the output is continued in a new
+     * file (shard). It can be combined with {@link #setShardSize(long)}. A value
+     * &le; 0 (the default) disables the limit.
+     * 
+     * @param shardStatements the number of statements of a shard
+     */
+    public TransformatorBuilder setShardStatements(long shardStatements) {
+        this.shardStatements = shardStatements;
+        return this;
+    }
+
+    /**
+     * @return the number of output files (partitions) over which the statements
+     *         are distributed
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Sets the number of output files (partitions) over which the statements are
+     * distributed based on a stable hash of their subject (or of their graph if
+     * they are quads of a named graph). Hence, each partition contains all
+     * statements about its subjects. Each partition is serialized and compressed
+     * by its own thread and gets the name of the output file with a consecutive
+     * number (e.g., {@code output-00001.nt.gz}). The default value is 1, i.e.,
+     * the output is not partitioned. Partitioning can not be combined with
+     * shards of a limited size (see {@link #setShardSize(long)}) and is not
+     * supported for the integer ID and OWL output formats.
+     * 
+     * @param partitions the number of partitions
+     */
+    public TransformatorBuilder setPartitions(int partitions) {
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * @return the output files that are written in addition to the output file
+     */
+    public List<AdditionalTarget> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Adds an output file that is written in addition to the output file. All
+     * output files receive the statements of the same parsing pass, i.e., the
+     * input files are only read and parsed once. Each output file is written by
+     * its own thread with its own serialization and compression and gets the
+     * name of the output file with the file extensions of its format and
+     * compression. Two output files must not have the same format and
+     * compression. Additional output files can not be combined with shards,
+     * partitions or an OWL format.
+     * 
+     * @param outputFormatIri the IRI of the format of the additional file
+     * @param compression     the compression of the additional file
+     */
+    public TransformatorBuilder addTarget(String outputFormatIri, Compression compression) {
+        this.targets.add(new AdditionalTarget(outputFormatIri, compression));
+        return this;
+    }
+
+    /**
+     * @return the filter that is applied to the parsed statements or
+     *         {@code null} if all statements are kept
+     */
+    public StatementFilter getStatementFilter() {
+        return statementFilter;
+    }
+
+    /**
+     * Sets the filter that is applied to the parsed statements before they are
+     * written. An empty filter is ignored. Note that N-Triples and N-Quads input
+     * files are not copied without parsing them while a filter is set (see
+     * {@link #setPassthrough(boolean)}) and that the filter is not applied to
+     * the OWL output formats.
+     * 
+     * @param statementFilter the filter or {@code null} if all statements should
+     *                        be kept
+     */
+    public TransformatorBuilder setStatementFilter(StatementFilter statementFilter) {
+        this.statementFilter = statementFilter;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if statistics of the written statements are collected
+     */
+    public boolean isStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets whether statistics of the written statements (see
+     * {@link DatasetStatistics}) are collected while the statements are written.
+     * They are attached to the produced files (see
+     * {@link ProducedFile#getStatistics()}). Collecting statistics prevents the
+     * copying of input files without parsing them (see
+     * {@link #setPassthrough(boolean)}) and can not be combined with shards or
+     * partitions. The default value is {@code false}.
+     * 
+     * @param statistics flag indicating whether statistics should be collected
+     */
+    public TransformatorBuilder setStatistics(boolean statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    /**
+     * @return the algorithm of the checksums of the output files or
+     *         {@code null} if no checksums are computed
+     */
+    public ChecksumAlgorithm getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    /**
+     * Sets the algorithm of the checksums that are computed while the output
+     * files are written. The checksum covers the bytes as they are written to
+     * the file (i.e., the compressed data) and is attached to the produced
+     * files (see {@link ProducedFile#getChecksums()}). Note that checksums are
+     * not reported for the OWL output formats. For uncompressed N-Triples and
+     * N-Quads output, the checksum requires the written data, i.e., the data
+     * is written through a stream instead of directly to the channel of the
+     * output file and copied input files are not transferred with
+     * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+     * The default value is {@code null}, i.e., no checksums are computed.
+     * 
+     * @param checksumAlgorithm the algorithm or {@code null} if no checksums
+     *                          should be computed
+     */
+    public TransformatorBuilder setChecksumAlgorithm(ChecksumAlgorithm checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if a checksum of the uncompressed data is computed
+     *         for compressed output files
+     */
+    public boolean isUncompressedChecksum() {
+        return uncompressedChecksum;
+    }
+
+    /**
+     * Sets whether a second checksum of the uncompressed data is computed for
+     * compressed output files. It is only computed if a checksum algorithm has
+     * been set (see {@link #setChecksumAlgorithm(ChecksumAlgorithm)}). The
+     * default value is {@code false}.
+     * 
+     * @param uncompressedChecksum flag indicating whether the uncompressed data
+     *                             should be hashed
+     */
+    public TransformatorBuilder setUncompressedChecksum(boolean uncompressedChecksum) {
+        this.uncompressedChecksum = uncompressedChecksum;
+        return this;
+    }
+
+    /**
+     * @return the interval in which the progress is reported in milliseconds or
+     *         {@code 0} if the progress is not reported
+     */
+    public long getProgressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * Sets the interval in which a background thread reports the progress of
+     * the transformation (see {@link ProgressReport}), i.e., the consumed input
+     * bytes, the written statements and bytes, the throughput and an estimate
+     * of the remaining time. The reports are logged and handed to the progress
+     * listener (see {@link #setProgressListener(Consumer)}). Note that the
+     * progress is not reported for the OWL output formats. Since the written
+     * bytes are counted, uncompressed N-Triples and N-Quads output is written
+     * through a stream instead of directly to the channel of the output file
+     * (see {@link #setChecksumAlgorithm(ChecksumAlgorithm)}). The default value
+     * is {@code 0}, i.e., the progress is not reported.
+     * 
+     * @param progressInterval the interval in milliseconds or {@code 0} if the
+     *                         progress should not be reported
+     */
+    public TransformatorBuilder setProgressInterval(long progressInterval) {
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
+    /**
+     * @return the listener that receives the progress reports or {@code null}
+     *         if the reports are only logged
+     */
+    public Consumer<ProgressReport> getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * Sets the listener that receives the progress reports. It is called by the
+     * background thread, i.e., it does not block the transformation. The
+     * default value is {@code null}, i.e., the reports are only logged.
+     * 
+     * @param progressListener the listener or {@code null} if the reports
+     *                         should only be logged
+     */
+    public TransformatorBuilder setProgressListener(Consumer<ProgressReport> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * @return {@code true} if performance metrics of the transformation are
+     *         collected
+     */
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets whether performance metrics of the transformation (see
+     * {@link TransformationMetrics}) are collected, i.e., the bytes, statements
+     * and decompression and parsing times of each input file as well as the
+     * serialization and compression times, the wall-clock time and the peak
+     * heap usage. They are available via {@link Transformator#getMetrics()}
+     * after the transformator has been closed. The default value is
+     * {@code false}.
+     * 
+     * @param metrics flag indicating whether metrics should be collected
+     */
+    public TransformatorBuilder setMetrics(boolean metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * An output file that is written in addition to the output file.
+     * 
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    public static class AdditionalTarget {
+        /**
+         * The IRI of the format of the file.
+         */
+        protected final String outputFormatIri;
+        /**
+         * The compression of the file.
+         */
+        protected final Compression compression;
+
+        /**
+         * Constructor.
+         * 
+         * @param outputFormatIri the IRI of the format of the file
+         * @param compression     the compression of the file
+         */
+        public AdditionalTarget(String outputFormatIri, Compression compression) {
+            super();
+            this.outputFormatIri = outputFormatIri;
+            this.compression = compression;
+        }
+
+        /**
+         * @return the IRI of the format of the file
+         */
+        public String getOutputFormatIri() {
+            return outputFormatIri;
+        }
+
+        /**
+         * @return the compression of the file
+         */
+        public Compression getCompression() {
+            return compression;
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package org.dice_research.enexa.transform.dedup;
+
+import org.dice_research.enexa.transform.util.OffHeapLongArray;
+
+/**
+ * A Bloom filter that stores its bits outside of the Java heap. The filter is
+ * sized based on the expected number of elements and the targeted false
+ * positive rate. The elements are represented by 128-bit hashes from which the
+ * positions of the bits are derived (double hashing). The memory of the
+ * filter is released when it is closed.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BloomFilter implements AutoCloseable {
+
+    /**
+     * The bits of the filter.
+     */
+    protected OffHeapLongArray bits;
+    /**
+     * The number of bits of the filter.
+     */
+    protected long bitCount;
+    /**
+     * The number of bits that are set per element.
+     */
+    protected int hashCount;
+
+    /**
+     * Constructor.
+     * 
+     * @param expectedElements  the expected number of elements
+     * @param falsePositiveRate the targeted probability that an element is
+     *                          reported as contained although it has not been
+     *                          added (0 &lt; rate &lt; 1)
+     * @throws IllegalArgumentException if a parameter is out of its range or the
+     *                                  filter does not fit into the available
+     *                                  direct memory
+     */
+    public BloomFilter(long expectedElements, double falsePositiveRate) {
+        super();
+        if (expectedElements <= 0) {
+            throw new IllegalArgumentException("The expected number of elements has to be positive.");
+        }
+        if ((falsePositiveRate <= 0) || (falsePositiveRate >= 1)) {
+            throw new IllegalArgumentException("The false positive rate has to be in the range (0,1).");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (ln2 * ln2));
+        // Round up to complete longs
+        long words = Math.max(1, (optimalBits + 63) >>> 6);
+        bitCount = words << 6;
+        hashCount = (int) Math.max(1, Math.round(((double) bitCount / expectedElements) * ln2));
+        // Fail early instead of running into an OutOfMemoryError
+        long bytes = words << 3;
+        long available = OffHeapLongArray.getAvailableDirectMemory();
+        if (bytes > available) {
+            throw new IllegalArgumentException(String.format(
+                    "A Bloom filter for %d elements with a false positive rate of %s needs %d bytes of direct memory "
+                            + "but only %d of %d bytes are available. Reduce the expected number of elements, "
+                            + "increase the false positive rate or increase -XX:MaxDirectMemorySize.",
+                    expectedElements, falsePositiveRate, bytes, available, OffHeapLongArray.getMaxDirectMemory()));
+        }
+        bits = new OffHeapLongArray(words);
+    }
+
+    /**
+     * Adds the element with the given hash to the filter.
+     * 
+     * @param hash1 the first 64 bits of the element's hash
+     * @param hash2 the second 64 bits of the element's hash
+     * @return {@code true} if the element has been added, {@code false} if it
+     *         (probably) has been added before
+     */
+    public boolean put(long hash1, long hash2) {
+        boolean added = false;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; ++i) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            long word = bits.get(index >>> 6);
+            long mask = 1L << index;
+            if ((word & mask) == 0) {
+                bits.set(index >>> 6, word | mask);
+                added = true;
+            }
+            combined += hash2;
+        }
+        return added;
+    }
+
+    /**
+     * Checks whether the element with the given hash (probably) has been added.
+     * 
+     * @param hash1 the first 64 bits of the element's hash
+     * @param hash2 the second 64 bits of the element's hash
+     * @return {@code true} if the element probably has been added, {@code false}
+     *         if it definitely has not been added
+     */
+    public boolean mightContain(long hash1, long hash2) {
+        long combined = hash1;
+        for (int i = 0; i < hashCount; ++i) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of bits of the filter
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * @return the number of bits that are set per element
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Releases the memory of the filter. The filter must not be used
+     * afterwards.
+     */
+    @Override
+    public void close() {
+        bits.close();
+    }
+}
@@ -0,0 +1,173 @@
+package org.dice_research.enexa.transform.dedup;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDFLib;
+import org.dice_research.enexa.transform.util.StatementHasher;
+
+/**
+ * A stream that forwards only statements that (probably) haven't been seen
+ * before. The statements are hashed and checked against a {@link BloomFilter}.
+ * Hence, the memory consumption is fixed but a false positive of the filter
+ * leads to a unique statement being dropped. Batches are filtered in place
+ * before they are forwarded.
+ * 
+ * <p>
+ * An instance is not thread-safe. It is meant to be used in front of the
+ * writer, i.e., by a single thread.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class DeduplicatingStreamRDF implements StreamRDF, BatchedStreamRDF, Deduplicator {
+
+    /**
+     * The stream to which single statements are forwarded.
+     */
+    protected StreamRDF target;
+    /**
+     * The stream to which batches are forwarded.
+     */
+    protected BatchedStreamRDF batchedTarget;
+    /**
+     * The filter containing the hashes of the forwarded statements.
+     */
+    protected BloomFilter filter;
+    /**
+     * The hasher used for the statements.
+     */
+    protected StatementHasher hasher = new StatementHasher();
+    /**
+     * The number of statements that have been dropped.
+     */
+    protected long droppedStatements = 0;
+
+    /**
+     * Constructor.
+     * 
+     * @param target the stream to which the unique statements are forwarded
+     * @param filter the filter used to identify duplicates
+     */
+    public DeduplicatingStreamRDF(StreamRDF target, BloomFilter filter) {
+        super();
+        this.target = target;
+        this.batchedTarget = BatchedStreamRDFLib.unbatch(target);
+        this.filter = filter;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (isNew(triple)) {
+            target.triple(triple);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (isNew(quad)) {
+            target.quad(quad);
+        }
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        int kept = 0;
+        for (int i = 0; i < size; ++i) {
+            if (isNew(triples[i])) {
+                triples[kept] = triples[i];
+                ++kept;
+            }
+        }
+        if (kept > 0) {
+            batchedTarget.triples(triples, kept);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        int kept = 0;
+        for (int i = 0; i < size; ++i) {
+            if (isNew(quads[i])) {
+                quads[kept] = quads[i];
+                ++kept;
+            }
+        }
+        if (kept > 0) {
+            batchedTarget.quads(quads, kept);
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        target.finish();
+    }
+
+    /**
+     * Checks whether the given triple is new and adds it to the filter.
+     * 
+     * @param triple the triple that should be checked
+     * @return {@code true} if the triple hasn't been seen before
+     */
+    protected boolean isNew(Triple triple) {
+        hasher.hash(triple);
+        return checkHash();
+    }
+
+    /**
+     * Checks whether the given quad is new and adds it to the filter.
+     * 
+     * @param quad the quad that should be checked
+     * @return {@code true} if the quad hasn't been seen before
+     */
+    protected boolean isNew(Quad quad) {
+        hasher.hash(quad);
+        return checkHash();
+    }
+
+    /**
+     * Adds the current hash of the {@link #hasher} to the filter.
+     * 
+     * @return {@code true} if the hash hasn't been seen before
+     */
+    protected boolean checkHash() {
+        if (filter.put(hasher.getHash1(), hasher.getHash2())) {
+            return true;
+        } else {
+            ++droppedStatements;
+            return false;
+        }
+    }
+
+    @Override
+    public void complete() {
+        // nothing to do since no statements are held back
+    }
+
+    @Override
+    public long getDroppedStatements() {
+        return droppedStatements;
+    }
+
+    @Override
+    public void close() {
+        filter.close();
+    }
+}
@@ -0,0 +1,35 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A stage in front of the writer that removes duplicate statements.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public interface Deduplicator extends Closeable {
+
+    /**
+     * Sends all statements that are still held back by the deduplicator to the
+     * target. It has to be called once after all statements have been received.
+     * 
+     * @throws IOException if an IO error occurs while writing the remaining
+     *                     statements
+     */
+    public void complete() throws IOException;
+
+    /**
+     * @return the number of statements that have been dropped as duplicates
+     */
+    public long getDroppedStatements();
+
+    /**
+     * Releases all resources (e.g., temporary files) of the deduplicator.
+     * 
+     * @throws IOException if an IO error occurs while releasing the resources
+     */
+    @Override
+    public void close() throws IOException;
+}
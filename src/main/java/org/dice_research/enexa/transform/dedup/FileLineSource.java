@@ -0,0 +1,112 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+/**
+ * A {@link LineSource} that reads the lines of a compressed run file.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+class FileLineSource implements LineSource {
+
+    /**
+     * The stream from which the lines are read.
+     */
+    protected InputStream in;
+    /**
+     * The read buffer.
+     */
+    protected byte[] buffer = new byte[1 << 16];
+    /**
+     * The start of the current line.
+     */
+    protected int start = 0;
+    /**
+     * The length of the current line.
+     */
+    protected int length = -1;
+    /**
+     * The end of the valid data in the buffer.
+     */
+    protected int end = 0;
+    /**
+     * Flag indicating whether the end of the stream has been reached.
+     */
+    protected boolean eof = false;
+
+    /**
+     * Constructor.
+     * 
+     * @param file the run file
+     * @throws IOException if the file can not be opened
+     */
+    public FileLineSource(File file) throws IOException {
+        super();
+        in = new ZstdInputStream(new FileInputStream(file));
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        // Skip the current line and its line feed
+        if (length >= 0) {
+            start += length + 1;
+        }
+        int scanFrom = start;
+        while (true) {
+            for (int i = scanFrom; i < end; ++i) {
+                if (buffer[i] == '\n') {
+                    length = i - start;
+                    return true;
+                }
+            }
+            if (eof) {
+                // The last line of a run always ends with a line feed
+                length = -1;
+                return false;
+            }
+            // Move the remaining bytes to the beginning of the buffer
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            if (end == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            }
+            scanFrom = end;
+            int read = in.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                eof = true;
+            } else {
+                end += read;
+            }
+        }
+    }
+
+    @Override
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    @Override
+    public int offset() {
+        return start;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
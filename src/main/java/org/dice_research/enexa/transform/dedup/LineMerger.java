@@ -0,0 +1,147 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An {@link InputStream} that merges several sorted {@link LineSource}
+ * instances (k-way merge) and returns the merged lines. Duplicate lines are
+ * returned only once. The sources are closed when they are exhausted or when
+ * this stream is closed.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+class LineMerger extends InputStream {
+
+    /**
+     * The sources ordered by their current lines.
+     */
+    protected PriorityQueue<LineSource> queue;
+    /**
+     * The buffer containing merged lines that haven't been read, yet.
+     */
+    protected byte[] buffer = new byte[1 << 16];
+    protected int position = 0;
+    protected int limit = 0;
+    /**
+     * The last line that has been returned.
+     */
+    protected byte[] lastLine = new byte[1024];
+    /**
+     * The length of the last line or -1 if no line has been returned, yet.
+     */
+    protected int lastLength = -1;
+    /**
+     * The number of duplicate lines that have been dropped.
+     */
+    protected long droppedLines = 0;
+
+    /**
+     * Constructor.
+     * 
+     * @param sources the sorted sources that should be merged
+     * @throws IOException if an error occurs while reading the first lines of the
+     *                     sources
+     */
+    public LineMerger(List<LineSource> sources) throws IOException {
+        super();
+        queue = new PriorityQueue<>(Math.max(1, sources.size()), LineSource::compare);
+        for (LineSource source : sources) {
+            if (source.next()) {
+                queue.add(source);
+            } else {
+                source.close();
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if ((position == limit) && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if ((position == limit) && !fill()) {
+            return -1;
+        }
+        int length = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    /**
+     * Fills the buffer with the next merged lines.
+     * 
+     * @return {@code false} if all sources are exhausted
+     * @throws IOException if an error occurs while reading a source
+     */
+    protected boolean fill() throws IOException {
+        position = 0;
+        limit = 0;
+        while (!queue.isEmpty()) {
+            LineSource source = queue.peek();
+            int length = source.length();
+            if (limit + length + 1 > buffer.length) {
+                if (limit > 0) {
+                    break;
+                }
+                buffer = new byte[length + 1];
+            }
+            queue.poll();
+            if ((length == lastLength) && Arrays.equals(lastLine, 0, length, source.buffer(), source.offset(),
+                    source.offset() + length)) {
+                ++droppedLines;
+            } else {
+                System.arraycopy(source.buffer(), source.offset(), buffer, limit, length);
+                limit += length;
+                buffer[limit] = '\n';
+                ++limit;
+                if (lastLine.length < length) {
+                    lastLine = new byte[Math.max(length, lastLine.length << 1)];
+                }
+                System.arraycopy(source.buffer(), source.offset(), lastLine, 0, length);
+                lastLength = length;
+            }
+            if (source.next()) {
+                queue.add(source);
+            } else {
+                source.close();
+            }
+        }
+        return limit > 0;
+    }
+
+    /**
+     * @return the number of duplicate lines that have been dropped
+     */
+    public long getDroppedLines() {
+        return droppedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        while (!queue.isEmpty()) {
+            try {
+                queue.poll().close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A sorted sequence of lines (without line breaks) that is consumed by the
+ * {@link LineMerger}. The current line is valid until {@link #next()} is
+ * called again.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+interface LineSource extends Closeable {
+
+    /**
+     * Moves to the next line.
+     * 
+     * @return {@code true} if there is a next line, {@code false} if the source
+     *         is exhausted
+     * @throws IOException if an IO error occurs while reading the next line
+     */
+    boolean next() throws IOException;
+
+    /**
+     * @return the array containing the current line
+     */
+    byte[] buffer();
+
+    /**
+     * @return the position of the current line within {@link #buffer()}
+     */
+    int offset();
+
+    /**
+     * @return the length of the current line
+     */
+    int length();
+
+    /**
+     * Compares the current lines of the two given sources byte by byte
+     * (unsigned).
+     * 
+     * @param a the first source
+     * @param b the second source
+     * @return a negative value, zero or a positive value if the line of the first
+     *         source is smaller, equal or larger than the line of the second
+     *         source
+     */
+    static int compare(LineSource a, LineSource b) {
+        return Arrays.compareUnsigned(a.buffer(), a.offset(), a.offset() + a.length(), b.buffer(), b.offset(),
+                b.offset() + b.length());
+    }
+}
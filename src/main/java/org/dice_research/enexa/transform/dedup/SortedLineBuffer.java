@@ -0,0 +1,243 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * An in-memory buffer of lines that can be sorted. The lines are stored in a
+ * single byte array and are referenced by an index of (offset, length) pairs
+ * packed into long values. Hence, sorting doesn't create any objects per line.
+ * 
+ * <p>
+ * The byte array grows by doubling its size but not beyond the given maximum
+ * capacity. Only if a single write needs more space, the array is enlarged to
+ * exactly the needed size. Hence, the owner can bound the size of the array
+ * by writing the buffer to disk before it is full.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+class SortedLineBuffer extends OutputStream {
+
+    /**
+     * The maximum size of an array.
+     */
+    protected static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 16;
+
+    /**
+     * The bytes of the lines (each line ends with a line feed).
+     */
+    protected byte[] data;
+    /**
+     * The number of bytes in {@link #data}.
+     */
+    protected int size = 0;
+    /**
+     * The sorted index of the lines or {@code null} if the buffer has not been
+     * sorted.
+     */
+    protected long[] index = null;
+    /**
+     * The number of lines in the index.
+     */
+    protected int lineCount = 0;
+    /**
+     * The capacity up to which the byte array grows by doubling its size.
+     */
+    protected int maxCapacity;
+
+    /**
+     * Constructor.
+     * 
+     * @param initialCapacity the initial capacity in bytes
+     */
+    public SortedLineBuffer(int initialCapacity) {
+        this(initialCapacity, MAX_ARRAY_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param initialCapacity the initial capacity in bytes
+     * @param maxCapacity     the capacity in bytes up to which the buffer grows
+     *                        by doubling its size
+     */
+    public SortedLineBuffer(int initialCapacity, int maxCapacity) {
+        super();
+        this.maxCapacity = Math.max(initialCapacity, Math.min(maxCapacity, MAX_ARRAY_SIZE));
+        data = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        data[size] = (byte) b;
+        ++size;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, data, size, len);
+        size += len;
+    }
+
+    /**
+     * @param capacity the number of bytes the buffer should be able to hold
+     */
+    protected void ensureCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalStateException("The line buffer exceeded the maximum size of an array.");
+        }
+        if (capacity > data.length) {
+            int newCapacity = (int) Math.min(maxCapacity, 2L * data.length);
+            if (newCapacity < capacity) {
+                // Only enlarge the array to the needed size
+                newCapacity = (int) Math.min(MAX_ARRAY_SIZE, capacity);
+            }
+            if (newCapacity < capacity) {
+                throw new IllegalStateException("The line buffer exceeded the maximum size of an array.");
+            }
+            data = Arrays.copyOf(data, newCapacity);
+        }
+    }
+
+    /**
+     * @return the number of bytes the buffer can hold without enlarging its
+     *         array
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * @return the number of bytes in this buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Creates the index of the lines and sorts it.
+     */
+    public void sort() {
+        lineCount = 0;
+        for (int i = 0; i < size; ++i) {
+            if (data[i] == '\n') {
+                ++lineCount;
+            }
+        }
+        index = new long[lineCount];
+        int start = 0;
+        int line = 0;
+        for (int i = 0; i < size; ++i) {
+            if (data[i] == '\n') {
+                index[line] = (((long) start) << 32) | (i - start);
+                ++line;
+                start = i + 1;
+            }
+        }
+        mergeSort(index, new long[lineCount], 0, lineCount);
+    }
+
+    /**
+     * Sorts the given range of the index (top-down merge sort).
+     */
+    private void mergeSort(long[] a, long[] temp, int from, int to) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        if (length < 16) {
+            // insertion sort for small ranges
+            for (int i = from + 1; i < to; ++i) {
+                long value = a[i];
+                int j = i - 1;
+                while ((j >= from) && (compare(a[j], value) > 0)) {
+                    a[j + 1] = a[j];
+                    --j;
+                }
+                a[j + 1] = value;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(a, temp, from, middle);
+        mergeSort(a, temp, middle, to);
+        if (compare(a[middle - 1], a[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, from, temp, from, length);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; ++i) {
+            if ((right >= to) || ((left < middle) && (compare(temp[left], temp[right]) <= 0))) {
+                a[i] = temp[left];
+                ++left;
+            } else {
+                a[i] = temp[right];
+                ++right;
+            }
+        }
+    }
+
+    /**
+     * Compares the two lines referenced by the given index entries.
+     */
+    private int compare(long a, long b) {
+        int offsetA = (int) (a >>> 32);
+        int offsetB = (int) (b >>> 32);
+        return Arrays.compareUnsigned(data, offsetA, offsetA + (int) a, data, offsetB, offsetB + (int) b);
+    }
+
+    /**
+     * Removes all lines from this buffer. An array that has been enlarged beyond
+     * the maximum capacity is shrunk to the maximum capacity.
+     */
+    public void clear() {
+        if (data.length > maxCapacity) {
+            data = new byte[maxCapacity];
+        }
+        size = 0;
+        index = null;
+        lineCount = 0;
+    }
+
+    /**
+     * @return a source of the sorted lines of this buffer. {@link #sort()} has to
+     *         be called before.
+     */
+    public LineSource createSource() {
+        return new LineSource() {
+            private int current = -1;
+
+            @Override
+            public boolean next() {
+                ++current;
+                return current < lineCount;
+            }
+
+            @Override
+            public byte[] buffer() {
+                return data;
+            }
+
+            @Override
+            public int offset() {
+                return (int) (index[current] >>> 32);
+            }
+
+            @Override
+            public int length() {
+                return (int) index[current];
+            }
+
+            @Override
+            public void close() throws IOException {
+                // nothing to do
+            }
+        };
+    }
+}
@@ -0,0 +1,351 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.parse.NTuplesParser;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.write.NTuplesWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * A stage in front of the writer that removes all duplicate statements and
+ * sorts the statements. The received statements are encoded as N-Quads lines
+ * and collected in memory. If the memory budget is reached, the lines are
+ * sorted and written as compressed run (without duplicates) to a temporary
+ * file. When {@link #complete()} is called, the runs are merged (k-way merge)
+ * while duplicates are dropped and the merged statements are sent to the
+ * target. Hence, the memory consumption is bounded by the budget while the
+ * number of statements is only limited by the available disk space.
+ * 
+ * <p>
+ * The memory budget covers the buffer of the encoder, the array holding the
+ * encoded lines and the index that is needed for sorting them. The array of
+ * lines is allowed to grow up to {@value #LINE_BUFFER_SHARE}/4 of the budget,
+ * the remaining part is left for the index. A run is written as soon as the
+ * allocated array plus the index would exceed the budget or the array would
+ * have to grow beyond its share.
+ * </p>
+ * 
+ * <p>
+ * The statements are sent to the target in the byte order of their N-Quads
+ * serialization. Blank nodes keep their identity but not their labels. Note
+ * that the statements are held back until {@link #complete()} is called.
+ * Prefixes and base IRIs are forwarded directly. An instance is not
+ * thread-safe.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SortingDeduplicator implements StreamRDF, BatchedStreamRDF, Deduplicator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortingDeduplicator.class);
+
+    /**
+     * The maximum number of runs that are merged at once. If there are more
+     * runs, intermediate merges are executed.
+     */
+    public static final int MAX_FAN_IN = 64;
+    /**
+     * The size of the encoder's buffer.
+     */
+    protected static final int ENCODER_BUFFER_SIZE = 1 << 16;
+    /**
+     * The estimated number of bytes per line that is needed for sorting (index
+     * and temporary array of the merge sort).
+     */
+    protected static final int INDEX_BYTES_PER_LINE = 16;
+    /**
+     * The share of the memory budget (in quarters) that the array of encoded
+     * lines may use.
+     */
+    protected static final int LINE_BUFFER_SHARE = 3;
+    /**
+     * The minimum size of the encoder's buffer.
+     */
+    protected static final int MIN_ENCODER_BUFFER_SIZE = 256;
+    /**
+     * The compression level of the run files (fast compression).
+     */
+    protected static final int RUN_COMPRESSION_LEVEL = 1;
+
+    /**
+     * The stream to which the sorted statements are sent.
+     */
+    protected StreamRDF target;
+    /**
+     * The directory in which the run files are created or {@code null} if the
+     * default temporary directory should be used.
+     */
+    protected File tempDirectory;
+    /**
+     * The number of bytes that can be used for collecting statements in memory.
+     */
+    protected long memoryBudget;
+    /**
+     * The in-memory buffer of encoded statements.
+     */
+    protected SortedLineBuffer lines;
+    /**
+     * The maximum capacity of {@link #lines} in bytes.
+     */
+    protected int lineCapacity;
+    /**
+     * The size of the encoder's buffer in bytes.
+     */
+    protected int encoderBufferSize;
+    /**
+     * The encoder writing the statements into {@link #lines}.
+     */
+    protected NTuplesWriter encoder;
+    /**
+     * The number of statements in {@link #lines}.
+     */
+    protected long bufferedStatements = 0;
+    /**
+     * The run files that have been written.
+     */
+    protected List<File> runs = new ArrayList<>();
+    /**
+     * The number of statements that have been dropped.
+     */
+    protected long droppedStatements = 0;
+
+    /**
+     * Constructor.
+     * 
+     * @param target        the stream to which the sorted statements are sent
+     * @param tempDirectory the directory in which the run files are created or
+     *                      {@code null} if the default temporary directory
+     *                      should be used
+     * @param memoryBudget  the number of bytes that can be used for collecting
+     *                      statements in memory
+     */
+    public SortingDeduplicator(StreamRDF target, File tempDirectory, long memoryBudget) {
+        super();
+        this.target = target;
+        this.tempDirectory = tempDirectory;
+        this.memoryBudget = Math.max(1, memoryBudget);
+        // The encoder's buffer is part of the budget
+        encoderBufferSize = (int) Math.max(MIN_ENCODER_BUFFER_SIZE,
+                Math.min(ENCODER_BUFFER_SIZE, this.memoryBudget / 16));
+        lineCapacity = (int) Math.max(encoderBufferSize, Math.min(SortedLineBuffer.MAX_ARRAY_SIZE,
+                (this.memoryBudget - encoderBufferSize) / 4 * LINE_BUFFER_SHARE));
+        lines = new SortedLineBuffer(Math.min(lineCapacity, 1 << 24), lineCapacity);
+        encoder = new NTuplesWriter(lines, Lang.NQUADS, encoderBufferSize);
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        encoder.triple(triple);
+        ++bufferedStatements;
+        checkBudget();
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        encoder.quad(quad);
+        ++bufferedStatements;
+        checkBudget();
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        for (int i = 0; i < size; ++i) {
+            triple(triples[i]);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        for (int i = 0; i < size; ++i) {
+            quad(quads[i]);
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        // The statements are held back until complete() is called
+        target.finish();
+    }
+
+    /**
+     * Writes the collected statements as a run if the memory budget is reached,
+     * i.e., if the allocated memory (including the index needed for sorting)
+     * reaches the budget or if the next flush of the encoder's buffer could
+     * enlarge the array of lines beyond its maximum capacity.
+     */
+    protected void checkBudget() {
+        long allocated = encoderBufferSize + Math.max(lines.capacity(), lines.size())
+                + (bufferedStatements * INDEX_BYTES_PER_LINE);
+        if ((allocated >= memoryBudget) || ((lines.size() + encoderBufferSize) > lineCapacity)) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new IllegalStateException("Error while writing a sorted run to disk.", e);
+            }
+        }
+    }
+
+    /**
+     * Sorts the collected statements and writes them into a new run file.
+     * 
+     * @throws IOException if an error occurs while writing the run file
+     */
+    protected void spill() throws IOException {
+        encoder.finish();
+        lines.sort();
+        File runFile = createRunFile();
+        try (LineMerger merger = new LineMerger(List.of(lines.createSource()));
+                OutputStream out = createRunStream(runFile)) {
+            merger.transferTo(out);
+            droppedStatements += merger.getDroppedLines();
+        }
+        LOGGER.debug("Wrote a sorted run of {} statements to {}.", bufferedStatements, runFile);
+        lines.clear();
+        bufferedStatements = 0;
+    }
+
+    @Override
+    public void complete() throws IOException {
+        encoder.finish();
+        lines.sort();
+        // Reduce the number of runs if there are too many of them
+        while (runs.size() >= MAX_FAN_IN) {
+            List<File> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            File runFile = createRunFile();
+            try (LineMerger merger = new LineMerger(openRuns(group)); OutputStream out = createRunStream(runFile)) {
+                merger.transferTo(out);
+                droppedStatements += merger.getDroppedLines();
+            }
+            runs.removeAll(group);
+            deleteRuns(group);
+        }
+        List<LineSource> sources = openRuns(runs);
+        sources.add(lines.createSource());
+        LOGGER.info("Merging {} sorted runs ...", sources.size());
+        try (LineMerger merger = new LineMerger(sources)) {
+            new NTuplesParser(Lang.NQUADS).parse(merger, new StreamRDFWrapper(target) {
+                @Override
+                public void quad(Quad quad) {
+                    // Triples have been encoded as quads of the default graph
+                    if (Quad.isDefaultGraph(quad.getGraph())) {
+                        super.triple(quad.asTriple());
+                    } else {
+                        super.quad(quad);
+                    }
+                }
+            });
+            droppedStatements += merger.getDroppedLines();
+        }
+        lines.clear();
+        bufferedStatements = 0;
+        deleteRuns(runs);
+        runs.clear();
+    }
+
+    /**
+     * Creates a new (empty) run file and adds it to the list of runs.
+     * 
+     * @return the new run file
+     * @throws IOException if the file can not be created
+     */
+    protected File createRunFile() throws IOException {
+        File runFile = (tempDirectory != null)
+                ? Files.createTempFile(tempDirectory.toPath(), "enexa-sort-", ".run.zst").toFile()
+                : Files.createTempFile("enexa-sort-", ".run.zst").toFile();
+        runs.add(runFile);
+        return runFile;
+    }
+
+    /**
+     * Creates a compressing stream for writing the given run file.
+     * 
+     * @param runFile the run file
+     * @return the stream
+     * @throws IOException if the file can not be opened
+     */
+    protected static OutputStream createRunStream(File runFile) throws IOException {
+        return new ZstdOutputStream(new BufferedOutputStream(new FileOutputStream(runFile), 1 << 16),
+                RUN_COMPRESSION_LEVEL);
+    }
+
+    /**
+     * Opens the given run files.
+     * 
+     * @param files the run files
+     * @return the sources of the run files
+     * @throws IOException if a file can not be opened
+     */
+    protected static List<LineSource> openRuns(List<File> files) throws IOException {
+        List<LineSource> sources = new ArrayList<>(files.size() + 1);
+        try {
+            for (File file : files) {
+                sources.add(new FileLineSource(file));
+            }
+        } catch (IOException e) {
+            for (LineSource source : sources) {
+                source.close();
+            }
+            throw e;
+        }
+        return sources;
+    }
+
+    /**
+     * Deletes the given run files.
+     * 
+     * @param files the run files that should be deleted
+     */
+    protected static void deleteRuns(List<File> files) {
+        for (File file : files) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                LOGGER.warn("Couldn't delete the temporary file " + file.toString(), e);
+            }
+        }
+    }
+
+    @Override
+    public long getDroppedStatements() {
+        return droppedStatements;
+    }
+
+    @Override
+    public void close() {
+        deleteRuns(runs);
+        runs.clear();
+        lines.clear();
+    }
+}
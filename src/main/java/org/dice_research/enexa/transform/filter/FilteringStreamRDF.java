@@ -0,0 +1,77 @@
+package org.dice_research.enexa.transform.filter;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A stream that forwards only statements that are kept by the given
+ * {@link StatementFilter}. It is meant to be placed directly behind a parser,
+ * i.e., dropped statements are neither handed over to the writer thread nor
+ * serialized.
+ *
+ * <p>
+ * An instance is not thread-safe but several instances may share the same
+ * filter.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class FilteringStreamRDF implements StreamRDF {
+
+    /**
+     * The stream to which the kept statements are forwarded.
+     */
+    protected StreamRDF target;
+    /**
+     * The filter that decides which statements are kept.
+     */
+    protected StatementFilter filter;
+
+    /**
+     * Constructor.
+     *
+     * @param target the stream to which the kept statements are forwarded
+     * @param filter the filter that decides which statements are kept
+     */
+    public FilteringStreamRDF(StreamRDF target, StatementFilter filter) {
+        super();
+        this.target = target;
+        this.filter = filter;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (filter.test(triple)) {
+            target.triple(triple);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (filter.test(quad)) {
+            target.quad(quad);
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        target.finish();
+    }
+}
@@ -0,0 +1,348 @@
+package org.dice_research.enexa.transform.filter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A set of rules that decide which statements are kept. The following rules
+ * are supported:
+ * <ul>
+ * <li>allow- and deny-lists of predicates,</li>
+ * <li>allow- and deny-lists of graphs (the default graph is represented by
+ * {@link Quad#defaultGraphIRI}),</li>
+ * <li>allowed and denied triple patterns in which {@link Node#ANY} (or a
+ * variable) matches every term,</li>
+ * <li>allow- and deny-lists of languages of literal objects (a language range
+ * like {@code en} matches {@code en} and {@code en-US}) and</li>
+ * <li>allow- and deny-lists of datatypes of literal objects.</li>
+ * </ul>
+ * A statement is kept if it passes all rules, i.e., if an allow-list is not
+ * empty, the statement has to match one of its entries and it must not match
+ * an entry of a deny-list. The language and datatype rules only apply to
+ * statements with a literal object. Note that literals with a language tag
+ * have the datatype {@code rdf:langString}.
+ *
+ * <p>
+ * The rules have to be configured before the filter is used. After that, an
+ * instance is thread-safe and can be shared by several parser threads. Checking
+ * a statement does not create any objects.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StatementFilter {
+
+    private static final Triple[] EMPTY_PATTERNS = new Triple[0];
+    private static final String[] EMPTY_STRINGS = new String[0];
+
+    /**
+     * The predicates that are kept (if the set is not empty).
+     */
+    protected Set<Node> allowedPredicates = new HashSet<>();
+    /**
+     * The predicates that are dropped.
+     */
+    protected Set<Node> deniedPredicates = new HashSet<>();
+    /**
+     * The graphs that are kept (if the set is not empty).
+     */
+    protected Set<Node> allowedGraphs = new HashSet<>();
+    /**
+     * The graphs that are dropped.
+     */
+    protected Set<Node> deniedGraphs = new HashSet<>();
+    /**
+     * The patterns of which at least one has to match (if the array is not
+     * empty).
+     */
+    protected Triple[] allowedPatterns = EMPTY_PATTERNS;
+    /**
+     * The patterns that must not match.
+     */
+    protected Triple[] deniedPatterns = EMPTY_PATTERNS;
+    /**
+     * The language ranges of literals that are kept (if the array is not empty).
+     */
+    protected String[] allowedLanguages = EMPTY_STRINGS;
+    /**
+     * The language ranges of literals that are dropped.
+     */
+    protected String[] deniedLanguages = EMPTY_STRINGS;
+    /**
+     * The datatype IRIs of literals that are kept (if the set is not empty).
+     */
+    protected Set<String> allowedDatatypes = new HashSet<>();
+    /**
+     * The datatype IRIs of literals that are dropped.
+     */
+    protected Set<String> deniedDatatypes = new HashSet<>();
+    /**
+     * The number of statements that have been kept.
+     */
+    protected LongAdder keptStatements = new LongAdder();
+    /**
+     * The number of statements that have been dropped.
+     */
+    protected LongAdder droppedStatements = new LongAdder();
+
+    /**
+     * @param predicate a predicate of which the statements should be kept
+     * @return this instance
+     */
+    public StatementFilter allowPredicate(Node predicate) {
+        allowedPredicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * @param predicate a predicate of which the statements should be dropped
+     * @return this instance
+     */
+    public StatementFilter denyPredicate(Node predicate) {
+        deniedPredicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * @param graph a graph of which the statements should be kept
+     * @return this instance
+     */
+    public StatementFilter allowGraph(Node graph) {
+        allowedGraphs.add(normalizeGraph(graph));
+        return this;
+    }
+
+    /**
+     * @param graph a graph of which the statements should be dropped
+     * @return this instance
+     */
+    public StatementFilter denyGraph(Node graph) {
+        deniedGraphs.add(normalizeGraph(graph));
+        return this;
+    }
+
+    /**
+     * @param pattern a pattern of statements that should be kept
+     * @return this instance
+     */
+    public StatementFilter allowPattern(Triple pattern) {
+        allowedPatterns = append(allowedPatterns, normalizePattern(pattern));
+        return this;
+    }
+
+    /**
+     * @param pattern a pattern of statements that should be dropped
+     * @return this instance
+     */
+    public StatementFilter denyPattern(Triple pattern) {
+        deniedPatterns = append(deniedPatterns, normalizePattern(pattern));
+        return this;
+    }
+
+    /**
+     * @param languageRange a language range (e.g., {@code en}) of literals that
+     *                      should be kept
+     * @return this instance
+     */
+    public StatementFilter allowLanguage(String languageRange) {
+        allowedLanguages = append(allowedLanguages, languageRange);
+        return this;
+    }
+
+    /**
+     * @param languageRange a language range (e.g., {@code en}) of literals that
+     *                      should be dropped
+     * @return this instance
+     */
+    public StatementFilter denyLanguage(String languageRange) {
+        deniedLanguages = append(deniedLanguages, languageRange);
+        return this;
+    }
+
+    /**
+     * @param datatypeIri the IRI of a datatype of literals that should be kept
+     * @return this instance
+     */
+    public StatementFilter allowDatatype(String datatypeIri) {
+        allowedDatatypes.add(datatypeIri);
+        return this;
+    }
+
+    /**
+     * @param datatypeIri the IRI of a datatype of literals that should be dropped
+     * @return this instance
+     */
+    public StatementFilter denyDatatype(String datatypeIri) {
+        deniedDatatypes.add(datatypeIri);
+        return this;
+    }
+
+    /**
+     * @return {@code true} if the filter does not contain any rule, i.e., it
+     *         keeps all statements
+     */
+    public boolean isEmpty() {
+        return allowedPredicates.isEmpty() && deniedPredicates.isEmpty() && allowedGraphs.isEmpty()
+                && deniedGraphs.isEmpty() && (allowedPatterns.length == 0) && (deniedPatterns.length == 0)
+                && (allowedLanguages.length == 0) && (deniedLanguages.length == 0) && allowedDatatypes.isEmpty()
+                && deniedDatatypes.isEmpty();
+    }
+
+    /**
+     * Checks whether the given triple should be kept.
+     *
+     * @param triple the triple that should be checked
+     * @return {@code true} if the triple should be kept
+     */
+    public boolean test(Triple triple) {
+        return count(check(Quad.defaultGraphIRI, triple.getSubject(), triple.getPredicate(), triple.getObject()));
+    }
+
+    /**
+     * Checks whether the given quad should be kept.
+     *
+     * @param quad the quad that should be checked
+     * @return {@code true} if the quad should be kept
+     */
+    public boolean test(Quad quad) {
+        return count(check(quad.isDefaultGraph() ? Quad.defaultGraphIRI : quad.getGraph(), quad.getSubject(),
+                quad.getPredicate(), quad.getObject()));
+    }
+
+    /**
+     * Checks the rules for the given statement.
+     *
+     * @param graph     the graph of the statement
+     * @param subject   the subject of the statement
+     * @param predicate the predicate of the statement
+     * @param object    the object of the statement
+     * @return {@code true} if the statement should be kept
+     */
+    protected boolean check(Node graph, Node subject, Node predicate, Node object) {
+        if ((!allowedPredicates.isEmpty() && !allowedPredicates.contains(predicate))
+                || deniedPredicates.contains(predicate)) {
+            return false;
+        }
+        if ((!allowedGraphs.isEmpty() && !allowedGraphs.contains(graph)) || deniedGraphs.contains(graph)) {
+            return false;
+        }
+        if (object.isLiteral() && !checkLiteral(object)) {
+            return false;
+        }
+        if ((allowedPatterns.length > 0) && !matchesAny(allowedPatterns, subject, predicate, object)) {
+            return false;
+        }
+        return !matchesAny(deniedPatterns, subject, predicate, object);
+    }
+
+    /**
+     * Checks the language and datatype rules for the given literal.
+     *
+     * @param literal the literal that should be checked
+     * @return {@code true} if the literal passes the rules
+     */
+    protected boolean checkLiteral(Node literal) {
+        String language = literal.getLiteralLanguage();
+        // Literals without language are not affected by the language rules
+        if (!language.isEmpty()) {
+            if ((allowedLanguages.length > 0) && !matchesAnyRange(allowedLanguages, language)) {
+                return false;
+            }
+            if (matchesAnyRange(deniedLanguages, language)) {
+                return false;
+            }
+        }
+        if (!allowedDatatypes.isEmpty() || !deniedDatatypes.isEmpty()) {
+            String datatype = literal.getLiteralDatatypeURI();
+            if ((!allowedDatatypes.isEmpty() && !allowedDatatypes.contains(datatype))
+                    || deniedDatatypes.contains(datatype)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether one of the given patterns matches the given statement.
+     */
+    protected static boolean matchesAny(Triple[] patterns, Node subject, Node predicate, Node object) {
+        for (int i = 0; i < patterns.length; ++i) {
+            if (patterns[i].matches(subject, predicate, object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether one of the given language ranges matches the given
+     * language tag, i.e., whether the tag equals the range or starts with the
+     * range followed by a hyphen (ignoring the case).
+     */
+    protected static boolean matchesAnyRange(String[] ranges, String language) {
+        for (int i = 0; i < ranges.length; ++i) {
+            String range = ranges[i];
+            if (language.regionMatches(true, 0, range, 0, range.length())
+                    && ((language.length() == range.length()) || (language.charAt(range.length()) == '-'))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the result of a check.
+     */
+    protected boolean count(boolean keep) {
+        if (keep) {
+            keptStatements.increment();
+        } else {
+            droppedStatements.increment();
+        }
+        return keep;
+    }
+
+    protected static Node normalizeGraph(Node graph) {
+        return ((graph == null) || Quad.isDefaultGraph(graph)) ? Quad.defaultGraphIRI : graph;
+    }
+
+    /**
+     * Replaces variables and {@code null} values of the given pattern by
+     * {@link Node#ANY}.
+     */
+    protected static Triple normalizePattern(Triple pattern) {
+        return Triple.create(normalizePatternNode(pattern.getSubject()),
+                normalizePatternNode(pattern.getPredicate()), normalizePatternNode(pattern.getObject()));
+    }
+
+    protected static Node normalizePatternNode(Node node) {
+        return ((node == null) || node.isVariable()) ? Node.ANY : node;
+    }
+
+    protected static <T> T[] append(T[] array, T element) {
+        T[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = element;
+        return result;
+    }
+
+    /**
+     * @return the number of statements that have been kept
+     */
+    public long getKeptStatements() {
+        return keptStatements.sum();
+    }
+
+    /**
+     * @return the number of statements that have been dropped
+     */
+    public long getDroppedStatements() {
+        return droppedStatements.sum();
+    }
+}
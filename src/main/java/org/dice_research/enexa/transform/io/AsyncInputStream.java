@@ -0,0 +1,277 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * An {@link InputStream} that reads its source stream on a separate thread.
+ * The read data is handed over in chunks through a ring buffer of a fixed
+ * number of reusable chunks. This allows a (decompressing) source stream to
+ * run concurrently to the consumer of this stream, e.g., a parser.
+ * 
+ * <p>
+ * The reader runs on a thread of the given {@link Executor}, which makes it
+ * possible to bound the number of reader threads if many files are read. The
+ * executor needs a free thread for every open stream, since the reader only
+ * ends when the source is exhausted or the stream is closed. Without an
+ * executor, every instance starts its own thread. An error of the reader
+ * (including unchecked exceptions) is rethrown as {@link IOException} by the
+ * reading methods after the data that has been read before the error.
+ * </p>
+ * 
+ * <p>
+ * The instance takes ownership of the source stream, i.e., the source stream
+ * is closed when this stream is closed.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class AsyncInputStream extends InputStream {
+
+    /**
+     * The default size of a single chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /**
+     * The default number of chunks in the ring buffer.
+     */
+    public static final int DEFAULT_NUMBER_OF_CHUNKS = 8;
+
+    /**
+     * Marker that is sent after the last chunk.
+     */
+    private static final ByteChunk END = new ByteChunk(0);
+
+    /**
+     * The stream from which the data is read.
+     */
+    protected InputStream source;
+    /**
+     * Chunks that have been filled with data by the reader thread.
+     */
+    protected BlockingQueue<ByteChunk> filledChunks;
+    /**
+     * Chunks that can be filled by the reader thread.
+     */
+    protected BlockingQueue<ByteChunk> freeChunks;
+    /**
+     * The thread reading the source stream or {@code null} if the reader is not
+     * running.
+     */
+    protected Thread readerThread = null;
+    /**
+     * Latch that is released when the reader has ended (or will never run).
+     */
+    protected CountDownLatch readerFinished = new CountDownLatch(1);
+    /**
+     * The chunk that is currently consumed or {@code null}.
+     */
+    protected ByteChunk current = null;
+    /**
+     * The position within the current chunk.
+     */
+    protected int position = 0;
+    /**
+     * Flag indicating that the end of the source has been reached.
+     */
+    protected boolean endReached = false;
+    /**
+     * An error that occurred on the reader thread or {@code null}.
+     */
+    protected volatile Throwable error = null;
+    /**
+     * Flag indicating that this stream has been closed.
+     */
+    protected volatile boolean closed = false;
+
+    /**
+     * Constructor using the default chunk size and number of chunks.
+     * 
+     * @param source the stream from which the data is read
+     */
+    public AsyncInputStream(InputStream source) {
+        this(source, DEFAULT_CHUNK_SIZE, DEFAULT_NUMBER_OF_CHUNKS);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param source         the stream from which the data is read
+     * @param chunkSize      the size of a single chunk in bytes
+     * @param numberOfChunks the number of chunks in the ring buffer
+     */
+    public AsyncInputStream(InputStream source, int chunkSize, int numberOfChunks) {
+        this(source, chunkSize, numberOfChunks, null);
+    }
+
+    /**
+     * Constructor using the default chunk size and number of chunks.
+     * 
+     * @param source   the stream from which the data is read
+     * @param executor the executor that runs the reader or {@code null} if a
+     *                 new thread should be started
+     */
+    public AsyncInputStream(InputStream source, @CheckForNull Executor executor) {
+        this(source, DEFAULT_CHUNK_SIZE, DEFAULT_NUMBER_OF_CHUNKS, executor);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param source         the stream from which the data is read
+     * @param chunkSize      the size of a single chunk in bytes
+     * @param numberOfChunks the number of chunks in the ring buffer
+     * @param executor       the executor that runs the reader or {@code null}
+     *                       if a new thread should be started
+     */
+    public AsyncInputStream(InputStream source, int chunkSize, int numberOfChunks,
+            @CheckForNull Executor executor) {
+        super();
+        this.source = source;
+        // One additional slot for the END marker, i.e., it never blocks
+        filledChunks = new ArrayBlockingQueue<>(numberOfChunks + 1);
+        freeChunks = new ArrayBlockingQueue<>(numberOfChunks);
+        for (int i = 0; i < numberOfChunks; ++i) {
+            freeChunks.add(new ByteChunk(chunkSize));
+        }
+        if (executor != null) {
+            executor.execute(this::readSource);
+        } else {
+            Thread thread = new Thread(this::readSource, "async-input-reader");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * The method executed by the reader thread.
+     */
+    protected void readSource() {
+        synchronized (this) {
+            if (closed) {
+                readerFinished.countDown();
+                return;
+            }
+            readerThread = Thread.currentThread();
+        }
+        try {
+            while (!closed) {
+                ByteChunk chunk = freeChunks.take();
+                chunk.length = source.readNBytes(chunk.data, 0, chunk.data.length);
+                if (chunk.length > 0) {
+                    filledChunks.put(chunk);
+                }
+                if (chunk.length < chunk.data.length) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // we have been closed
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            // The queue has a free slot for the marker, i.e., the consumer is
+            // never left waiting
+            filledChunks.offer(END);
+            synchronized (this) {
+                readerThread = null;
+            }
+            // Don't leave an interrupt of close() behind on a pooled thread
+            Thread.interrupted();
+            readerFinished.countDown();
+        }
+    }
+
+    /**
+     * Makes sure that {@link #current} contains data that hasn't been consumed,
+     * yet.
+     * 
+     * @return {@code true} if data is available or {@code false} if the end of
+     *         the stream has been reached
+     * @throws IOException if the reader thread encountered an error
+     */
+    protected boolean ensureData() throws IOException {
+        if ((current != null) && (position < current.length)) {
+            return true;
+        }
+        if (current != null) {
+            freeChunks.offer(current);
+            current = null;
+        }
+        if (endReached) {
+            return false;
+        }
+        try {
+            ByteChunk chunk = filledChunks.take();
+            if (chunk == END) {
+                endReached = true;
+                if (error != null) {
+                    throw new IOException("Error while reading the source stream.", error);
+                }
+                return false;
+            }
+            current = chunk;
+            position = 0;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data.", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        int b = current.data[position] & 0xFF;
+        ++position;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int length = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (current == null) ? 0 : (current.length - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (this) {
+            if (readerThread != null) {
+                readerThread.interrupt();
+            }
+        }
+        try {
+            readerFinished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            source.close();
+        }
+    }
+}
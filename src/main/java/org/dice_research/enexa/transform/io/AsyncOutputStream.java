@@ -0,0 +1,279 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link OutputStream} that writes to its target stream on a dedicated
+ * thread. The written data is collected in chunks that are handed over through
+ * a ring buffer of a fixed number of reusable chunks. This allows a
+ * (compressing) target stream to run concurrently to the producer of the data,
+ * e.g., a serializer.
+ * 
+ * <p>
+ * Note that {@link #flush()} hands over the buffered data and asks the writer
+ * thread to flush the target stream. It does not wait for the target stream to
+ * be flushed. Errors of the writer thread (including unchecked exceptions of
+ * the target stream) are reported by the following write operation or by
+ * {@link #close()}. After an error, the writer thread keeps recycling the
+ * handed over chunks without writing them and the producer checks the state
+ * of the writer thread while it waits, i.e., it is never blocked forever. The
+ * instance takes ownership of the target stream, i.e., the target stream is
+ * closed when this stream is closed.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    /**
+     * The default size of a single chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /**
+     * The default number of chunks in the ring buffer.
+     */
+    public static final int DEFAULT_NUMBER_OF_CHUNKS = 8;
+    /**
+     * The time in milliseconds after which a waiting producer checks the state
+     * of the writer thread.
+     */
+    protected static final long WAIT_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Marker that asks the writer thread to flush the target stream.
+     */
+    private static final ByteChunk FLUSH = new ByteChunk(0);
+    /**
+     * Marker that asks the writer thread to terminate.
+     */
+    private static final ByteChunk END = new ByteChunk(0);
+
+    /**
+     * The stream to which the data is written.
+     */
+    protected OutputStream target;
+    /**
+     * Chunks that have been filled with data and wait for the writer thread.
+     */
+    protected BlockingQueue<ByteChunk> filledChunks;
+    /**
+     * Chunks that can be filled with data.
+     */
+    protected BlockingQueue<ByteChunk> freeChunks;
+    /**
+     * The thread writing to the target stream.
+     */
+    protected Thread writerThread;
+    /**
+     * The chunk that is currently filled.
+     */
+    protected ByteChunk current;
+    /**
+     * An error that occurred on the writer thread or {@code null}.
+     */
+    protected volatile Throwable error = null;
+    /**
+     * Flag indicating that this stream has been closed.
+     */
+    protected boolean closed = false;
+
+    /**
+     * Constructor using the default chunk size and number of chunks.
+     * 
+     * @param target the stream to which the data is written
+     */
+    public AsyncOutputStream(OutputStream target) {
+        this(target, DEFAULT_CHUNK_SIZE, DEFAULT_NUMBER_OF_CHUNKS);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param target         the stream to which the data is written
+     * @param chunkSize      the size of a single chunk in bytes
+     * @param numberOfChunks the number of chunks in the ring buffer (has to be
+     *                       &ge; 2)
+     */
+    public AsyncOutputStream(OutputStream target, int chunkSize, int numberOfChunks) {
+        super();
+        this.target = target;
+        // leave room for the markers
+        filledChunks = new ArrayBlockingQueue<>(numberOfChunks + 2);
+        freeChunks = new ArrayBlockingQueue<>(numberOfChunks);
+        current = new ByteChunk(chunkSize);
+        for (int i = 1; i < numberOfChunks; ++i) {
+            freeChunks.add(new ByteChunk(chunkSize));
+        }
+        writerThread = new Thread(this::writeTarget, "async-output-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * The method executed by the writer thread.
+     */
+    protected void writeTarget() {
+        try {
+            ByteChunk chunk = filledChunks.take();
+            while (chunk != END) {
+                if (error == null) {
+                    try {
+                        if (chunk == FLUSH) {
+                            target.flush();
+                        } else {
+                            target.write(chunk.data, 0, chunk.length);
+                        }
+                    } catch (Throwable e) {
+                        error = e;
+                    }
+                }
+                if (chunk != FLUSH) {
+                    chunk.length = 0;
+                    freeChunks.put(chunk);
+                }
+                chunk = filledChunks.take();
+            }
+        } catch (InterruptedException e) {
+            error = new IOException("Interrupted while writing data.", e);
+        }
+    }
+
+    /**
+     * Hands the current chunk over to the writer thread and takes a free chunk.
+     * 
+     * @throws IOException if the writer thread encountered an error
+     */
+    protected void handOver() throws IOException {
+        checkError();
+        putFilledChunk(current);
+        current = takeFreeChunk();
+    }
+
+    /**
+     * Hands the given chunk (or marker) over to the writer thread.
+     * 
+     * @param chunk the chunk that should be written
+     * @throws IOException if the writer thread terminated unexpectedly or the
+     *                     current thread has been interrupted while waiting
+     */
+    protected void putFilledChunk(ByteChunk chunk) throws IOException {
+        try {
+            while (!filledChunks.offer(chunk, WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkWriterThread();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the writer thread.", e);
+        }
+    }
+
+    /**
+     * Waits for a chunk that can be filled with data.
+     * 
+     * @return the free chunk
+     * @throws IOException if the writer thread encountered an error, terminated
+     *                     unexpectedly or the current thread has been
+     *                     interrupted while waiting
+     */
+    protected ByteChunk takeFreeChunk() throws IOException {
+        try {
+            ByteChunk chunk = freeChunks.poll(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            while (chunk == null) {
+                checkError();
+                checkWriterThread();
+                chunk = freeChunks.poll(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return chunk;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the writer thread.", e);
+        }
+    }
+
+    protected void checkError() throws IOException {
+        if (error != null) {
+            throw new IOException("Error while writing to the target stream.", error);
+        }
+    }
+
+    /**
+     * Makes sure that the writer thread is still running.
+     * 
+     * @throws IOException if the writer thread has terminated
+     */
+    protected void checkWriterThread() throws IOException {
+        if (!writerThread.isAlive()) {
+            checkError();
+            throw new IOException("The writer thread terminated unexpectedly.");
+        }
+    }
+
+    protected void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The stream has been closed.");
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (current.length >= current.data.length) {
+            handOver();
+        }
+        current.data[current.length] = (byte) b;
+        ++current.length;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (current.length >= current.data.length) {
+                handOver();
+            }
+            int length = Math.min(len, current.data.length - current.length);
+            System.arraycopy(b, off, current.data, current.length, length);
+            current.length += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (current.length > 0) {
+            handOver();
+        }
+        putFilledChunk(FLUSH);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (current.length > 0) {
+                handOver();
+            }
+        } finally {
+            closed = true;
+            try {
+                putFilledChunk(END);
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writerThread.interrupt();
+            } finally {
+                target.close();
+            }
+        }
+        checkError();
+    }
+}
@@ -0,0 +1,292 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javax.annotation.CheckForNull;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+
+/**
+ * An {@link InputStream} that decompresses data in the blocked gzip format
+ * (BGZF) in parallel. Since every block of a BGZF file contains its own size,
+ * the blocks can be read without decompressing them and can be handed over to
+ * a pool of decompressing threads. {@link #isBgzf(InputStream)} can be used to
+ * check whether a stream starts with a BGZF block.
+ * 
+ * <p>
+ * A gzip file may consist of BGZF blocks followed by further gzip members that
+ * do not contain the size of their block, e.g., if a plain gzip file has been
+ * appended to a BGZF file. As soon as such a member is encountered, the
+ * remaining data is decompressed sequentially after all previous blocks have
+ * been consumed. Optional header fields of a BGZF block (file name, comment
+ * and header CRC) are skipped.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BgzfInputStream extends ParallelBlockInputStream {
+
+    /**
+     * The size of the fixed part of a gzip member header.
+     */
+    protected static final int FIXED_HEADER_SIZE = 12;
+
+    /**
+     * The inflaters that are currently not used by a thread.
+     */
+    protected Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    /**
+     * The stream that decompresses the remaining gzip members sequentially or
+     * {@code null} if all members read so far are BGZF blocks.
+     */
+    protected InputStream sequentialStream = null;
+
+    /**
+     * Constructor.
+     * 
+     * @param source  the stream from which the BGZF data is read
+     * @param threads the number of threads decompressing the blocks
+     */
+    public BgzfInputStream(InputStream source, int threads) {
+        super(source, threads);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param source   the stream from which the BGZF data is read
+     * @param threads  the number of threads decompressing the blocks (if no
+     *                 executor is given) or the number of threads of the given
+     *                 executor that this stream should keep busy
+     * @param executor the (shared) executor that decompresses the blocks or
+     *                 {@code null} if this stream should create its own pool of
+     *                 threads
+     */
+    public BgzfInputStream(InputStream source, int threads, @CheckForNull ExecutorService executor) {
+        super(source, threads, executor);
+    }
+
+    /**
+     * Checks whether the given stream starts with a BGZF block. The given stream
+     * has to support {@link InputStream#mark(int)}. Its position is not changed
+     * by this method.
+     * 
+     * @param in the stream that should be checked
+     * @return {@code true} if the stream starts with a BGZF block
+     * @throws IOException if an IO error occurs
+     */
+    public static boolean isBgzf(InputStream in) throws IOException {
+        byte[] header = new byte[BgzfOutputStream.HEADER_SIZE];
+        in.mark(header.length);
+        int length;
+        try {
+            length = in.readNBytes(header, 0, header.length);
+        } finally {
+            in.reset();
+        }
+        return (length == header.length) && (header[0] == 0x1f) && (header[1] == (byte) 0x8b) && (header[2] == 0x08)
+                && ((header[3] & 0x04) != 0) && (header[12] == 'B') && (header[13] == 'C') && (header[14] == 2)
+                && (header[15] == 0);
+    }
+
+    @Override
+    protected Callable<byte[]> readNextBlock() throws IOException {
+        byte[] header = new byte[FIXED_HEADER_SIZE];
+        int length = source.readNBytes(header, 0, header.length);
+        if (length == 0) {
+            return null;
+        }
+        if (length < header.length) {
+            throw new EOFException("Unexpected end of BGZF data.");
+        }
+        if ((header[0] != 0x1f) || (header[1] != (byte) 0x8b) || (header[2] != 0x08)) {
+            throw new IOException("The data does not contain a valid gzip member header.");
+        }
+        if ((header[3] & 0x04) == 0) {
+            // A plain gzip member without extra field
+            startSequentialStream(Arrays.copyOf(header, 10), Arrays.copyOfRange(header, 10, header.length));
+            return null;
+        }
+        int extraLength = readShort(header, 10);
+        byte[] extra = readFully(extraLength);
+        int blockSize = -1;
+        int position = 0;
+        while (position + 4 <= extraLength) {
+            int subfieldLength = readShort(extra, position + 2);
+            if ((extra[position] == 'B') && (extra[position + 1] == 'C') && (subfieldLength == 2)) {
+                blockSize = readShort(extra, position + 4) + 1;
+            }
+            position += 4 + subfieldLength;
+        }
+        if (blockSize < 0) {
+            // A plain gzip member; the remaining data is decompressed sequentially
+            startSequentialStream(header, extra);
+            return null;
+        }
+        // Skip the optional header fields that follow the extra field
+        int optionalLength = 0;
+        if ((header[3] & 0x08) != 0) {
+            // FNAME
+            optionalLength += skipZeroTerminatedField();
+        }
+        if ((header[3] & 0x10) != 0) {
+            // FCOMMENT
+            optionalLength += skipZeroTerminatedField();
+        }
+        if ((header[3] & 0x02) != 0) {
+            // FHCRC
+            optionalLength += readFully(2).length;
+        }
+        // the remaining data contains the compressed data, the CRC32 and the size
+        final byte[] data = readFully(blockSize - FIXED_HEADER_SIZE - extraLength - optionalLength);
+        return () -> decompressBlock(data);
+    }
+
+    /**
+     * Skips a zero-terminated header field (file name or comment).
+     * 
+     * @return the number of skipped bytes including the terminating zero
+     * @throws IOException if the data ends before the end of the field
+     */
+    protected int skipZeroTerminatedField() throws IOException {
+        int length = 0;
+        int b;
+        do {
+            b = source.read();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of BGZF data.");
+            }
+            ++length;
+        } while (b != 0);
+        return length;
+    }
+
+    /**
+     * Creates the {@link #sequentialStream} that decompresses the gzip member
+     * starting with the given bytes and all following members.
+     * 
+     * @param header the bytes of the member that have already been read
+     * @param rest   further bytes of the member that have already been read
+     * @throws IOException if the header of the member is invalid
+     */
+    protected void startSequentialStream(byte[] header, byte[] rest) throws IOException {
+        byte[] member = Arrays.copyOf(header, header.length + rest.length);
+        System.arraycopy(rest, 0, member, header.length, rest.length);
+        sequentialStream = new GzipCompressorInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(member), source), true);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if ((b < 0) && (sequentialStream != null)) {
+            return sequentialStream.read();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int length = super.read(b, off, len);
+        if ((length < 0) && (sequentialStream != null)) {
+            return sequentialStream.read(b, off, len);
+        }
+        return length;
+    }
+
+    /**
+     * Decompresses the given block.
+     * 
+     * @param data the compressed data followed by the CRC32 and the size of the
+     *             uncompressed data
+     * @return the decompressed data
+     * @throws IOException if the block couldn't be decompressed
+     */
+    protected byte[] decompressBlock(byte[] data) throws IOException {
+        int compressedLength = data.length - 8;
+        if (compressedLength < 0) {
+            throw new IOException("Invalid BGZF block size.");
+        }
+        int expectedCrc = readInt(data, compressedLength);
+        int uncompressedLength = readInt(data, compressedLength + 4);
+        byte[] result = new byte[uncompressedLength];
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            inflater.setInput(data, 0, compressedLength);
+            int position = 0;
+            while (position < uncompressedLength) {
+                int length = inflater.inflate(result, position, uncompressedLength - position);
+                if ((length == 0) && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("The BGZF block is shorter than expected.");
+                }
+                position += length;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("The BGZF block contains invalid data.", e);
+        } finally {
+            inflater.reset();
+            inflaters.add(inflater);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(result);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("CRC32 of the BGZF block does not match.");
+        }
+        return result;
+    }
+
+    protected byte[] readFully(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Invalid BGZF block size.");
+        }
+        byte[] data = source.readNBytes(length);
+        if (data.length < length) {
+            throw new EOFException("Unexpected end of BGZF data.");
+        }
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            try {
+                super.close();
+            } finally {
+                if (sequentialStream != null) {
+                    sequentialStream.close();
+                }
+            }
+        } finally {
+            Inflater inflater = inflaters.poll();
+            while (inflater != null) {
+                inflater.end();
+                inflater = inflaters.poll();
+            }
+        }
+    }
+
+    protected static int readShort(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8);
+    }
+
+    protected static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8) | ((data[offset + 2] & 0xFF) << 16)
+                | ((data[offset + 3] & 0xFF) << 24);
+    }
+}
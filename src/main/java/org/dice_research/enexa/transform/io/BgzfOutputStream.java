@@ -0,0 +1,225 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link OutputStream} that writes the blocked gzip format (BGZF) known from
+ * bgzip and samtools. The data is split into blocks of at most
+ * {@value #MAX_BLOCK_DATA_SIZE} bytes. Each block is compressed independently
+ * on a pool of threads and written as a gzip member whose extra field contains
+ * the size of the block. Hence, the file can be decompressed by every gzip
+ * implementation, can be decompressed in parallel and allows random access
+ * with the help of an index.
+ * 
+ * <p>
+ * If an index file is given, a bgzip compatible index (.gzi) is written to it
+ * when the stream is closed. The index consists of the number of entries
+ * followed by pairs of compressed and uncompressed offsets of all blocks
+ * except the first one. All numbers are unsigned 64 bit little endian
+ * integers.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BgzfOutputStream extends ParallelBlockOutputStream {
+
+    /**
+     * The suffix that is appended to the name of a BGZF file to get the name of
+     * its index file.
+     */
+    public static final String INDEX_FILE_SUFFIX = ".gzi";
+    /**
+     * The IRI of the media type of the index file. There is no registered media
+     * type for bgzip indexes.
+     */
+    public static final String INDEX_MEDIA_TYPE_IRI =
+            "https://www.iana.org/assignments/media-types/application/octet-stream";
+    /**
+     * The maximum number of uncompressed bytes in a single block.
+     */
+    public static final int MAX_BLOCK_DATA_SIZE = 65280;
+    /**
+     * The maximum size of a compressed block (including header and footer).
+     */
+    public static final int MAX_BLOCK_SIZE = 65536;
+    /**
+     * The size of the header of a block.
+     */
+    protected static final int HEADER_SIZE = 18;
+    /**
+     * The size of the footer (CRC32 and uncompressed size) of a block.
+     */
+    protected static final int FOOTER_SIZE = 8;
+    /**
+     * The empty block that marks the end of a BGZF file.
+     */
+    protected static final byte[] EOF_BLOCK = new byte[] { 0x1f, (byte) 0x8b, 0x08, 0x04, 0x00, 0x00, 0x00, 0x00, 0x00,
+            (byte) 0xff, 0x06, 0x00, 0x42, 0x43, 0x02, 0x00, 0x1b, 0x00, 0x03, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+            0x00, 0x00, 0x00 };
+
+    /**
+     * The compression level that is used.
+     */
+    protected int level;
+    /**
+     * The deflaters that are currently not used by a thread.
+     */
+    protected Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    /**
+     * The file to which the index is written or {@code null} if no index should
+     * be written.
+     */
+    protected File indexFile;
+    /**
+     * The index entries (pairs of compressed and uncompressed offsets).
+     */
+    protected long[] index = new long[1024];
+    /**
+     * The number of values in {@link #index}.
+     */
+    protected int indexSize = 0;
+    protected long compressedOffset = 0;
+    protected long uncompressedOffset = 0;
+
+    /**
+     * Constructor using the default compression level.
+     * 
+     * @param target    the stream to which the compressed data is written
+     * @param threads   the number of threads compressing the blocks
+     * @param indexFile the file to which the index is written or {@code null} if
+     *                  no index should be written
+     */
+    public BgzfOutputStream(OutputStream target, int threads, File indexFile) {
+        this(target, threads, indexFile, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param target    the stream to which the compressed data is written
+     * @param threads   the number of threads compressing the blocks
+     * @param indexFile the file to which the index is written or {@code null} if
+     *                  no index should be written
+     * @param level     the compression level (0-9 or -1 for the default level)
+     */
+    public BgzfOutputStream(OutputStream target, int threads, File indexFile, int level) {
+        super(target, MAX_BLOCK_DATA_SIZE, threads);
+        this.indexFile = indexFile;
+        this.level = level;
+    }
+
+    @Override
+    protected byte[] compressBlock(byte[] data, int length) throws IOException {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            byte[] block = new byte[MAX_BLOCK_SIZE];
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            int position = HEADER_SIZE;
+            while (!deflater.finished()) {
+                if (position >= MAX_BLOCK_SIZE - FOOTER_SIZE) {
+                    throw new IOException("Compressed block exceeds the maximum BGZF block size.");
+                }
+                position += deflater.deflate(block, position, MAX_BLOCK_SIZE - FOOTER_SIZE - position);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+            int blockSize = position + FOOTER_SIZE;
+            // header
+            block[0] = 0x1f;
+            block[1] = (byte) 0x8b;
+            block[2] = 0x08; // deflate
+            block[3] = 0x04; // FEXTRA
+            // MTIME (4 bytes) and XFL are 0
+            block[9] = (byte) 0xff; // unknown OS
+            block[10] = 0x06; // XLEN
+            block[12] = 'B';
+            block[13] = 'C';
+            block[14] = 0x02; // SLEN
+            writeShort(block, 16, blockSize - 1);
+            // footer
+            writeInt(block, position, (int) crc.getValue());
+            writeInt(block, position + 4, length);
+            return Arrays.copyOf(block, blockSize);
+        } finally {
+            deflater.reset();
+            deflaters.add(deflater);
+        }
+    }
+
+    @Override
+    protected void blockWritten(int uncompressedLength, int compressedLength) throws IOException {
+        if (compressedOffset > 0) {
+            if (indexSize + 2 > index.length) {
+                index = Arrays.copyOf(index, 2 * index.length);
+            }
+            index[indexSize] = compressedOffset;
+            index[indexSize + 1] = uncompressedOffset;
+            indexSize += 2;
+        }
+        compressedOffset += compressedLength;
+        uncompressedOffset += uncompressedLength;
+    }
+
+    @Override
+    protected void finishStream() throws IOException {
+        target.write(EOF_BLOCK);
+        if (indexFile != null) {
+            writeIndex();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            Deflater deflater = deflaters.poll();
+            while (deflater != null) {
+                deflater.end();
+                deflater = deflaters.poll();
+            }
+        }
+    }
+
+    /**
+     * Writes the index to the index file.
+     * 
+     * @throws IOException if an IO error occurs
+     */
+    protected void writeIndex() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeLong(Long.reverseBytes(indexSize / 2));
+            for (int i = 0; i < indexSize; ++i) {
+                out.writeLong(Long.reverseBytes(index[i]));
+            }
+        }
+    }
+
+    protected static void writeShort(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >>> 8);
+    }
+
+    protected static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >>> 8);
+        data[offset + 2] = (byte) (value >>> 16);
+        data[offset + 3] = (byte) (value >>> 24);
+    }
+}
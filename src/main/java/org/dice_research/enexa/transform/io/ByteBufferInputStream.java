@@ -0,0 +1,59 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A simple {@link InputStream} that reads the remaining bytes of a
+ * {@link ByteBuffer}, e.g., a memory-mapped part of a file.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    /**
+     * The buffer from which the data is read.
+     */
+    protected ByteBuffer buffer;
+
+    /**
+     * Constructor. The position of the given buffer is changed while reading.
+     * 
+     * @param buffer the buffer from which the data is read
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        super();
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int length = Math.min(len, buffer.remaining());
+        buffer.get(b, off, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long n) {
+        int length = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + length);
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
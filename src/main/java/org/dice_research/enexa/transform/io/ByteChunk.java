@@ -0,0 +1,24 @@
+package org.dice_research.enexa.transform.io;
+
+/**
+ * A reusable chunk of bytes that is handed over between the threads of a
+ * pipeline.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+class ByteChunk {
+
+    /**
+     * The data of this chunk.
+     */
+    final byte[] data;
+    /**
+     * The number of valid bytes in {@link #data}.
+     */
+    int length = 0;
+
+    ByteChunk(int capacity) {
+        data = new byte[capacity];
+    }
+}
@@ -0,0 +1,141 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import org.dice_research.enexa.transform.ChecksumAlgorithm;
+
+/**
+ * An output stream that computes a checksum of all bytes that are written
+ * through it. The checksum is handed to the given listener as lower-case
+ * hexadecimal String when the stream is closed. Placed directly above the file
+ * stream, it covers the bytes as they are written to the file. Placed above a
+ * compressing stream, it covers the uncompressed bytes.
+ * 
+ * <p>
+ * An instance is not thread-safe.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ChecksumOutputStream extends FilterOutputStream {
+
+    /**
+     * The digest that is updated with the written bytes or {@code null} if a
+     * {@link #checksum} is used.
+     */
+    protected MessageDigest digest = null;
+    /**
+     * The checksum that is updated with the written bytes or {@code null} if a
+     * {@link #digest} is used.
+     */
+    protected Checksum checksum = null;
+    /**
+     * The listener that receives the final checksum.
+     */
+    protected Consumer<String> listener;
+    /**
+     * Flag indicating whether the stream has been closed.
+     */
+    protected boolean closed = false;
+
+    /**
+     * Constructor.
+     * 
+     * @param out       the stream to which the bytes are forwarded
+     * @param algorithm the algorithm of the checksum
+     * @param listener  the listener that receives the final checksum when the
+     *                  stream is closed
+     */
+    public ChecksumOutputStream(OutputStream out, ChecksumAlgorithm algorithm, Consumer<String> listener) {
+        super(out);
+        this.listener = listener;
+        switch (algorithm) {
+        case SHA256: {
+            digest = createDigest("SHA-256");
+            break;
+        }
+        case SHA512: {
+            digest = createDigest("SHA-512");
+            break;
+        }
+        case MD5: {
+            digest = createDigest("MD5");
+            break;
+        }
+        case ADLER32: {
+            checksum = new Adler32();
+            break;
+        }
+        case CRC32C: {
+            checksum = new CRC32C();
+            break;
+        }
+        default:
+            throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm);
+        }
+    }
+
+    protected static MessageDigest createDigest(String name) {
+        try {
+            return MessageDigest.getInstance(name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The digest " + name + " is not available.", e);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (digest != null) {
+            digest.update((byte) b);
+        } else {
+            checksum.update(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (digest != null) {
+            digest.update(b, off, len);
+        } else {
+            checksum.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            listener.accept(getValue());
+        }
+    }
+
+    /**
+     * @return the checksum of the bytes that have been written so far as
+     *         lower-case hexadecimal String
+     */
+    protected String getValue() {
+        if (digest != null) {
+            return HexFormat.of().formatHex(digest.digest());
+        } else {
+            // Adler-32 and CRC-32C have 32 bits
+            return String.format("%08x", checksum.getValue());
+        }
+    }
+}
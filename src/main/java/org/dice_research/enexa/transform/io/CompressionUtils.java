@@ -0,0 +1,134 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.CheckForNull;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.dice_research.enexa.transform.Compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+/**
+ * Helper methods for handling compressed input files.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class CompressionUtils {
+
+    /**
+     * Determines the compression of a file based on its name.
+     * 
+     * @param fileName the name (or URL) of the file
+     * @return the compression of the file or {@link Compression#NONE} if the file
+     *         name does not end with the file extension of a known compression
+     */
+    public static Compression detectCompression(String fileName) {
+        if (fileName.endsWith(".gz")) {
+            return Compression.GZIP;
+        } else if (fileName.endsWith(".bz2")) {
+            return Compression.BZIP2;
+        } else if (fileName.endsWith(".zst")) {
+            return Compression.ZSTD;
+        } else if (fileName.endsWith(".lz4")) {
+            return Compression.LZ4;
+        } else {
+            return Compression.NONE;
+        }
+    }
+
+    /**
+     * Removes the file extension of the given compression from the given file
+     * name.
+     * 
+     * @param fileName    the name (or URL) of the file
+     * @param compression the compression of the file
+     * @return the file name without the file extension of the compression
+     */
+    public static String removeCompressionExtension(String fileName, Compression compression) {
+        if (compression == Compression.NONE) {
+            return fileName;
+        }
+        int pos = fileName.lastIndexOf('.');
+        return (pos < 0) ? fileName : fileName.substring(0, pos);
+    }
+
+    /**
+     * Creates a stream that decompresses the data of the given stream. bzip2 data
+     * and gzip data that has been written in the blocked gzip format (BGZF) are
+     * decompressed in parallel if more than one thread is allowed. Other gzip
+     * data is decompressed sequentially, including all members of multi-member
+     * gzip files.
+     * 
+     * @param in          the stream of compressed data
+     * @param compression the compression of the data
+     * @param threads     the maximum number of threads that can be used for the
+     *                    decompression
+     * @return the decompressing stream or the given stream if the compression is
+     *         {@link Compression#NONE}
+     * @throws IOException if an IO error occurs while reading the beginning of
+     *                     the stream
+     */
+    public static InputStream createDecompressingStream(InputStream in, Compression compression, int threads)
+            throws IOException {
+        return createDecompressingStream(in, compression, threads, null);
+    }
+
+    /**
+     * Creates a stream that decompresses the data of the given stream. bzip2 data
+     * and gzip data that has been written in the blocked gzip format (BGZF) are
+     * decompressed in parallel if more than one thread is allowed. If an
+     * executor is given, the blocks are decompressed by its threads, which makes
+     * it possible to share a single pool of threads between several files that
+     * are read concurrently. Other gzip data is decompressed sequentially,
+     * including all members of multi-member gzip files.
+     * 
+     * @param in          the stream of compressed data
+     * @param compression the compression of the data
+     * @param threads     the maximum number of threads that can be used for the
+     *                    decompression
+     * @param executor    the executor that decompresses the blocks or
+     *                    {@code null} if every stream should create its own
+     *                    pool of threads
+     * @return the decompressing stream or the given stream if the compression is
+     *         {@link Compression#NONE}
+     * @throws IOException if an IO error occurs while reading the beginning of
+     *                     the stream
+     */
+    public static InputStream createDecompressingStream(InputStream in, Compression compression, int threads,
+            @CheckForNull ExecutorService executor) throws IOException {
+        switch (compression) {
+        case BZIP2: {
+            if (threads > 1) {
+                return new ParallelBZip2InputStream(in, threads, executor);
+            } else {
+                return new BZip2CompressorInputStream(in, true);
+            }
+        }
+        case GZIP: // falls through
+        case BGZIP: {
+            InputStream bin = in.markSupported() ? in : new BufferedInputStream(in);
+            if ((threads > 1) && BgzfInputStream.isBgzf(bin)) {
+                return new BgzfInputStream(bin, threads, executor);
+            } else {
+                return new GzipCompressorInputStream(bin, true);
+            }
+        }
+        case ZSTD: {
+            return new ZstdInputStream(in);
+        }
+        case LZ4: {
+            return new FramedLZ4CompressorInputStream(in, true);
+        }
+        case NONE: // falls through
+        default:
+            return in;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * An input stream that reports the number of bytes that are read (or skipped)
+ * through it to the given counter.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    /**
+     * The counter that receives the number of read bytes.
+     */
+    protected LongConsumer counter;
+
+    /**
+     * Constructor.
+     * 
+     * @param in      the stream from which the bytes are read
+     * @param counter the counter that receives the number of read bytes
+     */
+    public CountingInputStream(InputStream in, LongConsumer counter) {
+        super(in);
+        this.counter = counter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            counter.accept(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+        if (read > 0) {
+            counter.accept(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        if (skipped > 0) {
+            counter.accept(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        // Bytes that are read again would be counted twice
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * An output stream that reports the number of bytes that are written through
+ * it to the given counter.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    /**
+     * The counter that receives the number of written bytes.
+     */
+    protected LongConsumer counter;
+
+    /**
+     * Constructor.
+     * 
+     * @param out     the stream to which the bytes are forwarded
+     * @param counter the counter that receives the number of written bytes
+     */
+    public CountingOutputStream(OutputStream out, LongConsumer counter) {
+        super(out);
+        this.counter = counter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        counter.accept(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        counter.accept(len);
+    }
+}
@@ -0,0 +1,560 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.CheckForNull;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * An {@link InputStream} that decompresses bzip2 data in parallel. The
+ * compressed data is scanned for the bit patterns that mark the beginning of a
+ * bzip2 block and the end of a bzip2 stream. Each block found in this way is
+ * copied into a new bzip2 stream of its own, which is decompressed on a pool
+ * of threads. Since the blocks of a bzip2 stream are not byte-aligned, this
+ * works for all bzip2 files, including single-stream files created by the
+ * standard bzip2 tool and concatenated streams created by pbzip2 or
+ * {@link ParallelBZip2OutputStream}.
+ * 
+ * <p>
+ * A block header candidate is only accepted if the fields following the
+ * pattern are plausible. However, since the pattern may also occur within
+ * compressed data, an input may (very rarely) be split at a wrong position. In
+ * that case, the affected block can not be decompressed (its data is
+ * incomplete or its CRC doesn't match). The block is then merged with the data
+ * up to the next candidate and decompressed again. Only if this fails for
+ * several following candidates, an {@link IOException} is thrown.
+ * </p>
+ * 
+ * <p>
+ * The CRCs of the decompressed blocks are combined in the same way as bzip2
+ * does and compared with the combined CRC at the end of each stream. This
+ * ensures that no block has been lost or duplicated.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelBZip2InputStream extends ParallelBlockInputStream {
+
+    /**
+     * The 48 bit pattern at the beginning of a bzip2 block (the BCD of pi).
+     */
+    protected static final long BLOCK_MAGIC = 0x314159265359L;
+    /**
+     * The 48 bit pattern at the end of a bzip2 stream (the BCD of sqrt(pi)).
+     */
+    protected static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+    protected static final long MAGIC_MASK = (1L << 48) - 1;
+    protected static final int MAGIC_BITS = 48;
+    protected static final int CRC_BITS = 32;
+    /**
+     * The number of bits of the stream header ({@code "BZh"} and the block
+     * size) in front of the block of a {@link BlockTask}.
+     */
+    protected static final int HEADER_BITS = 32;
+    /**
+     * The maximum number of following candidates with which a block that can
+     * not be decompressed is merged.
+     */
+    protected static final int MAX_MERGED_CANDIDATES = 8;
+    /**
+     * The number of bytes read from the source stream at once.
+     */
+    protected static final int READ_SIZE = 1 << 16;
+
+    /**
+     * The buffered compressed data. It starts with the byte containing the first
+     * bit of the current block.
+     */
+    protected byte[] buffer = new byte[1 << 20];
+    /**
+     * The number of bytes in {@link #buffer}.
+     */
+    protected int bufferLength = 0;
+    /**
+     * The index of the next byte of {@link #buffer} that has to be scanned.
+     */
+    protected int scanIndex = 0;
+    /**
+     * The last bits that have been scanned.
+     */
+    protected long window = 0;
+    /**
+     * The position of the first bit of the current block within the buffer.
+     */
+    protected long blockStartBit = 0;
+    /**
+     * The block size (in 100k) of the current stream.
+     */
+    protected int blockSize100k = 9;
+    /**
+     * Flag indicating that the scanner is within a bzip2 stream.
+     */
+    protected boolean inStream = false;
+    /**
+     * Flag indicating that the source stream has no further data.
+     */
+    protected boolean sourceExhausted = false;
+    /**
+     * Flag indicating that at least one bzip2 stream header has been read.
+     */
+    protected boolean streamFound = false;
+    /**
+     * The combined CRC of the blocks of the current stream that have been
+     * consumed so far.
+     */
+    protected int combinedCrc = 0;
+
+    /**
+     * Constructor.
+     * 
+     * @param source  the stream from which the bzip2 data is read
+     * @param threads the number of threads decompressing the blocks
+     */
+    public ParallelBZip2InputStream(InputStream source, int threads) {
+        super(source, threads);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param source   the stream from which the bzip2 data is read
+     * @param threads  the number of threads decompressing the blocks (if no
+     *                 executor is given) or the number of threads of the given
+     *                 executor that this stream should keep busy
+     * @param executor the (shared) executor that decompresses the blocks or
+     *                 {@code null} if this stream should create its own pool of
+     *                 threads
+     */
+    public ParallelBZip2InputStream(InputStream source, int threads, @CheckForNull ExecutorService executor) {
+        super(source, threads, executor);
+    }
+
+    @Override
+    protected Callable<byte[]> readNextBlock() throws IOException {
+        while (true) {
+            if (!inStream && !readStreamHeader()) {
+                return null;
+            }
+            if (!inStream) {
+                // the stream was empty
+                continue;
+            }
+            // Scan the data for the next block or the end of the stream
+            while (true) {
+                if ((scanIndex >= bufferLength) && !fillBuffer()) {
+                    throw new EOFException("Unexpected end of bzip2 data.");
+                }
+                window = (window << 8) | (buffer[scanIndex] & 0xFF);
+                ++scanIndex;
+                long endBit = 8L * scanIndex;
+                // check all patterns that end within the current byte
+                for (int k = 7; k >= 0; --k) {
+                    long magicStart = endBit - k - MAGIC_BITS;
+                    if (magicStart < blockStartBit + MAGIC_BITS) {
+                        continue;
+                    }
+                    long value = (window >>> k) & MAGIC_MASK;
+                    if ((value == BLOCK_MAGIC) && isPlausibleBlockHeader(magicStart)) {
+                        Callable<byte[]> task = createTask(blockStartBit, magicStart, false, 0);
+                        discardBytes((int) (magicStart >>> 3));
+                        blockStartBit = magicStart & 7;
+                        // rebuild the window for the remaining bytes
+                        window = 0;
+                        for (int i = 0; i < scanIndex; ++i) {
+                            window = (window << 8) | (buffer[i] & 0xFF);
+                        }
+                        return task;
+                    }
+                    if (value == END_OF_STREAM_MAGIC) {
+                        // skip the combined CRC and the padding
+                        int streamEnd = (int) ((magicStart + MAGIC_BITS + CRC_BITS + 7) >>> 3);
+                        if (!ensureBytes(streamEnd)) {
+                            throw new EOFException("Unexpected end of bzip2 data.");
+                        }
+                        int streamCrc = (int) getBits(magicStart + MAGIC_BITS, CRC_BITS);
+                        Callable<byte[]> task = createTask(blockStartBit, magicStart, true, streamCrc);
+                        discardBytes(streamEnd);
+                        inStream = false;
+                        return task;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the header of the next bzip2 stream and positions the scanner after
+     * the magic of its first block.
+     * 
+     * @return {@code false} if there is no further bzip2 stream
+     * @throws IOException if an IO error occurs
+     */
+    protected boolean readStreamHeader() throws IOException {
+        // the scanner has discarded all data of the previous stream
+        boolean complete = ensureBytes(4);
+        if (!complete || (buffer[0] != 'B') || (buffer[1] != 'Z') || (buffer[2] != 'h') || (buffer[3] < '1')
+                || (buffer[3] > '9')) {
+            if (!streamFound && (bufferLength > 0)) {
+                throw new IOException("The data does not start with a bzip2 stream header.");
+            }
+            // Data that follows the last stream is ignored (like bzip2 does)
+            return false;
+        }
+        streamFound = true;
+        blockSize100k = buffer[3] - '0';
+        int magicStart = 4;
+        if (!ensureBytes(magicStart + 6)) {
+            throw new EOFException("Unexpected end of bzip2 data.");
+        }
+        long value = 0;
+        for (int i = magicStart; i < magicStart + 6; ++i) {
+            value = (value << 8) | (buffer[i] & 0xFF);
+        }
+        if (value == END_OF_STREAM_MAGIC) {
+            // empty stream: skip the combined CRC
+            if (!ensureBytes(magicStart + 10)) {
+                throw new EOFException("Unexpected end of bzip2 data.");
+            }
+            discardBytes(magicStart + 10);
+            return true;
+        }
+        if (value != BLOCK_MAGIC) {
+            throw new IOException("The bzip2 stream does not start with a block.");
+        }
+        discardBytes(magicStart);
+        blockStartBit = 0;
+        scanIndex = 6;
+        window = value;
+        inStream = true;
+        return true;
+    }
+
+    /**
+     * Checks the fields following a block pattern candidate. The original
+     * pointer of a block has to be smaller than the block size.
+     * 
+     * @param magicStart the position of the first bit of the candidate
+     * @return {@code true} if the candidate seems to be a valid block header
+     * @throws IOException if an IO error occurs
+     */
+    protected boolean isPlausibleBlockHeader(long magicStart) throws IOException {
+        long origPtrStart = magicStart + MAGIC_BITS + CRC_BITS + 1;
+        if (!ensureBytes((int) ((origPtrStart + 24 + 7) >>> 3))) {
+            return false;
+        }
+        return getBits(origPtrStart, 24) < (blockSize100k * 100000L);
+    }
+
+    /**
+     * Creates a task that decompresses the block between the two given bit
+     * positions. The block is copied into a new bzip2 stream since it is not
+     * byte-aligned in the original data.
+     * 
+     * @param startBit  the position of the first bit of the block
+     * @param endBit    the position of the first bit after the block
+     * @param lastBlock flag indicating whether the block is the last block of
+     *                  its stream
+     * @param streamCrc the combined CRC of the stream (only used for the last
+     *                  block)
+     * @return the task decompressing the block
+     */
+    protected BlockTask createTask(long startBit, long endBit, boolean lastBlock, int streamCrc) {
+        BitWriter writer = startStream(blockSize100k, (int) ((endBit - startBit) >>> 3) + 20);
+        writer.writeBits(buffer, startBit, endBit - startBit);
+        int blockCrc = (int) getBits(startBit + MAGIC_BITS, CRC_BITS);
+        return new BlockTask(endStream(writer, blockCrc), endBit - startBit, blockSize100k, blockCrc, lastBlock,
+                streamCrc);
+    }
+
+    /**
+     * Adds the CRC of the given block to the combined CRC of its stream and
+     * compares the combined CRC with the stored CRC after the last block of the
+     * stream.
+     */
+    @Override
+    protected void checkBlock(Callable<byte[]> task) throws IOException {
+        BlockTask block = (BlockTask) task;
+        combinedCrc = ((combinedCrc << 1) | (combinedCrc >>> 31)) ^ block.blockCrc;
+        if (block.lastBlock) {
+            int crc = combinedCrc;
+            combinedCrc = 0;
+            if (crc != block.streamCrc) {
+                throw new IOException(String.format(
+                        "The combined CRC %08x of the bzip2 stream does not match the stored CRC %08x.", crc,
+                        block.streamCrc));
+            }
+        }
+    }
+
+    /**
+     * Merges a block that couldn't be decompressed with the following block(s)
+     * of the same stream, since the block header at which the data has been
+     * split may have been a false positive.
+     */
+    @Override
+    protected byte[] recover(Callable<byte[]> task, Throwable cause) throws IOException {
+        BlockTask merged = (BlockTask) task;
+        Throwable error = cause;
+        for (int i = 0; (i < MAX_MERGED_CANDIDATES) && !merged.lastBlock; ++i) {
+            Callable<byte[]> next = takeNextTask();
+            if (next == null) {
+                break;
+            }
+            merged = merged.merge((BlockTask) next);
+            byte[] data;
+            try {
+                data = merged.call();
+            } catch (Exception e) {
+                error = e;
+                continue;
+            }
+            checkBlock(merged);
+            return data;
+        }
+        throw new IOException("Error while decompressing a bzip2 block.", error);
+    }
+
+    /**
+     * Returns the given number of bits starting at the given bit position of the
+     * buffer.
+     * 
+     * @param bitPosition the position of the first bit
+     * @param length      the number of bits (&le; 32)
+     * @return the bits as the lower bits of the returned value
+     */
+    protected long getBits(long bitPosition, int length) {
+        return getBits(buffer, bitPosition, length);
+    }
+
+    /**
+     * Returns the given number of bits starting at the given bit position of the
+     * given data.
+     * 
+     * @param data        the data
+     * @param bitPosition the position of the first bit
+     * @param length      the number of bits (&le; 32)
+     * @return the bits as the lower bits of the returned value
+     */
+    protected static long getBits(byte[] data, long bitPosition, int length) {
+        int index = (int) (bitPosition >>> 3);
+        int offset = (int) (bitPosition & 7);
+        int bytes = (offset + length + 7) >>> 3;
+        long value = 0;
+        for (int i = 0; i < bytes; ++i) {
+            value = (value << 8) | (data[index + i] & 0xFF);
+        }
+        return (value >>> ((bytes << 3) - offset - length)) & ((1L << length) - 1);
+    }
+
+    /**
+     * Creates a writer for a new bzip2 stream and writes the stream header.
+     * 
+     * @param blockSize100k the block size (in 100k) of the stream
+     * @param expectedSize  the expected size of the stream in bytes
+     * @return the writer
+     */
+    protected static BitWriter startStream(int blockSize100k, int expectedSize) {
+        BitWriter writer = new BitWriter(expectedSize);
+        writer.writeBits('B', 8);
+        writer.writeBits('Z', 8);
+        writer.writeBits('h', 8);
+        writer.writeBits('0' + blockSize100k, 8);
+        return writer;
+    }
+
+    /**
+     * Writes the end of a stream that contains a single block.
+     * 
+     * @param writer   the writer of the stream
+     * @param blockCrc the CRC of the block
+     * @return the complete stream
+     */
+    protected static byte[] endStream(BitWriter writer, int blockCrc) {
+        // The stream contains only this block, i.e., its combined CRC is the CRC
+        // of the block
+        writer.writeBits((int) (END_OF_STREAM_MAGIC >>> 24), 24);
+        writer.writeBits((int) (END_OF_STREAM_MAGIC & 0xFFFFFF), 24);
+        writer.writeBits(blockCrc, 32);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Makes sure that the buffer contains at least the given number of bytes.
+     * 
+     * @param length the number of bytes that should be available
+     * @return {@code false} if the source stream ended before
+     * @throws IOException if an IO error occurs
+     */
+    protected boolean ensureBytes(int length) throws IOException {
+        while (bufferLength < length) {
+            if (!fillBuffer()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads data from the source stream into the buffer.
+     * 
+     * @return {@code false} if the source stream has no further data
+     * @throws IOException if an IO error occurs
+     */
+    protected boolean fillBuffer() throws IOException {
+        if (sourceExhausted) {
+            return false;
+        }
+        if (bufferLength + READ_SIZE > buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+        int length = source.read(buffer, bufferLength, READ_SIZE);
+        if (length < 0) {
+            sourceExhausted = true;
+            return false;
+        }
+        bufferLength += length;
+        return true;
+    }
+
+    /**
+     * Removes the given number of bytes from the beginning of the buffer.
+     * 
+     * @param length the number of bytes that should be removed
+     */
+    protected void discardBytes(int length) {
+        System.arraycopy(buffer, length, buffer, 0, bufferLength - length);
+        bufferLength -= length;
+        scanIndex = Math.max(0, scanIndex - length);
+    }
+
+    /**
+     * A task that decompresses a single block, which has been copied into a
+     * bzip2 stream of its own.
+     * 
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    protected static class BlockTask implements Callable<byte[]> {
+        /**
+         * The bzip2 stream containing the block.
+         */
+        protected final byte[] stream;
+        /**
+         * The number of bits of the block (following the stream header).
+         */
+        protected final long blockBits;
+        protected final int blockSize100k;
+        protected final int blockCrc;
+        /**
+         * Flag indicating whether the block is the last block of its original
+         * stream.
+         */
+        protected final boolean lastBlock;
+        /**
+         * The combined CRC of the original stream (only set for its last block).
+         */
+        protected final int streamCrc;
+
+        public BlockTask(byte[] stream, long blockBits, int blockSize100k, int blockCrc, boolean lastBlock,
+                int streamCrc) {
+            this.stream = stream;
+            this.blockBits = blockBits;
+            this.blockSize100k = blockSize100k;
+            this.blockCrc = blockCrc;
+            this.lastBlock = lastBlock;
+            this.streamCrc = streamCrc;
+        }
+
+        /**
+         * Creates a task for the block that consists of the data of this block
+         * followed by the data of the given block.
+         * 
+         * @param next the block following this block in the original stream
+         * @return the task of the merged block
+         */
+        public BlockTask merge(BlockTask next) {
+            BitWriter writer = startStream(blockSize100k, stream.length + next.stream.length);
+            writer.writeBits(stream, HEADER_BITS, blockBits);
+            writer.writeBits(next.stream, HEADER_BITS, next.blockBits);
+            return new BlockTask(endStream(writer, blockCrc), blockBits + next.blockBits, blockSize100k, blockCrc,
+                    next.lastBlock, next.streamCrc);
+        }
+
+        @Override
+        public byte[] call() throws IOException {
+            try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(stream), false)) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * A simple helper class for writing single bits.
+     * 
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    protected static class BitWriter {
+        protected ByteArrayOutputStream out;
+        protected long bits = 0;
+        protected int bitCount = 0;
+
+        public BitWriter(int expectedSize) {
+            out = new ByteArrayOutputStream(expectedSize);
+        }
+
+        /**
+         * Writes the given number of lower bits of the given value.
+         * 
+         * @param value  the value containing the bits
+         * @param length the number of bits (&le; 32)
+         */
+        public void writeBits(int value, int length) {
+            bits = (bits << length) | (value & ((1L << length) - 1));
+            bitCount += length;
+            while (bitCount >= 8) {
+                out.write((int) (bits >>> (bitCount - 8)));
+                bitCount -= 8;
+            }
+        }
+
+        /**
+         * Writes the given range of bits of the given data.
+         * 
+         * @param data     the data containing the bits
+         * @param startBit the position of the first bit
+         * @param length   the number of bits
+         */
+        public void writeBits(byte[] data, long startBit, long length) {
+            long position = startBit;
+            long endBit = startBit + length;
+            while (position + 32 <= endBit) {
+                writeBits((int) getBits(data, position, 32), 32);
+                position += 32;
+            }
+            if (position < endBit) {
+                writeBits((int) getBits(data, position, (int) (endBit - position)), (int) (endBit - position));
+            }
+        }
+
+        /**
+         * @return the written bits padded with 0 bits to full bytes
+         */
+        public byte[] toByteArray() {
+            if (bitCount > 0) {
+                out.write((int) (bits << (8 - bitCount)));
+                bitCount = 0;
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+
+/**
+ * An {@link OutputStream} that compresses the data with bzip2 on a pool of
+ * threads. Similar to pbzip2, the data is split into blocks of the bzip2 block
+ * size and each block is compressed as an independent bzip2 stream. The
+ * resulting concatenation of bzip2 streams is a valid bzip2 file that can be
+ * decompressed by the standard bzip2 tools (and by
+ * {@link ParallelBZip2InputStream} in parallel).
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelBZip2OutputStream extends ParallelBlockOutputStream {
+
+    /**
+     * The bzip2 block size in 100k that is used.
+     */
+    protected int blockSize100k;
+
+    /**
+     * Constructor using the maximum block size of bzip2 (900k).
+     * 
+     * @param target  the stream to which the compressed data is written
+     * @param threads the number of threads compressing the blocks
+     */
+    public ParallelBZip2OutputStream(OutputStream target, int threads) {
+        this(target, threads, BZip2CompressorOutputStream.MAX_BLOCKSIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param target        the stream to which the compressed data is written
+     * @param threads       the number of threads compressing the blocks
+     * @param blockSize100k the bzip2 block size in 100k (1-9)
+     */
+    public ParallelBZip2OutputStream(OutputStream target, int threads, int blockSize100k) {
+        super(target, blockSize100k * 100000, threads);
+        this.blockSize100k = blockSize100k;
+    }
+
+    @Override
+    protected byte[] compressBlock(byte[] data, int length) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(length / 4);
+        try (BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(result, blockSize100k)) {
+            out.write(data, 0, length);
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,278 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * An abstract {@link InputStream} that reads independently compressed blocks
+ * from its source stream, decompresses them on a pool of threads and returns
+ * the decompressed data in the original order. The number of blocks that are
+ * decompressed or wait to be consumed is bounded.
+ * 
+ * <p>
+ * Sub classes can check a decompressed block before it is consumed (see
+ * {@link #checkBlock(Callable)}) and can try to recover from a block that
+ * couldn't be decompressed (see {@link #recover(Callable, Throwable)}).
+ * </p>
+ * 
+ * <p>
+ * The blocks are decompressed either on a pool of threads that is owned by
+ * this stream or on a given executor that can be shared by several streams,
+ * e.g., to bound the number of decompressing threads if several files are
+ * read concurrently. A shared executor is not shut down when this stream is
+ * closed.
+ * </p>
+ * 
+ * <p>
+ * The instance takes ownership of the source stream, i.e., the source stream
+ * is closed when this stream is closed.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public abstract class ParallelBlockInputStream extends InputStream {
+
+    /**
+     * The stream from which the compressed blocks are read.
+     */
+    protected InputStream source;
+    /**
+     * The threads decompressing the blocks.
+     */
+    protected ExecutorService executor;
+    /**
+     * Flag indicating whether the {@link #executor} has been created by this
+     * stream and has to be shut down when this stream is closed.
+     */
+    protected boolean ownsExecutor;
+    /**
+     * The maximum number of blocks that are decompressed or wait to be consumed.
+     */
+    protected int maxPendingBlocks;
+    /**
+     * The blocks that are decompressed or wait to be consumed in their original
+     * order.
+     */
+    protected Deque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+    /**
+     * The decompressed block that is currently consumed or {@code null}.
+     */
+    protected byte[] current = null;
+    /**
+     * The position within the current block.
+     */
+    protected int position = 0;
+    /**
+     * Flag indicating that all blocks have been read from the source stream.
+     */
+    protected boolean sourceEndReached = false;
+
+    /**
+     * Constructor.
+     * 
+     * @param source  the stream from which the compressed blocks are read
+     * @param threads the number of threads decompressing the blocks
+     */
+    public ParallelBlockInputStream(InputStream source, int threads) {
+        this(source, threads, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param source   the stream from which the compressed blocks are read
+     * @param threads  the number of threads decompressing the blocks (if no
+     *                 executor is given) or the number of threads of the given
+     *                 executor that this stream should keep busy
+     * @param executor the executor that decompresses the blocks or {@code null}
+     *                 if this stream should create its own pool of threads
+     */
+    public ParallelBlockInputStream(InputStream source, int threads, @CheckForNull ExecutorService executor) {
+        super();
+        this.source = source;
+        int numberOfThreads = Math.max(1, threads);
+        if (executor == null) {
+            this.executor = Executors.newFixedThreadPool(numberOfThreads, r -> {
+                Thread thread = new Thread(r, "block-decompressor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ownsExecutor = true;
+        } else {
+            this.executor = executor;
+            this.ownsExecutor = false;
+        }
+        this.maxPendingBlocks = 2 * numberOfThreads;
+    }
+
+    /**
+     * Reads the next compressed block from the source stream and returns a task
+     * that decompresses it.
+     * 
+     * @return a task decompressing the next block or {@code null} if the end of
+     *         the source stream has been reached
+     * @throws IOException if the block couldn't be read
+     */
+    protected abstract Callable<byte[]> readNextBlock() throws IOException;
+
+    /**
+     * Makes sure that {@link #current} contains data that hasn't been consumed,
+     * yet.
+     * 
+     * @return {@code true} if data is available or {@code false} if the end of
+     *         the stream has been reached
+     * @throws IOException if an error occurred while reading or decompressing a
+     *                     block
+     */
+    protected boolean ensureData() throws IOException {
+        while ((current == null) || (position >= current.length)) {
+            while (!sourceEndReached && (pendingBlocks.size() < maxPendingBlocks)) {
+                Callable<byte[]> task = readNextBlock();
+                if (task == null) {
+                    sourceEndReached = true;
+                } else {
+                    pendingBlocks.add(new PendingBlock(task, executor.submit(task)));
+                }
+            }
+            if (pendingBlocks.isEmpty()) {
+                current = null;
+                return false;
+            }
+            PendingBlock block = pendingBlocks.poll();
+            try {
+                current = block.result.get();
+                checkBlock(block.task);
+                position = 0;
+            } catch (ExecutionException e) {
+                current = recover(block.task, e.getCause());
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a decompressed block.", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the given task after it decompressed its block successfully and
+     * before the block is consumed. The default implementation does nothing.
+     * 
+     * @param task the task that decompressed the block
+     * @throws IOException if the check fails
+     */
+    protected void checkBlock(Callable<byte[]> task) throws IOException {
+        // nothing to do
+    }
+
+    /**
+     * Handles a task that couldn't decompress its block. The default
+     * implementation throws an {@link IOException}. Sub classes may take
+     * further tasks (see {@link #takeNextTask()}) to decompress the block
+     * together with the following data.
+     * 
+     * @param task  the task that failed
+     * @param cause the error of the task
+     * @return the decompressed data that replaces the data of the task
+     * @throws IOException if the error can not be recovered
+     */
+    protected byte[] recover(Callable<byte[]> task, Throwable cause) throws IOException {
+        throw new IOException("Error while decompressing a block.", cause);
+    }
+
+    /**
+     * Removes the next task from the pending blocks (its result is discarded) or
+     * reads the next block from the source stream if there is no pending block.
+     * 
+     * @return the task of the next block or {@code null} if there is no further
+     *         block
+     * @throws IOException if the block couldn't be read
+     */
+    protected Callable<byte[]> takeNextTask() throws IOException {
+        PendingBlock block = pendingBlocks.poll();
+        if (block != null) {
+            block.result.cancel(true);
+            return block.task;
+        }
+        if (sourceEndReached) {
+            return null;
+        }
+        Callable<byte[]> task = readNextBlock();
+        if (task == null) {
+            sourceEndReached = true;
+        }
+        return task;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        int b = current[position] & 0xFF;
+        ++position;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int length = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (current == null) ? 0 : (current.length - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (ownsExecutor) {
+                executor.shutdownNow();
+            } else {
+                // Free the shared threads from the blocks of this stream
+                for (PendingBlock block : pendingBlocks) {
+                    block.result.cancel(true);
+                }
+            }
+            pendingBlocks.clear();
+        } finally {
+            source.close();
+        }
+    }
+
+    /**
+     * A block that is decompressed or waits to be consumed.
+     * 
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    protected static class PendingBlock {
+        protected final Callable<byte[]> task;
+        protected final Future<byte[]> result;
+
+        public PendingBlock(Callable<byte[]> task, Future<byte[]> result) {
+            this.task = task;
+            this.result = result;
+        }
+    }
+}
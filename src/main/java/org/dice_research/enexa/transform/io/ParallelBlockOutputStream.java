@@ -0,0 +1,241 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An abstract {@link OutputStream} that splits the written data into blocks of
+ * a fixed size, compresses these blocks independently on a pool of threads and
+ * writes the compressed blocks in their original order to the target stream.
+ * The number of blocks that are compressed or wait to be written is bounded.
+ * 
+ * <p>
+ * The instance takes ownership of the target stream, i.e., the target stream
+ * is closed when this stream is closed.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public abstract class ParallelBlockOutputStream extends OutputStream {
+
+    /**
+     * The stream to which the compressed blocks are written.
+     */
+    protected OutputStream target;
+    /**
+     * The threads compressing the blocks.
+     */
+    protected ExecutorService executor;
+    /**
+     * The maximum number of blocks that are compressed or wait to be written.
+     */
+    protected int maxPendingBlocks;
+    /**
+     * The blocks that are compressed or wait to be written in the order in which
+     * they have to be written.
+     */
+    protected Deque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+    /**
+     * The buffer of the current block.
+     */
+    protected byte[] buffer;
+    /**
+     * The number of bytes in the buffer of the current block.
+     */
+    protected int bufferLength = 0;
+    /**
+     * Flag indicating that this stream has been closed.
+     */
+    protected boolean closed = false;
+
+    /**
+     * Constructor.
+     * 
+     * @param target    the stream to which the compressed blocks are written
+     * @param blockSize the number of uncompressed bytes per block
+     * @param threads   the number of threads compressing the blocks
+     */
+    public ParallelBlockOutputStream(OutputStream target, int blockSize, int threads) {
+        super();
+        this.target = target;
+        this.buffer = new byte[blockSize];
+        int numberOfThreads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(numberOfThreads, r -> {
+            Thread thread = new Thread(r, "block-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxPendingBlocks = 2 * numberOfThreads;
+    }
+
+    /**
+     * Compresses the given block. This method is called concurrently by several
+     * threads. Note that the given array is not reused by this stream.
+     * 
+     * @param data   the array containing the uncompressed block
+     * @param length the number of bytes of the block
+     * @return the compressed block
+     * @throws IOException if an error occurs during the compression
+     */
+    protected abstract byte[] compressBlock(byte[] data, int length) throws IOException;
+
+    /**
+     * Called after a compressed block has been written to the target stream. The
+     * method does nothing by default and can be used by sub classes, e.g., to
+     * create an index.
+     * 
+     * @param uncompressedLength the number of uncompressed bytes of the block
+     * @param compressedLength   the number of compressed bytes of the block
+     * @throws IOException if an IO error occurs
+     */
+    protected void blockWritten(int uncompressedLength, int compressedLength) throws IOException {
+        // nothing to do
+    }
+
+    /**
+     * Called after the last block has been written and before the target stream
+     * is closed. The method does nothing by default and can be used by sub
+     * classes to write a trailer to the target stream.
+     * 
+     * @throws IOException if an IO error occurs
+     */
+    protected void finishStream() throws IOException {
+        // nothing to do
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (bufferLength >= buffer.length) {
+            submitBlock();
+        }
+        buffer[bufferLength] = (byte) b;
+        ++bufferLength;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (bufferLength >= buffer.length) {
+                submitBlock();
+            }
+            int length = Math.min(len, buffer.length - bufferLength);
+            System.arraycopy(b, off, buffer, bufferLength, length);
+            bufferLength += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Hands the current block over to the compressing threads and writes
+     * finished blocks if the maximum number of pending blocks has been reached.
+     * 
+     * @throws IOException if an error occurred while compressing or writing a
+     *                     block
+     */
+    protected void submitBlock() throws IOException {
+        final byte[] data = buffer;
+        final int length = bufferLength;
+        pendingBlocks.add(new PendingBlock(executor.submit(() -> compressBlock(data, length)), length));
+        buffer = new byte[data.length];
+        bufferLength = 0;
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeBlock(pendingBlocks.poll());
+        }
+    }
+
+    /**
+     * Waits for the given block to be compressed and writes it to the target
+     * stream.
+     * 
+     * @param block the block that should be written
+     * @throws IOException if an error occurred while compressing or writing the
+     *                     block
+     */
+    protected void writeBlock(PendingBlock block) throws IOException {
+        try {
+            byte[] compressed = block.result.get();
+            target.write(compressed);
+            blockWritten(block.uncompressedLength, compressed.length);
+        } catch (ExecutionException e) {
+            throw new IOException("Error while compressing a block.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a compressed block.", e);
+        }
+    }
+
+    /**
+     * Compresses the current block (even if it is not full) and writes all
+     * pending blocks to the target stream.
+     * 
+     * @throws IOException if an error occurred while compressing or writing a
+     *                     block
+     */
+    protected void writeAllBlocks() throws IOException {
+        if (bufferLength > 0) {
+            submitBlock();
+        }
+        while (!pendingBlocks.isEmpty()) {
+            writeBlock(pendingBlocks.poll());
+        }
+    }
+
+    protected void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The stream has been closed.");
+        }
+    }
+
+    /**
+     * Compresses and writes all data that has been written to this stream so far
+     * and flushes the target stream. Note that this may lead to a block that is
+     * smaller than the block size.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        writeAllBlocks();
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeAllBlocks();
+            finishStream();
+        } finally {
+            executor.shutdownNow();
+            target.close();
+        }
+    }
+
+    /**
+     * A block that is compressed or waits to be written.
+     * 
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    protected static class PendingBlock {
+        protected final Future<byte[]> result;
+        protected final int uncompressedLength;
+
+        public PendingBlock(Future<byte[]> result, int uncompressedLength) {
+            this.result = result;
+            this.uncompressedLength = uncompressedLength;
+        }
+    }
+}
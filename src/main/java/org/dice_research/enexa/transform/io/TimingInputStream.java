@@ -0,0 +1,81 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * An input stream that reports the number of bytes that are read (or skipped)
+ * through it and the time that is spent in the wrapped stream. If the wrapped
+ * stream decompresses its data, the time is the time needed for reading and
+ * decompressing the data.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TimingInputStream extends FilterInputStream {
+
+    /**
+     * The counter that receives the number of read bytes.
+     */
+    protected LongConsumer counter;
+    /**
+     * The timer that receives the time spent in the wrapped stream in
+     * nanoseconds.
+     */
+    protected LongConsumer timer;
+
+    /**
+     * Constructor.
+     * 
+     * @param in      the stream from which the bytes are read
+     * @param counter the counter that receives the number of read bytes
+     * @param timer   the timer that receives the time spent in the wrapped
+     *                stream in nanoseconds
+     */
+    public TimingInputStream(InputStream in, LongConsumer counter, LongConsumer timer) {
+        super(in);
+        this.counter = counter;
+        this.timer = timer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int b = in.read();
+        timer.accept(System.nanoTime() - start);
+        if (b >= 0) {
+            counter.accept(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int read = in.read(b, off, len);
+        timer.accept(System.nanoTime() - start);
+        if (read > 0) {
+            counter.accept(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long start = System.nanoTime();
+        long skipped = in.skip(n);
+        timer.accept(System.nanoTime() - start);
+        if (skipped > 0) {
+            counter.accept(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        // Bytes that are read again would be counted twice
+        return false;
+    }
+}
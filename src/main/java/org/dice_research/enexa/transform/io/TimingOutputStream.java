@@ -0,0 +1,83 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * An output stream that reports the time that is spent in the wrapped stream
+ * (including flushing and closing it). If the wrapped stream compresses its
+ * data, the time is the time needed for compressing and writing the data.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TimingOutputStream extends FilterOutputStream {
+
+    /**
+     * The timer that receives the time spent in the wrapped stream in
+     * nanoseconds.
+     */
+    protected LongConsumer timer;
+    /**
+     * Flag indicating whether the stream has been closed.
+     */
+    protected boolean closed = false;
+
+    /**
+     * Constructor.
+     * 
+     * @param out   the stream to which the bytes are forwarded
+     * @param timer the timer that receives the time spent in the wrapped stream
+     *              in nanoseconds
+     */
+    public TimingOutputStream(OutputStream out, LongConsumer timer) {
+        super(out);
+        this.timer = timer;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        long start = System.nanoTime();
+        try {
+            out.write(b);
+        } finally {
+            timer.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        try {
+            out.write(b, off, len);
+        } finally {
+            timer.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        long start = System.nanoTime();
+        try {
+            out.flush();
+        } finally {
+            timer.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long start = System.nanoTime();
+        try {
+            out.close();
+        } finally {
+            timer.accept(System.nanoTime() - start);
+        }
+    }
+}
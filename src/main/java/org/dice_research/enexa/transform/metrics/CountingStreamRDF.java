@@ -0,0 +1,90 @@
+package org.dice_research.enexa.transform.metrics;
+
+import java.util.function.LongConsumer;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDFLib;
+
+/**
+ * A stream that reports the number of statements that it forwards to the
+ * target stream to the given counter. It is meant to be placed directly behind
+ * a parser to count the statements of a single input file.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class CountingStreamRDF implements StreamRDF, BatchedStreamRDF {
+
+    /**
+     * The stream to which single statements are forwarded.
+     */
+    protected StreamRDF target;
+    /**
+     * The stream to which batches are forwarded.
+     */
+    protected BatchedStreamRDF batchedTarget;
+    /**
+     * The counter that receives the number of statements.
+     */
+    protected LongConsumer counter;
+
+    /**
+     * Constructor.
+     *
+     * @param target  the stream to which the statements are forwarded
+     * @param counter the counter that receives the number of statements
+     */
+    public CountingStreamRDF(StreamRDF target, LongConsumer counter) {
+        super();
+        this.target = target;
+        this.batchedTarget = BatchedStreamRDFLib.unbatch(target);
+        this.counter = counter;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        counter.accept(1);
+        target.triple(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        counter.accept(1);
+        target.quad(quad);
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        counter.accept(size);
+        batchedTarget.triples(triples, size);
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        counter.accept(size);
+        batchedTarget.quads(quads, size);
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        target.finish();
+    }
+}
@@ -0,0 +1,227 @@
+package org.dice_research.enexa.transform.metrics;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.jena.atlas.json.JsonObject;
+import org.dice_research.enexa.transform.Compression;
+
+/**
+ * The metrics of a single input file, i.e., the number of bytes read from the
+ * file, the number of bytes after decompressing them, the number of parsed
+ * statements and the time spent for decompressing and parsing the file. The
+ * counters are {@link LongAdder} instances since the chunks of a large file
+ * are parsed concurrently.
+ *
+ * <p>
+ * The parsing time is the time spent for the file minus the time spent for
+ * decompressing it (if the decompression runs on the same thread) and minus
+ * the time spent by the writer (if it runs on the same thread). It includes
+ * the time the parser waits for the writer thread. Files that are copied
+ * without parsing them (see {@link #isCopied()}) have no parsed statements
+ * and their parsing time is the time needed to copy them.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class InputFileMetrics {
+
+    /**
+     * The input file.
+     */
+    protected File file;
+    /**
+     * The compression of the input file.
+     */
+    protected Compression compression;
+    /**
+     * Flag indicating whether the file has been copied without parsing it.
+     */
+    protected boolean copied = false;
+    /**
+     * Flag indicating whether the file has been decompressed on a separate
+     * thread.
+     */
+    protected boolean asyncDecompression = false;
+    /**
+     * The number of bytes read from the file.
+     */
+    protected LongAdder readBytes = new LongAdder();
+    /**
+     * The number of bytes after decompressing them.
+     */
+    protected LongAdder uncompressedBytes = new LongAdder();
+    /**
+     * The number of parsed statements.
+     */
+    protected LongAdder statements = new LongAdder();
+    /**
+     * The time spent for reading and decompressing the file in nanoseconds.
+     */
+    protected LongAdder decompressionNanos = new LongAdder();
+    /**
+     * The time spent for the file (excluding the time of the writer) in
+     * nanoseconds.
+     */
+    protected LongAdder processingNanos = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param file        the input file
+     * @param compression the compression of the input file
+     */
+    public InputFileMetrics(File file, Compression compression) {
+        super();
+        this.file = file;
+        this.compression = compression;
+    }
+
+    /**
+     * @param bytes the number of bytes that have been read from the file
+     */
+    public void addReadBytes(long bytes) {
+        readBytes.add(bytes);
+    }
+
+    /**
+     * @param bytes the number of bytes that have been decompressed
+     */
+    public void addUncompressedBytes(long bytes) {
+        uncompressedBytes.add(bytes);
+    }
+
+    /**
+     * @param statements the number of statements that have been parsed
+     */
+    public void addStatements(long statements) {
+        this.statements.add(statements);
+    }
+
+    /**
+     * @param nanos the time spent for reading and decompressing the file in
+     *              nanoseconds
+     */
+    public void addDecompressionNanos(long nanos) {
+        decompressionNanos.add(nanos);
+    }
+
+    /**
+     * @param nanos the time spent for the file (excluding the time of the
+     *              writer) in nanoseconds
+     */
+    public void addProcessingNanos(long nanos) {
+        processingNanos.add(nanos);
+    }
+
+    /**
+     * @return the input file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the compression of the input file
+     */
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return {@code true} if the file has been copied without parsing it
+     */
+    public boolean isCopied() {
+        return copied;
+    }
+
+    /**
+     * @param copied flag indicating whether the file has been copied without
+     *               parsing it
+     */
+    public void setCopied(boolean copied) {
+        this.copied = copied;
+    }
+
+    /**
+     * @return {@code true} if the file has been decompressed on a separate
+     *         thread
+     */
+    public boolean isAsyncDecompression() {
+        return asyncDecompression;
+    }
+
+    /**
+     * @param asyncDecompression flag indicating whether the file has been
+     *                           decompressed on a separate thread
+     */
+    public void setAsyncDecompression(boolean asyncDecompression) {
+        this.asyncDecompression = asyncDecompression;
+    }
+
+    /**
+     * @return the number of bytes read from the file
+     */
+    public long getReadBytes() {
+        return readBytes.sum();
+    }
+
+    /**
+     * @return the number of bytes after decompressing them
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    /**
+     * @return the number of parsed statements
+     */
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    /**
+     * @return the time spent for reading and decompressing the file in
+     *         nanoseconds
+     */
+    public long getDecompressionNanos() {
+        return decompressionNanos.sum();
+    }
+
+    /**
+     * @return the time spent for parsing (or copying) the file in nanoseconds
+     */
+    public long getParsingNanos() {
+        long nanos = processingNanos.sum();
+        if (!asyncDecompression) {
+            nanos -= decompressionNanos.sum();
+        }
+        return Math.max(0, nanos);
+    }
+
+    /**
+     * @return a JSON representation of the metrics
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.put("file", file.getPath());
+        json.put("compression", compression.name());
+        json.put("copied", copied);
+        json.put("readBytes", getReadBytes());
+        json.put("uncompressedBytes", getUncompressedBytes());
+        json.put("statements", getStatements());
+        json.put("decompressionMillis", TimeUnit.NANOSECONDS.toMillis(getDecompressionNanos()));
+        json.put("parsingMillis", TimeUnit.NANOSECONDS.toMillis(getParsingNanos()));
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return file.getName() + ": readBytes=" + getReadBytes() + ", uncompressedBytes=" + getUncompressedBytes()
+                + ", statements=" + getStatements() + ", decompressionMillis="
+                + TimeUnit.NANOSECONDS.toMillis(getDecompressionNanos()) + ", parsingMillis="
+                + TimeUnit.NANOSECONDS.toMillis(getParsingNanos());
+    }
+}
@@ -0,0 +1,105 @@
+package org.dice_research.enexa.transform.metrics;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDFLib;
+
+/**
+ * A stream that measures the time spent in the target stream and adds it to
+ * the writer time of the given {@link TransformationMetrics}. It is meant to
+ * be placed in front of the writer, i.e., it measures the serialization of the
+ * statements (including the compression if it runs on the same thread).
+ * Batches are measured as a whole.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TimingStreamRDF implements StreamRDF, BatchedStreamRDF {
+
+    /**
+     * The stream to which single statements are forwarded.
+     */
+    protected StreamRDF target;
+    /**
+     * The stream to which batches are forwarded.
+     */
+    protected BatchedStreamRDF batchedTarget;
+    /**
+     * The metrics to which the measured time is added.
+     */
+    protected TransformationMetrics metrics;
+
+    /**
+     * Constructor.
+     *
+     * @param target  the stream to which the statements are forwarded
+     * @param metrics the metrics to which the measured time is added
+     */
+    public TimingStreamRDF(StreamRDF target, TransformationMetrics metrics) {
+        super();
+        this.target = target;
+        this.batchedTarget = BatchedStreamRDFLib.unbatch(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void start() {
+        long start = System.nanoTime();
+        target.start();
+        metrics.addWriterNanos(System.nanoTime() - start);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        long start = System.nanoTime();
+        target.triple(triple);
+        metrics.addWriterNanos(System.nanoTime() - start);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        long start = System.nanoTime();
+        target.quad(quad);
+        metrics.addWriterNanos(System.nanoTime() - start);
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        long start = System.nanoTime();
+        batchedTarget.triples(triples, size);
+        metrics.addWriterNanos(System.nanoTime() - start);
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        long start = System.nanoTime();
+        batchedTarget.quads(quads, size);
+        metrics.addWriterNanos(System.nanoTime() - start);
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        long start = System.nanoTime();
+        target.finish();
+        metrics.addWriterNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * @return the stream to which the statements are forwarded
+     */
+    public StreamRDF getTarget() {
+        return target;
+    }
+}
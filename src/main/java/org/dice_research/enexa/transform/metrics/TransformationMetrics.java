@@ -0,0 +1,277 @@
+package org.dice_research.enexa.transform.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonObject;
+import org.dice_research.enexa.transform.Compression;
+
+/**
+ * Performance metrics of a transformation. It comprises the metrics of each
+ * input file (see {@link InputFileMetrics}), the time spent in the
+ * serialization and compression stages of the output, the wall-clock time and
+ * the peak heap usage. All counters are cheap enough to be updated for every
+ * read or write call.
+ *
+ * <p>
+ * The serialization time is the time spent by the writer minus the time spent
+ * for compressing and writing the output files (if the compression runs on the
+ * writer thread). The peak heap usage is the sum of the peak usages of all
+ * heap memory pools since this instance has been created, i.e., it is an
+ * upper bound of the actual peak. Note that the peak usages are reset when an
+ * instance is created.
+ * </p>
+ *
+ * <p>
+ * The metrics are complete after {@link #finish()} has been called, which is
+ * done when the transformator is closed.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TransformationMetrics {
+
+    /**
+     * The metrics of the input files in the order in which they have been added.
+     */
+    protected List<InputFileMetrics> inputFiles = new ArrayList<>();
+    /**
+     * Flag indicating whether the output is compressed on a separate thread.
+     */
+    protected boolean asyncCompression;
+    /**
+     * The time spent by the writer in nanoseconds.
+     */
+    protected LongAdder writerNanos = new LongAdder();
+    /**
+     * The time spent for compressing and writing the output files in
+     * nanoseconds.
+     */
+    protected LongAdder compressionNanos = new LongAdder();
+    /**
+     * The time at which the transformation started (see
+     * {@link System#nanoTime()}).
+     */
+    protected long startTime;
+    /**
+     * The duration of the transformation in nanoseconds or a negative value if
+     * it has not been finished, yet.
+     */
+    protected long wallNanos = -1;
+    /**
+     * The peak heap usage in bytes or a negative value if the transformation has
+     * not been finished, yet.
+     */
+    protected long peakHeapBytes = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param asyncCompression flag indicating whether the output is compressed
+     *                         on a separate thread
+     */
+    public TransformationMetrics(boolean asyncCompression) {
+        super();
+        this.asyncCompression = asyncCompression;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Creates and registers the metrics of a new input file.
+     *
+     * @param file        the input file
+     * @param compression the compression of the input file
+     * @return the metrics of the input file
+     */
+    public InputFileMetrics addInputFile(File file, Compression compression) {
+        InputFileMetrics metrics = new InputFileMetrics(file, compression);
+        synchronized (inputFiles) {
+            inputFiles.add(metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * @param nanos the time spent by the writer in nanoseconds
+     */
+    public void addWriterNanos(long nanos) {
+        writerNanos.add(nanos);
+    }
+
+    /**
+     * @param nanos the time spent for compressing and writing an output file in
+     *              nanoseconds
+     */
+    public void addCompressionNanos(long nanos) {
+        compressionNanos.add(nanos);
+    }
+
+    /**
+     * Determines the duration of the transformation and the peak heap usage.
+     * Further calls have no effect.
+     */
+    public synchronized void finish() {
+        if (wallNanos >= 0) {
+            return;
+        }
+        wallNanos = System.nanoTime() - startTime;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ((pool.getType() == MemoryType.HEAP) && (pool.getPeakUsage() != null)) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        peakHeapBytes = peak;
+    }
+
+    /**
+     * @return the metrics of the input files in the order in which they have
+     *         been added
+     */
+    public List<InputFileMetrics> getInputFiles() {
+        synchronized (inputFiles) {
+            return new ArrayList<>(inputFiles);
+        }
+    }
+
+    /**
+     * @return the number of bytes read from all input files
+     */
+    public long getReadBytes() {
+        return getInputFiles().stream().mapToLong(InputFileMetrics::getReadBytes).sum();
+    }
+
+    /**
+     * @return the number of bytes of all input files after decompressing them
+     */
+    public long getUncompressedBytes() {
+        return getInputFiles().stream().mapToLong(InputFileMetrics::getUncompressedBytes).sum();
+    }
+
+    /**
+     * @return the number of statements parsed from all input files
+     */
+    public long getStatements() {
+        return getInputFiles().stream().mapToLong(InputFileMetrics::getStatements).sum();
+    }
+
+    /**
+     * @return the time spent for reading and decompressing all input files in
+     *         nanoseconds
+     */
+    public long getDecompressionNanos() {
+        return getInputFiles().stream().mapToLong(InputFileMetrics::getDecompressionNanos).sum();
+    }
+
+    /**
+     * @return the time spent for parsing all input files in nanoseconds
+     */
+    public long getParsingNanos() {
+        return getInputFiles().stream().mapToLong(InputFileMetrics::getParsingNanos).sum();
+    }
+
+    /**
+     * @return the time spent for serializing the statements in nanoseconds
+     */
+    public long getSerializationNanos() {
+        long nanos = writerNanos.sum();
+        if (!asyncCompression) {
+            nanos -= compressionNanos.sum();
+        }
+        return Math.max(0, nanos);
+    }
+
+    /**
+     * @return the time spent by the writer in nanoseconds (including the
+     *         compression if it runs on the writer thread)
+     */
+    public long getWriterNanos() {
+        return writerNanos.sum();
+    }
+
+    /**
+     * @return the time spent for compressing and writing the output files in
+     *         nanoseconds
+     */
+    public long getCompressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    /**
+     * @return the duration of the transformation in nanoseconds or a negative
+     *         value if it has not been finished, yet
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return the peak heap usage in bytes or a negative value if the
+     *         transformation has not been finished, yet
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * @return a JSON representation of the metrics
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.put("wallMillis", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        json.put("peakHeapBytes", peakHeapBytes);
+        json.put("readBytes", getReadBytes());
+        json.put("uncompressedBytes", getUncompressedBytes());
+        json.put("statements", getStatements());
+        json.put("decompressionMillis", TimeUnit.NANOSECONDS.toMillis(getDecompressionNanos()));
+        json.put("parsingMillis", TimeUnit.NANOSECONDS.toMillis(getParsingNanos()));
+        json.put("serializationMillis", TimeUnit.NANOSECONDS.toMillis(getSerializationNanos()));
+        json.put("compressionMillis", TimeUnit.NANOSECONDS.toMillis(getCompressionNanos()));
+        JsonArray files = new JsonArray();
+        for (InputFileMetrics file : getInputFiles()) {
+            files.add(file.toJson());
+        }
+        json.put("inputFiles", files);
+        return json;
+    }
+
+    /**
+     * Writes the JSON representation of the metrics to the given file.
+     *
+     * @param file the file to which the metrics are written
+     * @throws IOException if an IO error occurs while writing the file
+     */
+    public void writeJson(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            JSON.write(out, toJson());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "wallMillis=" + TimeUnit.NANOSECONDS.toMillis(wallNanos) + ", peakHeapBytes=" + peakHeapBytes
+                + ", readBytes=" + getReadBytes() + ", uncompressedBytes=" + getUncompressedBytes()
+                + ", statements=" + getStatements() + ", decompressionMillis="
+                + TimeUnit.NANOSECONDS.toMillis(getDecompressionNanos()) + ", parsingMillis="
+                + TimeUnit.NANOSECONDS.toMillis(getParsingNanos()) + ", serializationMillis="
+                + TimeUnit.NANOSECONDS.toMillis(getSerializationNanos()) + ", compressionMillis="
+                + TimeUnit.NANOSECONDS.toMillis(getCompressionNanos());
+    }
+}
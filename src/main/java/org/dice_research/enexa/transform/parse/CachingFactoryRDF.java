@@ -0,0 +1,46 @@
+package org.dice_research.enexa.transform.parse;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.FactoryRDFStd;
+
+/**
+ * A {@link org.apache.jena.riot.system.FactoryRDF} that takes IRIs and typed
+ * literals from a shared {@link TermCache}. Since blank nodes are scoped by
+ * file, every parsed file should get its own factory instance while all of
+ * them share the same cache. Terms that are not cached, yet, are created by
+ * the standard factory, i.e., its special handling of terms (e.g., IRIs of the
+ * form {@code <_:label>}, which represent blank nodes) is kept.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class CachingFactoryRDF extends FactoryRDFStd {
+
+    /**
+     * The shared cache of terms.
+     */
+    protected TermCache cache;
+
+    /**
+     * Constructor.
+     * 
+     * @param labelMapping the mapping of blank node labels to blank nodes
+     * @param cache        the shared cache of terms
+     */
+    public CachingFactoryRDF(LabelToNode labelMapping, TermCache cache) {
+        super(labelMapping);
+        this.cache = cache;
+    }
+
+    @Override
+    public Node createURI(String uriStr) {
+        return cache.getIri(uriStr, super::createURI);
+    }
+
+    @Override
+    public Node createTypedLiteral(String lexical, RDFDatatype datatype) {
+        return cache.getTypedLiteral(lexical, datatype, super::createTypedLiteral);
+    }
+}
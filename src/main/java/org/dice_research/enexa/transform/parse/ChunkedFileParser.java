@@ -0,0 +1,405 @@
+package org.dice_research.enexa.transform.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongConsumer;
+
+import javax.annotation.CheckForNull;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.dice_research.enexa.transform.filter.FilteringStreamRDF;
+import org.dice_research.enexa.transform.filter.StatementFilter;
+import org.dice_research.enexa.transform.io.ByteBufferInputStream;
+import org.dice_research.enexa.transform.metrics.CountingStreamRDF;
+import org.dice_research.enexa.transform.metrics.InputFileMetrics;
+import org.dice_research.enexa.transform.stream.QueueingStreamRDF;
+import org.dice_research.enexa.transform.stream.StatementBatch;
+
+/**
+ * A parser for large, uncompressed files of a line-based RDF serialization
+ * (N-Triples or N-Quads). The file is split into chunks that end at line
+ * breaks. The chunks are memory-mapped and parsed concurrently on the given
+ * thread pool using {@link NTuplesParser} instances. The parsed statements are
+ * sent as {@link StatementBatch} instances to the given queue. Blank node
+ * labels are scoped by the file, i.e., the same label in two chunks of the same
+ * file leads to the same blank node.
+ * 
+ * <p>
+ * If parsing permits are given (see {@link #setParsingPermits(Semaphore)}),
+ * a chunk is only parsed while its thread holds a permit. This allows the
+ * thread pool to share a budget of threads with other parsers. The calling
+ * thread, which only waits for the chunks, does not need a permit. If the
+ * order is preserved, the chunks of a file acquire their permits in their
+ * order.
+ * </p>
+ * 
+ * <p>
+ * If the order should be preserved, the chunks write their statements into
+ * small queues of their own and the calling thread forwards the batches chunk
+ * by chunk to the output queue. Otherwise, the chunks write directly to the
+ * output queue.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ChunkedFileParser {
+
+    /**
+     * The default size of a chunk in bytes.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64L << 20;
+    /**
+     * The maximum size of a chunk in bytes (limited by the size of a
+     * memory-mapped buffer).
+     */
+    public static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE - (1 << 20);
+    /**
+     * The number of batches that a chunk can buffer if the order is preserved.
+     */
+    protected static final int CHUNK_QUEUE_CAPACITY = 16;
+
+    /**
+     * The threads parsing the chunks.
+     */
+    protected ExecutorService executor;
+    /**
+     * The queue to which the parsed statements are sent.
+     */
+    protected BlockingQueue<StatementBatch> queue;
+    /**
+     * The (maximum) size of a chunk in bytes.
+     */
+    protected long chunkSize;
+    /**
+     * Flag indicating whether the order of the statements should be preserved.
+     */
+    protected boolean preserveOrder;
+    /**
+     * The cache of terms that is shared by all parsers or {@code null} if no
+     * shared cache is used.
+     */
+    protected TermCache termCache = null;
+    /**
+     * The filter that is applied to the parsed statements or {@code null} if
+     * all statements are kept.
+     */
+    protected StatementFilter statementFilter = null;
+    /**
+     * The counter that receives the number of bytes of each parsed chunk or
+     * {@code null} if the progress is not tracked.
+     */
+    protected LongConsumer progressCounter = null;
+    /**
+     * The metrics of the parsed file or {@code null} if no metrics are
+     * collected.
+     */
+    protected InputFileMetrics metrics = null;
+    /**
+     * The permits that a thread has to hold while it parses a chunk or
+     * {@code null} if the number of parsed chunks is only limited by the thread
+     * pool.
+     */
+    protected Semaphore parsingPermits = null;
+
+    /**
+     * Constructor.
+     * 
+     * @param executor      the threads parsing the chunks. It should not be used
+     *                      by the threads calling {@link #parse(File, Lang)}
+     * @param queue         the queue to which the parsed statements are sent
+     * @param chunkSize     the (maximum) size of a chunk in bytes
+     * @param preserveOrder flag indicating whether the order of the statements
+     *                      should be preserved
+     */
+    public ChunkedFileParser(ExecutorService executor, BlockingQueue<StatementBatch> queue, long chunkSize,
+            boolean preserveOrder) {
+        super();
+        this.executor = executor;
+        this.queue = queue;
+        this.chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+        this.preserveOrder = preserveOrder;
+    }
+
+    /**
+     * @param termCache the cache of terms that is shared by all parsers or
+     *                  {@code null} if no shared cache should be used
+     * @return this instance
+     */
+    public ChunkedFileParser setTermCache(TermCache termCache) {
+        this.termCache = termCache;
+        return this;
+    }
+
+    /**
+     * @param statementFilter the filter that is applied to the parsed statements
+     *                        or {@code null} if all statements should be kept
+     * @return this instance
+     */
+    public ChunkedFileParser setStatementFilter(StatementFilter statementFilter) {
+        this.statementFilter = statementFilter;
+        return this;
+    }
+
+    /**
+     * @param progressCounter the counter that receives the number of bytes of
+     *                        each parsed chunk or {@code null} if the progress
+     *                        should not be tracked
+     * @return this instance
+     */
+    public ChunkedFileParser setProgressCounter(LongConsumer progressCounter) {
+        this.progressCounter = progressCounter;
+        return this;
+    }
+
+    /**
+     * @param metrics the metrics of the parsed file to which the bytes,
+     *                statements and parsing time of each chunk are added or
+     *                {@code null} if no metrics should be collected
+     * @return this instance
+     */
+    public ChunkedFileParser setMetrics(InputFileMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * @param parsingPermits the permits that a thread has to hold while it parses
+     *                       a chunk or {@code null} if the number of parsed
+     *                       chunks should only be limited by the thread pool
+     * @return this instance
+     */
+    public ChunkedFileParser setParsingPermits(Semaphore parsingPermits) {
+        this.parsingPermits = parsingPermits;
+        return this;
+    }
+
+    /**
+     * Checks whether files of the given language can be split into chunks.
+     * 
+     * @param lang the language of a file
+     * @return {@code true} if the given language is line-based
+     */
+    public static boolean isSupported(Lang lang) {
+        return NTuplesParser.isSupported(lang);
+    }
+
+    /**
+     * Parses the given file. The method returns after all statements of the file
+     * have been sent to the queue.
+     * 
+     * @param file the uncompressed N-Triples or N-Quads file that should be
+     *             parsed
+     * @param lang the language of the file
+     * @throws IOException if an error occurs while reading or parsing the file
+     */
+    public void parse(File file, Lang lang) throws IOException {
+        // All chunks of the file use the same seed for their blank nodes
+        UUID blankNodeSeed = UUID.randomUUID();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<long[]> chunks = determineChunks(channel);
+            List<Future<?>> tasks = new ArrayList<>(chunks.size());
+            List<BlockingQueue<StatementBatch>> chunkQueues = preserveOrder ? new ArrayList<>(chunks.size()) : null;
+            // If the order is preserved, the chunks acquire their permits in their
+            // order. Otherwise, chunks waiting for their queues to be forwarded
+            // could hold all permits while the forwarded chunk waits for a permit.
+            List<CountDownLatch> permitted = (preserveOrder && (parsingPermits != null))
+                    ? new ArrayList<>(chunks.size())
+                    : null;
+            try {
+                for (long[] chunk : chunks) {
+                    BlockingQueue<StatementBatch> chunkQueue = queue;
+                    if (preserveOrder) {
+                        chunkQueue = new ArrayBlockingQueue<>(CHUNK_QUEUE_CAPACITY);
+                        chunkQueues.add(chunkQueue);
+                    }
+                    final BlockingQueue<StatementBatch> target = chunkQueue;
+                    CountDownLatch previousPermit = null;
+                    CountDownLatch ownPermit = null;
+                    if (permitted != null) {
+                        previousPermit = permitted.isEmpty() ? null : permitted.get(permitted.size() - 1);
+                        ownPermit = new CountDownLatch(1);
+                        permitted.add(ownPermit);
+                    }
+                    final CountDownLatch waitFor = previousPermit;
+                    final CountDownLatch signal = ownPermit;
+                    tasks.add(executor.submit(() -> {
+                        parseChunk(channel, chunk[0], chunk[1], lang, blankNodeSeed, target, waitFor, signal);
+                        return null;
+                    }));
+                }
+                if (preserveOrder) {
+                    for (BlockingQueue<StatementBatch> chunkQueue : chunkQueues) {
+                        StatementBatch batch = chunkQueue.take();
+                        while (batch != StatementBatch.END) {
+                            queue.put(batch);
+                            batch = chunkQueue.take();
+                        }
+                    }
+                }
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } catch (ExecutionException e) {
+                throw new IOException("Error while parsing a chunk of " + file.toString(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing " + file.toString(), e);
+            } finally {
+                // Make sure that no task is left behind (e.g., in case of an error)
+                for (Future<?> task : tasks) {
+                    task.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a single chunk of the file.
+     * 
+     * @param channel        the channel of the file
+     * @param start          the position of the first byte of the chunk
+     * @param end            the position after the last byte of the chunk
+     * @param lang           the language of the file
+     * @param blankNodeSeed  the seed used for creating the blank nodes of the
+     *                       file
+     * @param target         the queue to which the statements are sent. If the
+     *                       order is preserved, the {@link StatementBatch#END}
+     *                       marker is added when the chunk has been parsed.
+     * @param previousPermit the latch that is released when the previous chunk
+     *                       acquired its permit or {@code null} if this chunk
+     *                       does not have to wait for the previous chunk
+     * @param ownPermit      the latch that is released when this chunk acquired
+     *                       its permit or {@code null}
+     * @throws IOException if an IO error occurs
+     */
+    protected void parseChunk(FileChannel channel, long start, long end, Lang lang, UUID blankNodeSeed,
+            BlockingQueue<StatementBatch> target, @CheckForNull CountDownLatch previousPermit,
+            @CheckForNull CountDownLatch ownPermit) throws IOException {
+        boolean permitted = false;
+        try {
+            if (parsingPermits != null) {
+                if (previousPermit != null) {
+                    previousPermit.await();
+                }
+                parsingPermits.acquire();
+                permitted = true;
+            }
+            if (ownPermit != null) {
+                ownPermit.countDown();
+            }
+            long startTime = System.nanoTime();
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, start, end - start);
+            StreamRDF sink = new QueueingStreamRDF(target);
+            if (statementFilter != null) {
+                sink = new FilteringStreamRDF(sink, statementFilter);
+            }
+            if (metrics != null) {
+                sink = new CountingStreamRDF(sink, metrics::addStatements);
+            }
+            new NTuplesParser(lang, LabelToNode.createScopeByDocumentHash(blankNodeSeed)).setTermCache(termCache)
+                    .parse(new ByteBufferInputStream(buffer), sink);
+            if (progressCounter != null) {
+                progressCounter.accept(end - start);
+            }
+            if (metrics != null) {
+                // The chunk is neither compressed nor read through a stream
+                metrics.addReadBytes(end - start);
+                metrics.addUncompressedBytes(end - start);
+                metrics.addProcessingNanos(System.nanoTime() - startTime);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a permit to parse a chunk.", e);
+        } finally {
+            if (ownPermit != null) {
+                // Do not block the following chunk in case of an error
+                ownPermit.countDown();
+            }
+            if (permitted) {
+                parsingPermits.release();
+            }
+            if (preserveOrder) {
+                try {
+                    target.put(StatementBatch.END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the chunks of the file. Every chunk (except the last one) ends
+     * directly after a line break.
+     * 
+     * @param channel the channel of the file
+     * @return a list of chunks represented as pairs of start (inclusive) and end
+     *         (exclusive) positions
+     * @throws IOException if an IO error occurs
+     */
+    protected List<long[]> determineChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(1 << 16);
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkSize;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = findLineEnd(channel, end, size, probe);
+            }
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns the position after the next line break at or after the given
+     * position.
+     * 
+     * @param channel  the channel of the file
+     * @param position the position at which the search starts
+     * @param size     the size of the file
+     * @param probe    a buffer that is used for reading
+     * @return the position after the next line break or the size of the file if
+     *         there is no further line break
+     * @throws IOException if an IO error occurs
+     */
+    protected static long findLineEnd(FileChannel channel, long position, long size, ByteBuffer probe)
+            throws IOException {
+        while (position < size) {
+            probe.clear();
+            int length = channel.read(probe, position);
+            if (length <= 0) {
+                break;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,624 @@
+package org.dice_research.enexa.transform.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RiotParseException;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.FactoryRDF;
+import org.apache.jena.riot.system.FactoryRDFStd;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A parser for the line-based serializations N-Triples and N-Quads that works
+ * directly on the bytes of the input. In contrast to Jena's general parser, it
+ * doesn't create tokens or intermediate Strings. The bytes of a term are only
+ * decoded when the term's node is created. IRIs consisting solely of ASCII
+ * characters without escape sequences (e.g., most predicates and classes) are
+ * cached, i.e., their nodes are reused without decoding them again. The buffers
+ * of an instance are reused for all files that it parses. Quoted triples of
+ * RDF-star ({@code << s p o >>}) are supported as subjects and objects.
+ *
+ * <p>
+ * Note that an instance is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NTuplesParser {
+
+    /**
+     * The initial size of the read buffer. It is increased if a single line
+     * doesn't fit into the buffer.
+     */
+    protected static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    /**
+     * The number of entries of the IRI cache (has to be a power of 2).
+     */
+    protected static final int IRI_CACHE_SIZE = 1 << 12;
+    /**
+     * IRIs that are longer than this number of bytes are not cached.
+     */
+    protected static final int MAX_CACHED_IRI_LENGTH = 256;
+
+    /**
+     * The language of the parsed files.
+     */
+    protected Lang lang;
+    /**
+     * Flag indicating whether the statements may have a fourth (graph) element.
+     */
+    protected boolean quads;
+    /**
+     * The mapping of blank node labels to blank nodes that is used for all parsed
+     * files or {@code null} if every file gets its own scope.
+     */
+    protected LabelToNode labelToNode;
+    /**
+     * The cache of terms that is shared with other parsers or {@code null} if
+     * no shared cache is used.
+     */
+    protected TermCache termCache = null;
+    /**
+     * The factory used to create the nodes and statements.
+     */
+    protected FactoryRDF factory;
+    /**
+     * The read buffer.
+     */
+    protected byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    /**
+     * A reusable builder for terms that contain escape sequences.
+     */
+    protected StringBuilder unescaped = new StringBuilder();
+    /**
+     * The byte sequences of the cached IRIs.
+     */
+    protected byte[][] iriCacheKeys = new byte[IRI_CACHE_SIZE][];
+    /**
+     * The nodes of the cached IRIs.
+     */
+    protected Node[] iriCacheNodes = new Node[IRI_CACHE_SIZE];
+    /**
+     * The current position within the read buffer.
+     */
+    protected int pos;
+    /**
+     * The start of the current line within the read buffer.
+     */
+    protected int lineStart;
+    /**
+     * The end (exclusive) of the current line within the read buffer.
+     */
+    protected int lineEnd;
+    /**
+     * The number of the current line.
+     */
+    protected long lineNumber;
+
+    /**
+     * Constructor. Blank node labels are scoped by the parsed file.
+     *
+     * @param lang the language of the parsed files (N-Triples or N-Quads)
+     */
+    public NTuplesParser(Lang lang) {
+        this(lang, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lang        the language of the parsed files (N-Triples or N-Quads)
+     * @param labelToNode the mapping of blank node labels to blank nodes that is
+     *                    used for all parsed files (e.g., for parsing several
+     *                    chunks of the same file) or {@code null} if every file
+     *                    should get its own scope
+     */
+    public NTuplesParser(Lang lang, LabelToNode labelToNode) {
+        super();
+        if (!isSupported(lang)) {
+            throw new IllegalArgumentException("The given language " + lang + " is not supported.");
+        }
+        this.lang = lang;
+        this.quads = Lang.NQUADS.equals(lang);
+        this.labelToNode = labelToNode;
+    }
+
+    /**
+     * Checks whether the given language can be parsed by this class.
+     *
+     * @param lang the language of a file
+     * @return {@code true} if the given language is N-Triples or N-Quads
+     */
+    public static boolean isSupported(Lang lang) {
+        return Lang.NTRIPLES.equals(lang) || Lang.NQUADS.equals(lang);
+    }
+
+    /**
+     * Parses the given stream and sends the statements to the given target.
+     * Similar to Jena's parsers, {@link StreamRDF#start()} and
+     * {@link StreamRDF#finish()} are called on the target.
+     *
+     * @param in     the stream that should be parsed (it is not closed by this
+     *               method)
+     * @param target the stream to which the parsed statements are sent
+     * @throws IOException        if an error occurs while reading the stream
+     * @throws RiotParseException if the data contains a syntax error
+     */
+    public void parse(InputStream in, StreamRDF target) throws IOException {
+        LabelToNode fileLabelToNode = (labelToNode != null) ? labelToNode : LabelToNode.createScopeByDocumentHash();
+        factory = (termCache != null) ? new CachingFactoryRDF(fileLabelToNode, termCache)
+                : new FactoryRDFStd(fileLabelToNode);
+        target.start();
+        try {
+            lineNumber = 0;
+            int start = 0;
+            int end = 0;
+            int scanFrom = 0;
+            boolean eof = false;
+            boolean firstRead = true;
+            while (true) {
+                int newline = indexOfNewline(scanFrom, end);
+                if (newline >= 0) {
+                    parseLine(start, newline, target);
+                    start = newline + 1;
+                    scanFrom = start;
+                } else if (eof) {
+                    if (start < end) {
+                        parseLine(start, end, target);
+                    }
+                    break;
+                } else {
+                    // Move the remaining bytes to the beginning of the buffer
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, end - start);
+                        end -= start;
+                        start = 0;
+                    }
+                    if (end == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                    }
+                    scanFrom = end;
+                    int read = in.read(buffer, end, buffer.length - end);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        end += read;
+                        if (firstRead && (end >= 3)) {
+                            firstRead = false;
+                            // Skip a UTF-8 byte order mark
+                            if ((buffer[0] == (byte) 0xEF) && (buffer[1] == (byte) 0xBB)
+                                    && (buffer[2] == (byte) 0xBF)) {
+                                start = 3;
+                                scanFrom = 3;
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            target.finish();
+        }
+    }
+
+    /**
+     * @return the cache of terms that is shared with other parsers or
+     *         {@code null} if no shared cache is used
+     */
+    public TermCache getTermCache() {
+        return termCache;
+    }
+
+    /**
+     * @param termCache the cache of terms that is shared with other parsers or
+     *                  {@code null} if no shared cache should be used
+     * @return this instance
+     */
+    public NTuplesParser setTermCache(TermCache termCache) {
+        this.termCache = termCache;
+        return this;
+    }
+
+    /**
+     * Returns the position of the next line feed within the given range of the
+     * buffer.
+     *
+     * @param from the start of the range (inclusive)
+     * @param to   the end of the range (exclusive)
+     * @return the position of the line feed or -1 if the range doesn't contain a
+     *         line feed
+     */
+    protected int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; ++i) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a single line.
+     *
+     * @param from   the start of the line within the buffer
+     * @param to     the end of the line (exclusive) within the buffer
+     * @param target the stream to which a parsed statement is sent
+     */
+    protected void parseLine(int from, int to, StreamRDF target) {
+        ++lineNumber;
+        if ((to > from) && (buffer[to - 1] == '\r')) {
+            --to;
+        }
+        lineStart = from;
+        lineEnd = to;
+        pos = from;
+        skipWhitespace();
+        if ((pos == lineEnd) || (buffer[pos] == '#')) {
+            return;
+        }
+        Node subject = parseResource();
+        skipWhitespace();
+        if ((pos == lineEnd) || (buffer[pos] != '<')) {
+            throw error("Expected an IRI as predicate.");
+        }
+        Node predicate = parseIri();
+        skipWhitespace();
+        Node object = parseObject();
+        skipWhitespace();
+        Node graph = null;
+        if ((pos < lineEnd) && (buffer[pos] != '.')) {
+            if (!quads) {
+                throw error("Expected '.' at the end of the triple.");
+            }
+            if (isQuotedTripleStart()) {
+                throw error("A quoted triple can not be used as graph.");
+            }
+            graph = parseResource();
+            skipWhitespace();
+        }
+        if ((pos == lineEnd) || (buffer[pos] != '.')) {
+            throw error("Expected '.' at the end of the statement.");
+        }
+        ++pos;
+        skipWhitespace();
+        if ((pos < lineEnd) && (buffer[pos] != '#')) {
+            throw error("Unexpected content after the end of the statement.");
+        }
+        if (quads) {
+            target.quad(factory.createQuad(graph == null ? Quad.defaultGraphNodeGenerated : graph, subject,
+                    predicate, object));
+        } else {
+            target.triple(factory.createTriple(subject, predicate, object));
+        }
+    }
+
+    /**
+     * Skips spaces and tabs.
+     */
+    protected void skipWhitespace() {
+        while ((pos < lineEnd) && ((buffer[pos] == ' ') || (buffer[pos] == '\t'))) {
+            ++pos;
+        }
+    }
+
+    /**
+     * Parses an IRI, a blank node or a quoted triple.
+     *
+     * @return the parsed node
+     */
+    protected Node parseResource() {
+        if (pos < lineEnd) {
+            if (isQuotedTripleStart()) {
+                return parseQuotedTriple();
+            } else if (buffer[pos] == '<') {
+                return parseIri();
+            } else if (buffer[pos] == '_') {
+                return parseBlankNode();
+            }
+        }
+        throw error("Expected an IRI or a blank node.");
+    }
+
+    /**
+     * @return {@code true} if the current position points to the {@code "<<"}
+     *         that opens a quoted triple
+     */
+    protected boolean isQuotedTripleStart() {
+        return (pos + 1 < lineEnd) && (buffer[pos] == '<') && (buffer[pos + 1] == '<');
+    }
+
+    /**
+     * Parses a quoted triple of RDF-star. The current position has to point to
+     * the opening {@code "<<"}.
+     *
+     * @return the triple node
+     */
+    protected Node parseQuotedTriple() {
+        pos += 2;
+        skipWhitespace();
+        Node subject = parseResource();
+        skipWhitespace();
+        if ((pos == lineEnd) || (buffer[pos] != '<')) {
+            throw error("Expected an IRI as predicate.");
+        }
+        Node predicate = parseIri();
+        skipWhitespace();
+        Node object = parseObject();
+        skipWhitespace();
+        if ((pos + 1 >= lineEnd) || (buffer[pos] != '>') || (buffer[pos + 1] != '>')) {
+            throw error("Expected \">>\" at the end of a quoted triple.");
+        }
+        pos += 2;
+        return factory.createTripleNode(subject, predicate, object);
+    }
+
+    /**
+     * Parses an IRI, a blank node, a quoted triple or a literal.
+     *
+     * @return the parsed node
+     */
+    protected Node parseObject() {
+        if ((pos < lineEnd) && (buffer[pos] == '"')) {
+            return parseLiteral();
+        }
+        return parseResource();
+    }
+
+    /**
+     * Parses an IRI. The current position has to point to the opening
+     * {@code '<'}.
+     *
+     * @return the parsed IRI node
+     */
+    protected Node parseIri() {
+        int start = ++pos;
+        boolean escaped = false;
+        boolean ascii = true;
+        int hash = 0;
+        byte b;
+        while (true) {
+            if (pos == lineEnd) {
+                throw error("Unterminated IRI.");
+            }
+            b = buffer[pos];
+            if (b == '>') {
+                break;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b < 0) {
+                ascii = false;
+            } else if ((b == ' ') || (b == '<') || (b == '"')) {
+                throw error("Illegal character in IRI.");
+            }
+            hash = (31 * hash) + b;
+            ++pos;
+        }
+        int end = pos;
+        ++pos;
+        int length = end - start;
+        if (escaped || !ascii || (length > MAX_CACHED_IRI_LENGTH)) {
+            return factory.createURI(decode(start, end, escaped, ascii));
+        }
+        int slot = (hash ^ (hash >>> 16)) & (IRI_CACHE_SIZE - 1);
+        byte[] key = iriCacheKeys[slot];
+        if ((key != null) && Arrays.equals(key, 0, key.length, buffer, start, end)) {
+            return iriCacheNodes[slot];
+        }
+        Node node = factory.createURI(new String(buffer, start, length, StandardCharsets.ISO_8859_1));
+        iriCacheKeys[slot] = Arrays.copyOfRange(buffer, start, end);
+        iriCacheNodes[slot] = node;
+        return node;
+    }
+
+    /**
+     * Parses a blank node. The current position has to point to the {@code '_'}
+     * of the {@code "_:"} prefix.
+     *
+     * @return the blank node
+     */
+    protected Node parseBlankNode() {
+        if ((pos + 1 >= lineEnd) || (buffer[pos + 1] != ':')) {
+            throw error("Expected \"_:\" at the beginning of a blank node.");
+        }
+        pos += 2;
+        int start = pos;
+        boolean ascii = true;
+        byte b;
+        while (pos < lineEnd) {
+            b = buffer[pos];
+            if ((b == ' ') || (b == '\t') || (b == '<') || (b == '>') || (b == '"')) {
+                // '>' can only be the end of a quoted triple
+                break;
+            } else if (b < 0) {
+                ascii = false;
+            }
+            ++pos;
+        }
+        // A label can not end with a '.' (it is the end of the statement)
+        while ((pos > start) && (buffer[pos - 1] == '.')) {
+            --pos;
+        }
+        if (pos == start) {
+            throw error("Empty blank node label.");
+        }
+        return factory.createBlankNode(decode(start, pos, false, ascii));
+    }
+
+    /**
+     * Parses a literal. The current position has to point to the opening
+     * {@code '"'}.
+     *
+     * @return the literal node
+     */
+    protected Node parseLiteral() {
+        int start = ++pos;
+        boolean escaped = false;
+        boolean ascii = true;
+        byte b;
+        while (true) {
+            if (pos >= lineEnd) {
+                throw error("Unterminated literal.");
+            }
+            b = buffer[pos];
+            if (b == '"') {
+                break;
+            } else if (b == '\\') {
+                escaped = true;
+                // skip the escaped character
+                ++pos;
+            } else if (b < 0) {
+                ascii = false;
+            }
+            ++pos;
+        }
+        String lexicalForm = decode(start, pos, escaped, ascii);
+        ++pos;
+        if (pos < lineEnd) {
+            if (buffer[pos] == '@') {
+                int langStart = ++pos;
+                while ((pos < lineEnd) && (isLetterOrDigit(buffer[pos]) || (buffer[pos] == '-'))) {
+                    ++pos;
+                }
+                if (pos == langStart) {
+                    throw error("Empty language tag.");
+                }
+                return factory.createLangLiteral(lexicalForm,
+                        new String(buffer, langStart, pos - langStart, StandardCharsets.ISO_8859_1));
+            } else if (buffer[pos] == '^') {
+                if ((pos + 2 >= lineEnd) || (buffer[pos + 1] != '^') || (buffer[pos + 2] != '<')) {
+                    throw error("Expected \"^^<\" in front of the datatype IRI.");
+                }
+                pos += 2;
+                Node datatypeIri = parseIri();
+                RDFDatatype datatype = TypeMapper.getInstance().getSafeTypeByName(datatypeIri.getURI());
+                return factory.createTypedLiteral(lexicalForm, datatype);
+            }
+        }
+        return factory.createStringLiteral(lexicalForm);
+    }
+
+    /**
+     * Decodes the given range of the buffer.
+     *
+     * @param from    the start of the range (inclusive)
+     * @param to      the end of the range (exclusive)
+     * @param escaped flag indicating whether the range contains escape sequences
+     * @param ascii   flag indicating whether the range contains only ASCII
+     *                characters
+     * @return the decoded String
+     */
+    protected String decode(int from, int to, boolean escaped, boolean ascii) {
+        String raw = new String(buffer, from, to - from,
+                ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        return escaped ? unescape(raw) : raw;
+    }
+
+    /**
+     * Replaces the escape sequences of the given String.
+     *
+     * @param raw the String containing escape sequences
+     * @return the unescaped String
+     */
+    protected String unescape(String raw) {
+        unescaped.setLength(0);
+        int length = raw.length();
+        char c;
+        for (int i = 0; i < length; ++i) {
+            c = raw.charAt(i);
+            if (c != '\\') {
+                unescaped.append(c);
+                continue;
+            }
+            ++i;
+            if (i >= length) {
+                throw error("Incomplete escape sequence.");
+            }
+            c = raw.charAt(i);
+            switch (c) {
+            case 't':
+                unescaped.append('\t');
+                break;
+            case 'b':
+                unescaped.append('\b');
+                break;
+            case 'n':
+                unescaped.append('\n');
+                break;
+            case 'r':
+                unescaped.append('\r');
+                break;
+            case 'f':
+                unescaped.append('\f');
+                break;
+            case '"': // falls through
+            case '\'': // falls through
+            case '\\':
+                unescaped.append(c);
+                break;
+            case 'u':
+                unescaped.appendCodePoint(parseHex(raw, i + 1, 4));
+                i += 4;
+                break;
+            case 'U':
+                unescaped.appendCodePoint(parseHex(raw, i + 1, 8));
+                i += 8;
+                break;
+            default:
+                throw error("Unknown escape sequence \"\\" + c + "\".");
+            }
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Parses the hexadecimal code point of a unicode escape sequence.
+     *
+     * @param raw    the String containing the escape sequence
+     * @param start  the position of the first hex digit
+     * @param digits the number of hex digits
+     * @return the code point
+     */
+    protected int parseHex(String raw, int start, int digits) {
+        if (start + digits > raw.length()) {
+            throw error("Incomplete unicode escape sequence.");
+        }
+        int codePoint = 0;
+        for (int i = start; i < start + digits; ++i) {
+            int digit = Character.digit(raw.charAt(i), 16);
+            if (digit < 0) {
+                throw error("Illegal unicode escape sequence.");
+            }
+            codePoint = (codePoint << 4) | digit;
+        }
+        if (!Character.isValidCodePoint(codePoint)) {
+            throw error("Illegal unicode code point.");
+        }
+        return codePoint;
+    }
+
+    /**
+     * @param b a byte
+     * @return {@code true} if the byte is an ASCII letter or digit
+     */
+    protected static boolean isLetterOrDigit(byte b) {
+        return ((b >= 'a') && (b <= 'z')) || ((b >= 'A') && (b <= 'Z')) || ((b >= '0') && (b <= '9'));
+    }
+
+    /**
+     * Creates an exception for a syntax error at the current position.
+     *
+     * @param message the description of the error
+     * @return the exception
+     */
+    protected RiotParseException error(String message) {
+        return new RiotParseException(message, lineNumber, pos - lineStart + 1);
+    }
+}
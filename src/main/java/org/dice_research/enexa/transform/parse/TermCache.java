@@ -0,0 +1,181 @@
+package org.dice_research.enexa.transform.parse;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.CacheFactory;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+
+/**
+ * A bounded, thread-safe cache of IRI nodes and typed literals that is shared
+ * by all parsers of a transformation. Repeated terms (e.g., predicates, classes
+ * or common datatype values) are represented by the same {@link Node} instance
+ * across files and threads. The cache is based on Jena's {@link CacheFactory}
+ * and counts its hits and misses.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TermCache {
+
+    /**
+     * The default number of cached terms.
+     */
+    public static final int DEFAULT_SIZE = 100_000;
+    /**
+     * Literals with a longer lexical form are not cached.
+     */
+    protected static final int MAX_CACHED_LITERAL_LENGTH = 64;
+
+    /**
+     * The cached IRI nodes.
+     */
+    protected Cache<String, Node> iris;
+    /**
+     * The cached typed literals.
+     */
+    protected Cache<TypedLiteralKey, Node> literals;
+    protected LongAdder hits = new LongAdder();
+    protected LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     * 
+     * @param size the maximum number of cached IRIs and the maximum number of
+     *             cached literals
+     */
+    public TermCache(int size) {
+        super();
+        iris = CacheFactory.createCache(size);
+        literals = CacheFactory.createCache(size);
+    }
+
+    /**
+     * Returns the node of the given IRI.
+     * 
+     * @param iri the IRI
+     * @return the cached node or a new node if the IRI hasn't been cached
+     */
+    public Node getIri(String iri) {
+        return getIri(iri, NodeFactory::createURI);
+    }
+
+    /**
+     * Returns the node of the given IRI. If the IRI hasn't been cached, the node
+     * is created with the given function.
+     * 
+     * @param iri     the IRI
+     * @param creator the function that creates the node of an IRI that hasn't
+     *                been cached
+     * @return the cached node or a new node if the IRI hasn't been cached
+     */
+    public Node getIri(String iri, Function<String, Node> creator) {
+        Node node = iris.getIfPresent(iri);
+        if (node != null) {
+            hits.increment();
+            return node;
+        }
+        misses.increment();
+        node = creator.apply(iri);
+        iris.put(iri, node);
+        return node;
+    }
+
+    /**
+     * Returns the node of the given typed literal. Literals with long lexical
+     * forms are not cached.
+     * 
+     * @param lexicalForm the lexical form of the literal
+     * @param datatype    the datatype of the literal
+     * @return the cached node or a new node if the literal hasn't been cached
+     */
+    public Node getTypedLiteral(String lexicalForm, RDFDatatype datatype) {
+        return getTypedLiteral(lexicalForm, datatype, NodeFactory::createLiteral);
+    }
+
+    /**
+     * Returns the node of the given typed literal. Literals with long lexical
+     * forms are not cached. If the literal hasn't been cached, the node is
+     * created with the given function.
+     * 
+     * @param lexicalForm the lexical form of the literal
+     * @param datatype    the datatype of the literal
+     * @param creator     the function that creates the node of a literal that
+     *                    hasn't been cached
+     * @return the cached node or a new node if the literal hasn't been cached
+     */
+    public Node getTypedLiteral(String lexicalForm, RDFDatatype datatype,
+            BiFunction<String, RDFDatatype, Node> creator) {
+        if (lexicalForm.length() > MAX_CACHED_LITERAL_LENGTH) {
+            return creator.apply(lexicalForm, datatype);
+        }
+        TypedLiteralKey key = new TypedLiteralKey(lexicalForm, datatype);
+        Node node = literals.getIfPresent(key);
+        if (node != null) {
+            hits.increment();
+            return node;
+        }
+        misses.increment();
+        node = creator.apply(lexicalForm, datatype);
+        literals.put(key, node);
+        return node;
+    }
+
+    /**
+     * @return the number of requests that have been answered with a cached node
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of requests that led to the creation of a new node
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of hits to all cached requests or 0 if there haven't been
+     *         any requests
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return (total > 0) ? ((double) hitCount / total) : 0;
+    }
+
+    /**
+     * The key of a typed literal within the cache.
+     */
+    protected static final class TypedLiteralKey {
+        private final String lexicalForm;
+        private final RDFDatatype datatype;
+
+        public TypedLiteralKey(String lexicalForm, RDFDatatype datatype) {
+            this.lexicalForm = lexicalForm;
+            this.datatype = datatype;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * lexicalForm.hashCode()) + datatype.getURI().hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TypedLiteralKey)) {
+                return false;
+            }
+            TypedLiteralKey other = (TypedLiteralKey) obj;
+            return lexicalForm.equals(other.lexicalForm) && datatype.getURI().equals(other.datatype.getURI());
+        }
+    }
+}
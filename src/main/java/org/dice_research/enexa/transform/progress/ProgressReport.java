@@ -0,0 +1,167 @@
+package org.dice_research.enexa.transform.progress;
+
+/**
+ * A snapshot of the progress of a transformation that is created by a
+ * {@link ProgressTracker}. The throughput is measured since the previous
+ * report while the estimated remaining time is based on the average
+ * throughput since the start of the transformation.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ProgressReport {
+
+    /**
+     * The time since the start of the transformation in milliseconds.
+     */
+    protected final long elapsedMillis;
+    /**
+     * The number of input files that have been added.
+     */
+    protected final long inputFiles;
+    /**
+     * The size of all input files that have been added in bytes.
+     */
+    protected final long inputBytes;
+    /**
+     * The number of input bytes that have been consumed.
+     */
+    protected final long consumedBytes;
+    /**
+     * The number of statements that have been written.
+     */
+    protected final long writtenStatements;
+    /**
+     * The number of bytes that have been written to the output files.
+     */
+    protected final long writtenBytes;
+    /**
+     * The number of consumed input bytes per second since the previous report.
+     */
+    protected final double bytesPerSecond;
+    /**
+     * The number of written statements per second since the previous report.
+     */
+    protected final double statementsPerSecond;
+
+    /**
+     * Constructor.
+     *
+     * @param elapsedMillis       the time since the start in milliseconds
+     * @param inputFiles          the number of input files that have been added
+     * @param inputBytes          the size of all input files in bytes
+     * @param consumedBytes       the number of consumed input bytes
+     * @param writtenStatements   the number of written statements
+     * @param writtenBytes        the number of written bytes
+     * @param bytesPerSecond      the number of consumed input bytes per second
+     *                            since the previous report
+     * @param statementsPerSecond the number of written statements per second
+     *                            since the previous report
+     */
+    public ProgressReport(long elapsedMillis, long inputFiles, long inputBytes, long consumedBytes,
+            long writtenStatements, long writtenBytes, double bytesPerSecond, double statementsPerSecond) {
+        super();
+        this.elapsedMillis = elapsedMillis;
+        this.inputFiles = inputFiles;
+        this.inputBytes = inputBytes;
+        this.consumedBytes = consumedBytes;
+        this.writtenStatements = writtenStatements;
+        this.writtenBytes = writtenBytes;
+        this.bytesPerSecond = bytesPerSecond;
+        this.statementsPerSecond = statementsPerSecond;
+    }
+
+    /**
+     * @return the share of the input bytes that have been consumed (0 to 1) or
+     *         a negative value if no input has been added, yet
+     */
+    public double getProgress() {
+        if (inputBytes <= 0) {
+            return -1;
+        }
+        return Math.min(1.0, (double) consumedBytes / inputBytes);
+    }
+
+    /**
+     * @return the estimated remaining time in milliseconds or a negative value
+     *         if it can not be estimated, yet. Note that input files that have
+     *         not been added, yet, are not taken into account.
+     */
+    public long getEtaMillis() {
+        if ((inputBytes <= 0) || (consumedBytes <= 0) || (elapsedMillis <= 0)) {
+            return -1;
+        }
+        long remainingBytes = Math.max(0, inputBytes - consumedBytes);
+        return (long) (remainingBytes * ((double) elapsedMillis / consumedBytes));
+    }
+
+    /**
+     * @return the time since the start of the transformation in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return the number of input files that have been added
+     */
+    public long getInputFiles() {
+        return inputFiles;
+    }
+
+    /**
+     * @return the size of all input files that have been added in bytes
+     */
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    /**
+     * @return the number of input bytes that have been consumed
+     */
+    public long getConsumedBytes() {
+        return consumedBytes;
+    }
+
+    /**
+     * @return the number of statements that have been written
+     */
+    public long getWrittenStatements() {
+        return writtenStatements;
+    }
+
+    /**
+     * @return the number of bytes that have been written to the output files
+     */
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * @return the number of consumed input bytes per second since the previous
+     *         report
+     */
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @return the number of written statements per second since the previous
+     *         report
+     */
+    public double getStatementsPerSecond() {
+        return statementsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        double progress = getProgress();
+        long eta = getEtaMillis();
+        return String.format(
+                "%s of %d input bytes consumed (%d files), %d statements and %d bytes written, %.1f MB/s,"
+                        + " %.0f statements/s, ETA %s",
+                (progress < 0) ? "-" : String.format("%.1f%%", progress * 100), inputBytes, inputFiles,
+                writtenStatements, writtenBytes, bytesPerSecond / 1_000_000, statementsPerSecond,
+                (eta < 0) ? "unknown" : ((eta / 1000) + "s"));
+    }
+}
@@ -0,0 +1,95 @@
+package org.dice_research.enexa.transform.progress;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDFLib;
+
+/**
+ * A stream that counts the statements that it forwards to the target stream
+ * in a {@link ProgressTracker}. It is meant to be placed directly in front of
+ * the writer. Batches are counted as a whole.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ProgressStreamRDF implements StreamRDF, BatchedStreamRDF {
+
+    /**
+     * The stream to which single statements are forwarded.
+     */
+    protected StreamRDF target;
+    /**
+     * The stream to which batches are forwarded.
+     */
+    protected BatchedStreamRDF batchedTarget;
+    /**
+     * The tracker that counts the statements.
+     */
+    protected ProgressTracker tracker;
+
+    /**
+     * Constructor.
+     *
+     * @param target  the stream to which the statements are forwarded
+     * @param tracker the tracker that counts the statements
+     */
+    public ProgressStreamRDF(StreamRDF target, ProgressTracker tracker) {
+        super();
+        this.target = target;
+        this.batchedTarget = BatchedStreamRDFLib.unbatch(target);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        target.triple(triple);
+        tracker.addWrittenStatements(1);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        target.quad(quad);
+        tracker.addWrittenStatements(1);
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        batchedTarget.triples(triples, size);
+        tracker.addWrittenStatements(size);
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        batchedTarget.quads(quads, size);
+        tracker.addWrittenStatements(size);
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        target.finish();
+    }
+
+    /**
+     * @return the stream to which the statements are forwarded
+     */
+    public StreamRDF getTarget() {
+        return target;
+    }
+}
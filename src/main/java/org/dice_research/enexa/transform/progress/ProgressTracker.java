@@ -0,0 +1,192 @@
+package org.dice_research.enexa.transform.progress;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the progress of a transformation, i.e., the size of the added input
+ * files, the consumed input bytes as well as the written statements and
+ * bytes. The counters are {@link LongAdder} instances that can be updated by
+ * the parser and writer threads without blocking them. A background thread
+ * creates a {@link ProgressReport} in a fixed interval, logs it and hands it
+ * to the listener (if there is one).
+ *
+ * <p>
+ * The reporting starts with {@link #start()} and ends with {@link #close()},
+ * which creates a last report.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ProgressTracker implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressTracker.class);
+
+    /**
+     * The number of input files that have been added.
+     */
+    protected LongAdder inputFiles = new LongAdder();
+    /**
+     * The size of all input files that have been added in bytes.
+     */
+    protected LongAdder inputBytes = new LongAdder();
+    /**
+     * The number of input bytes that have been consumed.
+     */
+    protected LongAdder consumedBytes = new LongAdder();
+    /**
+     * The number of statements that have been written.
+     */
+    protected LongAdder writtenStatements = new LongAdder();
+    /**
+     * The number of bytes that have been written to the output files.
+     */
+    protected LongAdder writtenBytes = new LongAdder();
+    /**
+     * The interval in which reports are created in milliseconds.
+     */
+    protected long interval;
+    /**
+     * The listener that receives the reports or {@code null} if the reports are
+     * only logged.
+     */
+    protected Consumer<ProgressReport> listener;
+    /**
+     * The thread that creates the reports or {@code null} if the reporting has
+     * not been started.
+     */
+    protected ScheduledExecutorService reporter = null;
+    /**
+     * The time at which the tracking started (see {@link System#nanoTime()}).
+     */
+    protected long startTime = System.nanoTime();
+    /**
+     * The time of the previous report (see {@link System#nanoTime()}).
+     */
+    protected long lastReportTime = startTime;
+    /**
+     * The number of consumed bytes at the time of the previous report.
+     */
+    protected long lastConsumedBytes = 0;
+    /**
+     * The number of written statements at the time of the previous report.
+     */
+    protected long lastWrittenStatements = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param interval the interval in which reports are created in milliseconds
+     * @param listener the listener that receives the reports or {@code null} if
+     *                 the reports should only be logged
+     */
+    public ProgressTracker(long interval, Consumer<ProgressReport> listener) {
+        super();
+        this.interval = interval;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the background thread that creates the reports.
+     */
+    public synchronized void start() {
+        if (reporter != null) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::report, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers an input file.
+     *
+     * @param bytes the size of the file in bytes
+     */
+    public void addInput(long bytes) {
+        inputFiles.increment();
+        inputBytes.add(bytes);
+    }
+
+    /**
+     * @param bytes the number of input bytes that have been consumed
+     */
+    public void addConsumedBytes(long bytes) {
+        consumedBytes.add(bytes);
+    }
+
+    /**
+     * @param statements the number of statements that have been written
+     */
+    public void addWrittenStatements(long statements) {
+        writtenStatements.add(statements);
+    }
+
+    /**
+     * @param bytes the number of bytes that have been written to an output file
+     */
+    public void addWrittenBytes(long bytes) {
+        writtenBytes.add(bytes);
+    }
+
+    /**
+     * Creates a report of the current progress.
+     *
+     * @return the current progress
+     */
+    public synchronized ProgressReport createReport() {
+        long now = System.nanoTime();
+        long consumed = consumedBytes.sum();
+        long statements = writtenStatements.sum();
+        double seconds = (now - lastReportTime) / 1e9;
+        ProgressReport report = new ProgressReport(TimeUnit.NANOSECONDS.toMillis(now - startTime),
+                inputFiles.sum(), inputBytes.sum(), consumed, statements, writtenBytes.sum(),
+                (seconds > 0) ? (consumed - lastConsumedBytes) / seconds : 0,
+                (seconds > 0) ? (statements - lastWrittenStatements) / seconds : 0);
+        lastReportTime = now;
+        lastConsumedBytes = consumed;
+        lastWrittenStatements = statements;
+        return report;
+    }
+
+    /**
+     * Creates a report, logs it and hands it to the listener. Errors of the
+     * listener are logged but do not stop the reporting.
+     */
+    protected void report() {
+        ProgressReport report = createReport();
+        LOGGER.info("Progress: {}", report);
+        if (listener != null) {
+            try {
+                listener.accept(report);
+            } catch (Throwable e) {
+                LOGGER.warn("The progress listener threw an exception.", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the background thread and creates a last report.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (reporter == null) {
+                return;
+            }
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        report();
+    }
+}
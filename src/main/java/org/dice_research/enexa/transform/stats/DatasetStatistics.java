@@ -0,0 +1,153 @@
+package org.dice_research.enexa.transform.stats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.jena.graph.Node;
+import org.dice_research.enexa.transform.util.StatementHasher;
+
+/**
+ * Statistics of a stream of statements that can be expressed with the VoID
+ * vocabulary. The number of statements and the number of statements per
+ * predicate are counted exactly while the numbers of distinct subjects,
+ * distinct objects and distinct entities (IRIs and blank nodes that occur as
+ * subject or object) are estimated with {@link HyperLogLog} sketches, i.e.,
+ * the memory consumption does not grow with the size of the data (except for
+ * the number of predicates).
+ *
+ * <p>
+ * An instance is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class DatasetStatistics {
+
+    /**
+     * The hash function that is used for the sketches.
+     */
+    protected StatementHasher hasher = new StatementHasher();
+    /**
+     * The number of statements.
+     */
+    protected long statements = 0;
+    /**
+     * The number of statements per predicate. The counter is stored in an array
+     * to be able to increment it without creating new objects.
+     */
+    protected Map<Node, long[]> predicateCounts = new HashMap<>();
+    /**
+     * The sketch of the distinct subjects.
+     */
+    protected HyperLogLog subjects;
+    /**
+     * The sketch of the distinct objects.
+     */
+    protected HyperLogLog objects;
+    /**
+     * The sketch of the distinct entities.
+     */
+    protected HyperLogLog entities;
+
+    /**
+     * Constructor using the {@link HyperLogLog#DEFAULT_PRECISION}.
+     */
+    public DatasetStatistics() {
+        this(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param precision the precision of the sketches (see
+     *                  {@link HyperLogLog#HyperLogLog(int)})
+     */
+    public DatasetStatistics(int precision) {
+        super();
+        subjects = new HyperLogLog(precision);
+        objects = new HyperLogLog(precision);
+        entities = new HyperLogLog(precision);
+    }
+
+    /**
+     * Adds the given statement to the statistics.
+     *
+     * @param subject   the subject of the statement
+     * @param predicate the predicate of the statement
+     * @param object    the object of the statement
+     */
+    public void add(Node subject, Node predicate, Node object) {
+        ++statements;
+        long[] count = predicateCounts.get(predicate);
+        if (count == null) {
+            count = new long[1];
+            predicateCounts.put(predicate, count);
+        }
+        ++count[0];
+        long hash = hasher.hash(subject).getHash1();
+        subjects.add(hash);
+        entities.add(hash);
+        hash = hasher.hash(object).getHash1();
+        objects.add(hash);
+        if (!object.isLiteral()) {
+            entities.add(hash);
+        }
+    }
+
+    /**
+     * @return the number of statements
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the number of distinct predicates
+     */
+    public int getProperties() {
+        return predicateCounts.size();
+    }
+
+    /**
+     * @return the number of statements per predicate
+     */
+    public Map<Node, Long> getPredicateCounts() {
+        Map<Node, Long> counts = new HashMap<>();
+        for (Entry<Node, long[]> entry : predicateCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * @return the estimated number of distinct subjects
+     */
+    public long getDistinctSubjects() {
+        return subjects.estimate();
+    }
+
+    /**
+     * @return the estimated number of distinct objects
+     */
+    public long getDistinctObjects() {
+        return objects.estimate();
+    }
+
+    /**
+     * @return the estimated number of distinct entities, i.e., IRIs and blank
+     *         nodes that occur as subject or object
+     */
+    public long getEntities() {
+        return entities.estimate();
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", properties=" + getProperties() + ", distinctSubjects~"
+                + getDistinctSubjects() + ", distinctObjects~" + getDistinctObjects() + ", entities~"
+                + getEntities();
+    }
+}
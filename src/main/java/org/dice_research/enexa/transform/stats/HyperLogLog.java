@@ -0,0 +1,154 @@
+package org.dice_research.enexa.transform.stats;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct elements of a
+ * stream with a fixed amount of memory. The elements are added as 64-bit
+ * hashes, i.e., the caller is responsible for hashing them with a good hash
+ * function (e.g., {@link org.dice_research.enexa.transform.util.StatementHasher}).
+ * The sketch has 2<sup>precision</sup> registers of a single byte and a
+ * relative standard error of roughly 1.04 / sqrt(2<sup>precision</sup>), e.g.,
+ * 16 KiB and 0.8% for the default precision of 14. Small cardinalities are
+ * estimated with linear counting. Since 64-bit hashes are used, no correction
+ * for large cardinalities is necessary.
+ *
+ * <p>
+ * An instance is not thread-safe. Sketches with the same precision can be
+ * merged (see {@link #merge(HyperLogLog)}).
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class HyperLogLog {
+
+    /**
+     * The default precision, i.e., the number of bits of a hash that are used to
+     * select a register.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+    /**
+     * The smallest supported precision.
+     */
+    public static final int MIN_PRECISION = 4;
+    /**
+     * The largest supported precision.
+     */
+    public static final int MAX_PRECISION = 18;
+
+    /**
+     * The number of bits of a hash that are used to select a register.
+     */
+    protected final int precision;
+    /**
+     * The registers containing the maximum rank that has been seen for each
+     * register.
+     */
+    protected final byte[] registers;
+
+    /**
+     * Constructor using the {@link #DEFAULT_PRECISION}.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param precision the number of bits of a hash that are used to select a
+     *                  register ({@value #MIN_PRECISION} to
+     *                  {@value #MAX_PRECISION})
+     * @throws IllegalArgumentException if the precision is not supported
+     */
+    public HyperLogLog(int precision) {
+        super();
+        if ((precision < MIN_PRECISION) || (precision > MAX_PRECISION)) {
+            throw new IllegalArgumentException("The precision has to be in the range [" + MIN_PRECISION + ", "
+                    + MAX_PRECISION + "] but was " + precision + ".");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds the element with the given hash to the sketch.
+     *
+     * @param hash the 64-bit hash of the element
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The remaining bits determine the rank. The guard bit limits the rank to
+        // 64 - precision + 1.
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Merges the given sketch into this sketch. Afterwards, this sketch
+     * estimates the number of distinct elements of the union of both streams.
+     *
+     * @param other the sketch that should be merged into this sketch
+     * @throws IllegalArgumentException if the sketches have different
+     *                                  precisions
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Sketches with different precisions can not be merged.");
+        }
+        for (int i = 0; i < registers.length; ++i) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return the estimated number of distinct elements that have been added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; ++i) {
+            sum += 1.0 / (1L << registers[i]);
+            if (registers[i] == 0) {
+                ++zeros;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if ((estimate <= 2.5 * m) && (zeros > 0)) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return the number of bits of a hash that are used to select a register
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the constant that corrects the bias of the raw estimate.
+     *
+     * @param m the number of registers
+     * @return the bias correction constant
+     */
+    protected static double alpha(int m) {
+        switch (m) {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
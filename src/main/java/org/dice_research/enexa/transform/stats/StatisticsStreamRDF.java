@@ -0,0 +1,101 @@
+package org.dice_research.enexa.transform.stats;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDFLib;
+
+/**
+ * A stream that adds all statements to the given {@link DatasetStatistics}
+ * before forwarding them to the target stream. It is meant to be placed
+ * directly in front of the writer, i.e., it receives the statements on the
+ * writer thread and after they have been deduplicated. Batches are forwarded
+ * as they are.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StatisticsStreamRDF implements StreamRDF, BatchedStreamRDF {
+
+    /**
+     * The stream to which single statements are forwarded.
+     */
+    protected StreamRDF target;
+    /**
+     * The stream to which batches are forwarded.
+     */
+    protected BatchedStreamRDF batchedTarget;
+    /**
+     * The statistics to which the statements are added.
+     */
+    protected DatasetStatistics statistics;
+
+    /**
+     * Constructor.
+     *
+     * @param target     the stream to which the statements are forwarded
+     * @param statistics the statistics to which the statements are added
+     */
+    public StatisticsStreamRDF(StreamRDF target, DatasetStatistics statistics) {
+        super();
+        this.target = target;
+        this.batchedTarget = BatchedStreamRDFLib.unbatch(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        statistics.add(triple.getSubject(), triple.getPredicate(), triple.getObject());
+        target.triple(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        statistics.add(quad.getSubject(), quad.getPredicate(), quad.getObject());
+        target.quad(quad);
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        for (int i = 0; i < size; ++i) {
+            statistics.add(triples[i].getSubject(), triples[i].getPredicate(), triples[i].getObject());
+        }
+        batchedTarget.triples(triples, size);
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        for (int i = 0; i < size; ++i) {
+            statistics.add(quads[i].getSubject(), quads[i].getPredicate(), quads[i].getObject());
+        }
+        batchedTarget.quads(quads, size);
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        target.finish();
+    }
+
+    /**
+     * @return the statistics to which the statements are added
+     */
+    public DatasetStatistics getStatistics() {
+        return statistics;
+    }
+}
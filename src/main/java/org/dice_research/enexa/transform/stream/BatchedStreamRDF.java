@@ -0,0 +1,68 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A batch-oriented counterpart of Jena's {@link StreamRDF}. Instead of single
+ * statements, it receives arrays of triples or quads. This reduces the number
+ * of (virtual) method calls per statement and allows implementations to hand
+ * over complete batches to other threads.
+ * 
+ * <p>
+ * The receiver takes ownership of the given arrays, i.e., the sender must not
+ * modify or reuse an array after it has been sent. Only the first
+ * {@code size} elements of an array are valid.
+ * </p>
+ * 
+ * <p>
+ * {@link BatchedStreamRDFLib} offers adapters from and to {@link StreamRDF}.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public interface BatchedStreamRDF {
+
+    /**
+     * Start processing.
+     */
+    public void start();
+
+    /**
+     * Receives a batch of triples.
+     * 
+     * @param triples the array containing the triples
+     * @param size    the number of valid triples in the array
+     */
+    public void triples(Triple[] triples, int size);
+
+    /**
+     * Receives a batch of quads.
+     * 
+     * @param quads the array containing the quads
+     * @param size  the number of valid quads in the array
+     */
+    public void quads(Quad[] quads, int size);
+
+    /**
+     * Receives a base IRI.
+     * 
+     * @param base the base IRI
+     */
+    public void base(String base);
+
+    /**
+     * Receives a prefix definition.
+     * 
+     * @param prefix the prefix
+     * @param iri    the IRI of the prefix
+     */
+    public void prefix(String prefix, String iri);
+
+    /**
+     * Finish processing.
+     */
+    public void finish();
+}
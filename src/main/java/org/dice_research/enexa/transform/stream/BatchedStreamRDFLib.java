@@ -0,0 +1,45 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * Utility methods for creating adapters between {@link StreamRDF} and
+ * {@link BatchedStreamRDF}.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchedStreamRDFLib {
+
+    /**
+     * Returns a {@link BatchedStreamRDF} that sends the statements of the
+     * received batches to the given stream. If the given stream already
+     * implements {@link BatchedStreamRDF}, it is returned directly.
+     * 
+     * @param stream the stream to which the statements should be sent
+     * @return a batch-oriented stream
+     */
+    public static BatchedStreamRDF unbatch(StreamRDF stream) {
+        if (stream instanceof BatchedStreamRDF) {
+            return (BatchedStreamRDF) stream;
+        }
+        return new UnbatchingStreamRDF(stream);
+    }
+
+    /**
+     * Returns a {@link StreamRDF} that collects the received statements in
+     * batches of the given size and sends them to the given batch-oriented
+     * stream. If the given stream already implements {@link StreamRDF}, it is
+     * returned directly.
+     * 
+     * @param stream    the stream to which the batches should be sent
+     * @param batchSize the maximum number of statements per batch
+     * @return a statement-oriented stream
+     */
+    public static StreamRDF batch(BatchedStreamRDF stream, int batchSize) {
+        if (stream instanceof StreamRDF) {
+            return (StreamRDF) stream;
+        }
+        return new BatchingStreamRDF(stream, batchSize);
+    }
+}
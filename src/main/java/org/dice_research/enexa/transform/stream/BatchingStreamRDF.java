@@ -0,0 +1,145 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A {@link StreamRDF} that collects the received statements in arrays and
+ * sends them as batches to a {@link BatchedStreamRDF}. A batch is sent if it is
+ * full, if the type of the received statements changes (triples vs. quads), if
+ * a prefix or base IRI is received (to preserve the order) or if
+ * {@link #finish()} is called. A new array is created for every batch since
+ * the receiver takes ownership of the sent arrays.
+ * 
+ * <p>
+ * An instance of this class is not thread-safe.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchingStreamRDF implements StreamRDF {
+
+    /**
+     * The default number of statements per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * The stream to which the batches are sent.
+     */
+    protected BatchedStreamRDF target;
+    /**
+     * The maximum number of statements per batch.
+     */
+    protected int batchSize;
+    protected Triple[] triples = null;
+    protected int tripleCount = 0;
+    protected Quad[] quads = null;
+    protected int quadCount = 0;
+
+    /**
+     * Constructor.
+     * 
+     * @param target the stream to which the batches are sent
+     */
+    public BatchingStreamRDF(BatchedStreamRDF target) {
+        this(target, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param target    the stream to which the batches are sent
+     * @param batchSize the maximum number of statements per batch
+     */
+    public BatchingStreamRDF(BatchedStreamRDF target, int batchSize) {
+        super();
+        this.target = target;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (quadCount > 0) {
+            flushQuads();
+        }
+        if (triples == null) {
+            triples = new Triple[batchSize];
+        }
+        triples[tripleCount] = triple;
+        ++tripleCount;
+        if (tripleCount >= batchSize) {
+            flushTriples();
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (tripleCount > 0) {
+            flushTriples();
+        }
+        if (quads == null) {
+            quads = new Quad[batchSize];
+        }
+        quads[quadCount] = quad;
+        ++quadCount;
+        if (quadCount >= batchSize) {
+            flushQuads();
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        flush();
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        flush();
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        flush();
+        target.finish();
+    }
+
+    /**
+     * Sends the currently collected statements (if there are any).
+     */
+    public void flush() {
+        if (tripleCount > 0) {
+            flushTriples();
+        }
+        if (quadCount > 0) {
+            flushQuads();
+        }
+    }
+
+    protected void flushTriples() {
+        Triple[] batch = triples;
+        int size = tripleCount;
+        // The array is now owned by the target
+        triples = null;
+        tripleCount = 0;
+        target.triples(batch, size);
+    }
+
+    protected void flushQuads() {
+        Quad[] batch = quads;
+        int size = quadCount;
+        // The array is now owned by the target
+        quads = null;
+        quadCount = 0;
+        target.quads(batch, size);
+    }
+}
@@ -0,0 +1,86 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A stream that forwards statements, batches, base IRIs and prefixes to the
+ * given target stream but ignores calls of {@link #start()} and
+ * {@link #finish()}. Parsers call these methods once per input file. If the
+ * statements of several files are written to the same target stream, the
+ * target must be started once before the first file and finished once after
+ * the last file, which is left to the owner of the target.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ContinuousStreamRDF implements StreamRDF, BatchedStreamRDF {
+
+    /**
+     * The stream to which the statements are sent.
+     */
+    protected StreamRDF target;
+    /**
+     * The batch-oriented view of {@link #target}.
+     */
+    protected BatchedStreamRDF batchedTarget;
+
+    /**
+     * Constructor.
+     *
+     * @param target the stream to which the statements are sent
+     */
+    public ContinuousStreamRDF(StreamRDF target) {
+        super();
+        this.target = target;
+        this.batchedTarget = BatchedStreamRDFLib.unbatch(target);
+    }
+
+    @Override
+    public void start() {
+        // nothing to do; the target is started by its owner
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        target.triple(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        target.quad(quad);
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        batchedTarget.triples(triples, size);
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        batchedTarget.quads(quads, size);
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        // nothing to do; the target is finished by its owner
+    }
+
+    /**
+     * @return the stream to which the statements are sent
+     */
+    public StreamRDF getTarget() {
+        return target;
+    }
+}
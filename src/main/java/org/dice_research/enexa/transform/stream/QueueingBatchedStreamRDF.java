@@ -0,0 +1,99 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A {@link BatchedStreamRDF} that wraps the received batches into
+ * {@link StatementBatch} instances and puts them into a (bounded) queue. If the
+ * queue is full, the calling thread is blocked until the consumer of the queue
+ * has taken a batch from it. Prefixes are attached to the next batch.
+ * 
+ * <p>
+ * Note that {@link #finish()} only sends remaining prefixes to the queue. It
+ * does not add the {@link StatementBatch#END} marker since several producers
+ * may share the same queue. Base IRIs are ignored since the statements have
+ * already been resolved by the parser.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class QueueingBatchedStreamRDF implements BatchedStreamRDF {
+
+    /**
+     * The queue to which the batches are sent.
+     */
+    protected BlockingQueue<StatementBatch> queue;
+    /**
+     * Prefixes that will be attached to the next batch or {@code null} if there
+     * are no such prefixes.
+     */
+    protected Map<String, String> prefixes = null;
+
+    /**
+     * Constructor.
+     * 
+     * @param queue the queue to which the batches are sent
+     */
+    public QueueingBatchedStreamRDF(BlockingQueue<StatementBatch> queue) {
+        super();
+        this.queue = queue;
+    }
+
+    @Override
+    public void start() {
+        // nothing to do
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        put(new StatementBatch(triples, null, size, prefixes));
+        prefixes = null;
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        put(new StatementBatch(null, quads, size, prefixes));
+        prefixes = null;
+    }
+
+    @Override
+    public void base(String base) {
+        // Base IRIs are not forwarded
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        if (prefixes == null) {
+            prefixes = new LinkedHashMap<>();
+        }
+        prefixes.put(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        if (prefixes != null) {
+            put(new StatementBatch(null, null, 0, prefixes));
+            prefixes = null;
+        }
+    }
+
+    /**
+     * Puts the given batch into the queue.
+     * 
+     * @param batch the batch that should be added to the queue
+     */
+    public void put(StatementBatch batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the consumer of the statement queue.", e);
+        }
+    }
+}
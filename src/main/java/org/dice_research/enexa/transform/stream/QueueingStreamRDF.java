@@ -0,0 +1,50 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * A {@link StreamRDF} that collects the received statements in
+ * {@link StatementBatch} instances and puts them into a (bounded) queue. It
+ * combines a {@link BatchingStreamRDF} with a {@link QueueingBatchedStreamRDF}. If the
+ * queue is full, the calling thread is blocked until the consumer of the queue
+ * has taken a batch from it. Hence, the memory consumption of a producer is
+ * bounded by the capacity of the queue.
+ * 
+ * <p>
+ * Note that {@link #finish()} only sends the remaining statements to the queue.
+ * It does not add the {@link StatementBatch#END} marker since several
+ * producers may share the same queue. Base IRIs are ignored since the
+ * statements have already been resolved by the parser.
+ * </p>
+ * 
+ * <p>
+ * An instance of this class is not thread-safe. Each producer thread should
+ * have its own instance.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class QueueingStreamRDF extends BatchingStreamRDF {
+
+    /**
+     * Constructor.
+     * 
+     * @param queue the queue to which the batches are sent
+     */
+    public QueueingStreamRDF(BlockingQueue<StatementBatch> queue) {
+        this(queue, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param queue     the queue to which the batches are sent
+     * @param batchSize the maximum number of statements per batch
+     */
+    public QueueingStreamRDF(BlockingQueue<StatementBatch> queue, int batchSize) {
+        super(new QueueingBatchedStreamRDF(queue), batchSize);
+    }
+}
@@ -0,0 +1,136 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A batch of statements that is handed over from one thread to another. A
+ * batch contains either triples or quads. In addition, it may carry prefix
+ * definitions that have been encountered before the statements of the batch.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StatementBatch {
+
+    /**
+     * A special batch that marks the end of a queue.
+     */
+    public static final StatementBatch END = new StatementBatch(null, null, 0, null);
+
+    /**
+     * The triples of this batch or {@code null} if this batch contains quads.
+     */
+    protected final Triple[] triples;
+    /**
+     * The quads of this batch or {@code null} if this batch contains triples.
+     */
+    protected final Quad[] quads;
+    /**
+     * The number of statements in this batch.
+     */
+    protected final int size;
+    /**
+     * Prefixes that should be sent before the statements of this batch or
+     * {@code null} if there are no such prefixes.
+     */
+    protected final Map<String, String> prefixes;
+
+    /**
+     * Constructor.
+     * 
+     * @param triples  the triples of this batch or {@code null} if this batch
+     *                 contains quads
+     * @param quads    the quads of this batch or {@code null} if this batch
+     *                 contains triples
+     * @param size     the number of statements in this batch
+     * @param prefixes prefixes that should be sent before the statements of this
+     *                 batch or {@code null} if there are no such prefixes
+     */
+    public StatementBatch(Triple[] triples, Quad[] quads, int size, Map<String, String> prefixes) {
+        super();
+        this.triples = triples;
+        this.quads = quads;
+        this.size = size;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * Sends the content of this batch to the given stream. Note that neither
+     * {@link StreamRDF#start()} nor {@link StreamRDF#finish()} are called.
+     * 
+     * @param stream the stream to which the content of this batch should be sent
+     */
+    public void sendTo(StreamRDF stream) {
+        if (prefixes != null) {
+            for (Entry<String, String> prefix : prefixes.entrySet()) {
+                stream.prefix(prefix.getKey(), prefix.getValue());
+            }
+        }
+        if (triples != null) {
+            for (int i = 0; i < size; ++i) {
+                stream.triple(triples[i]);
+            }
+        } else if (quads != null) {
+            for (int i = 0; i < size; ++i) {
+                stream.quad(quads[i]);
+            }
+        }
+    }
+
+    /**
+     * Sends the content of this batch to the given batch-oriented stream. Note
+     * that neither {@link BatchedStreamRDF#start()} nor
+     * {@link BatchedStreamRDF#finish()} are called. The receiver takes ownership
+     * of the statement array.
+     * 
+     * @param stream the stream to which the content of this batch should be sent
+     */
+    public void sendTo(BatchedStreamRDF stream) {
+        if (prefixes != null) {
+            for (Entry<String, String> prefix : prefixes.entrySet()) {
+                stream.prefix(prefix.getKey(), prefix.getValue());
+            }
+        }
+        if (triples != null) {
+            stream.triples(triples, size);
+        } else if (quads != null) {
+            stream.quads(quads, size);
+        }
+    }
+
+    /**
+     * @return the triples of this batch or {@code null} if this batch contains
+     *         quads
+     */
+    public Triple[] getTriples() {
+        return triples;
+    }
+
+    /**
+     * @return the quads of this batch or {@code null} if this batch contains
+     *         triples
+     */
+    public Quad[] getQuads() {
+        return quads;
+    }
+
+    /**
+     * @return the prefixes that should be sent before the statements of this
+     *         batch or {@code null} if there are no such prefixes
+     */
+    public Map<String, String> getPrefixes() {
+        return prefixes;
+    }
+
+    /**
+     * @return the number of statements in this batch
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,93 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Runnable} that takes {@link StatementBatch} instances from a queue
+ * and sends them to the given {@link BatchedStreamRDF} until it encounters the
+ * {@link StatementBatch#END} marker. It is meant to be the only thread that
+ * accesses the target stream while it is running.
+ * 
+ * <p>
+ * If an error occurs while sending statements to the target stream, the error
+ * is stored and all following batches are discarded. This ensures that
+ * producers are never blocked forever by a full queue.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StreamRDFQueueConsumer implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamRDFQueueConsumer.class);
+
+    /**
+     * The queue from which the batches are taken.
+     */
+    protected BlockingQueue<StatementBatch> queue;
+    /**
+     * The stream to which the statement batches are sent.
+     */
+    protected BatchedStreamRDF target;
+    /**
+     * The first error that occurred while sending statements to the target or
+     * {@code null} if no error occurred.
+     */
+    protected volatile Throwable error = null;
+
+    /**
+     * Constructor.
+     * 
+     * @param queue  the queue from which the batches are taken
+     * @param target the stream to which the statements are sent
+     */
+    public StreamRDFQueueConsumer(BlockingQueue<StatementBatch> queue, StreamRDF target) {
+        this(queue, BatchedStreamRDFLib.unbatch(target));
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param queue  the queue from which the batches are taken
+     * @param target the stream to which the statement batches are sent
+     */
+    public StreamRDFQueueConsumer(BlockingQueue<StatementBatch> queue, BatchedStreamRDF target) {
+        super();
+        this.queue = queue;
+        this.target = target;
+    }
+
+    @Override
+    public void run() {
+        try {
+            StatementBatch batch = queue.take();
+            while (batch != StatementBatch.END) {
+                if (error == null) {
+                    try {
+                        batch.sendTo(target);
+                    } catch (Throwable e) {
+                        LOGGER.error("Error while writing statements. The remaining statements will be discarded.", e);
+                        error = e;
+                    }
+                }
+                batch = queue.take();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while waiting for statements.", e);
+            error = e;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the first error that occurred while sending statements to the
+     *         target or {@code null} if no error occurred
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
@@ -0,0 +1,41 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * A {@link StatementBatch} that doesn't carry statements but a task that is
+ * executed by the consumer of the queue instead of sending statements to the
+ * target stream. This allows producers to let the single writer thread perform
+ * work on the output (e.g., copying already serialized data) in the correct
+ * order with the batches of other producers.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TaskBatch extends StatementBatch {
+
+    /**
+     * The task that is executed by the consumer.
+     */
+    protected final Runnable task;
+
+    /**
+     * Constructor.
+     *
+     * @param task the task that is executed by the consumer
+     */
+    public TaskBatch(Runnable task) {
+        super(null, null, 0, null);
+        this.task = task;
+    }
+
+    @Override
+    public void sendTo(StreamRDF stream) {
+        task.run();
+    }
+
+    @Override
+    public void sendTo(BatchedStreamRDF stream) {
+        task.run();
+    }
+}
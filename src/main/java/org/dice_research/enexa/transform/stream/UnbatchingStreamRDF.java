@@ -0,0 +1,64 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A {@link BatchedStreamRDF} that sends the statements of the received batches
+ * one by one to a {@link StreamRDF}.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class UnbatchingStreamRDF implements BatchedStreamRDF {
+
+    /**
+     * The stream to which the statements are sent.
+     */
+    protected StreamRDF target;
+
+    /**
+     * Constructor.
+     * 
+     * @param target the stream to which the statements are sent
+     */
+    public UnbatchingStreamRDF(StreamRDF target) {
+        super();
+        this.target = target;
+    }
+
+    @Override
+    public void start() {
+        target.start();
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        for (int i = 0; i < size; ++i) {
+            target.triple(triples[i]);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        for (int i = 0; i < size; ++i) {
+            target.quad(quads[i]);
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        target.base(base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        target.prefix(prefix, iri);
+    }
+
+    @Override
+    public void finish() {
+        target.finish();
+    }
+}
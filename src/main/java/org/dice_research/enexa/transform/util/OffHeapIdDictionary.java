@@ -0,0 +1,140 @@
+package org.dice_research.enexa.transform.util;
+
+/**
+ * A dictionary that assigns dense IDs (0, 1, 2, ...) to elements that are
+ * identified by their 128-bit hash (e.g., created with a
+ * {@link StatementHasher}). The dictionary is an open addressing hash table
+ * with linear probing that is stored in an {@link OffHeapLongArray}, i.e.,
+ * only 24 bytes per slot are needed outside of the Java heap independent of
+ * the size of the elements. The table grows if it becomes too full. The memory
+ * of the table is released when the dictionary is closed.
+ *
+ * <p>
+ * Note that two elements with the same 128-bit hash get the same ID. Instances
+ * are not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class OffHeapIdDictionary implements AutoCloseable {
+
+    /**
+     * The default number of slots of a new dictionary.
+     */
+    public static final long DEFAULT_INITIAL_CAPACITY = 1L << 16;
+    /**
+     * The number of long values per slot (the two halves of the hash and the ID
+     * + 1, where 0 marks an empty slot).
+     */
+    protected static final int SLOT_SIZE = 3;
+
+    /**
+     * The slots of the hash table.
+     */
+    protected OffHeapLongArray table;
+    /**
+     * The number of slots (a power of 2).
+     */
+    protected long capacity;
+    /**
+     * The number of elements in the dictionary.
+     */
+    protected long size = 0;
+
+    /**
+     * Constructor.
+     */
+    public OffHeapIdDictionary() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param initialCapacity the initial number of slots (rounded up to the next
+     *                        power of 2)
+     */
+    public OffHeapIdDictionary(long initialCapacity) {
+        super();
+        capacity = Long.highestOneBit(Math.max(16, initialCapacity - 1)) << 1;
+        table = new OffHeapLongArray(capacity * SLOT_SIZE);
+    }
+
+    /**
+     * Returns the ID of the element with the given hash. If the element is not
+     * known, it is added with the next free ID, i.e., the current
+     * {@link #size()}.
+     *
+     * @param hash1 the first 64 bits of the hash of the element
+     * @param hash2 the second 64 bits of the hash of the element
+     * @return the ID of the element
+     */
+    public long getOrAdd(long hash1, long hash2) {
+        long mask = capacity - 1;
+        long slot = hash1 & mask;
+        while (true) {
+            long position = slot * SLOT_SIZE;
+            long storedId = table.get(position + 2);
+            if (storedId == 0) {
+                long id = size;
+                table.set(position, hash1);
+                table.set(position + 1, hash2);
+                table.set(position + 2, id + 1);
+                ++size;
+                // Keep the load factor below 2/3
+                if ((size * 3) > (capacity * 2)) {
+                    grow();
+                }
+                return id;
+            }
+            if ((table.get(position) == hash1) && (table.get(position + 1) == hash2)) {
+                return storedId - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Doubles the number of slots and re-inserts all elements.
+     */
+    protected void grow() {
+        OffHeapLongArray oldTable = table;
+        long oldCapacity = capacity;
+        capacity = oldCapacity << 1;
+        table = new OffHeapLongArray(capacity * SLOT_SIZE);
+        long mask = capacity - 1;
+        for (long i = 0; i < oldCapacity; ++i) {
+            long oldPosition = i * SLOT_SIZE;
+            long storedId = oldTable.get(oldPosition + 2);
+            if (storedId != 0) {
+                long hash1 = oldTable.get(oldPosition);
+                long slot = hash1 & mask;
+                while (table.get((slot * SLOT_SIZE) + 2) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                long position = slot * SLOT_SIZE;
+                table.set(position, hash1);
+                table.set(position + 1, oldTable.get(oldPosition + 1));
+                table.set(position + 2, storedId);
+            }
+        }
+        oldTable.close();
+    }
+
+    /**
+     * @return the number of elements in this dictionary
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Releases the memory of the dictionary. The dictionary must not be used
+     * afterwards.
+     */
+    @Override
+    public void close() {
+        table.close();
+    }
+}
@@ -0,0 +1,203 @@
+package org.dice_research.enexa.transform.util;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * A fixed-size array of long values that is stored outside of the Java heap in
+ * direct buffers. Since a single buffer is limited to 2 GiB, the array is split
+ * into segments. Hence, the array can hold more than
+ * {@link Integer#MAX_VALUE} values. All values are initialized with 0.
+ * 
+ * <p>
+ * The memory is released when the array is closed. If the JVM does not allow
+ * to release direct buffers explicitly, it is released when the instance is
+ * garbage collected. The array must not be used after it has been closed. Note
+ * that the amount of direct memory is limited by the JVM (see
+ * {@code -XX:MaxDirectMemorySize} and {@link #getAvailableDirectMemory()}).
+ * Instances are not thread-safe.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class OffHeapLongArray implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapLongArray.class);
+
+    /**
+     * The number of bits used to address a value within a segment (a segment
+     * has 2<sup>27</sup> values, i.e., 1 GiB).
+     */
+    protected static final int SEGMENT_SHIFT = 27;
+    /**
+     * The mask used to address a value within a segment.
+     */
+    protected static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    /**
+     * The instance of {@code sun.misc.Unsafe} or {@code null} if it is not
+     * available.
+     */
+    private static final Object UNSAFE;
+    /**
+     * The {@code invokeCleaner} method of {@code sun.misc.Unsafe}, which frees
+     * the memory of a direct buffer, or {@code null} if it is not available.
+     */
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Exception e) {
+            LOGGER.warn("Direct buffers can not be released explicitly. Their memory is released by the garbage "
+                    + "collector.", e);
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * The direct buffers that hold the memory of the segments.
+     */
+    protected ByteBuffer[] buffers;
+    /**
+     * The segments of this array.
+     */
+    protected LongBuffer[] segments;
+    /**
+     * The number of values in this array.
+     */
+    protected long size;
+
+    /**
+     * Constructor.
+     * 
+     * @param size the number of values in this array
+     */
+    public OffHeapLongArray(long size) {
+        super();
+        if (size < 0) {
+            throw new IllegalArgumentException("The size must not be negative.");
+        }
+        this.size = size;
+        int segmentCount = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        buffers = new ByteBuffer[segmentCount];
+        segments = new LongBuffer[segmentCount];
+        long remaining = size;
+        try {
+            for (int i = 0; i < segmentCount; ++i) {
+                int segmentSize = (int) Math.min(remaining, 1L << SEGMENT_SHIFT);
+                buffers[i] = ByteBuffer.allocateDirect(segmentSize << 3).order(ByteOrder.nativeOrder());
+                segments[i] = buffers[i].asLongBuffer();
+                remaining -= segmentSize;
+            }
+        } catch (Throwable e) {
+            // Release the segments that have already been allocated
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param index the index of a value
+     * @return the value at the given index
+     */
+    public long get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    /**
+     * @param index the index of a value
+     * @param value the new value at the given index
+     */
+    public void set(long index, long value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    /**
+     * @return the number of values in this array
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Releases the memory of this array. Further calls have no effect.
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] released = buffers;
+        buffers = new ByteBuffer[0];
+        segments = new LongBuffer[0];
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        for (ByteBuffer buffer : released) {
+            if (buffer != null) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } catch (ReflectiveOperationException e) {
+                    LOGGER.warn("Couldn't release a direct buffer. Its memory is released by the garbage collector.",
+                            e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the maximum number of bytes that can be allocated in direct
+     *         buffers, i.e., the value of {@code -XX:MaxDirectMemorySize} or the
+     *         maximum heap size if the option is not set
+     */
+    public static long getMaxDirectMemory() {
+        try {
+            HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long max = Long.parseLong(bean.getVMOption("MaxDirectMemorySize").getValue());
+            if (max > 0) {
+                return max;
+            }
+        } catch (RuntimeException e) {
+            // The option is not available on this JVM
+        }
+        // The limit defaults to the maximum heap size
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * @return the number of bytes that are currently allocated in direct
+     *         buffers
+     */
+    public static long getUsedDirectMemory() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getTotalCapacity();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of bytes that can still be allocated in direct buffers
+     */
+    public static long getAvailableDirectMemory() {
+        return Math.max(0, getMaxDirectMemory() - getUsedDirectMemory());
+    }
+}
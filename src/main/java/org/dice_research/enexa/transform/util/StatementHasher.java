@@ -0,0 +1,267 @@
+package org.dice_research.enexa.transform.util;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Computes 128-bit hashes of RDF statements and nodes with a streaming
+ * implementation of MurmurHash3 (x64, 128 bit). The characters of the terms
+ * are fed directly into the hash function without encoding them into bytes.
+ * Every term is prefixed with its type and length, i.e., the serialization that
+ * is hashed is unambiguous. A triple and a quad of the default graph with the
+ * same subject, predicate and object get the same hash.
+ * 
+ * <p>
+ * The two halves of the last hash can be retrieved with {@link #getHash1()}
+ * and {@link #getHash2()}. An instance is not thread-safe but can be reused.
+ * </p>
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StatementHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * The seed of the hash function.
+     */
+    protected long seed;
+    protected long h1;
+    protected long h2;
+    /**
+     * The first half of the current block.
+     */
+    protected long k1;
+    /**
+     * The second half of the current block.
+     */
+    protected long k2;
+    /**
+     * The number of characters in the current block (0-7).
+     */
+    protected int blockChars;
+    /**
+     * The number of characters that have been hashed.
+     */
+    protected long length;
+
+    /**
+     * Constructor using the seed 0.
+     */
+    public StatementHasher() {
+        this(0);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param seed the seed of the hash function
+     */
+    public StatementHasher(long seed) {
+        super();
+        this.seed = seed;
+    }
+
+    /**
+     * Hashes the given triple.
+     * 
+     * @param triple the triple that should be hashed
+     * @return this instance
+     */
+    public StatementHasher hash(Triple triple) {
+        reset();
+        putNode(triple.getSubject());
+        putNode(triple.getPredicate());
+        putNode(triple.getObject());
+        finish();
+        return this;
+    }
+
+    /**
+     * Hashes the given quad. If the quad belongs to the default graph, it gets
+     * the same hash as the triple with the same subject, predicate and object.
+     * 
+     * @param quad the quad that should be hashed
+     * @return this instance
+     */
+    public StatementHasher hash(Quad quad) {
+        reset();
+        putNode(quad.getSubject());
+        putNode(quad.getPredicate());
+        putNode(quad.getObject());
+        Node graph = quad.getGraph();
+        if ((graph != null) && !Quad.isDefaultGraph(graph)) {
+            putNode(graph);
+        }
+        finish();
+        return this;
+    }
+
+    /**
+     * Hashes the given node.
+     * 
+     * @param node the node that should be hashed
+     * @return this instance
+     */
+    public StatementHasher hash(Node node) {
+        reset();
+        putNode(node);
+        finish();
+        return this;
+    }
+
+    /**
+     * @return the first 64 bits of the last hash
+     */
+    public long getHash1() {
+        return h1;
+    }
+
+    /**
+     * @return the second 64 bits of the last hash
+     */
+    public long getHash2() {
+        return h2;
+    }
+
+    /**
+     * Resets the state of the hash function.
+     */
+    protected void reset() {
+        h1 = seed;
+        h2 = seed;
+        k1 = 0;
+        k2 = 0;
+        blockChars = 0;
+        length = 0;
+    }
+
+    /**
+     * Adds the given node to the hash.
+     * 
+     * @param node the node that should be added
+     */
+    protected void putNode(Node node) {
+        if (node.isURI()) {
+            putString('<', node.getURI());
+        } else if (node.isBlank()) {
+            putString('_', node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            putString('"', node.getLiteralLexicalForm());
+            String language = node.getLiteralLanguage();
+            if ((language != null) && !language.isEmpty()) {
+                putString('@', language);
+            } else {
+                putString('^', node.getLiteralDatatypeURI());
+            }
+        } else if (node.isNodeTriple()) {
+            Triple triple = node.getTriple();
+            putChar('(');
+            putNode(triple.getSubject());
+            putNode(triple.getPredicate());
+            putNode(triple.getObject());
+            putChar(')');
+        } else {
+            putString('?', node.toString());
+        }
+    }
+
+    /**
+     * Adds the type, the length and the characters of the given String to the
+     * hash.
+     * 
+     * @param type  a character expressing the type of the String
+     * @param value the String that should be added
+     */
+    protected void putString(char type, String value) {
+        int stringLength = value.length();
+        putChar(type);
+        putChar((char) (stringLength >>> 16));
+        putChar((char) stringLength);
+        for (int i = 0; i < stringLength; ++i) {
+            putChar(value.charAt(i));
+        }
+    }
+
+    /**
+     * Adds a single character (2 bytes) to the hash.
+     * 
+     * @param c the character that should be added
+     */
+    protected void putChar(char c) {
+        if (blockChars < 4) {
+            k1 |= ((long) c) << (blockChars << 4);
+        } else {
+            k2 |= ((long) c) << ((blockChars - 4) << 4);
+        }
+        ++blockChars;
+        ++length;
+        if (blockChars == 8) {
+            mixBlock();
+        }
+    }
+
+    /**
+     * Mixes a complete 16 byte block into the hash.
+     */
+    protected void mixBlock() {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = (h1 * 5) + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = (h2 * 5) + 0x38495ab5;
+
+        k1 = 0;
+        k2 = 0;
+        blockChars = 0;
+    }
+
+    /**
+     * Mixes the remaining characters into the hash and finalizes it.
+     */
+    protected void finish() {
+        if (blockChars > 0) {
+            h1 ^= mixK1(k1);
+            h2 ^= mixK2(k2);
+        }
+        long byteLength = length << 1;
+        h1 ^= byteLength;
+        h2 ^= byteLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+    }
+
+    private static long mixK1(long k) {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        k *= C2;
+        return k;
+    }
+
+    private static long mixK2(long k) {
+        k *= C2;
+        k = Long.rotateLeft(k, 33);
+        k *= C1;
+        return k;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
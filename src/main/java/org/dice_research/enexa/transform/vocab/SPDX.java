@@ -0,0 +1,46 @@
+package org.dice_research.enexa.transform.vocab;
+
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+
+/**
+ * The part of the SPDX vocabulary that is used to describe the checksums of
+ * the produced files (as recommended by DCAT).
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SPDX {
+
+    protected static final String uri = "http://spdx.org/rdf/terms#";
+
+    // Resources sorted alphabetically
+    public static final Resource Checksum = resource("Checksum");
+    public static final Resource checksumAlgorithm_adler32 = resource("checksumAlgorithm_adler32");
+    public static final Resource checksumAlgorithm_md5 = resource("checksumAlgorithm_md5");
+    public static final Resource checksumAlgorithm_sha256 = resource("checksumAlgorithm_sha256");
+    public static final Resource checksumAlgorithm_sha512 = resource("checksumAlgorithm_sha512");
+
+    // Properties sorted alphabetically
+    public static final Property algorithm = property("algorithm");
+    public static final Property checksum = property("checksum");
+    public static final Property checksumValue = property("checksumValue");
+
+    /**
+     * returns the URI for this schema
+     *
+     * @return the URI for this schema
+     */
+    public static String getURI() {
+        return uri;
+    }
+
+    protected static final Resource resource(String local) {
+        return ResourceFactory.createResource(uri + local);
+    }
+
+    protected static final Property property(String local) {
+        return ResourceFactory.createProperty(uri, local);
+    }
+}
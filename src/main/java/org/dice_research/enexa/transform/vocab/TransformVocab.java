@@ -8,10 +8,57 @@ public class TransformVocab {
 
     protected static final String uri = "http://w3id.org/dice-research/enexa/module/transform/";
 
+    // Resources sorted alphabetically
+    public static final Resource CRC32C = resource("CRC32C");
+    public static final Resource InputFileMetrics = resource("InputFileMetrics");
+    public static final Resource IntegerIdTriples = resource("IntegerIdTriples");
+    public static final Resource ProgressReport = resource("ProgressReport");
+    public static final Resource TransformationMetrics = resource("TransformationMetrics");
+
     // Properties sorted alphabetically
+    public static final Property additionalOutputCompression = property("parameter/additionalOutputCompression");
+    public static final Property additionalOutputMediaType = property("parameter/additionalOutputMediaType");
+    public static final Property allowedDatatype = property("parameter/allowedDatatype");
+    public static final Property allowedGraph = property("parameter/allowedGraph");
+    public static final Property allowedLanguage = property("parameter/allowedLanguage");
+    public static final Property allowedPattern = property("parameter/allowedPattern");
+    public static final Property allowedPredicate = property("parameter/allowedPredicate");
+    public static final Property bytesPerSecond = property("bytesPerSecond");
+    public static final Property checksumAlgorithm = property("parameter/checksumAlgorithm");
+    public static final Property compressionMillis = property("compressionMillis");
+    public static final Property consumedBytes = property("consumedBytes");
+    public static final Property copied = property("copied");
+    public static final Property decompressionMillis = property("decompressionMillis");
+    public static final Property deniedDatatype = property("parameter/deniedDatatype");
+    public static final Property deniedGraph = property("parameter/deniedGraph");
+    public static final Property deniedLanguage = property("parameter/deniedLanguage");
+    public static final Property deniedPattern = property("parameter/deniedPattern");
+    public static final Property deniedPredicate = property("parameter/deniedPredicate");
+    public static final Property elapsedMillis = property("elapsedMillis");
     public static final Property input = property("parameter/input");
+    public static final Property inputBytes = property("inputBytes");
+    public static final Property inputFileMetrics = property("inputFileMetrics");
+    public static final Property inputFiles = property("inputFiles");
+    public static final Property metrics = property("result/metrics");
     public static final Property output = property("result/output");
     public static final Property outputMediaType = property("parameter/outputMediaType");
+    public static final Property parsedStatements = property("parsedStatements");
+    public static final Property parsingMillis = property("parsingMillis");
+    public static final Property partitions = property("parameter/partitions");
+    public static final Property peakHeapBytes = property("peakHeapBytes");
+    public static final Property progress = property("progress");
+    public static final Property progressInterval = property("parameter/progressInterval");
+    public static final Property readBytes = property("readBytes");
+    public static final Property remainingMillis = property("remainingMillis");
+    public static final Property serializationMillis = property("serializationMillis");
+    public static final Property shardSize = property("parameter/shardSize");
+    public static final Property shardStatements = property("parameter/shardStatements");
+    public static final Property statementsPerSecond = property("statementsPerSecond");
+    public static final Property statistics = property("parameter/statistics");
+    public static final Property uncompressedBytes = property("uncompressedBytes");
+    public static final Property uncompressedChecksum = property("uncompressedChecksum");
+    public static final Property writtenBytes = property("writtenBytes");
+    public static final Property writtenStatements = property("writtenStatements");
 
     /**
      * returns the URI for this schema
@@ -0,0 +1,46 @@
+package org.dice_research.enexa.transform.vocab;
+
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+
+/**
+ * The part of the Vocabulary of Interlinked Datasets (VoID) that is used to
+ * describe the statistics of the produced files.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class VOID {
+
+    protected static final String uri = "http://rdfs.org/ns/void#";
+
+    // Resources sorted alphabetically
+    public static final Resource Dataset = resource("Dataset");
+
+    // Properties sorted alphabetically
+    public static final Property distinctObjects = property("distinctObjects");
+    public static final Property distinctSubjects = property("distinctSubjects");
+    public static final Property entities = property("entities");
+    public static final Property properties = property("properties");
+    public static final Property property = property("property");
+    public static final Property propertyPartition = property("propertyPartition");
+    public static final Property triples = property("triples");
+
+    /**
+     * returns the URI for this schema
+     *
+     * @return the URI for this schema
+     */
+    public static String getURI() {
+        return uri;
+    }
+
+    protected static final Resource resource(String local) {
+        return ResourceFactory.createResource(uri + local);
+    }
+
+    protected static final Property property(String local) {
+        return ResourceFactory.createProperty(uri, local);
+    }
+}
@@ -0,0 +1,70 @@
+package org.dice_research.enexa.transform.write;
+
+import java.util.List;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamRDF} that sends every statement to all of its targets. It
+ * allows to write the statements of a single parsing pass to several output
+ * files with different serializations or compressions. Each target has its
+ * own writer thread (see {@link MultiTargetStreamRDF}), i.e., the slowest
+ * target determines the throughput. The statement objects are shared by the
+ * targets.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class FanOutStreamRDF extends MultiTargetStreamRDF {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FanOutStreamRDF.class);
+
+    /**
+     * Constructor.
+     *
+     * @param targets the targets (their writers have to be started already)
+     */
+    public FanOutStreamRDF(List<OutputTarget> targets) {
+        this(targets, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param targets       the targets (their writers have to be started
+     *                      already)
+     * @param queueCapacity the number of statement batches that can wait for
+     *                      the writer thread of a target
+     */
+    public FanOutStreamRDF(List<OutputTarget> targets, int queueCapacity) {
+        super(targets, queueCapacity, "target-writer-");
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        for (int i = 0; i < producers.length; ++i) {
+            send(i, triple);
+        }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        for (int i = 0; i < producers.length; ++i) {
+            send(i, quad);
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        super.finish();
+        LOGGER.info("Wrote {} statements to {} output files.", (statements.length > 0) ? statements[0] : 0,
+                statements.length);
+    }
+}
@@ -0,0 +1,328 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamRDF} that creates an HDT file, i.e., a dictionary-compressed,
+ * indexed binary RDF graph that can be memory-mapped and queried without a
+ * parse or load phase.
+ *
+ * <p>
+ * The HDT file is generated with the disk-based generator of the HDT library
+ * on a separate thread. The streamed statements are handed over to this thread
+ * via a bounded queue, while the dictionary and the triples are built in a
+ * temporary working directory. Hence, the memory consumption stays bounded
+ * independent of the size of the graph. The generated HDT file is written to
+ * the given output stream when {@link #finish()} is called. The stream is not
+ * closed.
+ * </p>
+ *
+ * <p>
+ * Since HDT encodes a single RDF graph, statements in named graphs are ignored
+ * (similar to Jena's N-Triples writer). Base IRIs and prefixes are ignored as
+ * well.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class HDTWriter implements StreamRDF {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HDTWriter.class);
+
+    /**
+     * The media type of HDT files.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.hdt";
+    /**
+     * The file extension of HDT files.
+     */
+    public static final String FILE_EXTENSION = "hdt";
+    /**
+     * The number of statements that can wait for the generator thread.
+     */
+    protected static final int QUEUE_CAPACITY = 1 << 14;
+    /**
+     * Marker that is put into the queue after the last statement.
+     */
+    private static final TripleString END = new TripleString("", "", "");
+
+    /**
+     * The stream to which the generated HDT file is written.
+     */
+    protected OutputStream out;
+    /**
+     * The base IRI of the generated HDT file.
+     */
+    protected String baseIri;
+    /**
+     * The directory in which the temporary working directory is created or
+     * {@code null} if the system's default directory should be used.
+     */
+    protected File tempDirectory;
+    /**
+     * The queue that hands the statements over to the generator thread.
+     */
+    protected BlockingQueue<TripleString> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    /**
+     * The working directory of the disk-based generator.
+     */
+    protected Path workingDirectory = null;
+    /**
+     * The thread that generates the HDT file.
+     */
+    protected Thread generator = null;
+    /**
+     * The generated HDT file.
+     */
+    protected volatile HDT hdt = null;
+    /**
+     * An error that occurred on the generator thread.
+     */
+    protected volatile Throwable error = null;
+    /**
+     * The number of statements that have been ignored since they are part of a
+     * named graph.
+     */
+    protected long ignoredStatements = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param out           the stream to which the generated HDT file is written
+     * @param baseIri       the base IRI of the generated HDT file
+     * @param tempDirectory the directory in which the temporary working directory
+     *                      is created or {@code null} if the system's default
+     *                      directory should be used
+     */
+    public HDTWriter(OutputStream out, String baseIri, File tempDirectory) {
+        super();
+        this.out = out;
+        this.baseIri = baseIri;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Checks whether the given format IRI (or media type) refers to HDT.
+     *
+     * @param formatIri the IRI of the format or its media type
+     * @return {@code true} if the format is HDT
+     */
+    public static boolean isHDTFormat(String formatIri) {
+        return (formatIri != null) && formatIri.endsWith(MEDIA_TYPE);
+    }
+
+    /**
+     * Starts the generator thread. Further calls have no effect since a single
+     * HDT file is generated from all statements.
+     */
+    @Override
+    public void start() {
+        if (workingDirectory != null) {
+            return;
+        }
+        try {
+            workingDirectory = (tempDirectory != null)
+                    ? Files.createTempDirectory(tempDirectory.toPath(), "enexa-hdt-")
+                    : Files.createTempDirectory("enexa-hdt-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't create the working directory for the HDT generation.", e);
+        }
+        HDTSpecification spec = new HDTSpecification();
+        spec.set(HDTOptionsKeys.LOADER_DISK_LOCATION_KEY, workingDirectory.resolve("gen").toString());
+        // Map the result from disk instead of loading it into memory
+        spec.set(HDTOptionsKeys.LOADER_DISK_FUTURE_HDT_LOCATION_KEY,
+                workingDirectory.resolve("result.hdt").toString());
+        generator = new Thread(() -> {
+            try {
+                hdt = HDTManager.generateHDTDisk(new QueueIterator(), baseIri, spec, null);
+            } catch (Throwable e) {
+                error = e;
+                // Make sure that a waiting producer doesn't block forever
+                queue.clear();
+            }
+        }, "hdt-generator");
+        generator.start();
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        put(new TripleString(format(triple.getSubject()), format(triple.getPredicate()),
+                format(triple.getObject())));
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        if (quad.isDefaultGraph()) {
+            put(new TripleString(format(quad.getSubject()), format(quad.getPredicate()),
+                    format(quad.getObject())));
+        } else {
+            ++ignoredStatements;
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        // nothing to do
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        // nothing to do
+    }
+
+    /**
+     * Waits for the generator thread and writes the generated HDT file. Further
+     * calls have no effect.
+     */
+    @Override
+    public void finish() {
+        if (generator == null) {
+            return;
+        }
+        try {
+            put(END);
+            generator.join();
+            generator = null;
+            checkError();
+            hdt.saveToHDT(out, null);
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the HDT generation.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the HDT file.", e);
+        } finally {
+            if (hdt != null) {
+                try {
+                    hdt.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Couldn't close the generated HDT file.", e);
+                }
+            }
+            FileUtils.deleteQuietly(workingDirectory.toFile());
+            if (ignoredStatements > 0) {
+                LOGGER.warn("Ignored {} statements of named graphs since HDT encodes a single graph.",
+                        ignoredStatements);
+            }
+        }
+    }
+
+    /**
+     * Hands the given statement over to the generator thread.
+     *
+     * @param triple the statement
+     */
+    protected void put(TripleString triple) {
+        try {
+            checkError();
+            while (!queue.offer(triple, 100, TimeUnit.MILLISECONDS)) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing over a statement to the HDT generation.", e);
+        }
+    }
+
+    /**
+     * Throws an exception if the generator thread has failed.
+     */
+    protected void checkError() {
+        if (error != null) {
+            throw new IllegalStateException("Error while generating the HDT file.", error);
+        }
+    }
+
+    /**
+     * Creates the String representation of the given node that is used by HDT,
+     * i.e., IRIs without angle brackets, blank nodes with the {@code _:} prefix
+     * and literals in their N-Triples form without escaping.
+     *
+     * @param node the node
+     * @return the String representation of the node
+     */
+    protected static String format(Node node) {
+        if (node.isURI()) {
+            return node.getURI();
+        } else if (node.isBlank()) {
+            return "_:" + node.getBlankNodeLabel();
+        } else if (node.isLiteral()) {
+            StringBuilder builder = new StringBuilder();
+            builder.append('"');
+            builder.append(node.getLiteralLexicalForm());
+            builder.append('"');
+            String language = node.getLiteralLanguage();
+            if ((language != null) && !language.isEmpty()) {
+                builder.append('@');
+                builder.append(language);
+            } else {
+                String datatype = node.getLiteralDatatypeURI();
+                if ((datatype != null) && !XSDDatatype.XSDstring.getURI().equals(datatype)) {
+                    builder.append("^^<");
+                    builder.append(datatype);
+                    builder.append('>');
+                }
+            }
+            return builder.toString();
+        } else {
+            throw new IllegalArgumentException("Can not serialize the node " + node.toString());
+        }
+    }
+
+    /**
+     * An iterator that takes the statements from the queue until it reaches the
+     * {@link HDTWriter#END} marker.
+     */
+    protected class QueueIterator implements Iterator<TripleString> {
+
+        private TripleString next = null;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for statements.", e);
+                }
+            }
+            return next != END;
+        }
+
+        @Override
+        public TripleString next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TripleString triple = next;
+            next = null;
+            return triple;
+        }
+    }
+}
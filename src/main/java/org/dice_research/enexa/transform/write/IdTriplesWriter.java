@@ -0,0 +1,242 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.util.OffHeapIdDictionary;
+import org.dice_research.enexa.transform.util.StatementHasher;
+import org.dice_research.enexa.transform.vocab.TransformVocab;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamRDF} that prepares a graph for knowledge graph embedding
+ * trainers by assigning dense integer IDs to entities (subjects and objects,
+ * including literals) and relations (predicates) while the statements are
+ * streamed. The result follows the layout that is used by many embedding
+ * frameworks (e.g., the {@code udd_hrt} format of DGL-KE):
+ * <ul>
+ * <li>the triples file contains one statement per line as tab-separated IDs of
+ * the head entity, the relation and the tail entity,</li>
+ * <li>the entity dictionary contains one line per entity with its ID and its
+ * N-Triples representation separated by a tab and</li>
+ * <li>the relation dictionary contains one line per relation in the same
+ * format.</li>
+ * </ul>
+ * New terms are written to the dictionary files as soon as they are seen.
+ * Hence, only the 128-bit hashes of the terms have to be kept in memory, which
+ * is done in {@link OffHeapIdDictionary} instances outside of the Java heap.
+ *
+ * <p>
+ * Graph names of quads are ignored, i.e., the statements of all graphs are
+ * part of the output. Base IRIs and prefixes are ignored as well. The triples
+ * stream is not closed by {@link #finish()} while the dictionary files are
+ * closed. Note that an instance is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class IdTriplesWriter implements StreamRDF {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdTriplesWriter.class);
+
+    /**
+     * The IRI of the format.
+     */
+    public static final String FORMAT_IRI = TransformVocab.IntegerIdTriples.getURI();
+    /**
+     * The file extension of the triples file.
+     */
+    public static final String FILE_EXTENSION = "tsv";
+    /**
+     * The suffix of the entity dictionary file.
+     */
+    public static final String ENTITY_FILE_SUFFIX = ".entities.dict";
+    /**
+     * The suffix of the relation dictionary file.
+     */
+    public static final String RELATION_FILE_SUFFIX = ".relations.dict";
+    /**
+     * The IRI of the media type of the dictionary files.
+     */
+    public static final String DICTIONARY_MEDIA_TYPE_IRI =
+            "https://www.iana.org/assignments/media-types/text/tab-separated-values";
+    /**
+     * The size of the buffers of the writers in characters.
+     */
+    protected static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The writer of the triples file.
+     */
+    protected Writer triplesWriter;
+    /**
+     * The writer of the entity dictionary.
+     */
+    protected Writer entityWriter;
+    /**
+     * The writer of the relation dictionary.
+     */
+    protected Writer relationWriter;
+    /**
+     * The IDs of the entities.
+     */
+    protected OffHeapIdDictionary entities = new OffHeapIdDictionary();
+    /**
+     * The IDs of the relations.
+     */
+    protected OffHeapIdDictionary relations = new OffHeapIdDictionary();
+    /**
+     * The hash function used to identify terms.
+     */
+    protected StatementHasher hasher = new StatementHasher();
+    /**
+     * The number of written triples.
+     */
+    protected long triples = 0;
+    /**
+     * Flag indicating whether the writer has been finished, i.e., the dictionary
+     * files have been closed.
+     */
+    protected boolean finished = false;
+
+    /**
+     * Constructor.
+     *
+     * @param triplesOut   the stream to which the triples are written
+     * @param entityFile   the file to which the entity dictionary is written
+     * @param relationFile the file to which the relation dictionary is written
+     * @throws IOException if one of the dictionary files can not be created
+     */
+    public IdTriplesWriter(OutputStream triplesOut, File entityFile, File relationFile) throws IOException {
+        super();
+        triplesWriter = new BufferedWriter(new OutputStreamWriter(triplesOut, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            entityWriter = createWriter(entityFile);
+            relationWriter = createWriter(relationFile);
+        } catch (IOException e) {
+            IOUtils.closeQuietly(entityWriter);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the given format IRI refers to the integer ID format.
+     *
+     * @param formatIri the IRI of the format
+     * @return {@code true} if the format is the integer ID format
+     */
+    public static boolean isIdTriplesFormat(String formatIri) {
+        return FORMAT_IRI.equals(formatIri);
+    }
+
+    protected static Writer createWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    @Override
+    public void start() {
+        // nothing to do
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        write(triple.getSubject(), triple.getPredicate(), triple.getObject());
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        write(quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    protected void write(Node subject, Node predicate, Node object) {
+        try {
+            long head = getId(entities, entityWriter, subject);
+            long relation = getId(relations, relationWriter, predicate);
+            long tail = getId(entities, entityWriter, object);
+            triplesWriter.write(Long.toString(head));
+            triplesWriter.write('\t');
+            triplesWriter.write(Long.toString(relation));
+            triplesWriter.write('\t');
+            triplesWriter.write(Long.toString(tail));
+            triplesWriter.write('\n');
+            ++triples;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the output.", e);
+        }
+    }
+
+    /**
+     * Returns the ID of the given node. If the node is new, it is added to the
+     * given dictionary file.
+     *
+     * @param dictionary the IDs of the known nodes
+     * @param writer     the writer of the dictionary file
+     * @param node       the node
+     * @return the ID of the node
+     * @throws IOException if an error occurs while writing the dictionary file
+     */
+    protected long getId(OffHeapIdDictionary dictionary, Writer writer, Node node) throws IOException {
+        hasher.hash(node);
+        long knownIds = dictionary.size();
+        long id = dictionary.getOrAdd(hasher.getHash1(), hasher.getHash2());
+        if (dictionary.size() > knownIds) {
+            writer.write(Long.toString(id));
+            writer.write('\t');
+            // The N-Triples form escapes tabs and line breaks
+            writer.write(NodeFmtLib.strNT(node));
+            writer.write('\n');
+        }
+        return id;
+    }
+
+    @Override
+    public void base(String base) {
+        // nothing to do
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        // nothing to do
+    }
+
+    /**
+     * Flushes the triples file and closes the dictionary files. Further calls
+     * have no effect.
+     */
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            triplesWriter.flush();
+            entityWriter.close();
+            relationWriter.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the output.", e);
+        } finally {
+            // All IDs have been written, i.e., the dictionaries are not needed anymore
+            entities.close();
+            relations.close();
+        }
+        LOGGER.info("Wrote {} triples with {} entities and {} relations.", triples, entities.size(),
+                relations.size());
+    }
+}
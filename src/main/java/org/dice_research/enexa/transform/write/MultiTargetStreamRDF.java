@@ -0,0 +1,219 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.QueueingStreamRDF;
+import org.dice_research.enexa.transform.stream.StatementBatch;
+import org.dice_research.enexa.transform.stream.StreamRDFQueueConsumer;
+
+/**
+ * An abstract {@link StreamRDF} that writes statements to several
+ * {@link OutputTarget} instances. Each target has its own writer thread that
+ * serializes and compresses the statements of the target. The statements are
+ * handed over in batches through a bounded queue per target. Sub classes
+ * decide to which targets a statement is sent (see
+ * {@link #send(int, Triple)}). Prefixes are sent to all targets while base
+ * IRIs are ignored.
+ *
+ * <p>
+ * {@link #finish()} waits for the writer threads, finishes the writers and
+ * closes the output streams of the targets. This is done only once, i.e.,
+ * further calls have no effect. Note that an instance is not
+ * thread-safe, i.e., it should receive the statements from a single thread.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public abstract class MultiTargetStreamRDF implements StreamRDF {
+
+    /**
+     * The default number of statement batches that can wait for the writer
+     * thread of a target.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * The targets (their writers have to be started already).
+     */
+    protected List<OutputTarget> targets;
+    /**
+     * The streams that collect the statements of the targets in batches.
+     */
+    protected QueueingStreamRDF[] producers;
+    /**
+     * The queues of the targets.
+     */
+    protected BlockingQueue<StatementBatch>[] queues;
+    /**
+     * The consumers that send the batches to the writers of the targets.
+     */
+    protected StreamRDFQueueConsumer[] consumers;
+    /**
+     * The writer threads of the targets.
+     */
+    protected Thread[] writerThreads;
+    /**
+     * The number of statements per target.
+     */
+    protected long[] statements;
+    /**
+     * Flag indicating whether the writer threads have been stopped and the
+     * targets have been finished.
+     */
+    protected boolean finished = false;
+
+    /**
+     * Constructor.
+     *
+     * @param targets       the targets (their writers have to be started
+     *                      already)
+     * @param queueCapacity the number of statement batches that can wait for
+     *                      the writer thread of a target
+     * @param threadName    the prefix of the names of the writer threads
+     */
+    @SuppressWarnings("unchecked")
+    public MultiTargetStreamRDF(List<OutputTarget> targets, int queueCapacity, String threadName) {
+        super();
+        this.targets = targets;
+        int count = targets.size();
+        producers = new QueueingStreamRDF[count];
+        queues = new BlockingQueue[count];
+        consumers = new StreamRDFQueueConsumer[count];
+        writerThreads = new Thread[count];
+        statements = new long[count];
+        for (int i = 0; i < count; ++i) {
+            queues[i] = new ArrayBlockingQueue<>(queueCapacity);
+            producers[i] = new QueueingStreamRDF(queues[i]);
+            consumers[i] = new StreamRDFQueueConsumer(queues[i], targets.get(i).getStream());
+            writerThreads[i] = new Thread(consumers[i], threadName + i);
+            writerThreads[i].start();
+        }
+    }
+
+    @Override
+    public void start() {
+        // nothing to do (the writers of the targets have been started)
+    }
+
+    /**
+     * Sends the given triple to the target with the given index.
+     *
+     * @param target the index of the target
+     * @param triple the triple that should be written
+     */
+    protected void send(int target, Triple triple) {
+        checkNotFinished();
+        producers[target].triple(triple);
+        ++statements[target];
+    }
+
+    /**
+     * Sends the given quad to the target with the given index.
+     *
+     * @param target the index of the target
+     * @param quad   the quad that should be written
+     */
+    protected void send(int target, Quad quad) {
+        checkNotFinished();
+        producers[target].quad(quad);
+        ++statements[target];
+    }
+
+    /**
+     * Makes sure that no statements are sent after the writer threads have been
+     * stopped.
+     *
+     * @throws IllegalStateException if this stream has already been finished
+     */
+    protected void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("The stream has already been finished.");
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        // nothing to do
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        for (int i = 0; i < producers.length; ++i) {
+            producers[i].prefix(prefix, iri);
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        // Send the remaining statements and stop the writer threads
+        boolean interrupted = false;
+        for (int i = 0; i < producers.length; ++i) {
+            try {
+                producers[i].finish();
+                queues[i].put(StatementBatch.END);
+                writerThreads[i].join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                writerThreads[i].interrupt();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the writers of the output files.");
+        }
+        // Finish the writers and close the streams of all targets
+        RuntimeException error = null;
+        for (int i = 0; i < producers.length; ++i) {
+            OutputTarget target = targets.get(i);
+            try {
+                if (consumers[i].getError() != null) {
+                    throw new IllegalStateException("Error while writing the output file " + target.getFile(),
+                            consumers[i].getError());
+                }
+                target.getStream().finish();
+            } catch (RuntimeException e) {
+                if (error == null) {
+                    error = e;
+                }
+            } finally {
+                try {
+                    target.getOut().close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = new UncheckedIOException("Error while closing the output file " + target.getFile(),
+                                e);
+                    }
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * @return the targets to which the statements are written
+     */
+    public List<OutputTarget> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return the number of statements per target
+     */
+    public long[] getStatements() {
+        return statements;
+    }
+}
@@ -0,0 +1,405 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+import org.apache.jena.riot.RiotParseException;
+
+/**
+ * Copies N-Triples or N-Quads data to the output without parsing and
+ * re-serializing the statements. Two ways of copying are supported:
+ * <ul>
+ * <li>Uncompressed data without blank nodes is transferred with
+ * {@link #transfer(File, long, long, NTuplesWriter)}, i.e., with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * without copying the data into the Java heap. The file is handled in segments
+ * of complete lines. {@link #scanSegment(File, long, long)} checks whether the
+ * next segment can be transferred this way while the previous segment is
+ * transferred, i.e., the file is not scanned completely before the first byte
+ * is written. If a segment contains blank nodes, the remaining data of the
+ * file is copied.</li>
+ * <li>All other data is copied with {@link #copy(InputStream, ObjIntConsumer)}
+ * in chunks that end with a complete line. A light-weight state machine
+ * identifies blank nodes outside of IRIs and literals (including the blank
+ * nodes of RDF-star quoted triples) and adds a file-specific prefix to their
+ * labels. This keeps blank nodes of different files apart (like parsing the
+ * files would do).</li>
+ * </ul>
+ * Optionally, the copied lines are validated. The validation only checks that
+ * each statement starts with an IRI or a blank node, that IRIs and literals are
+ * closed and that it ends with a dot. It doesn't replace a parser.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NTuplesPassthrough {
+
+    /**
+     * The default (minimum) size of a copied chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /**
+     * The maximum number of bytes that are mapped at once.
+     */
+    protected static final long SEGMENT_SIZE = 1L << 30;
+    /**
+     * The default size of the segments of a file that are scanned and
+     * transferred one after the other.
+     */
+    public static final long DEFAULT_TRANSFER_SEGMENT_SIZE = 1L << 26;
+    private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+    private static final byte[] NEWLINE = { '\n' };
+
+    private static final int OUTSIDE = 0;
+    private static final int IRI = 1;
+    private static final int LITERAL = 2;
+    private static final int ESCAPE = 3;
+    private static final int COMMENT = 4;
+
+    /**
+     * The prefix that is added to the labels of blank nodes.
+     */
+    protected byte[] blankNodePrefix;
+    /**
+     * Flag indicating whether the lines are validated.
+     */
+    protected boolean validate;
+    /**
+     * The minimum size of a chunk that is handed over to the sink.
+     */
+    protected int chunkSize;
+
+    /**
+     * The current chunk.
+     */
+    protected byte[] output;
+    /**
+     * The number of bytes in the current chunk.
+     */
+    protected int outputLength;
+    /**
+     * The state of the state machine.
+     */
+    protected int state;
+    /**
+     * The previous byte.
+     */
+    protected int previous;
+    /**
+     * The first relevant byte of the current line or -1.
+     */
+    protected int firstByte;
+    /**
+     * The last relevant byte of the current line or -1.
+     */
+    protected int lastByte;
+    /**
+     * The number of the current line.
+     */
+    protected long line;
+
+    /**
+     * Constructor.
+     *
+     * @param blankNodePrefix the prefix that is added to the labels of blank
+     *                        nodes (it should be unique for each copied file)
+     * @param validate        flag indicating whether the lines are validated
+     */
+    public NTuplesPassthrough(String blankNodePrefix, boolean validate) {
+        this(blankNodePrefix, validate, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param blankNodePrefix the prefix that is added to the labels of blank
+     *                        nodes (it should be unique for each copied file)
+     * @param validate        flag indicating whether the lines are validated
+     * @param chunkSize       the minimum size of a chunk that is handed over to
+     *                        the sink
+     */
+    public NTuplesPassthrough(String blankNodePrefix, boolean validate, int chunkSize) {
+        super();
+        this.blankNodePrefix = blankNodePrefix.getBytes(StandardCharsets.UTF_8);
+        this.validate = validate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Checks whether the given uncompressed file might contain blank nodes, i.e.,
+     * whether it contains the bytes {@code _:} anywhere.
+     *
+     * @param file the file that should be checked
+     * @return {@code true} if the file might contain blank nodes
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static boolean containsBlankNodes(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int previous = 0;
+            for (long position = 0; position < size; position += SEGMENT_SIZE) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(SEGMENT_SIZE, size - position));
+                while (segment.hasRemaining()) {
+                    byte b = segment.get();
+                    if ((b == ':') && (previous == '_')) {
+                        return true;
+                    }
+                    previous = b;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the position of the first byte of the data, i.e., the position
+     * after a byte order mark.
+     *
+     * @param file the uncompressed file
+     * @return the position of the first byte of the data
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static long getDataStart(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return ((channel.size() >= BOM.length) && Arrays.equals(BOM, read(channel, 0, BOM.length)))
+                    ? BOM.length
+                    : 0;
+        }
+    }
+
+    /**
+     * Scans the segment of the given uncompressed file that starts at the given
+     * position (which has to be the start of a line). The segment ends with the
+     * last complete line within the given segment size or with the end of the
+     * file.
+     *
+     * @param file        the file that should be scanned
+     * @param start       the start of the segment
+     * @param segmentSize the maximum size of the segment
+     * @return the end (exclusive) of the segment or the given start position if
+     *         the segment might contain blank nodes (i.e., the bytes {@code _:})
+     *         or if its first line is longer than the segment size
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static long scanSegment(File file, long start, long segmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long length = Math.min(Math.min(segmentSize, SEGMENT_SIZE), size - start);
+            if (length <= 0) {
+                return start;
+            }
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            int previous = '\n';
+            int lineEnd = -1;
+            for (int i = 0; i < length; ++i) {
+                byte b = segment.get(i);
+                if ((b == ':') && (previous == '_')) {
+                    return start;
+                } else if (b == '\n') {
+                    lineEnd = i + 1;
+                }
+                previous = b;
+            }
+            if (start + length == size) {
+                return size;
+            }
+            return (lineEnd > 0) ? start + lineEnd : start;
+        }
+    }
+
+    /**
+     * Transfers the given uncompressed file to the given writer. A byte order
+     * mark is skipped and a missing line break at the end of the file is added.
+     * The file must not contain blank nodes (see
+     * {@link #containsBlankNodes(File)}).
+     *
+     * @param file   the file that should be transferred
+     * @param writer the writer to which the file is transferred
+     * @throws IOException if an error occurs while reading or writing the data
+     */
+    public static void transfer(File file, NTuplesWriter writer) throws IOException {
+        transfer(file, getDataStart(file), file.length(), writer);
+    }
+
+    /**
+     * Transfers the given part of the given uncompressed file to the given
+     * writer. If the part reaches the end of the file, a missing line break at
+     * the end of the file is added. The part must not contain blank nodes (see
+     * {@link #scanSegment(File, long, long)}).
+     *
+     * @param file   the file that should be transferred
+     * @param start  the start of the transferred part
+     * @param end    the end (exclusive) of the transferred part
+     * @param writer the writer to which the file is transferred
+     * @throws IOException if an error occurs while reading or writing the data
+     */
+    public static void transfer(File file, long start, long end, NTuplesWriter writer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (end > start) {
+                writer.transferFrom(channel, start, end - start);
+                if ((end == channel.size()) && (read(channel, end - 1, 1)[0] != '\n')) {
+                    writer.writeRaw(NEWLINE, 0, NEWLINE.length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the given number of bytes at the given position.
+     */
+    protected static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Copies the data of the given stream to the given sink. The sink receives
+     * chunks that end with a complete line together with the number of valid
+     * bytes and takes the ownership of the arrays. Blank node labels get the
+     * prefix of this instance, a byte order mark is skipped and a missing line
+     * break at the end of the data is added.
+     *
+     * @param in   the stream with the N-Triples or N-Quads data
+     * @param sink the receiver of the copied chunks
+     * @throws IOException        if an error occurs while reading the data
+     * @throws RiotParseException if the validation is enabled and a line is not
+     *                            valid
+     */
+    public void copy(InputStream in, ObjIntConsumer<byte[]> sink) throws IOException {
+        output = new byte[chunkSize + 1024];
+        outputLength = 0;
+        state = OUTSIDE;
+        previous = '\n';
+        firstByte = -1;
+        lastByte = -1;
+        line = 1;
+        byte[] input = new byte[1 << 16];
+        // Skip a byte order mark
+        int length = in.readNBytes(input, 0, BOM.length);
+        int start = ((length == BOM.length) && Arrays.equals(BOM, Arrays.copyOf(input, BOM.length))) ? BOM.length
+                : 0;
+        while (length >= 0) {
+            for (int i = start; i < length; ++i) {
+                process(input[i], sink);
+            }
+            start = 0;
+            length = in.read(input);
+        }
+        if (previous != '\n') {
+            process('\n', sink);
+        }
+        if (outputLength > 0) {
+            sink.accept(output, outputLength);
+            output = null;
+        }
+    }
+
+    /**
+     * Processes a single byte.
+     */
+    protected void process(int b, ObjIntConsumer<byte[]> sink) {
+        if (b == '\n') {
+            endLine();
+            append(b);
+            previous = b;
+            if (outputLength >= chunkSize) {
+                sink.accept(output, outputLength);
+                output = new byte[chunkSize + 1024];
+                outputLength = 0;
+            }
+            return;
+        }
+        int stateBefore = state;
+        switch (state) {
+        case IRI:
+            if (b == '>') {
+                state = OUTSIDE;
+            } else if ((b == '<') && (previous == '<')) {
+                // "<<" starts a quoted triple, i.e., we are still outside of an IRI
+                state = OUTSIDE;
+            }
+            break;
+        case LITERAL:
+            if (b == '\\') {
+                state = ESCAPE;
+            } else if (b == '"') {
+                state = OUTSIDE;
+            }
+            break;
+        case ESCAPE:
+            state = LITERAL;
+            break;
+        case COMMENT:
+            break;
+        case OUTSIDE: // falls through
+        default:
+            if (b == '<') {
+                state = IRI;
+            } else if (b == '"') {
+                state = LITERAL;
+            } else if (b == '#') {
+                state = COMMENT;
+            }
+            break;
+        }
+        append(b);
+        if ((stateBefore == OUTSIDE) && (state != COMMENT) && (b != ' ') && (b != '\t') && (b != '\r')) {
+            if ((b == ':') && (previous == '_')) {
+                for (int i = 0; i < blankNodePrefix.length; ++i) {
+                    append(blankNodePrefix[i]);
+                }
+            }
+            if (firstByte < 0) {
+                firstByte = b;
+            }
+            lastByte = b;
+        }
+        previous = b;
+    }
+
+    /**
+     * Validates the current line (if necessary) and resets the state.
+     */
+    protected void endLine() {
+        if (validate && (firstByte >= 0)) {
+            if ((state != OUTSIDE) && (state != COMMENT)) {
+                throw new RiotParseException("Unterminated IRI or literal.", line, -1);
+            }
+            if ((firstByte != '<') && (firstByte != '_')) {
+                throw new RiotParseException("A statement has to start with an IRI or a blank node.", line, -1);
+            }
+            if (lastByte != '.') {
+                throw new RiotParseException("A statement has to end with a dot.", line, -1);
+            }
+        }
+        state = OUTSIDE;
+        firstByte = -1;
+        lastByte = -1;
+        ++line;
+    }
+
+    /**
+     * Appends the given byte to the current chunk.
+     */
+    protected void append(int b) {
+        if (outputLength == output.length) {
+            output = Arrays.copyOf(output, output.length * 2);
+        }
+        output[outputLength] = (byte) b;
+        ++outputLength;
+    }
+}
@@ -0,0 +1,563 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.stream.BatchedStreamRDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A writer for the line-based serializations N-Triples and N-Quads that
+ * encodes the terms directly into a large {@link ByteBuffer}. The buffer is
+ * written in big blocks either to a {@link WritableByteChannel} (e.g., a
+ * {@link java.nio.channels.FileChannel}) or to an {@link OutputStream} (e.g.,
+ * a compression stream). The encoded forms of IRIs are cached, i.e., frequently
+ * used IRIs (e.g., predicates and classes) are encoded only once.
+ *
+ * <p>
+ * Blank nodes are written with labels that are derived from their internal
+ * labels. Similar to Jena's N-Triples writer, statements in named graphs are
+ * ignored if the output language is N-Triples. Unpaired surrogate characters,
+ * which can not be encoded as UTF-8, are replaced by {@code '?'} (like Java's
+ * UTF-8 encoder does). The first replacement is logged as a warning and all
+ * replacements are counted (see {@link #getReplacedCharacters()}).
+ * </p>
+ *
+ * <p>
+ * The writer implements {@link BatchedStreamRDF}, i.e., batches can be written
+ * without an additional adapter. Note that an instance is not thread-safe.
+ * {@link #finish()} writes the buffered data but doesn't close the underlying
+ * channel or stream.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NTuplesWriter implements StreamRDF, BatchedStreamRDF {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NTuplesWriter.class);
+
+    /**
+     * The default size of the buffer in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    /**
+     * The number of entries of the IRI cache (has to be a power of 2).
+     */
+    protected static final int IRI_CACHE_SIZE = 1 << 12;
+    /**
+     * IRIs that are longer than this number of characters are not cached.
+     */
+    protected static final int MAX_CACHED_IRI_LENGTH = 256;
+    /**
+     * The bytes of the end of a statement.
+     */
+    protected static final byte[] STATEMENT_END = { ' ', '.', '\n' };
+    private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C',
+            'D', 'E', 'F' };
+
+    /**
+     * The channel to which the data is written or {@code null} if the data is
+     * written to {@link #out}.
+     */
+    protected WritableByteChannel channel;
+    /**
+     * The stream to which the data is written or {@code null} if the data is
+     * written to {@link #channel}.
+     */
+    protected OutputStream out;
+    /**
+     * Flag indicating whether the graph of quads is written (N-Quads).
+     */
+    protected boolean quads;
+    /**
+     * The buffer into which the statements are encoded.
+     */
+    protected ByteBuffer buffer;
+    /**
+     * The cached IRIs.
+     */
+    protected String[] iriCacheKeys = new String[IRI_CACHE_SIZE];
+    /**
+     * The encoded forms of the cached IRIs (including the angle brackets).
+     */
+    protected byte[][] iriCacheBytes = new byte[IRI_CACHE_SIZE][];
+    /**
+     * The number of unpaired surrogate characters that have been replaced.
+     */
+    protected long replacedCharacters = 0;
+    /**
+     * The number of bytes that have been handed to the channel or stream.
+     */
+    protected long flushedBytes = 0;
+
+    /**
+     * Constructor for writing to a channel.
+     *
+     * @param channel    the channel to which the data is written
+     * @param lang       the output language (N-Triples or N-Quads)
+     * @param bufferSize the size of the buffer in bytes
+     * @param direct     flag indicating whether a direct buffer should be used
+     */
+    public NTuplesWriter(WritableByteChannel channel, Lang lang, int bufferSize, boolean direct) {
+        this(lang, direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize));
+        this.channel = channel;
+    }
+
+    /**
+     * Constructor for writing to a stream.
+     *
+     * @param out        the stream to which the data is written
+     * @param lang       the output language (N-Triples or N-Quads)
+     * @param bufferSize the size of the buffer in bytes
+     */
+    public NTuplesWriter(OutputStream out, Lang lang, int bufferSize) {
+        this(lang, ByteBuffer.allocate(bufferSize));
+        this.out = out;
+    }
+
+    /**
+     * Internal constructor.
+     *
+     * @param lang   the output language (N-Triples or N-Quads)
+     * @param buffer the buffer into which the statements are encoded
+     */
+    protected NTuplesWriter(Lang lang, ByteBuffer buffer) {
+        super();
+        if (!isSupported(lang)) {
+            throw new IllegalArgumentException("The given language " + lang + " is not supported.");
+        }
+        this.quads = Lang.NQUADS.equals(lang);
+        this.buffer = buffer;
+    }
+
+    /**
+     * Checks whether the given output language can be written by this class.
+     *
+     * @param lang the output language
+     * @return {@code true} if the given language is N-Triples or N-Quads
+     */
+    public static boolean isSupported(Lang lang) {
+        return Lang.NTRIPLES.equals(lang) || Lang.NQUADS.equals(lang);
+    }
+
+    /**
+     * Checks whether data of the given input language can be written without
+     * parsing it, i.e., whether it is valid data of the output language.
+     *
+     * @param inputLang the language of the input data
+     * @return {@code true} if the input is N-Triples or if both languages are
+     *         N-Quads
+     */
+    public boolean canPassThrough(Lang inputLang) {
+        return Lang.NTRIPLES.equals(inputLang) || (quads && Lang.NQUADS.equals(inputLang));
+    }
+
+    /**
+     * Writes the given bytes of already serialized statements. The bytes must
+     * end with a complete line.
+     *
+     * @param bytes  the serialized statements
+     * @param offset the position of the first byte
+     * @param length the number of bytes
+     */
+    public void writeRaw(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                ensureCapacity(1);
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Copies the given range of the given file of already serialized statements
+     * to the output. If the output is a channel, the data is transferred without
+     * copying it into the Java heap. The range must end with a complete line.
+     *
+     * @param source   the channel of the file
+     * @param position the position of the first byte
+     * @param count    the number of bytes
+     * @throws IOException if an error occurs while reading or writing the data
+     */
+    public void transferFrom(FileChannel source, long position, long count) throws IOException {
+        flushBuffer();
+        WritableByteChannel target = (channel != null) ? channel : Channels.newChannel(out);
+        long transferred = 0;
+        while (transferred < count) {
+            transferred += source.transferTo(position + transferred, count - transferred, target);
+        }
+        flushedBytes += count;
+    }
+
+    @Override
+    public void start() {
+        // nothing to do
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        writeNode(triple.getSubject());
+        writeByte(' ');
+        writeNode(triple.getPredicate());
+        writeByte(' ');
+        writeNode(triple.getObject());
+        writeBytes(STATEMENT_END);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        Node graph = quad.getGraph();
+        if ((graph == null) || Quad.isDefaultGraph(graph)) {
+            triple(quad.asTriple());
+        } else if (quads) {
+            writeNode(quad.getSubject());
+            writeByte(' ');
+            writeNode(quad.getPredicate());
+            writeByte(' ');
+            writeNode(quad.getObject());
+            writeByte(' ');
+            writeNode(graph);
+            writeBytes(STATEMENT_END);
+        }
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        for (int i = 0; i < size; ++i) {
+            triple(triples[i]);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        for (int i = 0; i < size; ++i) {
+            quad(quads[i]);
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        // not supported by the line-based formats
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        // not supported by the line-based formats
+    }
+
+    @Override
+    public void finish() {
+        try {
+            flushBuffer();
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the output.", e);
+        }
+    }
+
+    /**
+     * @return the number of unpaired surrogate characters that have been
+     *         replaced by {@code '?'}
+     */
+    public long getReplacedCharacters() {
+        return replacedCharacters;
+    }
+
+    /**
+     * @return the number of bytes that have been written so far, including the
+     *         bytes that are still in the buffer of this writer
+     */
+    public long getWrittenBytes() {
+        return flushedBytes + buffer.position();
+    }
+
+    /**
+     * Encodes the given node.
+     *
+     * @param node the node that should be written
+     */
+    protected void writeNode(Node node) {
+        if (node.isURI()) {
+            writeIri(node.getURI());
+        } else if (node.isBlank()) {
+            writeBlankNode(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            writeLiteral(node);
+        } else if (node.isNodeTriple()) {
+            Triple triple = node.getTriple();
+            writeBytes(new byte[] { '<', '<', ' ' });
+            writeNode(triple.getSubject());
+            writeByte(' ');
+            writeNode(triple.getPredicate());
+            writeByte(' ');
+            writeNode(triple.getObject());
+            writeBytes(new byte[] { ' ', '>', '>' });
+        } else {
+            throw new IllegalArgumentException("Can not serialize the node " + node.toString());
+        }
+    }
+
+    /**
+     * Encodes the given IRI. Short IRIs are cached in their encoded form.
+     *
+     * @param iri the IRI
+     */
+    protected void writeIri(String iri) {
+        if (iri.length() > MAX_CACHED_IRI_LENGTH) {
+            writeByte('<');
+            writeString(iri, false);
+            writeByte('>');
+            return;
+        }
+        int hash = iri.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (IRI_CACHE_SIZE - 1);
+        String cached = iriCacheKeys[slot];
+        if ((cached != iri) && !iri.equals(cached)) {
+            iriCacheBytes[slot] = encodeIri(iri);
+            iriCacheKeys[slot] = iri;
+        }
+        writeBytes(iriCacheBytes[slot]);
+    }
+
+    /**
+     * Encodes the given IRI including its angle brackets.
+     *
+     * @param iri the IRI
+     * @return the UTF-8 encoded IRI
+     */
+    protected byte[] encodeIri(String iri) {
+        ByteBuffer temp = ByteBuffer.allocate((3 * iri.length()) + 2);
+        temp.put((byte) '<');
+        countReplacedCharacters(encode(temp, iri, false), iri);
+        temp.put((byte) '>');
+        byte[] encoded = new byte[temp.position()];
+        temp.flip();
+        temp.get(encoded);
+        return encoded;
+    }
+
+    /**
+     * Writes a blank node. Characters of the label that are not ASCII letters or
+     * digits (and the letter {@code 'X'} itself) are replaced by their hex code
+     * surrounded by {@code 'X'}.
+     *
+     * @param label the internal label of the blank node
+     */
+    protected void writeBlankNode(String label) {
+        int length = label.length();
+        ensureCapacity(3 + (6 * length));
+        buffer.put((byte) '_');
+        buffer.put((byte) ':');
+        buffer.put((byte) 'B');
+        char c;
+        for (int i = 0; i < length; ++i) {
+            c = label.charAt(i);
+            if (((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z') && (c != 'X'))
+                    || ((c >= '0') && (c <= '9'))) {
+                buffer.put((byte) c);
+            } else {
+                buffer.put((byte) 'X');
+                buffer.put(HEX_DIGITS[(c >> 12) & 0xF]);
+                buffer.put(HEX_DIGITS[(c >> 8) & 0xF]);
+                buffer.put(HEX_DIGITS[(c >> 4) & 0xF]);
+                buffer.put(HEX_DIGITS[c & 0xF]);
+                buffer.put((byte) 'X');
+            }
+        }
+    }
+
+    /**
+     * Writes a literal.
+     *
+     * @param node the literal node
+     */
+    protected void writeLiteral(Node node) {
+        writeByte('"');
+        writeString(node.getLiteralLexicalForm(), true);
+        writeByte('"');
+        String language = node.getLiteralLanguage();
+        if ((language != null) && !language.isEmpty()) {
+            writeByte('@');
+            writeString(language, false);
+        } else {
+            String datatype = node.getLiteralDatatypeURI();
+            if ((datatype != null) && !XSDDatatype.XSDstring.getURI().equals(datatype)) {
+                writeByte('^');
+                writeByte('^');
+                writeIri(datatype);
+            }
+        }
+    }
+
+    /**
+     * Encodes the given String as UTF-8.
+     *
+     * @param value  the String that should be written
+     * @param escape flag indicating whether characters have to be escaped (for
+     *               literals)
+     */
+    protected void writeString(String value, boolean escape) {
+        ensureCapacity(3 * value.length());
+        countReplacedCharacters(encode(buffer, value, escape), value);
+    }
+
+    /**
+     * Counts the given number of replaced characters. The first replacement is
+     * logged.
+     *
+     * @param replaced the number of characters that have been replaced
+     * @param value    the String in which the characters have been replaced
+     */
+    protected void countReplacedCharacters(int replaced, String value) {
+        if (replaced > 0) {
+            if (replacedCharacters == 0) {
+                LOGGER.warn("Replaced an unpaired surrogate character by '?' in \"{}\". Further replacements are"
+                        + " only counted.", value);
+            }
+            replacedCharacters += replaced;
+        }
+    }
+
+    /**
+     * Encodes the given String as UTF-8 into the given buffer. The buffer must
+     * have at least 3 bytes per character left.
+     *
+     * @param target the buffer to which the encoded String is written
+     * @param value  the String that should be written
+     * @param escape flag indicating whether quotes, backslashes and line breaks
+     *               have to be escaped
+     * @return the number of unpaired surrogate characters that have been
+     *         replaced by {@code '?'}
+     */
+    protected static int encode(ByteBuffer target, String value, boolean escape) {
+        int replaced = 0;
+        int length = value.length();
+        char c;
+        for (int i = 0; i < length; ++i) {
+            c = value.charAt(i);
+            if (c < 0x80) {
+                if (escape) {
+                    switch (c) {
+                    case '"':
+                        target.put((byte) '\\');
+                        target.put((byte) '"');
+                        continue;
+                    case '\\':
+                        target.put((byte) '\\');
+                        target.put((byte) '\\');
+                        continue;
+                    case '\n':
+                        target.put((byte) '\\');
+                        target.put((byte) 'n');
+                        continue;
+                    case '\r':
+                        target.put((byte) '\\');
+                        target.put((byte) 'r');
+                        continue;
+                    default:
+                        break;
+                    }
+                }
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | (c >> 6)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && (i + 1 < length)
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target.put((byte) (0xF0 | (codePoint >> 18)));
+                target.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                target.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate
+                target.put((byte) '?');
+                ++replaced;
+            } else {
+                target.put((byte) (0xE0 | (c >> 12)));
+                target.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * Writes a single (ASCII) byte.
+     *
+     * @param b the byte
+     */
+    protected void writeByte(int b) {
+        if (!buffer.hasRemaining()) {
+            ensureCapacity(1);
+        }
+        buffer.put((byte) b);
+    }
+
+    /**
+     * Writes the given bytes.
+     *
+     * @param bytes the bytes
+     */
+    protected void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Makes sure that the buffer has at least the given number of bytes left. If
+     * necessary, the buffer is written and (if it is too small) enlarged.
+     *
+     * @param bytes the number of bytes that have to fit into the buffer
+     */
+    protected void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the output.", e);
+        }
+        if (buffer.capacity() < bytes) {
+            buffer = buffer.isDirect() ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the channel or stream and clears the
+     * buffer.
+     *
+     * @throws IOException if an error occurs while writing the data
+     */
+    protected void flushBuffer() throws IOException {
+        buffer.flip();
+        flushedBytes += buffer.remaining();
+        if (channel != null) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } else if (buffer.hasRemaining()) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.remaining());
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.function.LongSupplier;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+/**
+ * A single output file together with its streams, e.g., a shard or a
+ * partition of the output or one of several targets to which the statements
+ * are written.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class OutputTarget {
+
+    /**
+     * The file of the target.
+     */
+    protected final File file;
+    /**
+     * The lower-level output stream that is closed when the target is
+     * complete.
+     */
+    protected final OutputStream out;
+    /**
+     * The writer of the target.
+     */
+    protected final StreamRDF stream;
+    /**
+     * The number of bytes that have been written to the target so far.
+     */
+    protected final LongSupplier writtenBytes;
+
+    /**
+     * Constructor. The number of written bytes is determined by the length of
+     * the file, i.e., data that is still buffered is not counted.
+     *
+     * @param file   the file of the target
+     * @param out    the lower-level output stream that is closed when the target
+     *               is complete
+     * @param stream the (started) writer of the target
+     */
+    public OutputTarget(File file, OutputStream out, StreamRDF stream) {
+        this(file, out, stream, file::length);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file         the file of the target
+     * @param out          the lower-level output stream that is closed when the
+     *                     target is complete
+     * @param stream       the (started) writer of the target
+     * @param writtenBytes the number of bytes that have been written to the
+     *                     target so far
+     */
+    public OutputTarget(File file, OutputStream out, StreamRDF stream, LongSupplier writtenBytes) {
+        super();
+        this.file = file;
+        this.out = out;
+        this.stream = stream;
+        this.writtenBytes = writtenBytes;
+    }
+
+    /**
+     * @return the file of the target
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the lower-level output stream of the target
+     */
+    public OutputStream getOut() {
+        return out;
+    }
+
+    /**
+     * @return the writer of the target
+     */
+    public StreamRDF getStream() {
+        return stream;
+    }
+
+    /**
+     * @return the number of bytes that have been written to the target so far
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.getAsLong();
+    }
+}
@@ -0,0 +1,327 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.dice_research.enexa.transform.Compression;
+
+/**
+ * A {@link StreamRDF} that writes the statements as rows of a Parquet file,
+ * i.e., in a columnar format that can be read by analytics and machine
+ * learning tools without parsing RDF. The file has the following columns:
+ * <ul>
+ * <li>{@code subject}: the IRI or the blank node ({@code _:} followed by its
+ * label) of the subject</li>
+ * <li>{@code predicate}: the IRI of the predicate</li>
+ * <li>{@code object}: the IRI, the blank node or the lexical form of the
+ * object</li>
+ * <li>{@code object_datatype}: the datatype IRI if the object is a literal or
+ * {@code null} if the object is an IRI or a blank node</li>
+ * <li>{@code object_lang}: the language tag of the object or {@code null}</li>
+ * <li>{@code graph}: the IRI or blank node of the graph or {@code null} if the
+ * statement is part of the default graph</li>
+ * </ul>
+ * All columns are dictionary encoded. The rows are buffered in memory until a
+ * row group reaches the configured size, i.e., the memory consumption is
+ * bounded by the row group size.
+ *
+ * <p>
+ * The file is written to the given output stream, which is not closed by
+ * {@link #finish()}. Base IRIs and prefixes are ignored. Note that an instance
+ * is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParquetStatementWriter implements StreamRDF {
+
+    /**
+     * The media type of Parquet files.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.apache.parquet";
+    /**
+     * The file extension of Parquet files.
+     */
+    public static final String FILE_EXTENSION = "parquet";
+    /**
+     * The default size of a row group in bytes.
+     */
+    public static final long DEFAULT_ROW_GROUP_SIZE = 64L << 20;
+
+    public static final String SUBJECT_COLUMN = "subject";
+    public static final String PREDICATE_COLUMN = "predicate";
+    public static final String OBJECT_COLUMN = "object";
+    public static final String OBJECT_DATATYPE_COLUMN = "object_datatype";
+    public static final String OBJECT_LANG_COLUMN = "object_lang";
+    public static final String GRAPH_COLUMN = "graph";
+
+    /**
+     * The schema of the written files.
+     */
+    public static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(SUBJECT_COLUMN)
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(PREDICATE_COLUMN)
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(OBJECT_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType())
+            .named(OBJECT_DATATYPE_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(OBJECT_LANG_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(GRAPH_COLUMN)
+            .named("statement");
+
+    /**
+     * The stream to which the file is written.
+     */
+    protected OutputStream out;
+    /**
+     * The size of a row group in bytes.
+     */
+    protected long rowGroupSize;
+    /**
+     * The codec with which the pages are compressed.
+     */
+    protected CompressionCodecName codec;
+    /**
+     * The factory for the rows.
+     */
+    protected SimpleGroupFactory rowFactory = new SimpleGroupFactory(SCHEMA);
+    /**
+     * The Parquet writer or {@code null} if the writer hasn't been started.
+     */
+    protected ParquetWriter<Group> writer = null;
+    /**
+     * Flag indicating whether the writer has been started. A single Parquet file
+     * is written, i.e., the writer can not be restarted after it has been
+     * finished.
+     */
+    protected boolean started = false;
+
+    /**
+     * Constructor.
+     *
+     * @param out          the stream to which the file is written
+     * @param rowGroupSize the size of a row group in bytes
+     * @param codec        the codec with which the pages are compressed
+     */
+    public ParquetStatementWriter(OutputStream out, long rowGroupSize, CompressionCodecName codec) {
+        super();
+        this.out = out;
+        this.rowGroupSize = rowGroupSize;
+        this.codec = codec;
+    }
+
+    /**
+     * Checks whether the given format IRI (or media type) refers to Parquet.
+     *
+     * @param formatIri the IRI of the format or its media type
+     * @return {@code true} if the format is Parquet
+     */
+    public static boolean isParquetFormat(String formatIri) {
+        return (formatIri != null) && formatIri.endsWith(MEDIA_TYPE);
+    }
+
+    /**
+     * Returns the Parquet codec that corresponds to the given compression.
+     * Parquet compresses its pages internally, i.e., the file itself is not
+     * compressed.
+     *
+     * @param compression the compression chosen for the output
+     * @return the corresponding Parquet codec
+     * @throws IllegalArgumentException if Parquet doesn't support the given
+     *                                  compression
+     */
+    public static CompressionCodecName getCodec(Compression compression) {
+        switch (compression) {
+        case NONE:
+            return CompressionCodecName.UNCOMPRESSED;
+        case GZIP: // falls through
+        case BGZIP:
+            return CompressionCodecName.GZIP;
+        case ZSTD:
+            return CompressionCodecName.ZSTD;
+        case LZ4:
+            return CompressionCodecName.LZ4_RAW;
+        case BZIP2: // falls through
+        default:
+            throw new IllegalArgumentException("Parquet files do not support the compression " + compression);
+        }
+    }
+
+    /**
+     * Creates the Parquet writer. Further calls have no effect.
+     */
+    @Override
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        try {
+            writer = ExampleParquetWriter.builder(new StreamOutputFile(out)).withType(SCHEMA)
+                    .withRowGroupSize((int) Math.min(rowGroupSize, Integer.MAX_VALUE)).withDictionaryEncoding(true)
+                    .withCompressionCodec(codec).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't create the Parquet writer.", e);
+        }
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        write(triple.getSubject(), triple.getPredicate(), triple.getObject(), null);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        write(quad.getSubject(), quad.getPredicate(), quad.getObject(),
+                quad.isDefaultGraph() ? null : quad.getGraph());
+    }
+
+    protected void write(Node subject, Node predicate, Node object, Node graph) {
+        Group row = rowFactory.newGroup();
+        row.append(SUBJECT_COLUMN, format(subject));
+        row.append(PREDICATE_COLUMN, format(predicate));
+        if (object.isLiteral()) {
+            row.append(OBJECT_COLUMN, object.getLiteralLexicalForm());
+            row.append(OBJECT_DATATYPE_COLUMN, object.getLiteralDatatypeURI());
+            String language = object.getLiteralLanguage();
+            if ((language != null) && !language.isEmpty()) {
+                row.append(OBJECT_LANG_COLUMN, language);
+            }
+        } else {
+            row.append(OBJECT_COLUMN, format(object));
+        }
+        if (graph != null) {
+            row.append(GRAPH_COLUMN, format(graph));
+        }
+        if (writer == null) {
+            throw new IllegalStateException("The writer has not been started or has already been finished.");
+        }
+        try {
+            writer.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the output.", e);
+        }
+    }
+
+    /**
+     * Creates the String representation of the given IRI or blank node.
+     *
+     * @param node the node
+     * @return the IRI or {@code _:} followed by the label of the blank node
+     */
+    protected static String format(Node node) {
+        if (node.isURI()) {
+            return node.getURI();
+        } else if (node.isBlank()) {
+            return "_:" + node.getBlankNodeLabel();
+        } else {
+            throw new IllegalArgumentException("Can not serialize the node " + node.toString());
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        // nothing to do
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        // nothing to do
+    }
+
+    /**
+     * Writes the last row group and the footer of the file. Further calls have
+     * no effect.
+     */
+    @Override
+    public void finish() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            // Writes the last row group and the footer
+            writer.close();
+            writer = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the output.", e);
+        }
+    }
+
+    /**
+     * An {@link OutputFile} that writes to an already opened stream. Closing the
+     * created stream only flushes the underlying stream.
+     */
+    protected static class StreamOutputFile implements OutputFile {
+
+        protected OutputStream out;
+
+        public StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) throws IOException {
+            return new PositionOutputStream() {
+                private long position = 0;
+
+                @Override
+                public long getPos() throws IOException {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    ++position;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.dice_research.enexa.transform.write;
+
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.dice_research.enexa.transform.util.StatementHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamRDF} that distributes the statements over a fixed number of
+ * output files (partitions) based on a stable hash. Triples and quads of the
+ * default graph are assigned based on their subject while quads of named
+ * graphs are assigned based on their graph. Hence, each partition contains all
+ * statements about its subjects (or all statements of its graphs) and the
+ * partitions can be loaded in parallel, e.g., into the nodes of a distributed
+ * triple store.
+ *
+ * <p>
+ * Each partition has its own writer thread that serializes and compresses the
+ * statements of the partition (see {@link MultiTargetStreamRDF}). Hence,
+ * partitioning the output also parallelizes its encoding.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class PartitioningStreamRDF extends MultiTargetStreamRDF {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitioningStreamRDF.class);
+
+    /**
+     * The hash function that is used to assign statements to partitions.
+     */
+    protected StatementHasher hasher = new StatementHasher();
+
+    /**
+     * Constructor.
+     *
+     * @param partitions the partitions (their writers have to be started
+     *                   already)
+     */
+    public PartitioningStreamRDF(List<OutputTarget> partitions) {
+        this(partitions, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param partitions    the partitions (their writers have to be started
+     *                      already)
+     * @param queueCapacity the number of statement batches that can wait for
+     *                      the writer thread of a partition
+     */
+    public PartitioningStreamRDF(List<OutputTarget> partitions, int queueCapacity) {
+        super(partitions, queueCapacity, "partition-writer-");
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        send(getPartition(triple.getSubject()), triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        send(getPartition(quad.isDefaultGraph() ? quad.getSubject() : quad.getGraph()), quad);
+    }
+
+    /**
+     * Determines the partition of the given node based on its hash value.
+     *
+     * @param node the node that determines the partition (the subject or the
+     *             graph of a statement)
+     * @return the index of the partition
+     */
+    protected int getPartition(Node node) {
+        return (int) Long.remainderUnsigned(hasher.hash(node).getHash1(), producers.length);
+    }
+
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        super.finish();
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < statements.length; ++i) {
+            sum += statements[i];
+            max = Math.max(max, statements[i]);
+        }
+        LOGGER.info("Wrote {} statements to {} partitions (largest partition: {} statements).", sum,
+                statements.length, max);
+    }
+}
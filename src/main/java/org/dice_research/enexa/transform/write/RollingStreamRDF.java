@@ -0,0 +1,299 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Consumer;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StreamRDF} that distributes the statements over several output
+ * files (shards). A new shard is started as soon as the current shard contains
+ * the configured number of statements or its file reached the configured size.
+ * Each shard has its own writer and its own (compressed) output stream, which
+ * are created by a {@link ShardFactory}. The base IRI and all prefixes that
+ * have been seen so far are repeated at the beginning of every new shard.
+ *
+ * <p>
+ * The size of a shard is determined by the number of bytes that have been
+ * written to it (see {@link OutputTarget#getWrittenBytes()}). Depending on the
+ * shard, data that is still buffered, e.g., by the compression, may not be
+ * counted. Hence, the shards can become larger than the configured size. To
+ * keep the overhead low, the size is only checked every
+ * {@link #getSizeCheckInterval()} statements.
+ * </p>
+ *
+ * <p>
+ * Since every shard has to be complete before the next shard is started, this
+ * class closes the output streams of the shards, including the stream of the
+ * last shard when {@link #finish()} is called for the first time. Hence, the
+ * owner of this stream has to finish it once after the last statement, i.e.,
+ * parsers that finish the stream after every input file must not work on it
+ * directly. Note that an instance is not thread-safe.
+ * </p>
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RollingStreamRDF implements StreamRDF {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RollingStreamRDF.class);
+
+    /**
+     * The default number of statements after which the size of the current
+     * shard is checked.
+     */
+    public static final int DEFAULT_SIZE_CHECK_INTERVAL = 1024;
+
+    /**
+     * A factory that creates the shards.
+     *
+     * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+     *
+     */
+    @FunctionalInterface
+    public static interface ShardFactory {
+        /**
+         * Creates the shard with the given index. The writer of the returned
+         * shard has to be started already.
+         *
+         * @param index the index of the shard (starting with 0)
+         * @return the new shard
+         * @throws IOException if the file of the shard can not be created
+         */
+        OutputTarget createShard(int index) throws IOException;
+    }
+
+    /**
+     * The factory that creates new shards.
+     */
+    protected ShardFactory factory;
+    /**
+     * The maximum size of a shard in bytes or a value &le; 0 if the size is not
+     * limited.
+     */
+    protected long maxBytes;
+    /**
+     * The maximum number of statements of a shard or a value &le; 0 if the
+     * number is not limited.
+     */
+    protected long maxStatements;
+    /**
+     * The number of statements after which the size of the current shard is
+     * checked.
+     */
+    protected int sizeCheckInterval = DEFAULT_SIZE_CHECK_INTERVAL;
+    /**
+     * The listener that is informed about every new shard (except the first
+     * one) or {@code null}.
+     */
+    protected Consumer<File> shardListener = null;
+    /**
+     * The current shard or {@code null} if the last shard has been completed
+     * and the next shard hasn't been started, yet.
+     */
+    protected OutputTarget current;
+    /**
+     * The number of shards that have been started.
+     */
+    protected int shards = 1;
+    /**
+     * The number of statements in the current shard.
+     */
+    protected long shardStatements = 0;
+    /**
+     * The number of statements in all shards.
+     */
+    protected long statements = 0;
+    /**
+     * The last base IRI or {@code null}.
+     */
+    protected String base = null;
+    /**
+     * The prefixes that have been seen so far.
+     */
+    protected Map<String, String> prefixes = new LinkedHashMap<>();
+    /**
+     * Flag indicating whether the last shard has been completed.
+     */
+    protected boolean finished = false;
+
+    /**
+     * Constructor.
+     *
+     * @param firstShard    the first shard, which has been created by the caller
+     * @param factory       the factory that creates the following shards
+     * @param maxBytes      the maximum size of a shard in bytes or a value &le; 0
+     *                      if the size is not limited
+     * @param maxStatements the maximum number of statements of a shard or a value
+     *                      &le; 0 if the number is not limited
+     */
+    public RollingStreamRDF(OutputTarget firstShard, ShardFactory factory, long maxBytes, long maxStatements) {
+        super();
+        this.current = firstShard;
+        this.factory = factory;
+        this.maxBytes = maxBytes;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public void start() {
+        // nothing to do (the writers of the shards are started by the factory)
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        getCurrentStream().triple(triple);
+        countStatement();
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        getCurrentStream().quad(quad);
+        countStatement();
+    }
+
+    @Override
+    public void base(String base) {
+        this.base = base;
+        if (current != null) {
+            current.stream.base(base);
+        }
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        prefixes.put(prefix, iri);
+        if (current != null) {
+            current.stream.prefix(prefix, iri);
+        }
+    }
+
+    /**
+     * Returns the writer of the current shard. If the last shard has been
+     * completed, the next shard is started. Hence, there are no empty shards at
+     * the end of the output.
+     *
+     * @return the writer of the current shard
+     */
+    protected StreamRDF getCurrentStream() {
+        if (finished) {
+            throw new IllegalStateException("The stream has already been finished.");
+        }
+        if (current == null) {
+            try {
+                current = factory.createShard(shards);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't create the next shard.", e);
+            }
+            ++shards;
+            shardStatements = 0;
+            if (base != null) {
+                current.stream.base(base);
+            }
+            for (Entry<String, String> prefix : prefixes.entrySet()) {
+                current.stream.prefix(prefix.getKey(), prefix.getValue());
+            }
+            if (shardListener != null) {
+                shardListener.accept(current.file);
+            }
+        }
+        return current.stream;
+    }
+
+    /**
+     * Counts a written statement and completes the current shard if it reached
+     * one of the limits.
+     */
+    protected void countStatement() {
+        ++statements;
+        ++shardStatements;
+        if (((maxStatements > 0) && (shardStatements >= maxStatements)) || ((maxBytes > 0)
+                && ((shardStatements % sizeCheckInterval) == 0) && (current.getWrittenBytes() >= maxBytes))) {
+            completeShard();
+        }
+    }
+
+    /**
+     * Finishes the writer of the current shard and closes its stream.
+     */
+    protected void completeShard() {
+        OutputTarget shard = current;
+        current = null;
+        try {
+            shard.stream.finish();
+        } finally {
+            try {
+                shard.out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error while closing the shard " + shard.file, e);
+            }
+        }
+    }
+
+    /**
+     * Completes the last shard. Further calls have no effect.
+     */
+    @Override
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (current != null) {
+            completeShard();
+        }
+        LOGGER.info("Wrote {} statements to {} shards.", statements, shards);
+    }
+
+    /**
+     * @return the number of shards that have been started
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * @return the number of statements after which the size of the current
+     *         shard is checked
+     */
+    public int getSizeCheckInterval() {
+        return sizeCheckInterval;
+    }
+
+    /**
+     * @param sizeCheckInterval the number of statements after which the size of
+     *                          the current shard is checked
+     */
+    public void setSizeCheckInterval(int sizeCheckInterval) {
+        this.sizeCheckInterval = Math.max(1, sizeCheckInterval);
+    }
+
+    /**
+     * @return the listener that is informed about every new shard or
+     *         {@code null}
+     */
+    public Consumer<File> getShardListener() {
+        return shardListener;
+    }
+
+    /**
+     * Sets a listener that receives the file of every new shard. The file of the
+     * first shard is not handed to the listener since it is given to the
+     * constructor. The listener is called by the thread that writes the
+     * statements.
+     *
+     * @param shardListener the listener or {@code null}
+     */
+    public void setShardListener(Consumer<File> shardListener) {
+        this.shardListener = shardListener;
+    }
+}
@@ -7,25 +7,43 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.Random;
+import java.util.zip.CRC32C;
 
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.dice_research.enexa.transform.filter.StatementFilter;
+import org.dice_research.enexa.transform.io.BgzfOutputStream;
+import org.dice_research.enexa.transform.metrics.InputFileMetrics;
+import org.dice_research.enexa.transform.metrics.TransformationMetrics;
+import org.dice_research.enexa.transform.progress.ProgressReport;
+import org.dice_research.enexa.transform.progress.ProgressTracker;
 import org.dice_research.enexa.vocab.IANAMediaType;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
 /**
  * An abstract test for {@link Transformator} classes that simply generates
  * several files with varying serializations and concatenates them in different
  * setups (with/without input compression, output compression and explicit file
- * extensions).
+ * extensions). Further features of the {@link TransformatorBuilder} are
+ * checked by separate tests.
  * 
  * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
  *
@@ -99,7 +117,17 @@ public abstract class AbstractTransformatorTest {
         }
     }
 
-    public void createFilesAndTest(boolean fileExtensions, boolean compressedInput) throws Exception {
+    /**
+     * Writes the input models into temporary files.
+     * 
+     * @param fileExtensions  flag indicating whether the files get extensions
+     *                        that reflect their format and compression
+     * @param compressedInput flag indicating whether the files are compressed
+     *                        with randomly chosen compressions
+     * @return the created files
+     * @throws Exception if the files can not be written
+     */
+    protected File[] createInputFiles(boolean fileExtensions, boolean compressedInput) throws Exception {
         // Create temporary file with given content
         Random random = new Random();
         File inputFiles[] = new File[inputModels.length];
@@ -112,12 +140,32 @@ public abstract class AbstractTransformatorTest {
                 endingBuilder.append(inputLangs[i].getFileExtensions().get(0));
             }
             if (compressedInput) {
-                if (random.nextBoolean()) {
+                switch (random.nextInt(5)) {
+                case 0: {
                     endingBuilder.append(".bz2");
                     compressions[i] = Compression.BZIP2;
-                } else {
+                    break;
+                }
+                case 1: {
                     endingBuilder.append(".gz");
                     compressions[i] = Compression.GZIP;
+                    break;
+                }
+                case 2: {
+                    endingBuilder.append(".zst");
+                    compressions[i] = Compression.ZSTD;
+                    break;
+                }
+                case 3: {
+                    endingBuilder.append(".lz4");
+                    compressions[i] = Compression.LZ4;
+                    break;
+                }
+                default: {
+                    endingBuilder.append(".gz");
+                    compressions[i] = Compression.BGZIP;
+                    break;
+                }
                 }
             } else {
                 compressions[i] = Compression.NONE;
@@ -138,6 +186,18 @@ public abstract class AbstractTransformatorTest {
                     out = new GzipCompressorOutputStream(out);
                     break;
                 }
+                case BGZIP: {
+                    out = new BgzfOutputStream(out, 2, null);
+                    break;
+                }
+                case ZSTD: {
+                    out = new ZstdOutputStream(out);
+                    break;
+                }
+                case LZ4: {
+                    out = new FramedLZ4CompressorOutputStream(out);
+                    break;
+                }
                 case NONE: // falls through
                 default:
                     break;
@@ -147,17 +207,147 @@ public abstract class AbstractTransformatorTest {
                 IOUtils.closeQuietly(out);
             }
         }
+        return inputFiles;
+    }
 
+    public void createFilesAndTest(boolean fileExtensions, boolean compressedInput) throws Exception {
+        File[] inputFiles = createInputFiles(fileExtensions, compressedInput);
         testTransformator(inputFiles, fileExtensions, Compression.NONE);
         testTransformator(inputFiles, fileExtensions, Compression.BZIP2);
         testTransformator(inputFiles, fileExtensions, Compression.GZIP);
+        testTransformator(inputFiles, fileExtensions, Compression.BGZIP);
+        testTransformator(inputFiles, fileExtensions, Compression.ZSTD);
+        testTransformator(inputFiles, fileExtensions, Compression.LZ4);
+        testTransformator(inputFiles, fileExtensions,
+                new TransformatorBuilder().setCompression(Compression.ZSTD).setCompressionLevel(19));
+        // Parse the files in parallel
+        testTransformator(inputFiles, fileExtensions, new TransformatorBuilder().setParallelism(3));
+        // Run decompression, parsing, serialization and compression on separate
+        // threads
+        testTransformator(inputFiles, fileExtensions,
+                new TransformatorBuilder().setPipelined(true).setCompression(Compression.BZIP2));
+        // Use the single-threaded (de)compression
+        testTransformator(inputFiles, fileExtensions,
+                new TransformatorBuilder().setCompressionThreads(1).setCompression(Compression.BZIP2));
+    }
+
+    @Test
+    public void testPassthrough() throws Exception {
+        // Parse all files (no copying of compatible N-Triples/N-Quads files)
+        testFeature(false, new TransformatorBuilder().setPassthrough(false),
+                // Validate the lines of copied files
+                new TransformatorBuilder().setParallelism(3).setPassthroughValidation(true));
+    }
+
+    @Test
+    public void testWithoutTermCache() throws Exception {
+        // Parse the files without the shared term cache
+        testFeature(true, new TransformatorBuilder().setParallelism(3).setTermCacheSize(0));
+    }
+
+    @Test
+    public void testChunking() throws Exception {
+        // Split uncompressed N-Triples and N-Quads files into (very small) chunks
+        testFeature(false, new TransformatorBuilder().setParallelism(3).setChunkSize(64),
+                new TransformatorBuilder().setParallelism(3).setChunkSize(64).setPreserveOrder(true));
+    }
+
+    @Test
+    public void testStatementFilter() throws Exception {
+        // Send the statements through a filter that keeps all of them
+        testFeature(false, new TransformatorBuilder().setParallelism(3).setChunkSize(64)
+                .setStatementFilter(new StatementFilter()
+                        .denyPredicate(NodeFactory.createURI("http://example.org/unknown-predicate"))));
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        // Collect statistics of the written (deduplicated) statements
+        testFeature(true, new TransformatorBuilder().setParallelism(3).setStatistics(true)
+                .setDeduplication(Deduplication.APPROXIMATE).setExpectedStatements(1000));
+    }
+
+    @Test
+    public void testChecksums() throws Exception {
+        // Compute checksums of the written and the uncompressed bytes
+        testFeature(true,
+                new TransformatorBuilder().setCompression(Compression.GZIP)
+                        .setChecksumAlgorithm(ChecksumAlgorithm.SHA256).setUncompressedChecksum(true),
+                new TransformatorBuilder().setParallelism(3).setChecksumAlgorithm(ChecksumAlgorithm.CRC32C));
+    }
+
+    @Test
+    public void testProgress() throws Exception {
+        // Report the progress (very) frequently
+        testFeature(false, new TransformatorBuilder().setParallelism(3).setChunkSize(64).setProgressInterval(1));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        // Collect performance metrics while parsing chunks
+        testFeature(false, new TransformatorBuilder().setParallelism(3).setChunkSize(64).setMetrics(true));
+        // Collect performance metrics while decompressing on a separate thread
+        testFeature(true,
+                new TransformatorBuilder().setPipelined(true).setCompression(Compression.GZIP).setMetrics(true));
+    }
+
+    @Test
+    public void testDeduplication() throws Exception {
+        testFeature(true,
+                // Remove duplicates with a Bloom filter
+                new TransformatorBuilder().setParallelism(3).setDeduplication(Deduplication.APPROXIMATE)
+                        .setExpectedStatements(1000),
+                // Remove duplicates and sort the statements using (very small) sorted
+                // runs
+                new TransformatorBuilder().setParallelism(3).setDeduplication(Deduplication.EXACT)
+                        .setSortMemoryBudget(64));
+    }
+
+    @Test
+    public void testAdditionalTarget() throws Exception {
+        // Write an additional, compressed N-Triples file from the same statements
+        // (only supported for output formats that can be streamed)
+        if (IANAMediaType.iri2Lang(outputFormatIri) != null) {
+            testFeature(true, new TransformatorBuilder().setParallelism(3)
+                    .addTarget(IANAMediaType.lang2Iri(Lang.NTRIPLES), Compression.GZIP));
+        }
+    }
+
+    /**
+     * Writes the input models into temporary files with file extensions and
+     * transforms them with each of the given builders.
+     * 
+     * @param compressedInput flag indicating whether the input files are
+     *                        compressed
+     * @param builders        the builders of the tested transformators
+     * @throws Exception if an error occurs during the transformation
+     */
+    protected void testFeature(boolean compressedInput, TransformatorBuilder... builders) throws Exception {
+        File[] inputFiles = createInputFiles(true, compressedInput);
+        try {
+            for (TransformatorBuilder builder : builders) {
+                testTransformator(inputFiles, true, builder);
+            }
+        } finally {
+            for (File inputFile : inputFiles) {
+                inputFile.delete();
+            }
+        }
     }
 
     public void testTransformator(File[] inputFiles, boolean fileExtensions, Compression compression) throws Exception {
+        testTransformator(inputFiles, fileExtensions, new TransformatorBuilder().setCompression(compression));
+    }
+
+    public void testTransformator(File[] inputFiles, boolean fileExtensions, TransformatorBuilder builder)
+            throws Exception {
         File outputFile = File.createTempFile("test-output-", "");
-        try (Transformator transformator = new TransformatorBuilder().setOutputFormat(outputFormatIri)
-                .setCompression(compression).setOutputFileName(outputFile.getName())
-                .setOutputDirectory(outputFile.getParentFile()).build();) {
+        Compression compression = builder.getCompression();
+        FileChecksums checksums = null;
+        ProgressTracker tracker = null;
+        TransformationMetrics metrics = null;
+        try (Transformator transformator = builder.setOutputFormat(outputFormatIri)
+                .setOutputFileName(outputFile.getName()).setOutputDirectory(outputFile.getParentFile()).build();) {
             if (fileExtensions) {
                 transformator.addFiles2Stream(inputFiles);
             } else {
@@ -167,6 +357,41 @@ public abstract class AbstractTransformatorTest {
             }
             // update output file after writing
             outputFile = transformator.getOutputFile();
+            metrics = transformator.getMetrics();
+            Assert.assertEquals(builder.isMetrics(), metrics != null);
+            if (transformator instanceof StreamingTransformator) {
+                checksums = ((StreamingTransformator) transformator).getChecksums();
+                Assert.assertEquals(builder.getChecksumAlgorithm() != null, checksums != null);
+                tracker = ((StreamingTransformator) transformator).getProgressTracker();
+                Assert.assertEquals(builder.getProgressInterval() > 0, tracker != null);
+            }
+        }
+        if (metrics != null) {
+            // Every input file has been read completely
+            Assert.assertEquals(inputFiles.length, metrics.getInputFiles().size());
+            for (InputFileMetrics fileMetrics : metrics.getInputFiles()) {
+                Assert.assertEquals(fileMetrics.getFile().length(), fileMetrics.getReadBytes());
+                Assert.assertTrue(fileMetrics.getUncompressedBytes() > 0);
+                Assert.assertTrue(fileMetrics.isCopied() || (fileMetrics.getStatements() > 0));
+            }
+            Assert.assertTrue(metrics.getWallNanos() >= 0);
+            Assert.assertTrue(metrics.getPeakHeapBytes() > 0);
+        }
+        if (tracker != null) {
+            // All input bytes have been consumed and all output bytes are counted
+            ProgressReport report = tracker.createReport();
+            long inputBytes = 0;
+            for (File inputFile : inputFiles) {
+                inputBytes += FileUtils.sizeOf(inputFile);
+            }
+            Assert.assertEquals(inputBytes, report.getInputBytes());
+            Assert.assertEquals(inputBytes, report.getConsumedBytes());
+            Assert.assertEquals(1.0, report.getProgress(), 0.0);
+            Assert.assertEquals(outputFile.length(), report.getWrittenBytes());
+        }
+        if (checksums != null) {
+            checkChecksums(outputFile, checksums,
+                    builder.isUncompressedChecksum() && (compression != Compression.NONE));
         }
 
         InputStream is = null;
@@ -174,13 +399,27 @@ public abstract class AbstractTransformatorTest {
             is = new BufferedInputStream(new FileInputStream(outputFile));
             switch (compression) {
             case BZIP2: {
-                is = new BZip2CompressorInputStream(is);
+                // the output may consist of several concatenated bzip2 streams
+                is = new BZip2CompressorInputStream(is, true);
                 break;
             }
             case GZIP: {
                 is = new GzipCompressorInputStream(is);
                 break;
             }
+            case BGZIP: {
+                // BGZF files have to be readable by standard gzip implementations
+                is = new GzipCompressorInputStream(is, true);
+                break;
+            }
+            case ZSTD: {
+                is = new ZstdInputStream(is);
+                break;
+            }
+            case LZ4: {
+                is = new FramedLZ4CompressorInputStream(is);
+                break;
+            }
             case NONE: // falls through
             default:
                 break;
@@ -191,6 +430,28 @@ public abstract class AbstractTransformatorTest {
         }
     }
 
+    protected void checkChecksums(File outputFile, FileChecksums checksums, boolean uncompressedChecksum)
+            throws Exception {
+        byte[] data = Files.readAllBytes(outputFile.toPath());
+        String expected;
+        switch (checksums.getAlgorithm()) {
+        case SHA256: {
+            expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+            break;
+        }
+        case CRC32C: {
+            CRC32C crc = new CRC32C();
+            crc.update(data);
+            expected = String.format("%08x", crc.getValue());
+            break;
+        }
+        default:
+            throw new IllegalStateException("The test does not support the algorithm " + checksums.getAlgorithm());
+        }
+        Assert.assertEquals(expected, checksums.getChecksum());
+        Assert.assertEquals(uncompressedChecksum, checksums.getUncompressedChecksum() != null);
+    }
+
     protected abstract void compareModels(InputStream is, String outputFormatIri, Model expectedModel);
 
 }
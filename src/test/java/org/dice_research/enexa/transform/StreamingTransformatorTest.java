@@ -81,11 +81,14 @@ public class StreamingTransformatorTest extends AbstractTransformatorTest {
                 IANAMediaType.lang2Iri(Lang.JSONLD) };
         String[] inputSet2 = new String[] { IANAMediaType.lang2Iri(Lang.RDFXML), IANAMediaType.lang2Iri(Lang.RDFJSON),
                 IANAMediaType.lang2Iri(Lang.N3) };
+        String[] inputSet3 = new String[] { IANAMediaType.lang2Iri(Lang.RDFTHRIFT),
+                IANAMediaType.lang2Iri(Lang.RDFPROTO), IANAMediaType.lang2Iri(Lang.NTRIPLES) };
 
         List<Object[]> testConfigs = new ArrayList<Object[]>();
         for (int i = 0; i < outputLanguages.length; ++i) {
             testConfigs.add(new Object[] { expectedModel, outputLanguages[i], inputModels, inputSet1 });
             testConfigs.add(new Object[] { expectedModel, outputLanguages[i], inputModels, inputSet2 });
+            testConfigs.add(new Object[] { expectedModel, outputLanguages[i], inputModels, inputSet3 });
         }
         return testConfigs;
     }
@@ -0,0 +1,65 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link DeduplicatingStreamRDF} drops duplicates of single
+ * statements and of statements within batches.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class DeduplicatingStreamRDFTest {
+
+    @Test
+    public void test() {
+        List<Triple> triples = new ArrayList<>();
+        Node p = NodeFactory.createURI("http://example.org/p");
+        for (int i = 0; i < 1000; ++i) {
+            triples.add(Triple.create(NodeFactory.createURI("http://example.org/e" + i), p,
+                    NodeFactory.createLiteral(Integer.toString(i))));
+        }
+        Node graph = NodeFactory.createURI("http://example.org/g");
+
+        DatasetGraph dataset = DatasetGraphFactory.create();
+        DeduplicatingStreamRDF stream = new DeduplicatingStreamRDF(StreamRDFLib.dataset(dataset),
+                new BloomFilter(10000, 0.0001));
+        stream.start();
+        // Send the triples once as single triples and once as batch
+        triples.forEach(stream::triple);
+        Assert.assertEquals(0, stream.getDroppedStatements());
+        stream.triples(triples.toArray(new Triple[triples.size()]), triples.size());
+        Assert.assertEquals(1000, stream.getDroppedStatements());
+        // Quads in the default graph are the same as triples
+        Quad[] quads = new Quad[4];
+        quads[0] = Quad.create(Quad.defaultGraphNodeGenerated, triples.get(0));
+        quads[1] = Quad.create(graph, triples.get(0));
+        quads[2] = Quad.create(graph, triples.get(0));
+        quads[3] = Quad.create(graph, triples.get(1));
+        stream.quads(quads, quads.length);
+        stream.finish();
+
+        Assert.assertEquals(1002, stream.getDroppedStatements());
+        Assert.assertEquals(1000, dataset.getDefaultGraph().size());
+        Assert.assertEquals(2, dataset.getGraph(graph).size());
+        // The memory of the filter is released
+        stream.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLargeFilter() {
+        // More than a terabyte does not fit into the direct memory
+        new BloomFilter(1L << 40, 0.01).close();
+    }
+}
@@ -0,0 +1,105 @@
+package org.dice_research.enexa.transform.dedup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link SortingDeduplicator} spills sorted runs to disk if
+ * its memory budget is reached, merges them (including an intermediate merge
+ * if there are more than {@link SortingDeduplicator#MAX_FAN_IN} runs) and
+ * drops duplicates that ended up in different runs.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SortingDeduplicatorTest {
+
+    @Test
+    public void testSpillingAndMerging() throws Exception {
+        Node p = NodeFactory.createURI("http://example.org/p");
+        Node graph = NodeFactory.createURI("http://example.org/g");
+        List<Quad> quads = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            Triple triple = Triple.create(NodeFactory.createURI("http://example.org/e" + i), p,
+                    NodeFactory.createLiteral(Integer.toString(i)));
+            quads.add(Quad.create(((i % 2) == 0) ? Quad.defaultGraphNodeGenerated : graph, triple));
+        }
+        // A quoted triple
+        quads.add(Quad.create(Quad.defaultGraphNodeGenerated, NodeFactory.createTripleNode(quads.get(0).asTriple()),
+                p, NodeFactory.createLiteral("quoted")));
+        List<Quad> reversed = new ArrayList<>(quads);
+        Collections.reverse(reversed);
+
+        DatasetGraph dataset = DatasetGraphFactory.create();
+        List<File> runFiles = new ArrayList<>();
+        int[] maxRuns = new int[1];
+        try (SortingDeduplicator deduplicator = new SortingDeduplicator(StreamRDFLib.dataset(dataset), null, 2000) {
+            @Override
+            protected File createRunFile() throws IOException {
+                File runFile = super.createRunFile();
+                runFiles.add(runFile);
+                maxRuns[0] = Math.max(maxRuns[0], runs.size());
+                return runFile;
+            }
+        }) {
+            deduplicator.start();
+            // Every statement is sent twice; the duplicates end up in different runs
+            for (Quad quad : quads) {
+                if (Quad.isDefaultGraph(quad.getGraph())) {
+                    deduplicator.triple(quad.asTriple());
+                } else {
+                    deduplicator.quad(quad);
+                }
+            }
+            Quad[] batch = reversed.toArray(new Quad[reversed.size()]);
+            deduplicator.quads(batch, batch.length);
+            // The budget is small enough to create more runs than can be merged at once
+            Assert.assertTrue("Only " + deduplicator.runs.size() + " runs have been written.",
+                    deduplicator.runs.size() >= SortingDeduplicator.MAX_FAN_IN);
+            deduplicator.complete();
+            deduplicator.finish();
+
+            Assert.assertEquals(quads.size(), deduplicator.getDroppedStatements());
+        }
+        Assert.assertTrue(maxRuns[0] > SortingDeduplicator.MAX_FAN_IN);
+        Assert.assertEquals(501, dataset.getDefaultGraph().size());
+        Assert.assertEquals(500, dataset.getGraph(graph).size());
+        // All run files (including the intermediate ones) have been deleted
+        for (File runFile : runFiles) {
+            Assert.assertFalse(runFile.exists());
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        long budget = 1 << 20;
+        SortingDeduplicator deduplicator = new SortingDeduplicator(StreamRDFLib.sinkNull(), null, budget);
+        try {
+            Node p = NodeFactory.createURI("http://example.org/p");
+            for (int i = 0; i < 100000; ++i) {
+                deduplicator.triple(Triple.create(NodeFactory.createURI("http://example.org/e" + i), p,
+                        NodeFactory.createLiteral("a longer literal that takes some space " + i)));
+                // The array of lines must not grow beyond its share of the budget
+                Assert.assertTrue(deduplicator.lines.capacity() <= deduplicator.lineCapacity);
+                Assert.assertTrue(deduplicator.lines.capacity()
+                        + (deduplicator.bufferedStatements * SortingDeduplicator.INDEX_BYTES_PER_LINE) <= budget);
+            }
+            Assert.assertTrue(deduplicator.runs.size() > 1);
+        } finally {
+            deduplicator.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.dice_research.enexa.transform.filter;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.sse.SSE;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks the rules of the {@link StatementFilter} by sending a small dataset
+ * through a {@link FilteringStreamRDF}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StatementFilterTest {
+
+    protected static final String EX = "http://example.org/";
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"text\"@en , \"Text\"@en-US , \"Text\"@de , \"42\"^^<"
+            + XSDDatatype.XSDinteger.getURI() + "> .\n" + "ex:s2 ex:p1 ex:s1 ; ex:p3 \"plain\" .\n"
+            + "ex:g1 { ex:s1 ex:p1 ex:o2 . ex:s3 ex:p2 \"text\"@en . }\n" + "ex:g2 { ex:s1 ex:p1 ex:o3 . }\n";
+    /**
+     * The number of statements in {@link #DATA}.
+     */
+    protected static final int STATEMENTS = 10;
+
+    @Test
+    public void testEmptyFilter() {
+        StatementFilter filter = new StatementFilter();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertEquals(STATEMENTS, filter(filter).stream().count());
+        checkCounts(filter, STATEMENTS);
+    }
+
+    @Test
+    public void testPredicates() {
+        StatementFilter filter = new StatementFilter().allowPredicate(ex("p1")).allowPredicate(ex("p3"));
+        Assert.assertFalse(filter.isEmpty());
+        DatasetGraph result = filter(filter);
+        Assert.assertEquals(5, result.stream().count());
+        Assert.assertFalse(result.contains(Node.ANY, Node.ANY, ex("p2"), Node.ANY));
+        checkCounts(filter, 5);
+
+        filter = new StatementFilter().denyPredicate(ex("p1"));
+        result = filter(filter);
+        Assert.assertEquals(6, result.stream().count());
+        Assert.assertFalse(result.contains(Node.ANY, Node.ANY, ex("p1"), Node.ANY));
+        checkCounts(filter, 6);
+    }
+
+    @Test
+    public void testGraphs() {
+        StatementFilter filter = new StatementFilter().allowGraph(Quad.defaultGraphIRI).allowGraph(ex("g2"));
+        DatasetGraph result = filter(filter);
+        Assert.assertEquals(8, result.stream().count());
+        Assert.assertFalse(result.containsGraph(ex("g1")));
+
+        // The default graph can be given with any of its representations
+        filter = new StatementFilter().denyGraph(Quad.defaultGraphNodeGenerated).denyGraph(ex("g1"));
+        result = filter(filter);
+        Assert.assertEquals(1, result.stream().count());
+        Assert.assertTrue(result.contains(ex("g2"), ex("s1"), ex("p1"), ex("o3")));
+    }
+
+    @Test
+    public void testPatterns() {
+        StatementFilter filter = new StatementFilter().allowPattern(SSE.parseTriple("(?s <" + EX + "p1> ?o)"))
+                .denyPattern(SSE.parseTriple("(<" + EX + "s2> ?p ?o)"));
+        DatasetGraph result = filter(filter);
+        Assert.assertEquals(3, result.stream().count());
+        Assert.assertFalse(result.contains(Node.ANY, ex("s2"), Node.ANY, Node.ANY));
+        Assert.assertFalse(result.contains(Node.ANY, Node.ANY, ex("p2"), Node.ANY));
+    }
+
+    @Test
+    public void testLanguages() {
+        // Only language-tagged literals are affected
+        StatementFilter filter = new StatementFilter().allowLanguage("EN");
+        DatasetGraph result = filter(filter);
+        Assert.assertEquals(9, result.stream().count());
+        Assert.assertFalse(result.contains(Node.ANY, Node.ANY, Node.ANY, NodeFactory.createLiteral("Text", "de")));
+        Assert.assertTrue(
+                result.contains(Node.ANY, Node.ANY, Node.ANY, NodeFactory.createLiteral("Text", "en-US")));
+
+        filter = new StatementFilter().denyLanguage("en");
+        result = filter(filter);
+        Assert.assertEquals(7, result.stream().count());
+        Assert.assertTrue(result.contains(Node.ANY, Node.ANY, Node.ANY, NodeFactory.createLiteral("Text", "de")));
+    }
+
+    @Test
+    public void testDatatypes() {
+        // Only literals are affected
+        StatementFilter filter = new StatementFilter().allowDatatype(XSDDatatype.XSDinteger.getURI());
+        DatasetGraph result = filter(filter);
+        Assert.assertEquals(5, result.stream().count());
+        Assert.assertTrue(result.contains(Node.ANY, Node.ANY, Node.ANY,
+                NodeFactory.createLiteral("42", XSDDatatype.XSDinteger)));
+
+        filter = new StatementFilter().denyDatatype(XSDDatatype.XSDstring.getURI());
+        result = filter(filter);
+        Assert.assertEquals(9, result.stream().count());
+        Assert.assertFalse(result.contains(Node.ANY, Node.ANY, ex("p3"), Node.ANY));
+    }
+
+    protected static DatasetGraph filter(StatementFilter filter) {
+        DatasetGraph result = DatasetGraphFactory.create();
+        RDFParser.fromString(DATA).lang(Lang.TRIG)
+                .parse(new FilteringStreamRDF(StreamRDFLib.dataset(result), filter));
+        return result;
+    }
+
+    protected static void checkCounts(StatementFilter filter, long kept) {
+        Assert.assertEquals(kept, filter.getKeptStatements());
+        Assert.assertEquals(STATEMENTS - kept, filter.getDroppedStatements());
+    }
+
+    protected static Node ex(String localName) {
+        return NodeFactory.createURI(EX + localName);
+    }
+}
@@ -0,0 +1,71 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link AsyncOutputStream} writes the data in the given order
+ * and that errors of the target stream are reported instead of blocking the
+ * producer.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class AsyncOutputStreamTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) (i * 31);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (OutputStream out = new AsyncOutputStream(bout, 1000, 2)) {
+            out.write(data, 0, 500);
+            out.flush();
+            for (int i = 500; i < 600; ++i) {
+                out.write(data[i]);
+            }
+            out.write(data, 600, data.length - 600);
+        }
+        Assert.assertArrayEquals(data, bout.toByteArray());
+    }
+
+    @Test(timeout = 10000)
+    public void testUncheckedError() throws Exception {
+        OutputStream target = new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new IllegalStateException("Expected test exception.");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                write(b[off]);
+            }
+        };
+        byte[] chunk = new byte[1000];
+        Arrays.fill(chunk, (byte) 'a');
+        OutputStream out = new AsyncOutputStream(target, 100, 2);
+        try {
+            // Much more data than the chunks can hold
+            for (int i = 0; i < 1000; ++i) {
+                out.write(chunk);
+            }
+            Assert.fail("The error of the target stream hasn't been reported.");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        try {
+            out.close();
+            Assert.fail("The error of the target stream hasn't been reported by close().");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link BgzfInputStream} decompresses BGZF data (including
+ * blocks with optional header fields), falls back to a sequential
+ * decompression for appended plain gzip members and does not shut down a
+ * shared executor.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BgzfInputStreamTest {
+
+    @Test
+    public void testRead() throws Exception {
+        byte[] data = createData(42);
+        try (InputStream in = new BgzfInputStream(new ByteArrayInputStream(compress(data)), 2)) {
+            Assert.assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testAppendedGzipMembers() throws Exception {
+        byte[] data1 = createData(1);
+        byte[] data2 = createData(2);
+        byte[] data3 = createData(3);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        bout.write(compress(data1));
+        // A plain gzip member without extra field
+        try (OutputStream out = new GzipCompressorOutputStream(bout)) {
+            out.write(data2);
+        }
+        // A plain gzip member with a file name
+        ByteArrayOutputStream namedMember = new ByteArrayOutputStream();
+        GzipParameters parameters = new GzipParameters();
+        parameters.setFilename("test.nt");
+        try (OutputStream out = new GzipCompressorOutputStream(namedMember, parameters)) {
+            out.write(data3);
+        }
+        bout.write(namedMember.toByteArray());
+        byte[] expected = new byte[data1.length + data2.length + data3.length];
+        System.arraycopy(data1, 0, expected, 0, data1.length);
+        System.arraycopy(data2, 0, expected, data1.length, data2.length);
+        System.arraycopy(data3, 0, expected, data1.length + data2.length, data3.length);
+        InputStream source = new ByteArrayInputStream(bout.toByteArray());
+        Assert.assertTrue(BgzfInputStream.isBgzf(source));
+        try (InputStream in = new BgzfInputStream(source, 2)) {
+            Assert.assertArrayEquals(expected, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testOptionalHeaderFields() throws Exception {
+        byte[] data1 = "<http://example.org/s> <http://example.org/p> \"o\" .\n".getBytes(StandardCharsets.UTF_8);
+        byte[] data2 = createData(2);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        bout.write(createBlockWithOptionalFields(data1));
+        bout.write(compress(data2));
+        byte[] expected = new byte[data1.length + data2.length];
+        System.arraycopy(data1, 0, expected, 0, data1.length);
+        System.arraycopy(data2, 0, expected, data1.length, data2.length);
+        InputStream source = new ByteArrayInputStream(bout.toByteArray());
+        Assert.assertTrue(BgzfInputStream.isBgzf(source));
+        try (InputStream in = new BgzfInputStream(source, 2)) {
+            Assert.assertArrayEquals(expected, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testSharedExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            byte[] data1 = createData(1);
+            byte[] data2 = createData(2);
+            try (InputStream in1 = new BgzfInputStream(new ByteArrayInputStream(compress(data1)), 2, executor);
+                    InputStream in2 = new BgzfInputStream(new ByteArrayInputStream(compress(data2)), 2,
+                            executor)) {
+                // Read both streams alternately
+                byte[] read1 = new byte[data1.length];
+                byte[] read2 = new byte[data2.length];
+                int pos1 = 0;
+                int pos2 = 0;
+                while ((pos1 < read1.length) || (pos2 < read2.length)) {
+                    if (pos1 < read1.length) {
+                        pos1 += in1.read(read1, pos1, read1.length - pos1);
+                    }
+                    if (pos2 < read2.length) {
+                        pos2 += in2.read(read2, pos2, read2.length - pos2);
+                    }
+                }
+                Assert.assertArrayEquals(data1, read1);
+                Assert.assertArrayEquals(data2, read2);
+            }
+            // A stream that is closed early must not shut down the shared executor
+            try (InputStream in = new BgzfInputStream(new ByteArrayInputStream(compress(createData(3))), 2,
+                    executor)) {
+                in.read();
+            }
+            Assert.assertFalse(executor.isShutdown());
+            byte[] data = createData(4);
+            try (InputStream in = new BgzfInputStream(new ByteArrayInputStream(compress(data)), 2, executor)) {
+                Assert.assertArrayEquals(data, in.readAllBytes());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return text that fills several BGZF blocks
+     */
+    protected static byte[] createData(long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 300000) {
+            builder.append("<http://example.org/s").append(random.nextInt(100000)).append("> <http://example.org/p")
+                    .append(random.nextInt(10)).append("> \"").append(random.nextLong()).append("\" .\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a BGZF block that has a file name, a comment and a header CRC in
+     * addition to the extra field.
+     */
+    protected static byte[] createBlockWithOptionalFields(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[data.length + 1024];
+        int compressedLength = deflater.deflate(buffer);
+        deflater.end();
+        byte[] name = "test.nt\0".getBytes(StandardCharsets.US_ASCII);
+        byte[] comment = "a comment\0".getBytes(StandardCharsets.US_ASCII);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        // ID1, ID2, CM, FLG (FHCRC, FEXTRA, FNAME, FCOMMENT), MTIME, XFL, OS
+        header.writeBytes(new byte[] { 0x1f, (byte) 0x8b, 0x08, 0x1e, 0, 0, 0, 0, 0, (byte) 0xff });
+        // XLEN and the BC subfield with the block size - 1
+        int blockSize = 18 + name.length + comment.length + 2 + compressedLength + 8;
+        header.writeBytes(new byte[] { 6, 0, 'B', 'C', 2, 0, (byte) (blockSize - 1), (byte) ((blockSize - 1) >> 8) });
+        header.writeBytes(name);
+        header.writeBytes(comment);
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(header.toByteArray());
+        header.write((int) headerCrc.getValue());
+        header.write((int) (headerCrc.getValue() >> 8));
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        block.writeBytes(header.toByteArray());
+        block.write(buffer, 0, compressedLength);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeInt(block, (int) crc.getValue());
+        writeInt(block, data.length);
+        return block.toByteArray();
+    }
+
+    protected static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >> 8);
+        out.write(value >> 16);
+        out.write(value >> 24);
+    }
+
+    protected static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (OutputStream out = new BgzfOutputStream(bout, 2, null)) {
+            out.write(data);
+        }
+        return bout.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package org.dice_research.enexa.transform.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link ParallelBZip2InputStream} recovers from blocks that
+ * have been split at a false positive block header and that it checks the
+ * combined CRC of a stream.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParallelBZip2InputStreamTest {
+
+    @Test
+    public void testRead() throws Exception {
+        byte[] data = createData();
+        try (InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(compress(data)), 2)) {
+            Assert.assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testFalsePositiveBlockHeaders() throws Exception {
+        byte[] data = createData();
+        // Every block is split into two parts as if there was a block header
+        // within the compressed data
+        try (InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(compress(data)), 2) {
+            protected Deque<Callable<byte[]>> parts = new ArrayDeque<>();
+
+            @Override
+            protected Callable<byte[]> readNextBlock() throws IOException {
+                if (parts.isEmpty()) {
+                    BlockTask block = (BlockTask) super.readNextBlock();
+                    if (block == null) {
+                        return null;
+                    }
+                    long splitBit = block.blockBits / 2;
+                    parts.add(createPart(block, 0, splitBit, block.blockCrc, false, 0));
+                    parts.add(createPart(block, splitBit, block.blockBits,
+                            (int) getBits(block.stream, HEADER_BITS + splitBit + MAGIC_BITS, CRC_BITS),
+                            block.lastBlock, block.streamCrc));
+                }
+                return parts.poll();
+            }
+        }) {
+            Assert.assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongStreamCrc() throws Exception {
+        try (InputStream in = new ParallelBZip2InputStream(new ByteArrayInputStream(compress(createData())), 2) {
+            @Override
+            protected BlockTask createTask(long startBit, long endBit, boolean lastBlock, int streamCrc) {
+                return super.createTask(startBit, endBit, lastBlock, streamCrc ^ 1);
+            }
+        }) {
+            in.readAllBytes();
+        }
+    }
+
+    protected static ParallelBZip2InputStream.BlockTask createPart(ParallelBZip2InputStream.BlockTask block,
+            long startBit, long endBit, int blockCrc, boolean lastBlock, int streamCrc) {
+        ParallelBZip2InputStream.BitWriter writer = ParallelBZip2InputStream.startStream(block.blockSize100k,
+                block.stream.length);
+        writer.writeBits(block.stream, ParallelBZip2InputStream.HEADER_BITS + startBit, endBit - startBit);
+        return new ParallelBZip2InputStream.BlockTask(ParallelBZip2InputStream.endStream(writer, blockCrc),
+                endBit - startBit, block.blockSize100k, blockCrc, lastBlock, streamCrc);
+    }
+
+    /**
+     * @return text that fills several blocks of 100k
+     */
+    protected static byte[] createData() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 350000) {
+            builder.append("<http://example.org/s").append(random.nextInt(100000)).append("> <http://example.org/p")
+                    .append(random.nextInt(10)).append("> \"").append(random.nextLong()).append("\" .\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    protected static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (OutputStream out = new BZip2CompressorOutputStream(bout, 1)) {
+            out.write(data);
+        }
+        return bout.toByteArray();
+    }
+}
@@ -0,0 +1,89 @@
+package org.dice_research.enexa.transform.parse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Checks that the {@link NTuplesParser} produces the same statements as Jena's
+ * parser.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@RunWith(Parameterized.class)
+public class NTuplesParserTest {
+
+    protected String data;
+    protected Lang lang;
+
+    public NTuplesParserTest(String data, Lang lang) {
+        super();
+        this.data = data;
+        this.lang = lang;
+    }
+
+    @Test
+    public void test() throws Exception {
+        DatasetGraph expected = DatasetGraphFactory.create();
+        RDFParser.fromString(data).lang(lang).parse(StreamRDFLib.dataset(expected));
+
+        DatasetGraph parsed = DatasetGraphFactory.create();
+        NTuplesParser parser = new NTuplesParser(lang);
+        parser.parse(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), StreamRDFLib.dataset(parsed));
+
+        Assert.assertTrue("Parsed data is not isomorphic to the data parsed by Jena.",
+                IsoMatcher.isomorphic(expected, parsed));
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        String triples = "# A comment\n" //
+                + "<http://example.org/e1> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://example.org/c1> .\n"
+                + "<http://example.org/e1> <http://example.org/p1> \"plain\" .\n"
+                + "<http://example.org/e1>\t<http://example.org/p1>\t\"tab separated\"@en-GB.\n"
+                + "\n" //
+                + "<http://example.org/e2> <http://example.org/p1> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\r\n"
+                + "<http://example.org/e2> <http://example.org/p1> \"esc \\\"aped\\\" \\\\ \\n \\t \\u00E4 \\U0001F600\" .\n"
+                + "<http://example.org/e2> <http://example.org/p1> \"d\u00F6ner \u4E2D\u6587\" . # trailing comment\n"
+                + "<http://example.org/\\u00E43> <http://example.org/p2> _:b1 .\n"
+                + "_:b1 <http://example.org/p2> _:b.2.\n" //
+                + "_:b.2 <http://example.org/p2> <http://example.org/caf\u00E9> .\n"
+                + "<http://example.org/e1> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://example.org/c2> .";
+        String quads = triples.replace("<http://example.org/e1> <http://example.org/p1> \"plain\" .",
+                "<http://example.org/e1> <http://example.org/p1> \"plain\" <http://example.org/g1> .")
+                + "\n<http://example.org/e3> <http://example.org/p3> \"in graph\"@de _:g2 .\n"
+                + "_:b1 <http://example.org/p3> _:b1 <http://example.org/g1>.\n";
+        // RDF-star: quoted triples as subject and object (also nested)
+        String quotedTriples = "<< <http://example.org/e1> <http://example.org/p1> \"plain\" >> "
+                + "<http://example.org/certainty> \"0.9\"^^<http://www.w3.org/2001/XMLSchema#double> .\n"
+                + "<http://example.org/e2> <http://example.org/says> "
+                + "<<<http://example.org/e1> <http://example.org/p1> <http://example.org/e3>>> .\n"
+                + "<<<< <http://example.org/e1> <http://example.org/p1> \"text\"@en >> <http://example.org/p2> "
+                + "<http://example.org/e2> >> <http://example.org/p3> <http://example.org/e4> .\n";
+
+        List<Object[]> testConfigs = new ArrayList<Object[]>();
+        testConfigs.add(new Object[] { triples, Lang.NTRIPLES });
+        testConfigs.add(new Object[] { triples, Lang.NQUADS });
+        testConfigs.add(new Object[] { quads, Lang.NQUADS });
+        testConfigs.add(new Object[] { quotedTriples, Lang.NTRIPLES });
+        testConfigs.add(new Object[] { quotedTriples + "<< <http://example.org/e1> <http://example.org/p1> "
+                + "<http://example.org/e3> >> <http://example.org/p2> \"in graph\" <http://example.org/g1> .\n",
+                Lang.NQUADS });
+        return testConfigs;
+    }
+}
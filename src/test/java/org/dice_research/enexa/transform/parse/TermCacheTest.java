@@ -0,0 +1,72 @@
+package org.dice_research.enexa.transform.parse;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link TermCache} and the {@link CachingFactoryRDF}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class TermCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        TermCache cache = new TermCache(100);
+        Node iri = cache.getIri("http://example.org/a");
+        Assert.assertTrue(iri.isURI());
+        Assert.assertSame(iri, cache.getIri("http://example.org/a"));
+        Node literal = cache.getTypedLiteral("1", XSDDatatype.XSDinteger);
+        Assert.assertSame(literal, cache.getTypedLiteral("1", XSDDatatype.XSDinteger));
+        // Same lexical form but different datatype
+        Assert.assertNotSame(literal, cache.getTypedLiteral("1", XSDDatatype.XSDstring));
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(0.4, cache.getHitRate(), 0.0001);
+
+        // Long literals are neither cached nor counted
+        StringBuilder longLexicalForm = new StringBuilder();
+        while (longLexicalForm.length() <= TermCache.MAX_CACHED_LITERAL_LENGTH) {
+            longLexicalForm.append("long literal ");
+        }
+        Node longLiteral = cache.getTypedLiteral(longLexicalForm.toString(), XSDDatatype.XSDstring);
+        Assert.assertEquals(longLiteral, cache.getTypedLiteral(longLexicalForm.toString(), XSDDatatype.XSDstring));
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testEviction() {
+        int size = 10;
+        TermCache cache = new TermCache(size);
+        for (int i = 0; i < 1000; ++i) {
+            cache.getIri("http://example.org/e" + i);
+        }
+        Assert.assertEquals(1000, cache.getMisses());
+        // The cache can not hold more than its size
+        for (int i = 0; i < 1000; ++i) {
+            cache.getIri("http://example.org/e" + i);
+        }
+        Assert.assertTrue("The cache answered " + cache.getHits() + " requests.", cache.getHits() <= size);
+        Assert.assertEquals(2000, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void testFactory() {
+        TermCache cache = new TermCache(100);
+        CachingFactoryRDF factory = new CachingFactoryRDF(LabelToNode.createScopeByDocumentHash(), cache);
+        Node iri = factory.createURI("http://example.org/a");
+        Assert.assertSame(iri, factory.createURI("http://example.org/a"));
+        Assert.assertSame(iri, new CachingFactoryRDF(LabelToNode.createScopeByDocumentHash(), cache)
+                .createURI("http://example.org/a"));
+        // IRIs of the form <_:label> are blank nodes (as with the standard factory)
+        Node blankNode = factory.createURI("_:b0");
+        Assert.assertTrue(blankNode.isBlank());
+        Assert.assertSame(factory.createTypedLiteral("1", XSDDatatype.XSDinteger),
+                factory.createTypedLiteral("1", XSDDatatype.XSDinteger));
+    }
+}
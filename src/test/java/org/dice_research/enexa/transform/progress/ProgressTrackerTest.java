@@ -0,0 +1,62 @@
+package org.dice_research.enexa.transform.progress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks the counters of the {@link ProgressTracker} and the values that are
+ * derived from them by the {@link ProgressReport}.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ProgressTrackerTest {
+
+    @Test
+    public void testCounters() throws InterruptedException {
+        List<ProgressReport> reports = new ArrayList<>();
+        ProgressTracker tracker = new ProgressTracker(60000, reports::add);
+        tracker.start();
+        tracker.addInput(600);
+        tracker.addInput(400);
+        tracker.addConsumedBytes(250);
+        tracker.addWrittenStatements(10);
+        tracker.addWrittenStatements(5);
+        tracker.addWrittenBytes(300);
+        Thread.sleep(5);
+        ProgressReport report = tracker.createReport();
+        Assert.assertEquals(2, report.getInputFiles());
+        Assert.assertEquals(1000, report.getInputBytes());
+        Assert.assertEquals(250, report.getConsumedBytes());
+        Assert.assertEquals(15, report.getWrittenStatements());
+        Assert.assertEquals(300, report.getWrittenBytes());
+        Assert.assertEquals(0.25, report.getProgress(), 0.0);
+        Assert.assertTrue(report.getBytesPerSecond() > 0);
+        Assert.assertTrue(report.getStatementsPerSecond() > 0);
+        // The remaining 750 bytes take three times as long as the first 250
+        Assert.assertEquals(3 * report.getElapsedMillis(), report.getEtaMillis(), 1);
+
+        // The rates only cover the time since the previous report
+        tracker.addConsumedBytes(750);
+        report = tracker.createReport();
+        Assert.assertEquals(1.0, report.getProgress(), 0.0);
+        Assert.assertEquals(0, report.getEtaMillis());
+        Assert.assertEquals(0, report.getStatementsPerSecond(), 0.0);
+
+        // Closing the tracker sends a last report
+        Assert.assertTrue(reports.isEmpty());
+        tracker.close();
+        Assert.assertEquals(1, reports.size());
+        Assert.assertEquals(1000, reports.get(0).getConsumedBytes());
+    }
+
+    @Test
+    public void testUnknownProgress() {
+        ProgressReport report = new ProgressTracker(1000, null).createReport();
+        Assert.assertTrue(report.getProgress() < 0);
+        Assert.assertTrue(report.getEtaMillis() < 0);
+    }
+}
@@ -0,0 +1,86 @@
+package org.dice_research.enexa.transform.stats;
+
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.dice_research.enexa.transform.util.StatementHasher;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks the {@link DatasetStatistics} that are collected by a
+ * {@link StatisticsStreamRDF} and the accuracy of the {@link HyperLogLog}
+ * sketches.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StatisticsStreamRDFTest {
+
+    protected static final String EX = "http://example.org/";
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"text\"@en , \"42\" , ex:s2 .\n" + "ex:s2 ex:p1 ex:s1 ; ex:p2 _:b1 .\n"
+            + "_:b1 ex:p1 ex:o1 .\n" + "ex:g1 { ex:s1 ex:p1 ex:o1 . ex:s3 ex:p3 \"42\" . }\n";
+
+    @Test
+    public void testStatistics() {
+        DatasetGraph result = DatasetGraphFactory.create();
+        DatasetStatistics statistics = new DatasetStatistics();
+        RDFParser.fromString(DATA).lang(Lang.TRIG)
+                .parse(new StatisticsStreamRDF(StreamRDFLib.dataset(result), statistics));
+
+        // All statements are forwarded
+        Assert.assertEquals(9, result.stream().count());
+        Assert.assertEquals(9, statistics.getStatements());
+        Assert.assertEquals(3, statistics.getProperties());
+        Map<Node, Long> predicateCounts = statistics.getPredicateCounts();
+        Assert.assertEquals(Long.valueOf(4), predicateCounts.get(NodeFactory.createURI(EX + "p1")));
+        Assert.assertEquals(Long.valueOf(4), predicateCounts.get(NodeFactory.createURI(EX + "p2")));
+        Assert.assertEquals(Long.valueOf(1), predicateCounts.get(NodeFactory.createURI(EX + "p3")));
+        // The estimates are exact for such small numbers
+        // subjects: s1, s2, b1, s3
+        Assert.assertEquals(4, statistics.getDistinctSubjects());
+        // objects: o1, "text"@en, "42", s2, s1, b1
+        Assert.assertEquals(6, statistics.getDistinctObjects());
+        // entities: s1, s2, s3, b1, o1
+        Assert.assertEquals(5, statistics.getEntities());
+    }
+
+    @Test
+    public void testHyperLogLogAccuracy() {
+        StatementHasher hasher = new StatementHasher();
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        int count = 200000;
+        for (int i = 0; i < count; ++i) {
+            long hash = hasher.hash(NodeFactory.createURI(EX + i)).getHash1();
+            // Add every element twice and split the elements over both sketches
+            first.add(hash);
+            first.add(hash);
+            if ((i & 1) == 0) {
+                second.add(hash);
+            }
+        }
+        assertEstimate(count, first.estimate());
+        assertEstimate(count / 2, second.estimate());
+        // The second sketch only contains elements of the first sketch
+        second.merge(first);
+        assertEstimate(count, second.estimate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentPrecisions() {
+        new HyperLogLog(10).merge(new HyperLogLog(12));
+    }
+
+    protected static void assertEstimate(long expected, long estimate) {
+        // The standard error of the default precision is about 0.8%
+        Assert.assertEquals(expected, estimate, expected * 0.03);
+    }
+}
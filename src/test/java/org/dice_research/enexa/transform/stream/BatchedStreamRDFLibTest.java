@@ -0,0 +1,39 @@
+package org.dice_research.enexa.transform.stream;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link BatchedStreamRDFLib} only creates adapters for
+ * streams that do not implement the requested interface already.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchedStreamRDFLibTest {
+
+    @Test
+    public void testUnbatch() {
+        RecordingStreamRDF stream = new RecordingStreamRDF();
+        Assert.assertSame(stream, BatchedStreamRDFLib.unbatch(stream));
+
+        StreamRDF plainStream = StreamRDFLib.sinkNull();
+        BatchedStreamRDF adapter = BatchedStreamRDFLib.unbatch(plainStream);
+        Assert.assertTrue(adapter instanceof UnbatchingStreamRDF);
+        Assert.assertSame(plainStream, ((UnbatchingStreamRDF) adapter).target);
+    }
+
+    @Test
+    public void testBatch() {
+        RecordingStreamRDF stream = new RecordingStreamRDF();
+        Assert.assertSame(stream, BatchedStreamRDFLib.batch(stream, 10));
+
+        BatchedStreamRDF batchedStream = new UnbatchingStreamRDF(StreamRDFLib.sinkNull());
+        StreamRDF adapter = BatchedStreamRDFLib.batch(batchedStream, 10);
+        Assert.assertTrue(adapter instanceof BatchingStreamRDF);
+        Assert.assertSame(batchedStream, ((BatchingStreamRDF) adapter).target);
+        Assert.assertEquals(10, ((BatchingStreamRDF) adapter).batchSize);
+    }
+}
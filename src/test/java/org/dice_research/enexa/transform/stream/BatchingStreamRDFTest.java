@@ -0,0 +1,123 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.Arrays;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link BatchingStreamRDF} sends its batches when they are
+ * full, before prefixes and base IRIs, when the type of the statements changes
+ * and when it is finished.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class BatchingStreamRDFTest {
+
+    protected static final Node GRAPH = NodeFactory.createURI("http://example.org/g");
+
+    @Test
+    public void testFullBatches() {
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        BatchingStreamRDF stream = new BatchingStreamRDF(target, 2);
+        stream.start();
+        for (int i = 0; i < 5; ++i) {
+            stream.triple(createTriple(i));
+        }
+        stream.finish();
+
+        Assert.assertEquals(Arrays.asList("start", "triples:2", "triples:2", "triples:1", "finish"),
+                target.getEvents());
+        Assert.assertEquals(5, target.getStatements().size());
+        for (int i = 0; i < 5; ++i) {
+            Assert.assertEquals(createTriple(i), target.getStatements().get(i));
+        }
+    }
+
+    @Test
+    public void testFlushOnPrefixAndBase() {
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        BatchingStreamRDF stream = new BatchingStreamRDF(target, 10);
+        stream.start();
+        stream.triple(createTriple(0));
+        stream.prefix("ex", "http://example.org/");
+        stream.triple(createTriple(1));
+        stream.triple(createTriple(2));
+        stream.base("http://example.org/base/");
+        stream.quad(Quad.create(GRAPH, createTriple(3)));
+        stream.finish();
+
+        // The statements and the prefix/base events keep their order
+        Assert.assertEquals(Arrays.asList("start", "triples:1", "prefix:ex", "triples:2",
+                "base:http://example.org/base/", "quads:1", "finish"), target.getEvents());
+    }
+
+    @Test
+    public void testSwitchBetweenTriplesAndQuads() {
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        BatchingStreamRDF stream = new BatchingStreamRDF(target, 10);
+        stream.start();
+        stream.triple(createTriple(0));
+        stream.triple(createTriple(1));
+        stream.quad(Quad.create(GRAPH, createTriple(2)));
+        stream.triple(createTriple(3));
+        stream.quad(Quad.create(GRAPH, createTriple(4)));
+        stream.quad(Quad.create(GRAPH, createTriple(5)));
+        stream.finish();
+
+        // A switch of the statement type ends the current batch
+        Assert.assertEquals(
+                Arrays.asList("start", "triples:2", "quads:1", "triples:1", "quads:2", "finish"),
+                target.getEvents());
+        Assert.assertEquals(createTriple(3), target.getStatements().get(3));
+        Assert.assertEquals(Quad.create(GRAPH, createTriple(5)), target.getStatements().get(5));
+    }
+
+    @Test
+    public void testArrayOwnership() {
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        BatchingStreamRDF stream = new BatchingStreamRDF(target, 2);
+        stream.start();
+        stream.triple(createTriple(0));
+        stream.triple(createTriple(1));
+        stream.triple(createTriple(2));
+        stream.flush();
+        stream.triple(createTriple(3));
+        stream.triple(createTriple(4));
+        stream.finish();
+
+        // Every batch has its own array, which is not modified after it has been
+        // sent
+        Assert.assertEquals(3, target.getArrays().size());
+        Assert.assertNotSame(target.getArrays().get(0), target.getArrays().get(1));
+        Assert.assertNotSame(target.getArrays().get(1), target.getArrays().get(2));
+        Assert.assertNotSame(target.getArrays().get(0), target.getArrays().get(2));
+        Assert.assertArrayEquals(new Object[] { createTriple(0), createTriple(1) }, target.getArrays().get(0));
+        Assert.assertEquals(createTriple(2), target.getArrays().get(1)[0]);
+        Assert.assertNull(target.getArrays().get(1)[1]);
+        Assert.assertArrayEquals(new Object[] { createTriple(3), createTriple(4) }, target.getArrays().get(2));
+    }
+
+    @Test
+    public void testEmptyFlush() {
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        BatchingStreamRDF stream = new BatchingStreamRDF(target, 2);
+        stream.start();
+        stream.flush();
+        stream.prefix("ex", "http://example.org/");
+        stream.finish();
+
+        // No empty batches are sent
+        Assert.assertEquals(Arrays.asList("start", "prefix:ex", "finish"), target.getEvents());
+    }
+
+    protected static Triple createTriple(int id) {
+        return Triple.create(NodeFactory.createURI("http://example.org/s" + id),
+                NodeFactory.createURI("http://example.org/p"), NodeFactory.createLiteral(Integer.toString(id)));
+    }
+}
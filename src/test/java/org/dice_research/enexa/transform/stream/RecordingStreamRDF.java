@@ -0,0 +1,105 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Helper for the tests of the batch hand-off that implements both stream
+ * interfaces and records the received events as strings (e.g.,
+ * {@code "triples:2"} for a batch of two triples). The received statement
+ * arrays are kept to check their ownership.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RecordingStreamRDF implements StreamRDF, BatchedStreamRDF {
+
+    /**
+     * The received events in the order in which they have been received.
+     */
+    protected List<String> events = new ArrayList<>();
+    /**
+     * The received statement arrays.
+     */
+    protected List<Object[]> arrays = new ArrayList<>();
+    /**
+     * The received statements.
+     */
+    protected List<Object> statements = new ArrayList<>();
+
+    @Override
+    public void start() {
+        events.add("start");
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        events.add("triple");
+        statements.add(triple);
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        events.add("quad");
+        statements.add(quad);
+    }
+
+    @Override
+    public void triples(Triple[] triples, int size) {
+        events.add("triples:" + size);
+        arrays.add(triples);
+        for (int i = 0; i < size; ++i) {
+            statements.add(triples[i]);
+        }
+    }
+
+    @Override
+    public void quads(Quad[] quads, int size) {
+        events.add("quads:" + size);
+        arrays.add(quads);
+        for (int i = 0; i < size; ++i) {
+            statements.add(quads[i]);
+        }
+    }
+
+    @Override
+    public void base(String base) {
+        events.add("base:" + base);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+        events.add("prefix:" + prefix);
+    }
+
+    @Override
+    public void finish() {
+        events.add("finish");
+    }
+
+    /**
+     * @return the received events in the order in which they have been
+     *         received
+     */
+    public List<String> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the received statement arrays
+     */
+    public List<Object[]> getArrays() {
+        return arrays;
+    }
+
+    /**
+     * @return the received statements
+     */
+    public List<Object> getStatements() {
+        return statements;
+    }
+}
@@ -0,0 +1,74 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link StreamRDFQueueConsumer} sends the batches of its
+ * queue to the target and discards all batches after the first error.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class StreamRDFQueueConsumerTest {
+
+    @Test
+    public void test() throws InterruptedException {
+        BlockingQueue<StatementBatch> queue = new ArrayBlockingQueue<>(10);
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        StreamRDFQueueConsumer consumer = new StreamRDFQueueConsumer(queue, (BatchedStreamRDF) target);
+        queue.put(createTripleBatch(0, 2));
+        queue.put(new StatementBatch(null,
+                new Quad[] { Quad.create(BatchingStreamRDFTest.GRAPH, BatchingStreamRDFTest.createTriple(2)) }, 1,
+                Collections.singletonMap("ex", "http://example.org/")));
+        queue.put(StatementBatch.END);
+        // The consumer returns after the end marker
+        consumer.run();
+
+        Assert.assertNull(consumer.getError());
+        Assert.assertEquals(Arrays.asList("triples:2", "prefix:ex", "quads:1"), target.getEvents());
+        Assert.assertEquals(3, target.getStatements().size());
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        BlockingQueue<StatementBatch> queue = new ArrayBlockingQueue<>(10);
+        RuntimeException exception = new RuntimeException("Test exception");
+        RecordingStreamRDF target = new RecordingStreamRDF() {
+            @Override
+            public void triples(Triple[] triples, int size) {
+                super.triples(triples, size);
+                if (events.size() == 2) {
+                    throw exception;
+                }
+            }
+        };
+        StreamRDFQueueConsumer consumer = new StreamRDFQueueConsumer(queue, (BatchedStreamRDF) target);
+        for (int i = 0; i < 5; ++i) {
+            queue.put(createTripleBatch(i * 2, 2));
+        }
+        queue.put(StatementBatch.END);
+        consumer.run();
+
+        // The first error is kept and all following batches are dropped
+        Assert.assertSame(exception, consumer.getError());
+        Assert.assertEquals(Arrays.asList("triples:2", "triples:2"), target.getEvents());
+        // The queue has been emptied, i.e., producers are not blocked
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    protected static StatementBatch createTripleBatch(int firstId, int size) {
+        Triple[] triples = new Triple[size];
+        for (int i = 0; i < size; ++i) {
+            triples[i] = BatchingStreamRDFTest.createTriple(firstId + i);
+        }
+        return new StatementBatch(triples, null, size, null);
+    }
+}
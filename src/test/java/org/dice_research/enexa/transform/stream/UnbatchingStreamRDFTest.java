@@ -0,0 +1,40 @@
+package org.dice_research.enexa.transform.stream;
+
+import java.util.Arrays;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.Quad;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link UnbatchingStreamRDF} sends the valid statements of
+ * the received batches one by one.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class UnbatchingStreamRDFTest {
+
+    @Test
+    public void test() {
+        RecordingStreamRDF target = new RecordingStreamRDF();
+        UnbatchingStreamRDF stream = new UnbatchingStreamRDF(target);
+        stream.start();
+        stream.prefix("ex", "http://example.org/");
+        // Only the first elements of the arrays are valid
+        stream.triples(new Triple[] { BatchingStreamRDFTest.createTriple(0), BatchingStreamRDFTest.createTriple(1),
+                null }, 2);
+        stream.base("http://example.org/base/");
+        stream.quads(new Quad[] { Quad.create(BatchingStreamRDFTest.GRAPH, BatchingStreamRDFTest.createTriple(2)),
+                Quad.create(BatchingStreamRDFTest.GRAPH, BatchingStreamRDFTest.createTriple(3)) }, 1);
+        stream.finish();
+
+        Assert.assertEquals(Arrays.asList("start", "prefix:ex", "triple", "triple", "base:http://example.org/base/",
+                "quad", "finish"), target.getEvents());
+        Assert.assertEquals(Arrays.asList(BatchingStreamRDFTest.createTriple(0),
+                BatchingStreamRDFTest.createTriple(1),
+                Quad.create(BatchingStreamRDFTest.GRAPH, BatchingStreamRDFTest.createTriple(2))),
+                target.getStatements());
+    }
+}
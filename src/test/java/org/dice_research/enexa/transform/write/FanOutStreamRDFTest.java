@@ -0,0 +1,62 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link FanOutStreamRDF} writes all statements to all of its
+ * targets.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class FanOutStreamRDFTest {
+
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"text\"@en , _:b1 .\n" + "_:b1 ex:p1 ex:s1 .\n"
+            + "ex:g1 { ex:s1 ex:p1 ex:o2 . ex:s2 ex:p1 ex:o1 . }\n";
+
+    @Test
+    public void test() throws Exception {
+        DatasetGraph expected = DatasetGraphFactory.create();
+        RDFParser.fromString(DATA).lang(Lang.TRIG).parse(StreamRDFLib.dataset(expected));
+
+        Lang[] langs = new Lang[] { Lang.NQUADS, Lang.TRIG, Lang.RDFTHRIFT };
+        List<OutputTarget> targets = new ArrayList<>();
+        List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        for (int i = 0; i < langs.length; ++i) {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            outputs.add(bout);
+            OutputTarget target = new OutputTarget(new File("target-" + i), bout,
+                    Lang.NQUADS.equals(langs[i]) ? new NTuplesWriter(bout, Lang.NQUADS, 16)
+                            : StreamRDFWriter.getWriterStream(bout, langs[i]));
+            target.getStream().start();
+            targets.add(target);
+        }
+        // Use a tiny queue to make sure that the writers are blocked
+        FanOutStreamRDF stream = new FanOutStreamRDF(targets, 1);
+        // The parser starts and finishes the stream
+        RDFParser.fromString(DATA).lang(Lang.TRIG).parse(stream);
+
+        for (int i = 0; i < langs.length; ++i) {
+            DatasetGraph read = DatasetGraphFactory.create();
+            RDFParser.source(new ByteArrayInputStream(outputs.get(i).toByteArray())).lang(langs[i])
+                    .parse(StreamRDFLib.dataset(read));
+            Assert.assertTrue("Data written as " + langs[i] + " is not isomorphic to the given data.",
+                    IsoMatcher.isomorphic(expected, read));
+        }
+    }
+}
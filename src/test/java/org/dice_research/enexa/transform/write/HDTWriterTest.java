@@ -0,0 +1,90 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.dice_research.enexa.transform.Transformator;
+import org.dice_research.enexa.transform.TransformatorBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+
+/**
+ * Checks that the {@link HDTWriter} creates an HDT file that contains the
+ * statements of the default graph.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class HDTWriterTest {
+
+    protected static final String FORMAT_IRI = "https://www.iana.org/assignments/media-types/"
+            + HDTWriter.MEDIA_TYPE;
+
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"plain\" , \"text\"@en , \"42\"^^xsd:int , _:b1 .\n"
+            + "_:b1 ex:p1 \"with \\\"quotes\\\" and\\nline break\" .\n"
+            + "ex:g1 { ex:s2 ex:p1 ex:o2 . }\n";
+
+    @Test
+    public void test() throws Exception {
+        DatasetGraph dataset = DatasetGraphFactory.create();
+        RDFParser.fromString(DATA).lang(Lang.TRIG).parse(StreamRDFLib.dataset(dataset));
+
+        Set<String> expected = new HashSet<>();
+        dataset.getDefaultGraph().find().forEachRemaining(t -> expected.add(toString(t)));
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        HDTWriter writer = new HDTWriter(bout, "http://example.org/test", null);
+        writer.start();
+        // The statement of the named graph is ignored
+        dataset.find().forEachRemaining(writer::quad);
+        writer.finish();
+
+        Set<String> read = new HashSet<>();
+        try (HDT hdt = HDTManager.loadHDT(new ByteArrayInputStream(bout.toByteArray()))) {
+            Assert.assertEquals(expected.size(), hdt.getTriples().getNumberOfElements());
+            IteratorTripleString iterator = hdt.search("", "", "");
+            while (iterator.hasNext()) {
+                TripleString triple = iterator.next();
+                read.add(triple.getSubject().toString() + ' ' + triple.getPredicate().toString() + ' '
+                        + triple.getObject().toString());
+            }
+        }
+        Assert.assertEquals(expected, read);
+    }
+
+    /**
+     * Transforms several files with a single parser thread. The HDT file has to
+     * contain the statements of all files.
+     */
+    @Test
+    public void testSeveralFiles() throws Exception {
+        Transformator transformator = SequentialTransformation.transform(
+                new TransformatorBuilder().setOutputFormat(FORMAT_IRI),
+                "<http://example.org/s1> <http://example.org/p> <http://example.org/o1> .",
+                "<http://example.org/s2> <http://example.org/p> <http://example.org/o2> .",
+                "<http://example.org/s3> <http://example.org/p> \"o3\" .");
+        try (HDT hdt = HDTManager.loadHDT(transformator.getOutputFile().getPath())) {
+            Assert.assertEquals(3, hdt.getTriples().getNumberOfElements());
+            Assert.assertTrue(hdt.search("http://example.org/s2", "", "").hasNext());
+        }
+    }
+
+    protected static String toString(Triple triple) {
+        return HDTWriter.format(triple.getSubject()) + ' ' + HDTWriter.format(triple.getPredicate()) + ' '
+                + HDTWriter.format(triple.getObject());
+    }
+}
@@ -0,0 +1,107 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+import org.dice_research.enexa.transform.ProducedFile;
+import org.dice_research.enexa.transform.Transformator;
+import org.dice_research.enexa.transform.TransformatorBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the IDs and dictionaries written by the {@link IdTriplesWriter}
+ * lead to the same triples.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class IdTriplesWriterTest {
+
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"tab\\tand\\nline break\" , \"text\"@en , _:b1 .\n"
+            + "_:b1 ex:p1 ex:s1 ; ex:p2 \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n"
+            + "ex:o1 ex:p1 ex:s1 .\n";
+
+    @Test
+    public void test() throws Exception {
+        Graph expected = GraphFactory.createDefaultGraph();
+        RDFParser.fromString(DATA).lang(Lang.TTL).parse(expected);
+
+        File entityFile = File.createTempFile("test-output-", IdTriplesWriter.ENTITY_FILE_SUFFIX);
+        File relationFile = File.createTempFile("test-output-", IdTriplesWriter.RELATION_FILE_SUFFIX);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try {
+            IdTriplesWriter writer = new IdTriplesWriter(bout, entityFile, relationFile);
+            writer.start();
+            expected.find().forEachRemaining(writer::triple);
+            writer.finish();
+
+            Map<String, Node> entities = readDictionary(entityFile);
+            Map<String, Node> relations = readDictionary(relationFile);
+            Assert.assertEquals(6, entities.size());
+            Assert.assertEquals(2, relations.size());
+
+            Graph read = GraphFactory.createDefaultGraph();
+            for (String line : new String(bout.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+                String[] ids = line.split("\t");
+                Assert.assertEquals(3, ids.length);
+                read.add(Triple.create(entities.get(ids[0]), relations.get(ids[1]), entities.get(ids[2])));
+            }
+            Assert.assertTrue("Written data is not isomorphic to the given data.",
+                    IsoMatcher.isomorphic(expected, read));
+        } finally {
+            entityFile.delete();
+            relationFile.delete();
+        }
+    }
+
+    /**
+     * Transforms several files with a single parser thread. The dictionaries
+     * have to contain the terms of all files.
+     */
+    @Test
+    public void testSeveralFiles() throws Exception {
+        Transformator transformator = SequentialTransformation.transform(
+                new TransformatorBuilder().setOutputFormat(IdTriplesWriter.FORMAT_IRI),
+                "<http://example.org/s1> <http://example.org/p1> <http://example.org/o1> .",
+                "<http://example.org/s2> <http://example.org/p2> <http://example.org/o1> .",
+                "<http://example.org/s1> <http://example.org/p1> <http://example.org/o3> .");
+        List<ProducedFile> files = transformator.getProducedFiles();
+        Assert.assertEquals(3, files.size());
+        try {
+            Assert.assertEquals(3, Files.readAllLines(files.get(0).getFile().toPath()).size());
+            Assert.assertEquals(4, readDictionary(files.get(1).getFile()).size());
+            Assert.assertEquals(2, readDictionary(files.get(2).getFile()).size());
+        } finally {
+            for (ProducedFile file : files) {
+                file.getFile().delete();
+            }
+        }
+    }
+
+    protected static Map<String, Node> readDictionary(File file) throws Exception {
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Map<String, Node> dictionary = new HashMap<>();
+        for (int i = 0; i < lines.size(); ++i) {
+            String[] parts = lines.get(i).split("\t", 2);
+            // IDs are dense and assigned in the order of appearance
+            Assert.assertEquals(Integer.toString(i), parts[0]);
+            dictionary.put(parts[0], NodeFactoryExtra.parseNode(parts[1]));
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,125 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RiotParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link NTuplesPassthrough} class.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class NTuplesPassthroughTest {
+
+    @Test
+    public void testCopy() throws Exception {
+        String data = "\uFEFF_:a <http://example.org/_:p> \"lit _:z \\\" _:w\" .\n"
+                + "<http://example.org/s> <http://example.org/p> _:b1 . # comment _:c\n"
+                + "<http://example.org/s> <http://example.org/p> \"x\"^^<http://example.org/d> .";
+        String expected = "_:P1xa <http://example.org/_:p> \"lit _:z \\\" _:w\" .\n"
+                + "<http://example.org/s> <http://example.org/p> _:P1xb1 . # comment _:c\n"
+                + "<http://example.org/s> <http://example.org/p> \"x\"^^<http://example.org/d> .\n";
+        // Use tiny chunks to make sure that every chunk ends with a line
+        Assert.assertEquals(expected, copy(data, true, 8));
+        Assert.assertEquals(expected, copy(data, false, 1 << 20));
+    }
+
+    @Test
+    public void testQuotedTriples() throws Exception {
+        String data = "<< _:b <http://example.org/p> <http://example.org/o> >> <http://example.org/q> _:c .\n"
+                + "<<_:b <http://example.org/p> \"o\">> <http://example.org/q> <<<http://example.org/s> "
+                + "<http://example.org/p> _:d>> .";
+        String expected = "<< _:P1xb <http://example.org/p> <http://example.org/o> >> <http://example.org/q> _:P1xc .\n"
+                + "<<_:P1xb <http://example.org/p> \"o\">> <http://example.org/q> <<<http://example.org/s> "
+                + "<http://example.org/p> _:P1xd>> .\n";
+        Assert.assertEquals(expected, copy(data, true, 8));
+        Assert.assertEquals(expected, copy(data, false, 1 << 20));
+    }
+
+    @Test
+    public void testValidation() throws Exception {
+        String[] invalidData = new String[] { "<http://example.org/s> <http://example.org/p> <http://example.org/o>\n",
+                "\"s\" <http://example.org/p> <http://example.org/o> .\n",
+                "<http://example.org/s> <http://example.org/p> \"o .\n" };
+        for (String data : invalidData) {
+            try {
+                copy(data, true, 8);
+                Assert.fail("Invalid line hasn't been detected: " + data);
+            } catch (RiotParseException e) {
+                // expected
+            }
+            // Without validation, the data is simply copied
+            Assert.assertEquals(data, copy(data, false, 8));
+        }
+    }
+
+    @Test
+    public void testTransfer() throws Exception {
+        String data = "<http://example.org/s> <http://example.org/p> <http://example.org/o> .\n"
+                + "<http://example.org/s> <http://example.org/p> \"o\" .";
+        File file = File.createTempFile("test-input-", ".nt");
+        try {
+            Files.write(file.toPath(), ("\uFEFF" + data).getBytes(StandardCharsets.UTF_8));
+            Assert.assertFalse(NTuplesPassthrough.containsBlankNodes(file));
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            NTuplesWriter writer = new NTuplesWriter(bout, Lang.NTRIPLES, 16);
+            NTuplesPassthrough.transfer(file, writer);
+            writer.finish();
+            Assert.assertEquals(data + "\n", new String(bout.toByteArray(), StandardCharsets.UTF_8));
+
+            Files.write(file.toPath(), "_:b <http://example.org/p> \"o\" .\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(NTuplesPassthrough.containsBlankNodes(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testScanSegments() throws Exception {
+        String line1 = "<http://example.org/s> <http://example.org/p> <http://example.org/o> .\n";
+        String line2 = "<http://example.org/s> <http://example.org/p> \"o\" .\n";
+        String line3 = "_:b <http://example.org/p> \"o\" .\n";
+        File file = File.createTempFile("test-input-", ".nt");
+        try {
+            Files.write(file.toPath(), ("\uFEFF" + line1 + line2 + line3).getBytes(StandardCharsets.UTF_8));
+            long start = NTuplesPassthrough.getDataStart(file);
+            Assert.assertEquals(3, start);
+            long lineEnd1 = start + line1.length();
+            long lineEnd2 = lineEnd1 + line2.length();
+            // A segment ends with the last complete line
+            Assert.assertEquals(lineEnd1, NTuplesPassthrough.scanSegment(file, start, line1.length() + 10));
+            Assert.assertEquals(lineEnd2, NTuplesPassthrough.scanSegment(file, lineEnd1, 1000));
+            // Segments with blank nodes or without a complete line are not
+            // transferred
+            Assert.assertEquals(lineEnd2, NTuplesPassthrough.scanSegment(file, lineEnd2, 1000));
+            Assert.assertEquals(start, NTuplesPassthrough.scanSegment(file, start, 10));
+
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            NTuplesWriter writer = new NTuplesWriter(bout, Lang.NTRIPLES, 16);
+            NTuplesPassthrough.transfer(file, start, lineEnd1, writer);
+            NTuplesPassthrough.transfer(file, lineEnd1, lineEnd2, writer);
+            writer.finish();
+            Assert.assertEquals(line1 + line2, new String(bout.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            file.delete();
+        }
+    }
+
+    protected static String copy(String data, boolean validate, int chunkSize) throws Exception {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        new NTuplesPassthrough("P1x", validate, chunkSize).copy(
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), (chunk, length) -> {
+                    Assert.assertEquals('\n', chunk[length - 1]);
+                    bout.write(chunk, 0, length);
+                });
+        return new String(bout.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
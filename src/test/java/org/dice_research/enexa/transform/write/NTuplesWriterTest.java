@@ -0,0 +1,112 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Checks that the output of the {@link NTuplesWriter} can be read by Jena and
+ * leads to the same statements and that unpaired surrogates are replaced.
+ * 
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+@RunWith(Parameterized.class)
+public class NTuplesWriterTest {
+
+    protected String data;
+    protected Lang lang;
+    protected boolean useChannel;
+
+    public NTuplesWriterTest(String data, Lang lang, boolean useChannel) {
+        super();
+        this.data = data;
+        this.lang = lang;
+        this.useChannel = useChannel;
+    }
+
+    @Test
+    public void test() throws Exception {
+        DatasetGraph expected = DatasetGraphFactory.create();
+        RDFParser.fromString(data).lang(Lang.TRIG).parse(StreamRDFLib.dataset(expected));
+        if (Lang.NTRIPLES.equals(lang)) {
+            // named graphs are not written
+            expected = DatasetGraphFactory.wrap(expected.getDefaultGraph());
+        }
+
+        byte[] written;
+        // Use a tiny buffer to make sure that it is flushed and enlarged
+        if (useChannel) {
+            File file = File.createTempFile("test-output-", ".nt");
+            try (FileOutputStream fout = new FileOutputStream(file)) {
+                write(expected, new NTuplesWriter(fout.getChannel(), lang, 16, true));
+            }
+            written = Files.readAllBytes(file.toPath());
+        } else {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            write(expected, new NTuplesWriter(bout, lang, 16));
+            written = bout.toByteArray();
+        }
+        DatasetGraph read = DatasetGraphFactory.create();
+        RDFParser.source(new ByteArrayInputStream(written)).lang(lang).parse(StreamRDFLib.dataset(read));
+
+        Assert.assertTrue("Written data is not isomorphic to the given data.", IsoMatcher.isomorphic(expected, read));
+    }
+
+    @Test
+    public void testUnpairedSurrogates() throws Exception {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        NTuplesWriter writer = new NTuplesWriter(bout, lang, 16);
+        writer.start();
+        writer.triple(Triple.create(NodeFactory.createURI("http://example.org/s\uD800"),
+                NodeFactory.createURI("http://example.org/p"), NodeFactory.createLiteral("a\uDC00b\uD83D")));
+        writer.finish();
+        Assert.assertEquals(3, writer.getReplacedCharacters());
+        Assert.assertEquals("<http://example.org/s?> <http://example.org/p> \"a?b?\" .\n",
+                new String(bout.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    protected void write(DatasetGraph dataset, StreamRDF writer) {
+        writer.start();
+        dataset.find().forEachRemaining(writer::quad);
+        writer.finish();
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        String data = "@prefix ex: <http://example.org/> .\n" //
+                + "ex:e1 a ex:c1 ; ex:p1 \"plain\", \"tab\\tseparated\"@en-GB, \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n"
+                + "ex:e2 ex:p1 \"esc \\\"aped\\\" \\\\ \\n \\r \u00E4 \\U0001F600 \u4E2D\u6587\" .\n"
+                + "<http://example.org/caf\u00E9> ex:p2 _:b1 .\n" //
+                + "_:b1 ex:p2 [ ex:p3 _:b1 ] .\n" //
+                + "ex:g1 { ex:e3 ex:p3 \"in graph\"@de ; ex:p2 _:b1 . }\n";
+
+        List<Object[]> testConfigs = new ArrayList<Object[]>();
+        testConfigs.add(new Object[] { data, Lang.NTRIPLES, false });
+        testConfigs.add(new Object[] { data, Lang.NTRIPLES, true });
+        testConfigs.add(new Object[] { data, Lang.NQUADS, false });
+        testConfigs.add(new Object[] { data, Lang.NQUADS, true });
+        return testConfigs;
+    }
+}
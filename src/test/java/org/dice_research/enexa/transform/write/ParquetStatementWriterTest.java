@@ -0,0 +1,125 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.dice_research.enexa.transform.Transformator;
+import org.dice_research.enexa.transform.TransformatorBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the rows written by the {@link ParquetStatementWriter} can be
+ * read and lead to the same statements.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class ParquetStatementWriterTest {
+
+    protected static final String FORMAT_IRI = "https://www.iana.org/assignments/media-types/"
+            + ParquetStatementWriter.MEDIA_TYPE;
+
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"plain\" , \"text\"@en , \"42\"^^xsd:int , _:b1 .\n"
+            + "_:b1 ex:p1 \"http://example.org/o1\" .\n"
+            + "ex:g1 { ex:s2 ex:p1 ex:o2 . _:b2 ex:p2 \"in graph\"@de . }\n"
+            + "_:g2 { ex:s3 ex:p1 ex:o3 . }\n";
+
+    @Test
+    public void test() throws Exception {
+        DatasetGraph expected = DatasetGraphFactory.create();
+        RDFParser.fromString(DATA).lang(Lang.TRIG).parse(StreamRDFLib.dataset(expected));
+
+        File file = File.createTempFile("test-output-", ".parquet");
+        try (FileOutputStream fout = new FileOutputStream(file)) {
+            // Use tiny row groups to make sure that several groups are written
+            ParquetStatementWriter writer = new ParquetStatementWriter(fout, 64, CompressionCodecName.UNCOMPRESSED);
+            writer.start();
+            expected.find().forEachRemaining(writer::quad);
+            writer.finish();
+        }
+
+        DatasetGraph read = DatasetGraphFactory.create();
+        try (ParquetReader<Group> reader = ParquetReader
+                .builder(new GroupReadSupport(), new Path(file.getAbsolutePath())).build()) {
+            Group row;
+            while ((row = reader.read()) != null) {
+                Node graph = getOptional(row, ParquetStatementWriter.GRAPH_COLUMN) == null
+                        ? Quad.defaultGraphIRI
+                        : toNode(getOptional(row, ParquetStatementWriter.GRAPH_COLUMN));
+                Node object;
+                String datatype = getOptional(row, ParquetStatementWriter.OBJECT_DATATYPE_COLUMN);
+                String lexicalForm = row.getString(ParquetStatementWriter.OBJECT_COLUMN, 0);
+                if (datatype == null) {
+                    object = toNode(lexicalForm);
+                } else if (getOptional(row, ParquetStatementWriter.OBJECT_LANG_COLUMN) != null) {
+                    object = NodeFactory.createLiteral(lexicalForm,
+                            getOptional(row, ParquetStatementWriter.OBJECT_LANG_COLUMN));
+                } else {
+                    object = NodeFactory.createLiteral(lexicalForm,
+                            TypeMapper.getInstance().getSafeTypeByName(datatype));
+                }
+                read.add(graph, toNode(row.getString(ParquetStatementWriter.SUBJECT_COLUMN, 0)),
+                        toNode(row.getString(ParquetStatementWriter.PREDICATE_COLUMN, 0)), object);
+            }
+        } finally {
+            file.delete();
+        }
+
+        Assert.assertTrue("Written data is not isomorphic to the given data.", IsoMatcher.isomorphic(expected, read));
+    }
+
+    /**
+     * Transforms several files with a single parser thread. The Parquet file has
+     * to contain the rows of all files.
+     */
+    @Test
+    public void testSeveralFiles() throws Exception {
+        Transformator transformator = SequentialTransformation.transform(
+                new TransformatorBuilder().setOutputFormat(FORMAT_IRI),
+                "<http://example.org/s1> <http://example.org/p> <http://example.org/o1> .",
+                "<http://example.org/s2> <http://example.org/p> <http://example.org/o2> .",
+                "<http://example.org/s3> <http://example.org/p> \"o3\" .");
+        File file = transformator.getOutputFile();
+        Set<String> subjects = new HashSet<>();
+        try (ParquetReader<Group> reader = ParquetReader
+                .builder(new GroupReadSupport(), new Path(file.getAbsolutePath())).build()) {
+            Group row;
+            while ((row = reader.read()) != null) {
+                subjects.add(row.getString(ParquetStatementWriter.SUBJECT_COLUMN, 0));
+            }
+        } finally {
+            file.delete();
+        }
+        Assert.assertEquals(Set.of("http://example.org/s1", "http://example.org/s2", "http://example.org/s3"),
+                subjects);
+    }
+
+    protected static String getOptional(Group row, String column) {
+        return (row.getFieldRepetitionCount(column) > 0) ? row.getString(column, 0) : null;
+    }
+
+    protected static Node toNode(String value) {
+        return value.startsWith("_:") ? NodeFactory.createBlankNode(value.substring(2))
+                : NodeFactory.createURI(value);
+    }
+}
@@ -0,0 +1,110 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.dice_research.enexa.transform.ProducedFile;
+import org.dice_research.enexa.transform.Transformator;
+import org.dice_research.enexa.transform.TransformatorBuilder;
+import org.dice_research.enexa.vocab.IANAMediaType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link PartitioningStreamRDF} writes all statements and
+ * keeps the statements of a subject (or a named graph) in a single partition.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class PartitioningStreamRDFTest {
+
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"text\"@en , ex:s2 .\n" + "ex:s2 ex:p1 ex:s1 ; ex:p2 ex:s3 .\n"
+            + "ex:s3 ex:p1 ex:s1 .\n" + "ex:s4 ex:p1 ex:s1 .\n" + "ex:s5 ex:p1 \"42\" .\n"
+            + "ex:g1 { ex:s1 ex:p1 ex:o2 . ex:s6 ex:p1 ex:o1 . }\n" + "ex:g2 { ex:s1 ex:p1 ex:o3 . }\n";
+
+    @Test
+    public void test() throws Exception {
+        DatasetGraph expected = DatasetGraphFactory.create();
+        RDFParser.fromString(DATA).lang(Lang.TRIG).parse(StreamRDFLib.dataset(expected));
+
+        int partitionCount = 3;
+        List<OutputTarget> partitions = new ArrayList<>();
+        List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        for (int i = 0; i < partitionCount; ++i) {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            outputs.add(bout);
+            // Use a tiny buffer to make sure that it is flushed
+            NTuplesWriter writer = new NTuplesWriter(bout, Lang.NQUADS, 16);
+            writer.start();
+            partitions.add(new OutputTarget(new File("partition-" + i), bout, writer));
+        }
+        // Use a tiny queue to make sure that the writers are blocked
+        PartitioningStreamRDF stream = new PartitioningStreamRDF(partitions, 1);
+        // The parser starts and finishes the stream
+        RDFParser.fromString(DATA).lang(Lang.TRIG).parse(stream);
+
+        DatasetGraph read = DatasetGraphFactory.create();
+        Map<Node, Integer> keyPartitions = new HashMap<>();
+        for (int i = 0; i < partitionCount; ++i) {
+            DatasetGraph partition = DatasetGraphFactory.create();
+            RDFParser.source(new ByteArrayInputStream(outputs.get(i).toByteArray())).lang(Lang.NQUADS)
+                    .parse(StreamRDFLib.dataset(partition));
+            final int partitionId = i;
+            partition.find().forEachRemaining(quad -> {
+                read.add(quad);
+                Node key = quad.isDefaultGraph() ? quad.getSubject() : quad.getGraph();
+                Integer knownPartition = keyPartitions.putIfAbsent(key, partitionId);
+                if (knownPartition != null) {
+                    Assert.assertEquals("Statements of " + key + " are in different partitions.",
+                            knownPartition.intValue(), partitionId);
+                }
+            });
+        }
+        Assert.assertTrue("Written data is not isomorphic to the given data.", IsoMatcher.isomorphic(expected, read));
+        // The hash is stable, i.e., a subject always ends up in the same partition
+        for (Entry<Node, Integer> keyPartition : keyPartitions.entrySet()) {
+            Assert.assertEquals(keyPartition.getValue().intValue(), stream.getPartition(keyPartition.getKey()));
+        }
+    }
+
+    /**
+     * Transforms several files with a single parser thread into partitions. The
+     * partitions have to contain the statements of all files.
+     */
+    @Test
+    public void testSeveralFiles() throws Exception {
+        Transformator transformator = SequentialTransformation.transform(
+                new TransformatorBuilder().setOutputFormat(IANAMediaType.lang2Iri(Lang.NTRIPLES)).setPartitions(2),
+                "<http://example.org/s1> <http://example.org/p> <http://example.org/o1> .",
+                "<http://example.org/s2> <http://example.org/p> <http://example.org/o2> .",
+                "<http://example.org/s3> <http://example.org/p> \"o3\" .");
+        List<ProducedFile> files = transformator.getProducedFiles();
+        Assert.assertEquals(2, files.size());
+        DatasetGraph read = DatasetGraphFactory.create();
+        try {
+            for (ProducedFile file : files) {
+                RDFParser.source(file.getFile().getPath()).lang(Lang.NTRIPLES).parse(StreamRDFLib.dataset(read));
+            }
+        } finally {
+            for (ProducedFile file : files) {
+                file.getFile().delete();
+            }
+        }
+        Assert.assertEquals(3, read.getDefaultGraph().size());
+    }
+}
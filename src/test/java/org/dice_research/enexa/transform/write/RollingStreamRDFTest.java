@@ -0,0 +1,138 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.dice_research.enexa.transform.ChecksumAlgorithm;
+import org.dice_research.enexa.transform.ProducedFile;
+import org.dice_research.enexa.transform.Transformator;
+import org.dice_research.enexa.transform.TransformatorBuilder;
+import org.dice_research.enexa.vocab.IANAMediaType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link RollingStreamRDF} distributes the statements over
+ * readable shards.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class RollingStreamRDFTest {
+
+    protected static final String DATA = "@prefix ex: <http://example.org/> .\n"
+            + "ex:s1 ex:p1 ex:o1 ; ex:p2 \"text\"@en , ex:o2 .\n" + "ex:o2 ex:p1 ex:s1 .\n" + "ex:o1 ex:p1 ex:s1 .\n";
+
+    @Test
+    public void testStatementLimit() throws Exception {
+        List<File> files = new ArrayList<>();
+        try {
+            // Turtle shards can only be read if the prefix is repeated
+            RollingStreamRDF.ShardFactory factory = index -> {
+                File file = File.createTempFile("test-output-" + index + "-", ".ttl");
+                files.add(file);
+                FileOutputStream fout = new FileOutputStream(file);
+                OutputTarget shard = new OutputTarget(file, fout,
+                        StreamRDFWriter.getWriterStream(fout, Lang.TTL));
+                shard.getStream().start();
+                return shard;
+            };
+            RollingStreamRDF stream = new RollingStreamRDF(factory.createShard(0), factory, 0, 2);
+            List<File> reportedFiles = new ArrayList<>();
+            stream.setShardListener(reportedFiles::add);
+            Graph expected = write(stream);
+
+            // 5 triples lead to 3 shards without an empty shard at the end
+            Assert.assertEquals(3, stream.getShards());
+            Assert.assertEquals(files.subList(1, files.size()), reportedFiles);
+            int[] expectedSizes = new int[] { 2, 2, 1 };
+            Graph read = GraphFactory.createDefaultGraph();
+            for (int i = 0; i < files.size(); ++i) {
+                Graph shard = GraphFactory.createDefaultGraph();
+                RDFParser.source(files.get(i).toPath()).lang(Lang.TTL).parse(shard);
+                Assert.assertEquals(expectedSizes[i], shard.size());
+                shard.find().forEachRemaining(read::add);
+            }
+            Assert.assertTrue("Written data is not isomorphic to the given data.",
+                    IsoMatcher.isomorphic(expected, read));
+        } finally {
+            files.forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testSizeLimit() throws Exception {
+        List<File> files = new ArrayList<>();
+        try {
+            // The writer counts the bytes that are still in its buffer
+            RollingStreamRDF.ShardFactory factory = index -> {
+                File file = File.createTempFile("test-output-" + index + "-", ".nt");
+                files.add(file);
+                FileOutputStream fout = new FileOutputStream(file);
+                NTuplesWriter writer = new NTuplesWriter(fout.getChannel(), Lang.NTRIPLES,
+                        NTuplesWriter.DEFAULT_BUFFER_SIZE, true);
+                return new OutputTarget(file, fout, writer, writer::getWrittenBytes);
+            };
+            RollingStreamRDF stream = new RollingStreamRDF(factory.createShard(0), factory, 100, 0);
+            stream.setSizeCheckInterval(1);
+            Graph expected = write(stream);
+
+            Assert.assertTrue(stream.getShards() > 1);
+            Graph read = GraphFactory.createDefaultGraph();
+            for (int i = 0; i < files.size(); ++i) {
+                if (i < (files.size() - 1)) {
+                    Assert.assertTrue(files.get(i).length() >= 100);
+                }
+                RDFParser.source(files.get(i).toPath()).lang(Lang.NTRIPLES).parse(read);
+            }
+            Assert.assertTrue("Written data is not isomorphic to the given data.",
+                    IsoMatcher.isomorphic(expected, read));
+        } finally {
+            files.forEach(File::delete);
+        }
+    }
+
+    /**
+     * Transforms several files with a single parser thread. The end of an input
+     * file must not complete the current shard.
+     */
+    @Test
+    public void testSeveralFiles() throws Exception {
+        Transformator transformator = SequentialTransformation.transform(
+                new TransformatorBuilder().setOutputFormat(IANAMediaType.lang2Iri(Lang.NTRIPLES))
+                        .setShardStatements(2).setChecksumAlgorithm(ChecksumAlgorithm.CRC32C),
+                "<http://example.org/s1> <http://example.org/p> <http://example.org/o1> .",
+                "<http://example.org/s2> <http://example.org/p> <http://example.org/o2> .",
+                "<http://example.org/s3> <http://example.org/p> \"o3\" .");
+        List<ProducedFile> files = transformator.getProducedFiles();
+        try {
+            Assert.assertEquals(2, files.size());
+            Graph read = GraphFactory.createDefaultGraph();
+            for (ProducedFile file : files) {
+                Assert.assertNotNull(file.getChecksums());
+                RDFParser.source(file.getFile().toPath()).lang(Lang.NTRIPLES).parse(read);
+            }
+            Assert.assertEquals(3, read.size());
+        } finally {
+            for (ProducedFile file : files) {
+                file.getFile().delete();
+            }
+        }
+    }
+
+    protected static Graph write(RollingStreamRDF stream) {
+        Graph expected = GraphFactory.createDefaultGraph();
+        RDFParser.fromString(DATA).lang(Lang.TTL).parse(expected);
+        // The parser starts and finishes the stream
+        RDFParser.fromString(DATA).lang(Lang.TTL).parse(stream);
+        return expected;
+    }
+}
@@ -0,0 +1,49 @@
+package org.dice_research.enexa.transform.write;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.dice_research.enexa.transform.Transformator;
+import org.dice_research.enexa.transform.TransformatorBuilder;
+
+/**
+ * Helper for the tests of the writers that transforms several Turtle files
+ * with a single parser thread (i.e., parallelism 1). In this setup, the
+ * parsers work directly on the output stream of the transformator, which must
+ * nevertheless be started and finished only once.
+ *
+ * @author Michael R&ouml;der (michael.roeder@uni-paderborn.de)
+ *
+ */
+public class SequentialTransformation {
+
+    /**
+     * Writes the given Turtle documents into temporary files and transforms them
+     * one after the other with the given builder.
+     *
+     * @param builder         the builder of the transformator (the output file
+     *                        name and directory are set by this method)
+     * @param turtleDocuments the content of the input files
+     * @return the closed transformator
+     * @throws Exception if an error occurs while transforming the files
+     */
+    public static Transformator transform(TransformatorBuilder builder, String... turtleDocuments)
+            throws Exception {
+        File outputFile = File.createTempFile("test-output-", "");
+        builder.setParallelism(1).setOutputFileName(outputFile.getName())
+                .setOutputDirectory(outputFile.getParentFile());
+        Transformator transformator = builder.build();
+        try {
+            for (String document : turtleDocuments) {
+                File inputFile = File.createTempFile("test-input-", ".ttl");
+                inputFile.deleteOnExit();
+                FileUtils.writeStringToFile(inputFile, document, StandardCharsets.UTF_8);
+                transformator.addFile2Stream(inputFile);
+            }
+        } finally {
+            transformator.close();
+        }
+        return transformator;
+    }
+}